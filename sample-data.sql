@@ -0,0 +1,43 @@
+USE hospital_info_system;
+-- Sample rows for a development database.
+-- Create the database with CREATE DATABASE hospital_info_system, start the
+-- application once so it creates the tables, then run this script.
+-- Insert sample departments
+INSERT INTO department (code, name, building) VALUES
+('CARD', 'Cardiology', 'Building A'),
+('NEUR', 'Neurology', 'Building B'),
+('PEDI', 'Pediatrics', 'Building C');
+-- Insert sample employees
+INSERT INTO employee (first_name, last_name, address, telephone) VALUES
+('John', 'Mensa', 'PLT No. 223, KSI', '0240-123-456'),
+('Appiah', 'Minkah', 'Ejisu 113 Ave', '0240-321-654'),
+('Steelman', 'Bender', 'Tech Ave 114', '0240-112-112'),
+('Kwaa', 'Pia', 'Bomso Road 112', '0240-321-321'),
+('Abena', 'Memuna', 'Ahodwo Est 133', '0240-191-000');
+-- Insert doctors (using employee IDs)
+INSERT INTO doctor (employee_id, speciality) VALUES
+(1, 'Cardiology'),
+(2, 'Neurology');
+-- Update departments with directors
+UPDATE department SET director_id = 1 WHERE code = 'CARD';
+UPDATE department SET director_id = 2 WHERE code = 'NEUR';
+-- Insert nurses
+INSERT INTO nurse (employee_id, rotation, salary, department_id) VALUES
+(3, 'Morning', 65000.00, 1),
+(4, 'Evening', 67000.00, 2),
+(5, 'Night', 70000.00, 3);
+-- Insert wards
+INSERT INTO ward (ward_number, bed_count, supervisor_id, department_id) VALUES
+(1, 10, 3, 1),
+(2, 8, 4, 2),
+(1, 12, 5, 3);
+-- Insert patients
+INSERT INTO patient (first_name, last_name, address, telephone) VALUES
+('Koo', 'Poku', 'BLK No. 32, Juaben ', '0240-222-111'),
+('Ama', 'Mansa', 'Ahodwo 113, KSI', '0240-111-222'),
+('Kofi', 'Peter', 'PLT No. 32, KSI', '0240-111-334');
+-- Insert hospitalizations
+INSERT INTO hospitalization (patient_id, ward_id, bed_number, diagnosis, doctor_id, admission_date, discharge_date) VALUES
+(1, 1, 3, 'Hypertension', 1, '2024-03-01', '2024-03-07'),
+(2, 2, 5, 'Migraine', 2, '2024-03-10', NULL),
+(3, 3, 7, 'Pneumonia', 1, '2024-03-15', '2024-03-22');
@@ -0,0 +1,135 @@
+package com.hospital.bench;
+
+import com.hospital.dao.DoctorDAO;
+import com.hospital.dao.NurseDAO;
+import com.hospital.dao.Page;
+import com.hospital.dao.PatientDAO;
+import com.hospital.model.Doctor;
+import com.hospital.model.Nurse;
+import com.hospital.model.Patient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Read-path benchmarks for the DAOs: single-row reads by primary key,
+ * full-table scans and streams, keyset pages and LIKE searches, at several table sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class DaoReadBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    private PatientDAO patientDAO;
+    private DoctorDAO doctorDAO;
+    private NurseDAO nurseDAO;
+
+    // Token for the page starting halfway through the patient table, sorted by last name
+    private String middlePageToken;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        EmbeddedDatabase.start(rows);
+        patientDAO = new PatientDAO();
+        doctorDAO = new DoctorDAO();
+        nurseDAO = new NurseDAO();
+        // Skip to the middle row and read just it, rather than building half the table for a token
+        middlePageToken = patientDAO.readPatientsPageSkipping(null, rows / 2 - 1, 1, "last_name").getNextPageToken();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        EmbeddedDatabase.stop();
+    }
+
+    @Benchmark
+    public Patient readPatient() {
+        return patientDAO.readPatient(randomId());
+    }
+
+    @Benchmark
+    public Doctor readDoctor() {
+        return doctorDAO.readDoctor(randomDoctorId());
+    }
+
+    @Benchmark
+    public Nurse readNurse() {
+        return nurseDAO.readNurse(randomNurseId());
+    }
+
+    @Benchmark
+    public List<Patient> readAllPatients() {
+        return patientDAO.readAllPatients();
+    }
+
+    @Benchmark
+    public long streamAllPatients() {
+        try (Stream<Patient> patients = patientDAO.streamAllPatients()) {
+            return patients.count();
+        }
+    }
+
+    @Benchmark
+    public List<Nurse> readAllNurses() {
+        return nurseDAO.readAllNurses();
+    }
+
+    @Benchmark
+    public Page<Patient> readPatientsFirstPage() {
+        return patientDAO.readPatientsPage(null, 100, "last_name");
+    }
+
+    @Benchmark
+    public Page<Patient> readPatientsMiddlePage() {
+        return patientDAO.readPatientsPage(middlePageToken, 100, "last_name");
+    }
+
+    @Benchmark
+    public List<Patient> searchPatientsByName() {
+        return patientDAO.searchPatientsByName("ansa");
+    }
+
+    @Benchmark
+    public List<Doctor> searchDoctors() {
+        return doctorDAO.searchDoctors("Boat");
+    }
+
+    @Benchmark
+    public List<Nurse> searchNurses() {
+        return nurseDAO.searchNurses("Kwab");
+    }
+
+    private int randomId() {
+        return ThreadLocalRandom.current().nextInt(1, rows + 1);
+    }
+
+    // EmbeddedDatabase makes the even employees doctors and the odd ones nurses
+    private int randomDoctorId() {
+        return 2 * ThreadLocalRandom.current().nextInt(1, rows / 2 + 1);
+    }
+
+    private int randomNurseId() {
+        return 2 * ThreadLocalRandom.current().nextInt(0, (rows + 1) / 2) + 1;
+    }
+}
@@ -0,0 +1,110 @@
+package com.hospital.bench;
+
+import com.hospital.dao.DoctorDAO;
+import com.hospital.dao.HospitalizationDAO;
+import com.hospital.dao.NurseDAO;
+import com.hospital.dao.PatientDAO;
+import com.hospital.dao.WardDAO;
+import com.hospital.model.Doctor;
+import com.hospital.model.Hospitalization;
+import com.hospital.model.Nurse;
+import com.hospital.model.Patient;
+import com.hospital.model.Ward;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-path benchmarks for the DAOs. Doctor and nurse creation each insert
+ * into employee and the subtype table in one transaction. The admission
+ * benchmark has several threads admitting to and discharging from one ward.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx2g"})
+public class DaoWriteBenchmark {
+    private static final int BULK_ROWS = 1_000;
+    private static final LocalDate FIRST_ADMISSION_DAY = LocalDate.of(2000, 1, 1);
+
+    @Param({"10000"})
+    private int rows;
+
+    private PatientDAO patientDAO;
+    private DoctorDAO doctorDAO;
+    private NurseDAO nurseDAO;
+    private HospitalizationDAO hospitalizationDAO;
+    private int wardId;
+    private final AtomicInteger admissionDay = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        EmbeddedDatabase.start(rows);
+        patientDAO = new PatientDAO();
+        doctorDAO = new DoctorDAO();
+        nurseDAO = new NurseDAO();
+        hospitalizationDAO = new HospitalizationDAO();
+        wardId = new WardDAO().createWard(new Ward(99, 200, null, 1));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        EmbeddedDatabase.stop();
+    }
+
+    @Benchmark
+    public int createPatient() {
+        return patientDAO.createPatient(new Patient("Ama", "Mansa", "Ahodwo 113, KSI", "0240-111-222"));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK_ROWS)
+    public int createPatientsBatched() {
+        List<Patient> patients = new ArrayList<>(BULK_ROWS);
+        for (int i = 0; i < BULK_ROWS; i++) {
+            patients.add(new Patient("Ama", "Mansa", "Ahodwo 113, KSI", "0240-111-222"));
+        }
+        return patientDAO.createPatients(patients);
+    }
+
+    @Benchmark
+    public int createDoctor() {
+        return doctorDAO.createDoctor(new Doctor("John", "Mensah", "PLT No. 223, KSI", "0240-123-456", "Cardiology"));
+    }
+
+    @Benchmark
+    public int createNurse() {
+        return nurseDAO.createNurse(new Nurse("Abena", "Memuna", "Ahodwo Est 133", "0240-191-000",
+                "Night", new BigDecimal("70000.00"), 1));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean admitAndDischargeContended() {
+        // A new day each time, so a discharged bed can be reused at once
+        LocalDate day = FIRST_ADMISSION_DAY.plusDays(admissionDay.incrementAndGet());
+        int id = hospitalizationDAO.admitToFreeBed(new Hospitalization(1, wardId, 0, "Observation", 1, day));
+        return id > 0 && hospitalizationDAO.dischargePatient(id, day);
+    }
+}
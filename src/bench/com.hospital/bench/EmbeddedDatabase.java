@@ -0,0 +1,134 @@
+package com.hospital.bench;
+
+import com.hospital.util.DatabaseUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * In-process H2 database, in MySQL compatibility mode, standing in for the
+ * hospital's MySQL server during benchmarks.
+ * Creates the schema with the migrations, loads sample-data.sql and fills
+ * the tables with generated rows.
+ */
+final class EmbeddedDatabase {
+    static final String JDBC_URL = "jdbc:h2:mem:hospital_bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    static final String[] FIRST_NAMES = {
+            "Kwame", "Ama", "Kofi", "Abena", "Yaw", "Akosua", "Kwabena", "Adwoa", "Kwaku", "Afua",
+            "John", "Mary", "Peter", "Grace", "Samuel", "Esther", "Daniel", "Ruth", "Joseph", "Sarah"
+    };
+    static final String[] LAST_NAMES = {
+            "Mensah", "Mansa", "Poku", "Minkah", "Owusu", "Boateng", "Asante", "Osei", "Appiah", "Darko",
+            "Bender", "Pia", "Memuna", "Peter", "Agyeman", "Badu", "Frimpong", "Opoku", "Addo", "Quaye"
+    };
+
+    private static final int BATCH_SIZE = 1_000;
+
+    private EmbeddedDatabase() {
+    }
+
+    /**
+     * Point DatabaseUtil at a fresh in-memory database with the hospital schema
+     * and the given number of patient and employee rows.
+     * @param rows number of patients, and of employees (split between doctors and nurses)
+     */
+    static void start(int rows) throws SQLException, IOException {
+        System.setProperty("hospital.db.url", JDBC_URL);
+        System.setProperty("hospital.db.user", "sa");
+        System.setProperty("hospital.db.password", "");
+
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP ALL OBJECTS");
+            }
+            DatabaseUtil.migrate();
+            loadSampleData(conn);
+            populate(conn, rows);
+        }
+    }
+
+    static void stop() {
+        DatabaseUtil.closeConnection();
+    }
+
+    private static void loadSampleData(Connection conn) throws SQLException, IOException {
+        String script;
+        try (InputStream in = EmbeddedDatabase.class.getResourceAsStream("/sample-data.sql")) {
+            if (in == null) {
+                throw new IOException("sample-data.sql not found on the classpath");
+            }
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : script.split(";")) {
+                String trimmed = sql.trim();
+                // H2 has a single schema per database, so skip the MySQL database selection
+                if (trimmed.isEmpty() || trimmed.startsWith("USE ")) {
+                    continue;
+                }
+                stmt.execute(trimmed);
+            }
+        }
+    }
+
+    private static void populate(Connection conn, int rows) throws SQLException {
+        conn.setAutoCommit(false);
+
+        insertPeople(conn, "INSERT INTO patient (first_name, last_name, address, telephone) VALUES (?, ?, ?, ?)", rows);
+
+        long firstEmployeeId;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(employee_id), 0) + 1 FROM employee")) {
+            rs.next();
+            firstEmployeeId = rs.getLong(1);
+        }
+        insertPeople(conn, "INSERT INTO employee (first_name, last_name, address, telephone) VALUES (?, ?, ?, ?)", rows);
+
+        // Even generated employees become doctors, odd ones nurses
+        try (PreparedStatement doctors = conn.prepareStatement(
+                "INSERT INTO doctor (employee_id, speciality) " +
+                        "SELECT employee_id, CASE MOD(employee_id, 4) WHEN 0 THEN 'Cardiology' " +
+                        "WHEN 2 THEN 'Neurology' ELSE 'Pediatrics' END " +
+                        "FROM employee WHERE employee_id >= ? AND MOD(employee_id, 2) = 0");
+             PreparedStatement nurses = conn.prepareStatement(
+                     "INSERT INTO nurse (employee_id, rotation, salary, department_id) " +
+                             "SELECT employee_id, CASE MOD(employee_id, 3) WHEN 0 THEN 'Morning' " +
+                             "WHEN 1 THEN 'Evening' ELSE 'Night' END, 65000.00, MOD(employee_id, 3) + 1 " +
+                             "FROM employee WHERE employee_id >= ? AND MOD(employee_id, 2) = 1")) {
+            doctors.setLong(1, firstEmployeeId);
+            doctors.executeUpdate();
+            nurses.setLong(1, firstEmployeeId);
+            nurses.executeUpdate();
+        }
+
+        conn.commit();
+        conn.setAutoCommit(true);
+    }
+
+    private static void insertPeople(Connection conn, String sql, int rows) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < rows; i++) {
+                stmt.setString(1, FIRST_NAMES[i % FIRST_NAMES.length]);
+                stmt.setString(2, LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length]);
+                stmt.setString(3, "PLT No. " + i + ", KSI");
+                stmt.setString(4, String.format("0240-%03d-%03d", (i / 1000) % 1000, i % 1000));
+                stmt.addBatch();
+
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    stmt.executeBatch();
+                    conn.commit();
+                }
+            }
+            stmt.executeBatch();
+            conn.commit();
+        }
+    }
+}
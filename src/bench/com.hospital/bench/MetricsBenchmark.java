@@ -0,0 +1,45 @@
+package com.hospital.bench;
+
+import com.hospital.util.DaoMetrics;
+import com.hospital.util.MethodMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of timing one DAO call: the System.nanoTime() on entry plus
+ * {@link MethodMetrics#record(long)} on the way out, alone and with every
+ * core recording into the same method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsBenchmark {
+
+    private final MethodMetrics metrics = DaoMetrics.forMethod(MetricsBenchmark.class, "timedCall");
+
+    @Benchmark
+    public void recordCall() {
+        long start = System.nanoTime();
+        metrics.record(start);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void recordCallContended() {
+        long start = System.nanoTime();
+        metrics.record(start);
+    }
+}
@@ -0,0 +1,113 @@
+package com.hospital.dao;
+
+import com.hospital.model.Department;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous Department Data Access Object.
+ * Offers the operations of {@link DepartmentDAO} as CompletableFutures, run on a
+ * {@link DaoExecutor}. Like the blocking DAO, a failed operation completes
+ * its future with -1, null, false or an empty list rather than failing it.
+ */
+public class AsyncDepartmentDAO {
+    private final DepartmentDAO dao;
+    private final DaoExecutor executor;
+
+    // Default constructor, runs on the shared executor
+    public AsyncDepartmentDAO() {
+        this(new DepartmentDAO(), DaoExecutor.getShared());
+    }
+
+    // Constructor with the DAO to call and the executor to run it on
+    public AsyncDepartmentDAO(DepartmentDAO dao, DaoExecutor executor) {
+        this.dao = dao;
+        this.executor = executor;
+    }
+
+    /**
+     * Create a new department record in the database
+     * @param department Department object to be added
+     * @return a future completed with the generated department ID if successful, -1 if failed
+     */
+    public CompletableFuture<Integer> createDepartment(Department department) {
+        return executor.submit(() -> dao.createDepartment(department));
+    }
+
+    /**
+     * Read a department record from the database by ID
+     * @param departmentId the ID of the department to retrieve
+     * @return a future completed with the Department object if found, null if not found
+     */
+    public CompletableFuture<Department> readDepartment(int departmentId) {
+        return executor.submit(() -> dao.readDepartment(departmentId));
+    }
+
+    /**
+     * Read a department record by its code
+     * @param code the department code, e.g. CARD
+     * @return a future completed with the Department object if found, null if not found
+     */
+    public CompletableFuture<Department> readDepartmentByCode(String code) {
+        return executor.submit(() -> dao.readDepartmentByCode(code));
+    }
+
+    /**
+     * Read all departments
+     * @return a future completed with a list of all Department objects
+     */
+    public CompletableFuture<List<Department>> readAllDepartments() {
+        return executor.submit(() -> dao.readAllDepartments());
+    }
+
+    /**
+     * Read one page of departments in department ID order, using keyset pagination
+     * @param pageToken token from the previous page, or null for the first page
+     * @param limit maximum number of departments in the page
+     * @return a future completed with the page, with a token for the next page if there is one
+     */
+    public CompletableFuture<Page<Department>> readDepartmentsPage(String pageToken, int limit) {
+        return executor.submit(() -> dao.readDepartmentsPage(pageToken, limit));
+    }
+
+    /**
+     * Read one page of departments ordered by a column, using keyset pagination.
+     * Ties are broken by ID, and deep pages cost the same as the first one.
+     * @param pageToken token from the previous page with the same sort column, or null for the first page
+     * @param limit maximum number of departments in the page
+     * @param sortColumn code or name, or null to sort by ID
+     * @return a future completed with the page, with a token for the next page if there is one;
+     *         it fails with IllegalArgumentException if the limit, sort column or page token is invalid
+     */
+    public CompletableFuture<Page<Department>> readDepartmentsPage(String pageToken, int limit, String sortColumn) {
+        return executor.submit(() -> dao.readDepartmentsPage(pageToken, limit, sortColumn));
+    }
+
+    /**
+     * Update a department record in the database
+     * @param department Department object with updated information
+     * @return a future completed with true if update was successful, false otherwise
+     */
+    public CompletableFuture<Boolean> updateDepartment(Department department) {
+        return executor.submit(() -> dao.updateDepartment(department));
+    }
+
+    /**
+     * Delete a department record from the database
+     * @param departmentId the ID of the department to delete
+     * @return a future completed with true if deletion was successful, false otherwise
+     */
+    public CompletableFuture<Boolean> deleteDepartment(int departmentId) {
+        return executor.submit(() -> dao.deleteDepartment(departmentId));
+    }
+
+    /**
+     * Search for departments by code or name
+     * @param query the code or name to search for
+     * @return a future completed with a list of matching Department objects
+     */
+    public CompletableFuture<List<Department>> searchDepartments(String query) {
+        return executor.submit(() -> dao.searchDepartments(query));
+    }
+}
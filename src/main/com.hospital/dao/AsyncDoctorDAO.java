@@ -0,0 +1,149 @@
+package com.hospital.dao;
+
+import com.hospital.model.Doctor;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous Doctor Data Access Object.
+ * Offers the operations of {@link DoctorDAO} as CompletableFutures, run on a
+ * {@link DaoExecutor}. Like the blocking DAO, a failed operation completes
+ * its future with -1, null, false or an empty list rather than failing it.
+ */
+public class AsyncDoctorDAO {
+    private final DoctorDAO dao;
+    private final DaoExecutor executor;
+
+    // Default constructor, runs on the shared executor
+    public AsyncDoctorDAO() {
+        this(new DoctorDAO(), DaoExecutor.getShared());
+    }
+
+    // Constructor with the DAO to call and the executor to run it on
+    public AsyncDoctorDAO(DoctorDAO dao, DaoExecutor executor) {
+        this.dao = dao;
+        this.executor = executor;
+    }
+
+    /**
+     * Create a new doctor record in the database
+     * @param doctor Doctor object to be added
+     * @return a future completed with the generated employee ID if successful, -1 if failed
+     */
+    public CompletableFuture<Integer> createDoctor(Doctor doctor) {
+        return executor.submit(() -> dao.createDoctor(doctor));
+    }
+
+    /**
+     * Create many doctor records using JDBC batching, with the default batch size
+     * @param doctors Doctor objects to be added
+     * @return a future completed with the number of doctors created
+     * @see #createDoctors(List, int)
+     */
+    public CompletableFuture<Integer> createDoctors(List<Doctor> doctors) {
+        return executor.submit(() -> dao.createDoctors(doctors));
+    }
+
+    /**
+     * Create many doctor records using JDBC batching.
+     * Each batch inserts into the employee and doctor tables and is committed on
+     * its own; every created Doctor object is updated with its generated employee ID.
+     * Stops at the first batch that fails.
+     * @param doctors Doctor objects to be added
+     * @param batchSize number of doctors sent and committed together
+     * @return a future completed with the number of doctors created
+     */
+    public CompletableFuture<Integer> createDoctors(List<Doctor> doctors, int batchSize) {
+        return executor.submit(() -> dao.createDoctors(doctors, batchSize));
+    }
+
+    /**
+     * Read a doctor record from the database by ID
+     * @param employeeId the ID of the doctor to retrieve
+     * @return a future completed with the Doctor object if found, null if not found
+     */
+    public CompletableFuture<Doctor> readDoctor(int employeeId) {
+        return executor.submit(() -> dao.readDoctor(employeeId));
+    }
+
+    /**
+     * Read all doctors from the database
+     * @return a future completed with a list of all Doctor objects
+     */
+    public CompletableFuture<List<Doctor>> readAllDoctors() {
+        return executor.submit(() -> dao.readAllDoctors());
+    }
+
+    /**
+     * Count the doctors in the database
+     * @return a future completed with the number of doctors, -1 if failed
+     */
+    public CompletableFuture<Integer> countDoctors() {
+        return executor.submit(() -> dao.countDoctors());
+    }
+
+    /**
+     * Read one page of doctors in employee ID order, using keyset pagination
+     * @param pageToken token from the previous page, or null for the first page
+     * @param limit maximum number of doctors in the page
+     * @return a future completed with the page, with a token for the next page if there is one
+     */
+    public CompletableFuture<Page<Doctor>> readDoctorsPage(String pageToken, int limit) {
+        return executor.submit(() -> dao.readDoctorsPage(pageToken, limit));
+    }
+
+    /**
+     * Read one page of doctors ordered by a column, using keyset pagination.
+     * Ties are broken by ID, and deep pages cost the same as the first one.
+     * @param pageToken token from the previous page with the same sort column, or null for the first page
+     * @param limit maximum number of doctors in the page
+     * @param sortColumn first_name, last_name or speciality, or null to sort by ID
+     * @return a future completed with the page, with a token for the next page if there is one;
+     *         it fails with IllegalArgumentException if the limit, sort column or page token is invalid
+     */
+    public CompletableFuture<Page<Doctor>> readDoctorsPage(String pageToken, int limit, String sortColumn) {
+        return executor.submit(() -> dao.readDoctorsPage(pageToken, limit, sortColumn));
+    }
+
+    /**
+     * Read one page of doctors in ID order, starting some rows after a page token.
+     * Lets a caller such as a scrolling table jump ahead from the nearest page it
+     * has a token for; the database still reads the skipped rows, so keep skip small.
+     * @param pageToken token of an earlier page, or null to count from the first row
+     * @param skip number of rows after the token to skip
+     * @param limit maximum number of doctors in the page
+     * @return a future completed with the page, with a token for the next page if there is one;
+     *         it fails with IllegalArgumentException if the skip, limit or page token is invalid
+     */
+    public CompletableFuture<Page<Doctor>> readDoctorsPageSkipping(String pageToken, int skip, int limit) {
+        return executor.submit(() -> dao.readDoctorsPageSkipping(pageToken, skip, limit));
+    }
+
+    /**
+     * Update a doctor record in the database
+     * @param doctor Doctor object with updated information
+     * @return a future completed with true if update was successful, false otherwise
+     */
+    public CompletableFuture<Boolean> updateDoctor(Doctor doctor) {
+        return executor.submit(() -> dao.updateDoctor(doctor));
+    }
+
+    /**
+     * Delete a doctor record from the database
+     * @param employeeId the ID of the doctor to delete
+     * @return a future completed with true if deletion was successful, false otherwise
+     */
+    public CompletableFuture<Boolean> deleteDoctor(int employeeId) {
+        return executor.submit(() -> dao.deleteDoctor(employeeId));
+    }
+
+    /**
+     * Search for doctors by name (partial match) or speciality
+     * @param query the name or speciality to search for
+     * @return a future completed with a list of matching Doctor objects
+     */
+    public CompletableFuture<List<Doctor>> searchDoctors(String query) {
+        return executor.submit(() -> dao.searchDoctors(query));
+    }
+}
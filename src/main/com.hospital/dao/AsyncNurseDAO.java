@@ -0,0 +1,168 @@
+package com.hospital.dao;
+
+import com.hospital.model.Nurse;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous Nurse Data Access Object.
+ * Offers the operations of {@link NurseDAO} as CompletableFutures, run on a
+ * {@link DaoExecutor}. Like the blocking DAO, a failed operation completes
+ * its future with -1, null, false or an empty list rather than failing it.
+ */
+public class AsyncNurseDAO {
+    private final NurseDAO dao;
+    private final DaoExecutor executor;
+
+    // Default constructor, runs on the shared executor
+    public AsyncNurseDAO() {
+        this(new NurseDAO(), DaoExecutor.getShared());
+    }
+
+    // Constructor with the DAO to call and the executor to run it on
+    public AsyncNurseDAO(NurseDAO dao, DaoExecutor executor) {
+        this.dao = dao;
+        this.executor = executor;
+    }
+
+    /**
+     * Create a new nurse record in the database
+     *
+     * @param nurse Nurse object to be added
+     * @return a future completed with the generated employee ID if successful, -1 if failed
+     */
+    public CompletableFuture<Integer> createNurse(Nurse nurse) {
+        return executor.submit(() -> dao.createNurse(nurse));
+    }
+
+    /**
+     * Create many nurse records using JDBC batching, with the default batch size
+     *
+     * @param nurses Nurse objects to be added
+     * @return a future completed with the number of nurses created
+     * @see #createNurses(List, int)
+     */
+    public CompletableFuture<Integer> createNurses(List<Nurse> nurses) {
+        return executor.submit(() -> dao.createNurses(nurses));
+    }
+
+    /**
+     * Create many nurse records using JDBC batching.
+     * Each batch inserts into the employee and nurse tables and is committed on
+     * its own; every created Nurse object is updated with its generated employee ID.
+     * Stops at the first batch that fails.
+     *
+     * @param nurses    Nurse objects to be added
+     * @param batchSize number of nurses sent and committed together
+     * @return a future completed with the number of nurses created
+     */
+    public CompletableFuture<Integer> createNurses(List<Nurse> nurses, int batchSize) {
+        return executor.submit(() -> dao.createNurses(nurses, batchSize));
+    }
+
+    /**
+     * Read a nurse record from the database by ID
+     *
+     * @param employeeId the ID of the nurse to retrieve
+     * @return a future completed with the Nurse object if found, null if not found
+     */
+    public CompletableFuture<Nurse> readNurse(int employeeId) {
+        return executor.submit(() -> dao.readNurse(employeeId));
+    }
+
+    /**
+     * Read all nurses from the database, with their department code and name,
+     * in a single query
+     *
+     * @return a future completed with a list of all Nurse objects
+     */
+    public CompletableFuture<List<Nurse>> readAllNurses() {
+        return executor.submit(() -> dao.readAllNurses());
+    }
+
+    /**
+     * Count the nurses in the database
+     * @return a future completed with the number of nurses, -1 if failed
+     */
+    public CompletableFuture<Integer> countNurses() {
+        return executor.submit(() -> dao.countNurses());
+    }
+
+    /**
+     * Read one page of nurses in employee ID order, using keyset pagination
+     * @param pageToken token from the previous page, or null for the first page
+     * @param limit maximum number of nurses in the page
+     * @return a future completed with the page, with a token for the next page if there is one
+     */
+    public CompletableFuture<Page<Nurse>> readNursesPage(String pageToken, int limit) {
+        return executor.submit(() -> dao.readNursesPage(pageToken, limit));
+    }
+
+    /**
+     * Read one page of nurses ordered by a column, using keyset pagination.
+     * Ties are broken by ID, and deep pages cost the same as the first one.
+     * @param pageToken token from the previous page with the same sort column, or null for the first page
+     * @param limit maximum number of nurses in the page
+     * @param sortColumn first_name or last_name, or null to sort by ID
+     * @return a future completed with the page, with a token for the next page if there is one;
+     *         it fails with IllegalArgumentException if the limit, sort column or page token is invalid
+     */
+    public CompletableFuture<Page<Nurse>> readNursesPage(String pageToken, int limit, String sortColumn) {
+        return executor.submit(() -> dao.readNursesPage(pageToken, limit, sortColumn));
+    }
+
+    /**
+     * Read one page of nurses in ID order, starting some rows after a page token.
+     * Lets a caller such as a scrolling table jump ahead from the nearest page it
+     * has a token for; the database still reads the skipped rows, so keep skip small.
+     * @param pageToken token of an earlier page, or null to count from the first row
+     * @param skip number of rows after the token to skip
+     * @param limit maximum number of nurses in the page
+     * @return a future completed with the page, with a token for the next page if there is one;
+     *         it fails with IllegalArgumentException if the skip, limit or page token is invalid
+     */
+    public CompletableFuture<Page<Nurse>> readNursesPageSkipping(String pageToken, int skip, int limit) {
+        return executor.submit(() -> dao.readNursesPageSkipping(pageToken, skip, limit));
+    }
+
+    /**
+     * Update a nurse record in the database
+     *
+     * @param nurse Nurse object with updated information
+     * @return a future completed with true if update was successful, false otherwise
+     */
+    public CompletableFuture<Boolean> updateNurse(Nurse nurse) {
+        return executor.submit(() -> dao.updateNurse(nurse));
+    }
+
+    /**
+     * Delete a nurse record from the database
+     *
+     * @param employeeId the ID of the nurse to delete
+     * @return a future completed with true if deletion was successful, false otherwise
+     */
+    public CompletableFuture<Boolean> deleteNurse(int employeeId) {
+        return executor.submit(() -> dao.deleteNurse(employeeId));
+    }
+
+    /**
+     * Search for nurses by name (partial match) or rotation
+     *
+     * @param query the name or rotation to search for
+     * @return a future completed with a list of matching Nurse objects
+     */
+    public CompletableFuture<List<Nurse>> searchNurses(String query) {
+        return executor.submit(() -> dao.searchNurses(query));
+    }
+
+    /**
+     * Get all nurses from a specific department
+     *
+     * @param departmentId the ID of the department
+     * @return a future completed with a list of Nurse objects in the department
+     */
+    public CompletableFuture<List<Nurse>> getNursesByDepartment(int departmentId) {
+        return executor.submit(() -> dao.getNursesByDepartment(departmentId));
+    }
+}
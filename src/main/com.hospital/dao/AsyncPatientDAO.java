@@ -0,0 +1,152 @@
+package com.hospital.dao;
+
+import com.hospital.model.Patient;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous Patient Data Access Object.
+ * Offers the operations of {@link PatientDAO} as CompletableFutures, run on a
+ * {@link DaoExecutor}. Like the blocking DAO, a failed operation completes
+ * its future with -1, null, false or an empty list rather than failing it.
+ */
+public class AsyncPatientDAO {
+    private final PatientDAO dao;
+    private final DaoExecutor executor;
+
+    // Default constructor, runs on the shared executor
+    public AsyncPatientDAO() {
+        this(new PatientDAO(), DaoExecutor.getShared());
+    }
+
+    // Constructor with the DAO to call and the executor to run it on
+    public AsyncPatientDAO(PatientDAO dao, DaoExecutor executor) {
+        this.dao = dao;
+        this.executor = executor;
+    }
+
+    /**
+     * Create a new patient record in the database
+     * @param patient Patient object to be added
+     * @return a future completed with the generated patient ID if successful, -1 if failed
+     */
+    public CompletableFuture<Integer> createPatient(Patient patient) {
+        return executor.submit(() -> dao.createPatient(patient));
+    }
+
+    /**
+     * Create many patient records using JDBC batching, with the default batch size
+     * @param patients Patient objects to be added
+     * @return a future completed with the number of patients created
+     * @see #createPatients(List, int)
+     */
+    public CompletableFuture<Integer> createPatients(List<Patient> patients) {
+        return executor.submit(() -> dao.createPatients(patients));
+    }
+
+    /**
+     * Create many patient records using JDBC batching.
+     * Each batch is committed on its own, and every created Patient object is
+     * updated with its generated ID. Stops at the first batch that fails.
+     * @param patients Patient objects to be added
+     * @param batchSize number of rows sent and committed together
+     * @return a future completed with the number of patients created
+     */
+    public CompletableFuture<Integer> createPatients(List<Patient> patients, int batchSize) {
+        return executor.submit(() -> dao.createPatients(patients, batchSize));
+    }
+
+    /**
+     * Read a patient record from the database by ID
+     * @param patientId the ID of the patient to retrieve
+     * @return a future completed with the Patient object if found, null if not found
+     */
+    public CompletableFuture<Patient> readPatient(int patientId) {
+        return executor.submit(() -> dao.readPatient(patientId));
+    }
+
+    /**
+     * Read all patients from the database
+     * @return a future completed with a list of all Patient objects
+     */
+    public CompletableFuture<List<Patient>> readAllPatients() {
+        return executor.submit(() -> dao.readAllPatients());
+    }
+
+    /**
+     * Count the patients in the database
+     * @return a future completed with the number of patients, -1 if failed
+     */
+    public CompletableFuture<Integer> countPatients() {
+        return executor.submit(() -> dao.countPatients());
+    }
+
+    /**
+     * Read one page of patients in patient ID order, using keyset pagination
+     * @param pageToken token from the previous page, or null for the first page
+     * @param limit maximum number of patients in the page
+     * @return a future completed with the page, with a token for the next page if there is one
+     */
+    public CompletableFuture<Page<Patient>> readPatientsPage(String pageToken, int limit) {
+        return executor.submit(() -> dao.readPatientsPage(pageToken, limit));
+    }
+
+    /**
+     * Read one page of patients ordered by a column, using keyset pagination.
+     * Ties are broken by ID, and deep pages cost the same as the first one.
+     * @param pageToken token from the previous page with the same sort column, or null for the first page
+     * @param limit maximum number of patients in the page
+     * @param sortColumn first_name or last_name, or null to sort by ID
+     * @return a future completed with the page, with a token for the next page if there is one;
+     *         it fails with IllegalArgumentException if the limit, sort column or page token is invalid
+     */
+    public CompletableFuture<Page<Patient>> readPatientsPage(String pageToken, int limit, String sortColumn) {
+        return executor.submit(() -> dao.readPatientsPage(pageToken, limit, sortColumn));
+    }
+
+    /**
+     * Read one page of patients in ID order, starting some rows after a page token.
+     * Lets a caller such as a scrolling table jump ahead from the nearest page it
+     * has a token for; the database still reads the skipped rows, so keep skip small.
+     * @param pageToken token of an earlier page, or null to count from the first row
+     * @param skip number of rows after the token to skip
+     * @param limit maximum number of patients in the page
+     * @return a future completed with the page, with a token for the next page if there is one;
+     *         it fails with IllegalArgumentException if the skip, limit or page token is invalid
+     */
+    public CompletableFuture<Page<Patient>> readPatientsPageSkipping(String pageToken, int skip, int limit) {
+        return executor.submit(() -> dao.readPatientsPageSkipping(pageToken, skip, limit));
+    }
+
+    /**
+     * Update a patient record in the database
+     * @param patient Patient object with updated information
+     * @return a future completed with true if update was successful, false otherwise
+     */
+    public CompletableFuture<Boolean> updatePatient(Patient patient) {
+        return executor.submit(() -> dao.updatePatient(patient));
+    }
+
+    /**
+     * Delete a patient record from the database
+     * @param patientId the ID of the patient to delete
+     * @return a future completed with true if deletion was successful, false otherwise
+     */
+    public CompletableFuture<Boolean> deletePatient(int patientId) {
+        return executor.submit(() -> dao.deletePatient(patientId));
+    }
+
+    /**
+     * Search for patients by name (partial match, ignoring case).
+     * Candidates come from the in-memory name index, and only the matching
+     * rows are read from the database by ID. Terms containing the LIKE
+     * wildcards % or _, and terms matching a large share of the patients,
+     * are searched in the database.
+     * @param name the name to search for
+     * @return a future completed with a list of matching Patient objects, in ID order
+     */
+    public CompletableFuture<List<Patient>> searchPatientsByName(String name) {
+        return executor.submit(() -> dao.searchPatientsByName(name));
+    }
+}
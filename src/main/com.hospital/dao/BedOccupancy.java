@@ -0,0 +1,472 @@
+package com.hospital.dao;
+
+import com.hospital.model.Bed;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory map of which beds are occupied, kept per ward as a bitmap.
+ * <p>
+ * Each ward has one bit per bed (bit 0 is bed 1), sized from its bed count,
+ * and remembers the lowest 64-bed word that may still have a free bed, so
+ * finding the first free bed skips the full words in front of it. Each
+ * department has one bit per ward that says whether the ward may have a free
+ * bed, so finding a free bed in a department does not visit full wards.
+ * <p>
+ * Claiming, occupying and releasing beds is lock-free: bits are set and
+ * cleared with compare-and-set, so concurrent admissions to the same ward each
+ * get a different bed without waiting for one another. Adding, removing and
+ * loading wards is rare and synchronized. All changes are idempotent, so the
+ * same change can safely be applied both by a load and by the write that
+ * raced with it.
+ */
+final class BedOccupancy {
+
+    // One ward's beds
+    private static final class WardBeds {
+        final int wardId;
+        final int departmentId;
+        final int slot; // Position among the department's wards
+        final int bedCount;
+        final AtomicLongArray occupied;
+        // Release count (high half) and the first word that may have a free bed (low half);
+        // a claim only advances the word if no bed was released since it looked
+        final AtomicLong firstFreeWord = new AtomicLong();
+
+        WardBeds(int wardId, int departmentId, int slot, int bedCount) {
+            this.wardId = wardId;
+            this.departmentId = departmentId;
+            this.slot = slot;
+            this.bedCount = Math.max(bedCount, 0);
+            this.occupied = new AtomicLongArray((this.bedCount + 63) / 64);
+        }
+
+        // The bits of a word that are real beds
+        long bedMask(int word) {
+            int bedsInWord = Math.min(64, bedCount - word * 64);
+            return bedsInWord == 64 ? -1L : (1L << bedsInWord) - 1;
+        }
+
+        boolean occupy(int bedNumber) {
+            int word = (bedNumber - 1) / 64;
+            long bit = 1L << ((bedNumber - 1) % 64);
+            while (true) {
+                long current = occupied.get(word);
+                if ((current & bit) != 0) {
+                    return false;
+                }
+                if (occupied.compareAndSet(word, current, current | bit)) {
+                    return true;
+                }
+            }
+        }
+
+        boolean release(int bedNumber) {
+            int word = (bedNumber - 1) / 64;
+            long bit = 1L << ((bedNumber - 1) % 64);
+            while (true) {
+                long current = occupied.get(word);
+                if ((current & bit) == 0) {
+                    return false;
+                }
+                if (occupied.compareAndSet(word, current, current & ~bit)) {
+                    break;
+                }
+            }
+            firstFreeWord.getAndUpdate(hint -> (((hint >>> 32) + 1) << 32) | Math.min((int) hint, word));
+            return true;
+        }
+
+        boolean isOccupied(int bedNumber) {
+            return (occupied.get((bedNumber - 1) / 64) & (1L << ((bedNumber - 1) % 64))) != 0;
+        }
+
+        /**
+         * Find the lowest free bed, and claim it if asked
+         * @return the bed number, or -1 if the ward is full
+         */
+        int firstFreeBed(boolean claim) {
+            long hint = firstFreeWord.get();
+            int start = (int) hint;
+            for (int w = start; w < occupied.length(); w++) {
+                long current = occupied.get(w);
+                long free = ~current & bedMask(w);
+                while (free != 0) {
+                    long bit = Long.lowestOneBit(free);
+                    if (!claim || occupied.compareAndSet(w, current, current | bit)) {
+                        if (w > start) {
+                            firstFreeWord.compareAndSet(hint, (hint & 0xFFFFFFFF00000000L) | w);
+                        }
+                        return w * 64 + Long.numberOfTrailingZeros(bit) + 1;
+                    }
+                    current = occupied.get(w); // Another claim got there first
+                    free = ~current & bedMask(w);
+                }
+            }
+            firstFreeWord.compareAndSet(hint, (hint & 0xFFFFFFFF00000000L) | occupied.length());
+            return -1;
+        }
+
+        int freeBedCount() {
+            int free = 0;
+            for (int w = 0; w < occupied.length(); w++) {
+                free += Long.bitCount(~occupied.get(w) & bedMask(w));
+            }
+            return free;
+        }
+    }
+
+    // The wards of one department, and which of them may have a free bed
+    private static final class DepartmentWards {
+        final WardBeds[] slots; // Null where a ward was removed
+        final AtomicLongArray maybeFree;
+
+        DepartmentWards(WardBeds[] slots) {
+            this.slots = slots;
+            this.maybeFree = new AtomicLongArray((slots.length + 63) / 64);
+            for (WardBeds ward : slots) {
+                if (ward != null) {
+                    markMaybeFree(ward.slot);
+                }
+            }
+        }
+
+        void markMaybeFree(int slot) {
+            maybeFree.getAndUpdate(slot / 64, bits -> bits | (1L << (slot % 64)));
+        }
+
+        void markFull(int slot) {
+            maybeFree.getAndUpdate(slot / 64, bits -> bits & ~(1L << (slot % 64)));
+        }
+
+        /**
+         * Find a free bed in the first ward that has one, and claim it if asked
+         * @return the bed, or null if every ward is full
+         */
+        Bed firstFreeBed(boolean claim) {
+            for (int w = 0; w < maybeFree.length(); w++) {
+                long bits = maybeFree.get(w);
+                while (bits != 0) {
+                    int slot = w * 64 + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    WardBeds ward = slots[slot];
+                    int bed = ward != null ? ward.firstFreeBed(claim) : -1;
+                    if (bed > 0) {
+                        return new Bed(ward.wardId, bed);
+                    }
+                    markFull(slot);
+                    if (ward != null && ward.firstFreeBed(false) > 0) {
+                        markMaybeFree(slot); // A bed was released meanwhile
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    // The wards and departments; replaced as a whole by a load
+    private static final class State {
+        final Map<Integer, WardBeds> wards = new ConcurrentHashMap<>();
+        final Map<Integer, DepartmentWards> departments = new ConcurrentHashMap<>();
+    }
+
+    private volatile State state = new State();
+    private volatile boolean loaded;
+
+    // Bed changes made while a load is running, replayed over what it read
+    private volatile boolean loading;
+    private final Queue<int[]> changedWhileLoading = new ConcurrentLinkedQueue<>(); // {ward ID, bed, 1 occupy / 0 release}
+
+    /**
+     * Start a load; bed changes from now on are also replayed by {@link #load}
+     */
+    synchronized void startLoading() {
+        changedWhileLoading.clear();
+        loading = true;
+    }
+
+    /**
+     * Replace the whole map, e.g. with what the database holds at startup
+     * @param wardRows one {ward ID, department ID, bed count} per ward
+     * @param occupiedBeds one {ward ID, bed number} per open hospitalization
+     */
+    synchronized void load(List<int[]> wardRows, List<int[]> occupiedBeds) {
+        State loadedState = new State();
+        for (int[] ward : wardRows) {
+            putWard(loadedState, ward[0], ward[1], ward[2]);
+        }
+        for (int[] bed : occupiedBeds) {
+            applyOccupy(loadedState, bed[0], bed[1]);
+        }
+        state = loadedState;
+        loading = false;
+        replayChanges(loadedState);
+        loaded = true;
+    }
+
+    synchronized void cancelLoading() {
+        loading = false;
+        changedWhileLoading.clear();
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    synchronized void clear() {
+        state = new State();
+        loaded = false;
+    }
+
+    /**
+     * Add a new ward, with every bed free; a ward whose bed count or department
+     * changed goes through {@link #reloadWard} instead
+     * @param wardId the ward ID
+     * @param departmentId the ward's department
+     * @param bedCount the number of beds
+     */
+    synchronized void putWard(int wardId, int departmentId, int bedCount) {
+        putWard(state, wardId, departmentId, bedCount);
+    }
+
+    /**
+     * Replace a ward whose bed count or department changed. Its occupied beds
+     * are those read since {@link #startLoading}, with the changes made to the
+     * ward meanwhile replayed over them; other wards were changed in place.
+     * Occupied beds past the bed count are left out.
+     * @param wardId the ward ID
+     * @param departmentId the ward's department
+     * @param bedCount the number of beds
+     * @param occupiedBeds the bed numbers of the ward's open hospitalizations
+     */
+    synchronized void reloadWard(int wardId, int departmentId, int bedCount, List<Integer> occupiedBeds) {
+        State current = state;
+        WardBeds old = current.wards.get(wardId);
+        WardBeds[] slots;
+        int slot;
+        if (old != null && old.departmentId == departmentId) {
+            // Keeps its place among the department's wards
+            slots = current.departments.get(departmentId).slots.clone();
+            slot = old.slot;
+        } else {
+            removeWard(current, wardId);
+            DepartmentWards department = current.departments.get(departmentId);
+            slots = department != null
+                    ? Arrays.copyOf(department.slots, department.slots.length + 1)
+                    : new WardBeds[1];
+            slot = slots.length - 1;
+        }
+        WardBeds ward = new WardBeds(wardId, departmentId, slot, bedCount);
+        for (int bed : occupiedBeds) {
+            if (bed >= 1 && bed <= ward.bedCount) {
+                ward.occupy(bed);
+            }
+        }
+        slots[slot] = ward;
+        current.wards.put(wardId, ward);
+        current.departments.put(departmentId, new DepartmentWards(slots));
+
+        loading = false;
+        int[] change;
+        while ((change = changedWhileLoading.poll()) != null) {
+            if (change[0] != wardId) {
+                continue;
+            }
+            if (change[2] == 1) {
+                applyOccupy(current, wardId, change[1]);
+            } else {
+                applyRelease(current, wardId, change[1]);
+            }
+        }
+    }
+
+    synchronized void removeWard(int wardId) {
+        removeWard(state, wardId);
+    }
+
+    /**
+     * Mark a bed occupied
+     * @param wardId the ward ID
+     * @param bedNumber the bed number, from 1
+     * @return false if the bed was already occupied or does not exist
+     */
+    boolean occupy(int wardId, int bedNumber) {
+        boolean recording = loading; // Read before the state, see changed()
+        State current = state;
+        boolean occupied = applyOccupy(current, wardId, bedNumber);
+        changed(recording, current, wardId, bedNumber, true);
+        return occupied;
+    }
+
+    /**
+     * Mark a bed free
+     * @param wardId the ward ID
+     * @param bedNumber the bed number, from 1
+     */
+    void release(int wardId, int bedNumber) {
+        boolean recording = loading;
+        State current = state;
+        applyRelease(current, wardId, bedNumber);
+        changed(recording, current, wardId, bedNumber, false);
+    }
+
+    /**
+     * Claim the lowest-numbered free bed of a ward
+     * @param wardId the ward ID
+     * @return the claimed bed number, or -1 if the ward is full or unknown
+     */
+    int claimFreeBed(int wardId) {
+        boolean recording = loading;
+        State current = state;
+        WardBeds ward = current.wards.get(wardId);
+        int bed = ward != null ? ward.firstFreeBed(true) : -1;
+        if (bed > 0) {
+            changed(recording, current, wardId, bed, true);
+        }
+        return bed;
+    }
+
+    /**
+     * Claim a free bed in any ward of a department
+     * @param departmentId the department ID
+     * @return the claimed bed, or null if every ward of the department is full
+     */
+    Bed claimFreeBedInDepartment(int departmentId) {
+        boolean recording = loading;
+        State current = state;
+        DepartmentWards department = current.departments.get(departmentId);
+        Bed bed = department != null ? department.firstFreeBed(true) : null;
+        if (bed != null) {
+            changed(recording, current, bed.getWardId(), bed.getBedNumber(), true);
+        }
+        return bed;
+    }
+
+    boolean isOccupied(int wardId, int bedNumber) {
+        WardBeds ward = state.wards.get(wardId);
+        return ward != null && bedNumber >= 1 && bedNumber <= ward.bedCount && ward.isOccupied(bedNumber);
+    }
+
+    /**
+     * Check that a ward is known
+     * @param wardId the ward ID
+     * @return true if the ward was loaded or added
+     */
+    boolean hasWard(int wardId) {
+        return state.wards.containsKey(wardId);
+    }
+
+    /**
+     * Find the lowest-numbered free bed in a ward
+     * @param wardId the ward ID
+     * @return the bed number, or -1 if the ward is full or unknown
+     */
+    int firstFreeBed(int wardId) {
+        WardBeds ward = state.wards.get(wardId);
+        return ward != null ? ward.firstFreeBed(false) : -1;
+    }
+
+    /**
+     * Find a free bed in any ward of a department
+     * @param departmentId the department ID
+     * @return the bed, or null if every ward of the department is full
+     */
+    Bed firstFreeBedInDepartment(int departmentId) {
+        DepartmentWards department = state.departments.get(departmentId);
+        return department != null ? department.firstFreeBed(false) : null;
+    }
+
+    /**
+     * Count the free beds of a ward
+     * @param wardId the ward ID
+     * @return the number of free beds, or -1 if the ward is unknown
+     */
+    int freeBedCount(int wardId) {
+        WardBeds ward = state.wards.get(wardId);
+        return ward != null ? ward.freeBedCount() : -1;
+    }
+
+    /**
+     * Make sure a bed change reaches the state a concurrent load installs.
+     * A change made while loading is queued for the load to replay; one that
+     * raced with the switch to the loaded state, and so may have been queued
+     * after the replay, is applied to the loaded state directly.
+     */
+    private void changed(boolean recording, State changedState, int wardId, int bedNumber, boolean occupied) {
+        if (recording) {
+            changedWhileLoading.add(new int[]{wardId, bedNumber, occupied ? 1 : 0});
+        }
+        State current = state;
+        if (current != changedState) {
+            if (occupied) {
+                applyOccupy(current, wardId, bedNumber);
+            } else {
+                applyRelease(current, wardId, bedNumber);
+            }
+        }
+    }
+
+    private void replayChanges(State target) {
+        int[] change;
+        while ((change = changedWhileLoading.poll()) != null) {
+            if (change[2] == 1) {
+                applyOccupy(target, change[0], change[1]);
+            } else {
+                applyRelease(target, change[0], change[1]);
+            }
+        }
+    }
+
+    private static void putWard(State target, int wardId, int departmentId, int bedCount) {
+        WardBeds old = target.wards.get(wardId);
+        if (old != null) {
+            removeWard(target, wardId);
+        }
+        DepartmentWards department = target.departments.get(departmentId);
+        WardBeds[] slots = department != null
+                ? Arrays.copyOf(department.slots, department.slots.length + 1)
+                : new WardBeds[1];
+        WardBeds ward = new WardBeds(wardId, departmentId, slots.length - 1, bedCount);
+        if (old != null) {
+            for (int bed = 1; bed <= Math.min(old.bedCount, ward.bedCount); bed++) {
+                if (old.isOccupied(bed)) {
+                    ward.occupy(bed);
+                }
+            }
+        }
+        slots[ward.slot] = ward;
+        target.wards.put(wardId, ward);
+        target.departments.put(departmentId, new DepartmentWards(slots));
+    }
+
+    private static void removeWard(State target, int wardId) {
+        WardBeds ward = target.wards.remove(wardId);
+        if (ward != null) {
+            WardBeds[] slots = target.departments.get(ward.departmentId).slots.clone();
+            slots[ward.slot] = null;
+            target.departments.put(ward.departmentId, new DepartmentWards(slots));
+        }
+    }
+
+    private static boolean applyOccupy(State target, int wardId, int bedNumber) {
+        WardBeds ward = target.wards.get(wardId);
+        return ward != null && bedNumber >= 1 && bedNumber <= ward.bedCount && ward.occupy(bedNumber);
+    }
+
+    private static void applyRelease(State target, int wardId, int bedNumber) {
+        WardBeds ward = target.wards.get(wardId);
+        if (ward != null && bedNumber >= 1 && bedNumber <= ward.bedCount && ward.release(bedNumber)) {
+            DepartmentWards department = target.departments.get(ward.departmentId);
+            if (department != null && ward.slot < department.slots.length) {
+                department.markMaybeFree(ward.slot);
+            }
+        }
+    }
+}
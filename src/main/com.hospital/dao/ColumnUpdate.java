@@ -0,0 +1,82 @@
+package com.hospital.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * UPDATE of one row that sets only the columns added to it, shared by the DAOs.
+ * The update methods add the columns of the fields an entity reports as
+ * modified, so an unchanged column is neither written, logged for redo nor
+ * replicated, and a table with no changed column is not touched at all.
+ */
+final class ColumnUpdate {
+    private final String table;
+    private final List<String> columns = new ArrayList<>(4);
+    private final List<Object> values = new ArrayList<>(4);
+    private final List<Integer> sqlTypes = new ArrayList<>(4);
+
+    /**
+     * @param table the table to update
+     */
+    ColumnUpdate(String table) {
+        this.table = table;
+    }
+
+    /**
+     * Set a column, if its field was modified
+     * @param modified whether the field was modified
+     * @param column the column name
+     * @param value the new value, or null
+     * @param sqlType the java.sql.Types code of the column, used to bind a null
+     * @return this update
+     */
+    ColumnUpdate set(boolean modified, String column, Object value, int sqlType) {
+        if (modified) {
+            columns.add(column);
+            values.add(value);
+            sqlTypes.add(sqlType);
+        }
+        return this;
+    }
+
+    /**
+     * Check whether any column was set
+     * @return true if there is nothing to write
+     */
+    boolean isEmpty() {
+        return columns.isEmpty();
+    }
+
+    /**
+     * Run the update, unless no column was set
+     * @param conn connection to run the update on
+     * @param idColumn the primary key column
+     * @param id the primary key of the row
+     * @return the number of rows changed, or 0 without running anything if no column was set
+     */
+    int execute(Connection conn, String idColumn, int id) throws SQLException {
+        if (columns.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder("UPDATE ").append(table).append(" SET ");
+        for (int i = 0; i < columns.size(); i++) {
+            sql.append(i > 0 ? ", " : "").append(columns.get(i)).append(" = ?");
+        }
+        sql.append(" WHERE ").append(idColumn).append(" = ?");
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < columns.size(); i++) {
+                if (values.get(i) == null) {
+                    stmt.setNull(i + 1, sqlTypes.get(i));
+                } else {
+                    stmt.setObject(i + 1, values.get(i), sqlTypes.get(i));
+                }
+            }
+            stmt.setInt(columns.size() + 1, id);
+            return stmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.hospital.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Hands out a pooled connection, e.g. DatabaseUtil::getReadConnection.
+ */
+interface ConnectionSource {
+    Connection get() throws SQLException;
+}
@@ -0,0 +1,193 @@
+package com.hospital.dao;
+
+import com.hospital.util.DatabaseUtil;
+import com.hospital.util.Logger;
+import com.hospital.util.ReadSession;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the blocking DAO calls behind the async DAOs ({@link AsyncPatientDAO} and friends).
+ * On a JVM with virtual threads every call gets its own virtual thread, so a
+ * caller waiting on the database holds no platform thread. At most
+ * maxConcurrency calls run at once; the others wait for a permit, which keeps
+ * the callers from queueing up inside the connection pool where they would
+ * time out. On older JVMs the calls run on a fixed pool of maxConcurrency
+ * daemon threads instead. Each call runs in the caller's {@link ReadSession},
+ * so it reads what the caller wrote.
+ * <p>
+ * The shared executor's cap is the connection pool size, or the
+ * hospital.db.async.maxConcurrency system property if set.
+ */
+public final class DaoExecutor {
+    private static final Logger log = Logger.getLogger(DaoExecutor.class);
+    private static final long SHUTDOWN_TIMEOUT_MS = 5_000;
+
+    private static volatile DaoExecutor shared;
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final boolean virtualThreads;
+    private final AtomicInteger activeCount = new AtomicInteger();
+
+    /**
+     * Create an executor
+     * @param maxConcurrency the most DAO calls that run at once
+     */
+    public DaoExecutor(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency);
+        ExecutorService perTask = newVirtualThreadPerTaskExecutor();
+        this.virtualThreads = perTask != null;
+        this.executor = perTask != null ? perTask : Executors.newFixedThreadPool(maxConcurrency, daemonThreads());
+    }
+
+    /**
+     * Get the executor shared by the async DAOs, creating it on first use
+     * @return the shared executor
+     */
+    public static DaoExecutor getShared() {
+        DaoExecutor current = shared;
+        if (current == null) {
+            synchronized (DaoExecutor.class) {
+                current = shared;
+                if (current == null) {
+                    int maxConcurrency = Integer.getInteger("hospital.db.async.maxConcurrency",
+                            DatabaseUtil.getMaximumPoolSize());
+                    current = new DaoExecutor(maxConcurrency);
+                    shared = current;
+                    log.info("DAO executor started", "maxConcurrency", maxConcurrency,
+                            "virtualThreads", current.isVirtualThreads());
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Shut down the shared executor after the calls already submitted.
+     * The next call to {@link #getShared()} starts a new one.
+     */
+    public static void shutdownShared() {
+        DaoExecutor current;
+        synchronized (DaoExecutor.class) {
+            current = shared;
+            shared = null;
+        }
+        if (current != null) {
+            current.shutdown();
+        }
+    }
+
+    /**
+     * Run a blocking DAO call on this executor
+     * @param call the call
+     * @param <T> the type of its result
+     * @return a future completed with the call's result
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> call) {
+        ReadSession session = DatabaseUtil.currentSession();
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            activeCount.incrementAndGet();
+            ReadSession previous = DatabaseUtil.bindSession(session);
+            try {
+                return call.get();
+            } finally {
+                DatabaseUtil.bindSession(previous);
+                activeCount.decrementAndGet();
+                permits.release();
+            }
+        }, executor);
+    }
+
+    /**
+     * Get the most DAO calls that run at once
+     * @return the cap
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Get the number of DAO calls running right now
+     * @return the count
+     */
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    /**
+     * Get the number of submitted calls waiting for a permit
+     * @return an estimate of the count
+     */
+    public int getWaitingCount() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * Check whether calls run on virtual threads
+     * @return true on a JVM with virtual threads
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Stop accepting calls and wait for the submitted ones to finish
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                log.warn("DAO executor did not finish in time", "active", getActiveCount(),
+                        "waiting", getWaitingCount());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() on Java 21 and later, null before
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) MethodHandles.publicLookup()
+                    .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                            MethodType.methodType(ExecutorService.class))
+                    .invoke();
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        } catch (Throwable e) {
+            log.warn("Could not create virtual thread executor", "error", e.getMessage());
+            return null;
+        }
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, "hospital-dao-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,125 @@
+package com.hospital.dao;
+
+import com.hospital.model.Department;
+import com.hospital.util.CacheStats;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory copy of the department table, shared by all DepartmentDAO instances.
+ * The department table is small and rarely written, so the whole table is
+ * cached as one snapshot indexed by department_id and code. The snapshot
+ * expires after a TTL and is dropped whenever a department is written.
+ */
+class DepartmentCache {
+    private final long ttlMs;
+    private volatile Snapshot snapshot;
+
+    // Bumped on every invalidation so a load that raced with a write is not installed
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * @param ttlMs how long a loaded snapshot is served; 0 or less disables the cache
+     */
+    DepartmentCache(long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+
+    boolean isEnabled() {
+        return ttlMs > 0;
+    }
+
+    /**
+     * Get the current snapshot if it has not expired
+     * @return the snapshot, or null if the table must be (re)loaded
+     */
+    Snapshot get() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            if (System.currentTimeMillis() - current.loadedAt < ttlMs) {
+                hits.increment();
+                return current;
+            }
+            snapshot = null;
+            expirations.increment();
+        }
+        misses.increment();
+        return null;
+    }
+
+    long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Install a freshly loaded table, unless a write invalidated the cache while it was loading
+     * @param departments every department row
+     * @param loadGeneration the value of {@link #generation()} before the load started
+     * @return a snapshot of the loaded rows
+     */
+    synchronized Snapshot install(List<Department> departments, long loadGeneration) {
+        Snapshot loaded = new Snapshot(departments);
+        if (generation.get() == loadGeneration) {
+            snapshot = loaded;
+        }
+        return loaded;
+    }
+
+    synchronized void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+        invalidations.increment();
+    }
+
+    CacheStats getStats() {
+        Snapshot current = snapshot;
+        return new CacheStats(hits.sum(), misses.sum(), expirations.sum(), invalidations.sum(),
+                current != null ? current.all.size() : 0);
+    }
+
+    /**
+     * Immutable view of the department table at load time
+     */
+    static final class Snapshot {
+        private final long loadedAt = System.currentTimeMillis();
+        private final List<Department> all;
+        private final Map<Integer, Department> byId = new HashMap<>();
+        private final Map<String, Department> byCode = new HashMap<>();
+
+        private Snapshot(List<Department> departments) {
+            this.all = Collections.unmodifiableList(departments);
+            for (Department department : departments) {
+                byId.put(department.getDepartmentId(), department);
+                byCode.put(normalize(department.getCode()), department);
+            }
+        }
+
+        List<Department> all() {
+            return all;
+        }
+
+        Department byId(int departmentId) {
+            return byId.get(departmentId);
+        }
+
+        Department byCode(String code) {
+            return code != null ? byCode.get(normalize(code)) : null;
+        }
+
+        // Codes compare case-insensitively, as they do under MySQL's default collation
+        private static String normalize(String code) {
+            return code.toUpperCase(Locale.ROOT);
+        }
+    }
+}
@@ -1,17 +1,49 @@
 package com.hospital.dao;
 
+import com.hospital.event.EntityEvent;
+import com.hospital.event.EntityEventBus;
 import com.hospital.model.Department;
+import com.hospital.search.SearchService;
+import com.hospital.util.CacheStats;
+import com.hospital.util.DaoMetrics;
 import com.hospital.util.DatabaseUtil;
+import com.hospital.util.Logger;
+import com.hospital.util.MethodMetrics;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Department Data Access Object.
  * Provides CRUD operations for Department entities.
+ * Reads by ID, by code and of the whole table are served from a shared
+ * in-memory cache that every write through this DAO invalidates.
  */
 public class DepartmentDAO {
+    private static final Logger log = Logger.getLogger(DepartmentDAO.class);
+
+    // Latency and error counters of each public method, published over JMX
+    private static final MethodMetrics CREATE_DEPARTMENT = DaoMetrics.forMethod(DepartmentDAO.class, "createDepartment");
+    private static final MethodMetrics READ_DEPARTMENT = DaoMetrics.forMethod(DepartmentDAO.class, "readDepartment");
+    private static final MethodMetrics READ_DEPARTMENT_BY_CODE = DaoMetrics.forMethod(DepartmentDAO.class, "readDepartmentByCode");
+    private static final MethodMetrics READ_ALL_DEPARTMENTS = DaoMetrics.forMethod(DepartmentDAO.class, "readAllDepartments");
+    private static final MethodMetrics READ_DEPARTMENTS_PAGE = DaoMetrics.forMethod(DepartmentDAO.class, "readDepartmentsPage");
+    private static final MethodMetrics UPDATE_DEPARTMENT = DaoMetrics.forMethod(DepartmentDAO.class, "updateDepartment");
+    private static final MethodMetrics DELETE_DEPARTMENT = DaoMetrics.forMethod(DepartmentDAO.class, "deleteDepartment");
+    private static final MethodMetrics SEARCH_DEPARTMENTS = DaoMetrics.forMethod(DepartmentDAO.class, "searchDepartments");
+
+    // Shared by all instances so a write through any DAO invalidates it for everyone
+    private static final DepartmentCache cache =
+            new DepartmentCache(Long.getLong("hospital.cache.department.ttlMs", 300_000));
+
+    // Columns the paged reads may sort by (all NOT NULL)
+    private static final Map<String, String> PAGE_SORT_COLUMNS = Map.of(
+            "code", "code",
+            "name", "name"
+    );
 
     /**
      * Create a new department record in the database
@@ -19,6 +51,7 @@ public class DepartmentDAO {
      * @return the generated department ID if successful, -1 if failed
      */
     public int createDepartment(Department department) {
+        long start = System.nanoTime();
         String sql = "INSERT INTO department (code, name, building, director_id) VALUES (?, ?, ?, ?)";
 
         try (Connection conn = DatabaseUtil.getConnection();
@@ -44,14 +77,21 @@ public class DepartmentDAO {
                 if (generatedKeys.next()) {
                     int id = generatedKeys.getInt(1);
                     department.setDepartmentId(id);
+                    cache.invalidate();
+                    SearchService.indexDepartment(department);
+                    department.clearModified(); // Matches the new row
+                    EntityEventBus.publish(EntityEvent.created(Department.class, id, department));
                     return id;
                 } else {
                     throw new SQLException("Creating department failed, no ID obtained.");
                 }
             }
         } catch (SQLException e) {
-            System.out.println("Error creating department: " + e.getMessage());
+            CREATE_DEPARTMENT.recordError();
+            log.error("Error creating department", "error", e.getMessage());
             return -1;
+        } finally {
+            CREATE_DEPARTMENT.record(start);
         }
     }
 
@@ -61,92 +101,271 @@ public class DepartmentDAO {
      * @return the Department object if found, null if not found
      */
     public Department readDepartment(int departmentId) {
+        long start = System.nanoTime();
+        if (cache.isEnabled()) {
+            DepartmentCache.Snapshot snapshot = loadSnapshot();
+            if (snapshot != null) {
+                READ_DEPARTMENT.record(start);
+                return copyOf(snapshot.byId(departmentId));
+            }
+        }
+
         String sql = "SELECT * FROM department WHERE department_id = ?";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, departmentId);
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                Integer directorId = rs.getObject("director_id", Integer.class); // Handles NULL values
-
-                return new Department(
-                        rs.getInt("department_id"),
-                        rs.getString("code"),
-                        rs.getString("name"),
-                        rs.getString("building"),
-                        directorId
-                );
+                return mapDepartment(rs);
+            } else {
+                return null; // Department not found
+            }
+        } catch (SQLException e) {
+            READ_DEPARTMENT.recordError();
+            log.error("Error reading department", "departmentId", departmentId, "error", e.getMessage());
+            return null;
+        } finally {
+            READ_DEPARTMENT.record(start);
+        }
+    }
+
+    /**
+     * Read a department record by its code
+     * @param code the department code, e.g. CARD
+     * @return the Department object if found, null if not found
+     */
+    public Department readDepartmentByCode(String code) {
+        long start = System.nanoTime();
+        if (cache.isEnabled()) {
+            DepartmentCache.Snapshot snapshot = loadSnapshot();
+            if (snapshot != null) {
+                READ_DEPARTMENT_BY_CODE.record(start);
+                return copyOf(snapshot.byCode(code));
+            }
+        }
+
+        String sql = "SELECT * FROM department WHERE code = ?";
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, code);
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                return mapDepartment(rs);
             } else {
                 return null; // Department not found
             }
         } catch (SQLException e) {
-            System.out.println("Error reading department: " + e.getMessage());
+            READ_DEPARTMENT_BY_CODE.recordError();
+            log.error("Error reading department", "error", e.getMessage());
             return null;
+        } finally {
+            READ_DEPARTMENT_BY_CODE.record(start);
         }
     }
 
     /**
-     * Read all departments from the database
+     * Read all departments
      * @return List of all Department objects
      */
     public List<Department> readAllDepartments() {
+        long start = System.nanoTime();
+        try {
+            if (cache.isEnabled()) {
+                DepartmentCache.Snapshot snapshot = loadSnapshot();
+                if (snapshot != null) {
+                    List<Department> departments = new ArrayList<>(snapshot.all().size());
+                    for (Department department : snapshot.all()) {
+                        departments.add(copyOf(department));
+                    }
+                    return departments;
+                }
+                READ_ALL_DEPARTMENTS.recordError();
+                return new ArrayList<>();
+            }
+
+            List<Department> departments = queryAllDepartments();
+            if (departments == null) {
+                READ_ALL_DEPARTMENTS.recordError();
+                return new ArrayList<>();
+            }
+            return departments;
+        } finally {
+            READ_ALL_DEPARTMENTS.record(start);
+        }
+    }
+
+    /**
+     * Pass every department to an action.
+     * Unlike {@link #readAllDepartments()}, a failed read is reported rather than
+     * returned as an empty table.
+     * @param action called with each department
+     * @return true if every department was read, false if the read failed
+     */
+    public boolean forEachDepartment(Consumer<Department> action) {
+        List<Department> departments;
+        if (cache.isEnabled()) {
+            DepartmentCache.Snapshot snapshot = loadSnapshot();
+            departments = snapshot != null ? snapshot.all() : null;
+        } else {
+            departments = queryAllDepartments();
+        }
+        if (departments == null) {
+            return false;
+        }
+        for (Department department : departments) {
+            action.accept(copyOf(department));
+        }
+        return true;
+    }
+
+    /**
+     * Read one page of departments in department ID order, using keyset pagination
+     * @param pageToken token from the previous page, or null for the first page
+     * @param limit maximum number of departments in the page
+     * @return the page, with a token for the next page if there is one
+     */
+    public Page<Department> readDepartmentsPage(String pageToken, int limit) {
+        return readDepartmentsPage(pageToken, limit, null);
+    }
+
+    /**
+     * Read one page of departments ordered by a column, using keyset pagination.
+     * Ties are broken by ID, and deep pages cost the same as the first one.
+     * @param pageToken token from the previous page with the same sort column, or null for the first page
+     * @param limit maximum number of departments in the page
+     * @param sortColumn code or name, or null to sort by ID
+     * @return the page, with a token for the next page if there is one
+     * @throws IllegalArgumentException if the limit, sort column or page token is invalid
+     */
+    public Page<Department> readDepartmentsPage(String pageToken, int limit, String sortColumn) {
+        long start = System.nanoTime();
+        try (Connection conn = DatabaseUtil.getReadConnection()) {
+            return KeysetQuery.fetch(conn, "SELECT * FROM department", "department_id",
+                    PAGE_SORT_COLUMNS, sortColumn, pageToken, 0, limit,
+                    this::mapDepartment);
+        } catch (SQLException e) {
+            READ_DEPARTMENTS_PAGE.recordError();
+            log.error("Error reading departments page", "error", e.getMessage());
+            return Page.empty();
+        } finally {
+            READ_DEPARTMENTS_PAGE.record(start);
+        }
+    }
+
+    /**
+     * Get the hit/miss statistics of the shared department cache
+     * @return the current CacheStats
+     */
+    public static CacheStats getCacheStats() {
+        return cache.getStats();
+    }
+
+    /**
+     * Drop the cached department table, e.g. after a write that bypassed this DAO
+     * (deleting a doctor clears director_id through its foreign key)
+     */
+    public static void invalidateCache() {
+        cache.invalidate();
+    }
+
+    /**
+     * Get the cached department table, loading it if it is missing or expired
+     * @return the snapshot, or null if it could not be loaded
+     */
+    private DepartmentCache.Snapshot loadSnapshot() {
+        DepartmentCache.Snapshot snapshot = cache.get();
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        long generation = cache.generation();
+        List<Department> departments = queryAllDepartments();
+        return departments != null ? cache.install(departments, generation) : null;
+    }
+
+    /**
+     * Query every department row
+     * @return List of all Department objects, or null if the query failed
+     */
+    private List<Department> queryAllDepartments() {
         String sql = "SELECT * FROM department";
         List<Department> departments = new ArrayList<>();
 
-        try (Connection conn = DatabaseUtil.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (Connection conn = DatabaseUtil.getPrimaryReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-                Integer directorId = rs.getObject("director_id", Integer.class); // Handles NULL values
-
-                Department department = new Department(
-                        rs.getInt("department_id"),
-                        rs.getString("code"),
-                        rs.getString("name"),
-                        rs.getString("building"),
-                        directorId
-                );
-                departments.add(department);
+                departments.add(mapDepartment(rs));
             }
         } catch (SQLException e) {
-            System.out.println("Error reading all departments: " + e.getMessage());
+            log.error("Error reading all departments", "error", e.getMessage());
+            return null;
         }
 
         return departments;
     }
 
+    // Callers get their own copy so they cannot change the cached rows
+    private Department copyOf(Department department) {
+        if (department == null) {
+            return null;
+        }
+        Department copy = new Department(
+                department.getDepartmentId(),
+                department.getCode(),
+                department.getName(),
+                department.getBuilding(),
+                department.getDirectorId()
+        );
+        copy.clearModified();
+        return copy;
+    }
+
     /**
-     * Update a department record in the database
+     * Update a department record in the database.
+     * Only the columns of the fields modified since the department was loaded
+     * are written; if none were, nothing is sent to the database.
      * @param department Department object with updated information
-     * @return true if update was successful, false otherwise
+     * @return true if update was successful or there was nothing to update, false otherwise
      */
     public boolean updateDepartment(Department department) {
-        String sql = "UPDATE department SET code = ?, name = ?, building = ?, director_id = ? WHERE department_id = ?";
-
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, department.getCode());
-            stmt.setString(2, department.getName());
-            stmt.setString(3, department.getBuilding());
-
-            if (department.getDirectorId() != null) {
-                stmt.setInt(4, department.getDirectorId());
-            } else {
-                stmt.setNull(4, java.sql.Types.INTEGER);
+        long start = System.nanoTime();
+        if (!department.isModified()) {
+            UPDATE_DEPARTMENT.record(start);
+            return true; // Unchanged since it was loaded
+        }
+        ColumnUpdate update = new ColumnUpdate("department")
+                .set(department.isModified(Department.CODE), "code", department.getCode(), Types.VARCHAR)
+                .set(department.isModified(Department.NAME), "name", department.getName(), Types.VARCHAR)
+                .set(department.isModified(Department.BUILDING), "building", department.getBuilding(), Types.VARCHAR)
+                .set(department.isModified(Department.DIRECTOR_ID), "director_id", department.getDirectorId(),
+                        Types.INTEGER);
+
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            int affectedRows = update.execute(conn, "department_id", department.getDepartmentId());
+            cache.invalidate();
+            NurseDAO.invalidateCache(); // Nurses are read with their department's code and name
+            if (affectedRows > 0) {
+                department.clearModified();
+                SearchService.indexDepartment(department);
+                EntityEventBus.publish(EntityEvent.updated(Department.class, department.getDepartmentId(),
+                        department));
             }
-
-            stmt.setInt(5, department.getDepartmentId());
-
-            int affectedRows = stmt.executeUpdate();
             return affectedRows > 0;
         } catch (SQLException e) {
-            System.out.println("Error updating department: " + e.getMessage());
+            UPDATE_DEPARTMENT.recordError();
+            log.error("Error updating department", "departmentId", department.getDepartmentId(),
+                    "error", e.getMessage());
             return false;
+        } finally {
+            UPDATE_DEPARTMENT.record(start);
         }
     }
 
@@ -156,6 +375,7 @@ public class DepartmentDAO {
      * @return true if deletion was successful, false otherwise
      */
     public boolean deleteDepartment(int departmentId) {
+        long start = System.nanoTime();
         String sql = "DELETE FROM department WHERE department_id = ?";
 
         try (Connection conn = DatabaseUtil.getConnection();
@@ -164,10 +384,19 @@ public class DepartmentDAO {
             stmt.setInt(1, departmentId);
 
             int affectedRows = stmt.executeUpdate();
+            cache.invalidate();
+            NurseDAO.invalidateCache(); // Nurses are read with their department's code and name
+            SearchService.removeDepartment(departmentId);
+            if (affectedRows > 0) {
+                EntityEventBus.publish(EntityEvent.deleted(Department.class, departmentId));
+            }
             return affectedRows > 0;
         } catch (SQLException e) {
-            System.out.println("Error deleting department: " + e.getMessage());
+            DELETE_DEPARTMENT.recordError();
+            log.error("Error deleting department", "departmentId", departmentId, "error", e.getMessage());
             return false;
+        } finally {
+            DELETE_DEPARTMENT.record(start);
         }
     }
 
@@ -177,10 +406,11 @@ public class DepartmentDAO {
      * @return List of matching Department objects
      */
     public List<Department> searchDepartments(String query) {
+        long start = System.nanoTime();
         String sql = "SELECT * FROM department WHERE code LIKE ? OR name LIKE ?";
         List<Department> departments = new ArrayList<>();
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             String searchPattern = "%" + query + "%";
@@ -190,21 +420,32 @@ public class DepartmentDAO {
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Integer directorId = rs.getObject("director_id", Integer.class); // Handles NULL values
-
-                Department department = new Department(
-                        rs.getInt("department_id"),
-                        rs.getString("code"),
-                        rs.getString("name"),
-                        rs.getString("building"),
-                        directorId
-                );
-                departments.add(department);
+                departments.add(mapDepartment(rs));
             }
         } catch (SQLException e) {
-            System.out.println("Error searching departments: " + e.getMessage());
+            SEARCH_DEPARTMENTS.recordError();
+            log.error("Error searching departments", "error", e.getMessage());
+        } finally {
+            SEARCH_DEPARTMENTS.record(start);
         }
 
         return departments;
     }
+
+    /**
+     * Build a Department from the current row, with no fields counted as modified
+     * @param rs a result set positioned on a department row
+     * @return the Department object
+     */
+    private Department mapDepartment(ResultSet rs) throws SQLException {
+        Department department = new Department(
+                rs.getInt("department_id"),
+                rs.getString("code"),
+                rs.getString("name"),
+                rs.getString("building"),
+                rs.getObject("director_id", Integer.class) // Handles NULL values
+        );
+        department.clearModified();
+        return department;
+    }
 }
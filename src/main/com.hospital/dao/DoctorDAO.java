@@ -1,17 +1,56 @@
 package com.hospital.dao;
 
+import com.hospital.event.EntityEvent;
+import com.hospital.event.EntityEventBus;
 import com.hospital.model.Doctor;
+import com.hospital.model.Employee;
+import com.hospital.search.SearchService;
+import com.hospital.util.CacheStats;
+import com.hospital.util.DaoMetrics;
 import com.hospital.util.DatabaseUtil;
+import com.hospital.util.Logger;
+import com.hospital.util.MethodMetrics;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Doctor Data Access Object.
  * Provides CRUD operations for Doctor entities.
  */
 public class DoctorDAO {
+    private static final Logger log = Logger.getLogger(DoctorDAO.class);
+
+    // Latency and error counters of each public method, published over JMX
+    private static final MethodMetrics CREATE_DOCTOR = DaoMetrics.forMethod(DoctorDAO.class, "createDoctor");
+    private static final MethodMetrics CREATE_DOCTORS = DaoMetrics.forMethod(DoctorDAO.class, "createDoctors");
+    private static final MethodMetrics READ_DOCTOR = DaoMetrics.forMethod(DoctorDAO.class, "readDoctor");
+    private static final MethodMetrics READ_ALL_DOCTORS = DaoMetrics.forMethod(DoctorDAO.class, "readAllDoctors");
+    private static final MethodMetrics COUNT_DOCTORS = DaoMetrics.forMethod(DoctorDAO.class, "countDoctors");
+    private static final MethodMetrics READ_DOCTORS_PAGE = DaoMetrics.forMethod(DoctorDAO.class, "readDoctorsPage");
+    private static final MethodMetrics UPDATE_DOCTOR = DaoMetrics.forMethod(DoctorDAO.class, "updateDoctor");
+    private static final MethodMetrics DELETE_DOCTOR = DaoMetrics.forMethod(DoctorDAO.class, "deleteDoctor");
+    private static final MethodMetrics SEARCH_DOCTORS = DaoMetrics.forMethod(DoctorDAO.class, "searchDoctors");
+
+    // Recently read doctors, shared by all instances; every write through this DAO drops the doctor
+    private static final EntityCache<Doctor> cache = new EntityCache<>(
+            Integer.getInteger("hospital.cache.doctor.maxSize", 1_000),
+            Long.getLong("hospital.cache.doctor.ttlMs", 60_000),
+            DoctorDAO::copyOf);
+
+    // Columns the paged reads may sort by (all NOT NULL)
+    private static final Map<String, String> PAGE_SORT_COLUMNS = Map.of(
+            "first_name", "e.first_name",
+            "last_name", "e.last_name",
+            "speciality", "d.speciality"
+    );
+
+    private static final String ALL_DOCTORS_SQL = "SELECT e.*, d.speciality FROM employee e " +
+            "JOIN doctor d ON e.employee_id = d.employee_id ORDER BY e.employee_id";
 
     /**
      * Create a new doctor record in the database
@@ -19,6 +58,7 @@ public class DoctorDAO {
      * @return the generated employee ID if successful, -1 if failed
      */
     public int createDoctor(Doctor doctor) {
+        long start = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmtEmployee = null;
         PreparedStatement stmtDoctor = null;
@@ -58,19 +98,23 @@ public class DoctorDAO {
                     stmtDoctor.executeUpdate();
 
                     conn.commit(); // Commit transaction
+                    SearchService.indexDoctor(doctor);
+                    doctor.clearModified(); // Matches the new row
+                    EntityEventBus.publish(EntityEvent.created(Doctor.class, employeeId, doctor));
                     return employeeId;
                 } else {
                     throw new SQLException("Creating employee failed, no ID obtained.");
                 }
             }
         } catch (SQLException e) {
-            System.out.println("Error creating doctor: " + e.getMessage());
+            CREATE_DOCTOR.recordError();
+            log.error("Error creating doctor", "error", e.getMessage());
             try {
                 if (conn != null) {
                     conn.rollback(); // Rollback transaction
                 }
             } catch (SQLException ex) {
-                System.out.println("Error rolling back transaction: " + ex.getMessage());
+                log.error("Error rolling back transaction", "error", ex.getMessage());
             }
             return -1;
         } finally {
@@ -82,134 +126,371 @@ public class DoctorDAO {
                     conn.close();
                 }
             } catch (SQLException e) {
-                System.out.println("Error closing resources: " + e.getMessage());
+                log.warn("Error closing resources", "error", e.getMessage());
             }
+            CREATE_DOCTOR.record(start);
         }
     }
 
     /**
-     * Read a doctor record from the database by ID
+     * Create many doctor records using JDBC batching, with the default batch size
+     * @param doctors Doctor objects to be added
+     * @return the number of doctors created
+     * @see #createDoctors(List, int)
+     */
+    public int createDoctors(List<Doctor> doctors) {
+        return createDoctors(doctors, DatabaseUtil.getBatchSize());
+    }
+
+    /**
+     * Create many doctor records using JDBC batching.
+     * Each batch inserts into the employee and doctor tables and is committed on
+     * its own; every created Doctor object is updated with its generated employee ID.
+     * Stops at the first batch that fails.
+     * @param doctors Doctor objects to be added
+     * @param batchSize number of doctors sent and committed together
+     * @return the number of doctors created
+     * @throws IllegalArgumentException if batchSize is not positive
+     */
+    public int createDoctors(List<Doctor> doctors, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        long startNanos = System.nanoTime();
+        Connection conn = null;
+        PreparedStatement stmtEmployee = null;
+        PreparedStatement stmtDoctor = null;
+        int created = 0;
+
+        try {
+            conn = DatabaseUtil.getConnection();
+            conn.setAutoCommit(false); // Start transaction
+
+            String sqlEmployee = "INSERT INTO employee (first_name, last_name, address, telephone) VALUES (?, ?, ?, ?)";
+            String sqlDoctor = "INSERT INTO doctor (employee_id, speciality) VALUES (?, ?)";
+            stmtEmployee = conn.prepareStatement(sqlEmployee, Statement.RETURN_GENERATED_KEYS);
+            stmtDoctor = conn.prepareStatement(sqlDoctor);
+
+            for (int start = 0; start < doctors.size(); start += batchSize) {
+                List<Doctor> batch = doctors.subList(start, Math.min(start + batchSize, doctors.size()));
+
+                // First, insert into employee table
+                for (Doctor doctor : batch) {
+                    stmtEmployee.setString(1, doctor.getFirstName());
+                    stmtEmployee.setString(2, doctor.getLastName());
+                    stmtEmployee.setString(3, doctor.getAddress());
+                    stmtEmployee.setString(4, doctor.getTelephone());
+                    stmtEmployee.addBatch();
+                }
+                stmtEmployee.executeBatch();
+
+                // Get the generated employee IDs, in insertion order
+                try (ResultSet generatedKeys = stmtEmployee.getGeneratedKeys()) {
+                    for (Doctor doctor : batch) {
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("Creating employees failed, no ID obtained.");
+                        }
+                        doctor.setEmployeeId(generatedKeys.getInt(1));
+                    }
+                }
+
+                // Now, insert into doctor table
+                for (Doctor doctor : batch) {
+                    stmtDoctor.setInt(1, doctor.getEmployeeId());
+                    stmtDoctor.setString(2, doctor.getSpeciality());
+                    stmtDoctor.addBatch();
+                }
+                stmtDoctor.executeBatch();
+
+                conn.commit(); // Commit this batch
+                for (Doctor doctor : batch) {
+                    SearchService.indexDoctor(doctor);
+                    doctor.clearModified(); // Matches the new row
+                    EntityEventBus.publish(EntityEvent.created(Doctor.class, doctor.getEmployeeId(), doctor));
+                }
+                created += batch.size();
+            }
+            return created;
+        } catch (SQLException e) {
+            CREATE_DOCTORS.recordError();
+            log.error("Error creating doctors", "error", e.getMessage());
+            try {
+                if (conn != null) {
+                    conn.rollback(); // Rollback the failed batch
+                }
+            } catch (SQLException ex) {
+                log.error("Error rolling back transaction", "error", ex.getMessage());
+            }
+            return created;
+        } finally {
+            try {
+                if (stmtDoctor != null) stmtDoctor.close();
+                if (stmtEmployee != null) stmtEmployee.close();
+                if (conn != null) {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                }
+            } catch (SQLException e) {
+                log.warn("Error closing resources", "error", e.getMessage());
+            }
+            CREATE_DOCTORS.record(startNanos);
+        }
+    }
+
+    /**
+     * Read a doctor record from the database by ID.
+     * Recently read doctors are served from a shared cache without a query.
      * @param employeeId the ID of the doctor to retrieve
      * @return the Doctor object if found, null if not found
      */
     public Doctor readDoctor(int employeeId) {
+        long start = System.nanoTime();
+        // After a write the session reads from the primary, past the cache
+        boolean cacheable = !DatabaseUtil.wroteRecently();
+        Doctor cached = cacheable ? cache.get(employeeId) : null;
+        if (cached != null) {
+            READ_DOCTOR.record(start);
+            return cached;
+        }
+        long generation = cache.generation();
         String sql = "SELECT e.*, d.speciality FROM employee e " +
                 "JOIN doctor d ON e.employee_id = d.employee_id " +
                 "WHERE e.employee_id = ?";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, employeeId);
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return new Doctor(
-                        rs.getInt("employee_id"),
-                        rs.getString("first_name"),
-                        rs.getString("last_name"),
-                        rs.getString("address"),
-                        rs.getString("telephone"),
-                        rs.getString("speciality")
-                );
+                Doctor doctor = mapDoctor(rs);
+                if (cacheable && !DatabaseUtil.isReplicaConnection(conn)) {
+                    cache.put(employeeId, doctor, generation); // Only rows read from the primary
+                }
+                return doctor;
             } else {
                 return null; // Doctor not found
             }
         } catch (SQLException e) {
-            System.out.println("Error reading doctor: " + e.getMessage());
+            READ_DOCTOR.recordError();
+            log.error("Error reading doctor", "employeeId", employeeId, "error", e.getMessage());
             return null;
+        } finally {
+            READ_DOCTOR.record(start);
         }
     }
 
+    /**
+     * Get the hit/miss statistics of the shared doctor cache
+     * @return the current CacheStats
+     */
+    public static CacheStats getCacheStats() {
+        return cache.getStats();
+    }
+
+    /**
+     * Drop the cached doctors, e.g. after a write that bypassed this DAO
+     */
+    public static void invalidateCache() {
+        cache.invalidateAll();
+    }
+
     /**
      * Read all doctors from the database
      * @return List of all Doctor objects
      */
     public List<Doctor> readAllDoctors() {
+        long start = System.nanoTime();
         String sql = "SELECT e.*, d.speciality FROM employee e " +
                 "JOIN doctor d ON e.employee_id = d.employee_id";
         List<Doctor> doctors = new ArrayList<>();
 
-        try (Connection conn = DatabaseUtil.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (Connection conn = DatabaseUtil.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-                Doctor doctor = new Doctor(
-                        rs.getInt("employee_id"),
-                        rs.getString("first_name"),
-                        rs.getString("last_name"),
-                        rs.getString("address"),
-                        rs.getString("telephone"),
-                        rs.getString("speciality")
-                );
-                doctors.add(doctor);
+                doctors.add(mapDoctor(rs));
             }
         } catch (SQLException e) {
-            System.out.println("Error reading all doctors: " + e.getMessage());
+            READ_ALL_DOCTORS.recordError();
+            log.error("Error reading all doctors", "error", e.getMessage());
+        } finally {
+            READ_ALL_DOCTORS.record(start);
         }
 
         return doctors;
     }
 
     /**
-     * Update a doctor record in the database
-     * @param doctor Doctor object with updated information
-     * @return true if update was successful, false otherwise
+     * Count the doctors in the database
+     * @return the number of doctors, -1 if failed
      */
-    public boolean updateDoctor(Doctor doctor) {
-        Connection conn = null;
-        PreparedStatement stmtEmployee = null;
-        PreparedStatement stmtDoctor = null;
+    public int countDoctors() {
+        long start = System.nanoTime();
+        String sql = "SELECT COUNT(*) FROM doctor";
 
-        try {
-            conn = DatabaseUtil.getConnection();
-            conn.setAutoCommit(false); // Start transaction
+        try (Connection conn = DatabaseUtil.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
 
-            // Update employee table
-            String sqlEmployee = "UPDATE employee SET first_name = ?, last_name = ?, address = ?, telephone = ? WHERE employee_id = ?";
-            stmtEmployee = conn.prepareStatement(sqlEmployee);
+            rs.next();
+            return rs.getInt(1);
+        } catch (SQLException e) {
+            COUNT_DOCTORS.recordError();
+            log.error("Error counting doctors", "error", e.getMessage());
+            return -1;
+        } finally {
+            COUNT_DOCTORS.record(start);
+        }
+    }
 
-            stmtEmployee.setString(1, doctor.getFirstName());
-            stmtEmployee.setString(2, doctor.getLastName());
-            stmtEmployee.setString(3, doctor.getAddress());
-            stmtEmployee.setString(4, doctor.getTelephone());
-            stmtEmployee.setInt(5, doctor.getEmployeeId());
+    /**
+     * Read one page of doctors in employee ID order, using keyset pagination
+     * @param pageToken token from the previous page, or null for the first page
+     * @param limit maximum number of doctors in the page
+     * @return the page, with a token for the next page if there is one
+     */
+    public Page<Doctor> readDoctorsPage(String pageToken, int limit) {
+        return readDoctorsPage(pageToken, limit, null);
+    }
 
-            stmtEmployee.executeUpdate();
+    /**
+     * Read one page of doctors ordered by a column, using keyset pagination.
+     * Ties are broken by ID, and deep pages cost the same as the first one.
+     * @param pageToken token from the previous page with the same sort column, or null for the first page
+     * @param limit maximum number of doctors in the page
+     * @param sortColumn first_name, last_name or speciality, or null to sort by ID
+     * @return the page, with a token for the next page if there is one
+     * @throws IllegalArgumentException if the limit, sort column or page token is invalid
+     */
+    public Page<Doctor> readDoctorsPage(String pageToken, int limit, String sortColumn) {
+        return readDoctorsPage(pageToken, 0, limit, sortColumn);
+    }
 
-            // Update doctor table
-            String sqlDoctor = "UPDATE doctor SET speciality = ? WHERE employee_id = ?";
-            stmtDoctor = conn.prepareStatement(sqlDoctor);
+    /**
+     * Read one page of doctors in ID order, starting some rows after a page token.
+     * Lets a caller such as a scrolling table jump ahead from the nearest page it
+     * has a token for; the database still reads the skipped rows, so keep skip small.
+     * @param pageToken token of an earlier page, or null to count from the first row
+     * @param skip number of rows after the token to skip
+     * @param limit maximum number of doctors in the page
+     * @return the page, with a token for the next page if there is one
+     * @throws IllegalArgumentException if the skip, limit or page token is invalid
+     */
+    public Page<Doctor> readDoctorsPageSkipping(String pageToken, int skip, int limit) {
+        return readDoctorsPage(pageToken, skip, limit, null);
+    }
 
-            stmtDoctor.setString(1, doctor.getSpeciality());
-            stmtDoctor.setInt(2, doctor.getEmployeeId());
+    private Page<Doctor> readDoctorsPage(String pageToken, int skip, int limit, String sortColumn) {
+        long start = System.nanoTime();
+        String sql = "SELECT e.*, d.speciality FROM employee e " +
+                "JOIN doctor d ON e.employee_id = d.employee_id";
 
-            stmtDoctor.executeUpdate();
+        try (Connection conn = DatabaseUtil.getReadConnection()) {
+            return KeysetQuery.fetch(conn, sql, "e.employee_id",
+                    PAGE_SORT_COLUMNS, sortColumn, pageToken, skip, limit,
+                    this::mapDoctor);
+        } catch (SQLException e) {
+            READ_DOCTORS_PAGE.recordError();
+            log.error("Error reading doctors page", "error", e.getMessage());
+            return Page.empty();
+        } finally {
+            READ_DOCTORS_PAGE.record(start);
+        }
+    }
 
-            conn.commit(); // Commit transaction
-            return true;
+    /**
+     * Stream every doctor without loading them all into memory.
+     * Rows are read from the database as the stream is consumed; the stream
+     * holds a connection until it is closed, so use it in try-with-resources.
+     * @return a Stream of Doctor objects in ID order
+     */
+    public Stream<Doctor> streamAllDoctors() {
+        return ResultSetStream.open(DatabaseUtil::getReadConnection, ALL_DOCTORS_SQL,
+                this::mapDoctor, "doctors");
+    }
+
+    /**
+     * Pass every doctor to an action, streaming the rows like {@link #streamAllDoctors()}
+     * from the primary, for loads that must not miss a committed write such as the search index
+     * @param action called with each doctor, in ID order
+     * @return true if every doctor was read, false if a database error cut the read short
+     */
+    public boolean forEachDoctor(Consumer<Doctor> action) {
+        return ResultSetStream.forEach(DatabaseUtil::getPrimaryReadConnection, ALL_DOCTORS_SQL,
+                this::mapDoctor, "doctors", action);
+    }
+
+    /**
+     * Update a doctor record in the database.
+     * Only the columns of the fields modified since the doctor was loaded are
+     * written, a table with no modified column is skipped, and if nothing was
+     * modified no statement is sent. When both tables change, they are updated
+     * in one transaction.
+     * @param doctor Doctor object with updated information
+     * @return true if update was successful or there was nothing to update, false otherwise
+     */
+    public boolean updateDoctor(Doctor doctor) {
+        long start = System.nanoTime();
+        if (!doctor.isModified()) {
+            UPDATE_DOCTOR.record(start);
+            return true; // Unchanged since it was loaded
+        }
+        ColumnUpdate employeeUpdate = new ColumnUpdate("employee")
+                .set(doctor.isModified(Employee.FIRST_NAME), "first_name", doctor.getFirstName(), Types.VARCHAR)
+                .set(doctor.isModified(Employee.LAST_NAME), "last_name", doctor.getLastName(), Types.VARCHAR)
+                .set(doctor.isModified(Employee.ADDRESS), "address", doctor.getAddress(), Types.VARCHAR)
+                .set(doctor.isModified(Employee.TELEPHONE), "telephone", doctor.getTelephone(), Types.VARCHAR);
+        ColumnUpdate doctorUpdate = new ColumnUpdate("doctor")
+                .set(doctor.isModified(Doctor.SPECIALITY), "speciality", doctor.getSpeciality(), Types.VARCHAR);
+        // A single statement needs no transaction of its own
+        boolean transaction = !employeeUpdate.isEmpty() && !doctorUpdate.isEmpty();
+        Connection conn = null;
+
+        try {
+            conn = DatabaseUtil.getConnection();
+            if (transaction) {
+                conn.setAutoCommit(false); // Start transaction
+            }
+
+            int affectedRows = employeeUpdate.execute(conn, "employee_id", doctor.getEmployeeId())
+                    + doctorUpdate.execute(conn, "employee_id", doctor.getEmployeeId());
+
+            if (transaction) {
+                conn.commit(); // Commit transaction
+            }
+            cache.invalidate(doctor.getEmployeeId());
+            if (affectedRows > 0) {
+                doctor.clearModified();
+                SearchService.indexDoctor(doctor);
+                EntityEventBus.publish(EntityEvent.updated(Doctor.class, doctor.getEmployeeId(), doctor));
+            }
+            return affectedRows > 0;
         } catch (SQLException e) {
-            System.out.println("Error updating doctor: " + e.getMessage());
+            UPDATE_DOCTOR.recordError();
+            log.error("Error updating doctor", "employeeId", doctor.getEmployeeId(), "error", e.getMessage());
             try {
-                if (conn != null) {
+                if (conn != null && transaction) {
                     conn.rollback(); // Rollback transaction
                 }
             } catch (SQLException ex) {
-                System.out.println("Error rolling back transaction: " + ex.getMessage());
+                log.error("Error rolling back transaction", "error", ex.getMessage());
             }
             return false;
         } finally {
             try {
-                if (stmtDoctor != null) stmtDoctor.close();
-                if (stmtEmployee != null) stmtEmployee.close();
                 if (conn != null) {
-                    conn.setAutoCommit(true);
+                    if (transaction) {
+                        conn.setAutoCommit(true);
+                    }
                     conn.close();
                 }
             } catch (SQLException e) {
-                System.out.println("Error closing resources: " + e.getMessage());
+                log.warn("Error closing resources", "error", e.getMessage());
             }
+            UPDATE_DOCTOR.record(start);
         }
     }
 
@@ -219,6 +500,7 @@ public class DoctorDAO {
      * @return true if deletion was successful, false otherwise
      */
     public boolean deleteDoctor(int employeeId) {
+        long start = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmtDoctor = null;
         PreparedStatement stmtEmployee = null;
@@ -240,15 +522,22 @@ public class DoctorDAO {
             int affectedRows = stmtEmployee.executeUpdate();
 
             conn.commit(); // Commit transaction
+            cache.invalidate(employeeId);
+            SearchService.removeDoctor(employeeId);
+            DepartmentDAO.invalidateCache(); // The department director_id may have been cleared
+            if (affectedRows > 0) {
+                EntityEventBus.publish(EntityEvent.deleted(Doctor.class, employeeId));
+            }
             return affectedRows > 0;
         } catch (SQLException e) {
-            System.out.println("Error deleting doctor: " + e.getMessage());
+            DELETE_DOCTOR.recordError();
+            log.error("Error deleting doctor", "employeeId", employeeId, "error", e.getMessage());
             try {
                 if (conn != null) {
                     conn.rollback(); // Rollback transaction
                 }
             } catch (SQLException ex) {
-                System.out.println("Error rolling back transaction: " + ex.getMessage());
+                log.error("Error rolling back transaction", "employeeId", employeeId, "error", ex.getMessage());
             }
             return false;
         } finally {
@@ -260,8 +549,9 @@ public class DoctorDAO {
                     conn.close();
                 }
             } catch (SQLException e) {
-                System.out.println("Error closing resources: " + e.getMessage());
+                log.warn("Error closing resources", "error", e.getMessage());
             }
+            DELETE_DOCTOR.record(start);
         }
     }
 
@@ -271,12 +561,13 @@ public class DoctorDAO {
      * @return List of matching Doctor objects
      */
     public List<Doctor> searchDoctors(String query) {
+        long start = System.nanoTime();
         String sql = "SELECT e.*, d.speciality FROM employee e " +
                 "JOIN doctor d ON e.employee_id = d.employee_id " +
                 "WHERE e.first_name LIKE ? OR e.last_name LIKE ? OR d.speciality LIKE ?";
         List<Doctor> doctors = new ArrayList<>();
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             String searchPattern = "%" + query + "%";
@@ -287,20 +578,40 @@ public class DoctorDAO {
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Doctor doctor = new Doctor(
-                        rs.getInt("employee_id"),
-                        rs.getString("first_name"),
-                        rs.getString("last_name"),
-                        rs.getString("address"),
-                        rs.getString("telephone"),
-                        rs.getString("speciality")
-                );
-                doctors.add(doctor);
+                doctors.add(mapDoctor(rs));
             }
         } catch (SQLException e) {
-            System.out.println("Error searching doctors: " + e.getMessage());
+            SEARCH_DOCTORS.recordError();
+            log.error("Error searching doctors", "error", e.getMessage());
+        } finally {
+            SEARCH_DOCTORS.record(start);
         }
 
         return doctors;
     }
+
+    /**
+     * Build a Doctor from the current row, with no fields counted as modified
+     * @param rs a result set positioned on a doctor row
+     * @return the Doctor object
+     */
+    private Doctor mapDoctor(ResultSet rs) throws SQLException {
+        Doctor doctor = new Doctor(
+                rs.getInt("employee_id"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getString("address"),
+                rs.getString("telephone"),
+                rs.getString("speciality")
+        );
+        doctor.clearModified();
+        return doctor;
+    }
+
+    // Callers get their own copy so they cannot change the cached rows
+    private static Doctor copyOf(Doctor doctor) {
+        Doctor copy = new Doctor(doctor);
+        copy.clearModified();
+        return copy;
+    }
 }
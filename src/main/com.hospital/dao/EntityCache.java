@@ -0,0 +1,233 @@
+package com.hospital.dao;
+
+import com.hospital.util.CacheStats;
+
+import java.util.Arrays;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded cache of single entities by primary key, shared by all instances of a DAO.
+ * Holds at most maxSize entities; when it is full the least recently read one
+ * is evicted, and an entity older than the TTL is read from the database again.
+ * The DAO drops an entity whenever it writes it.
+ * <p>
+ * Entries live in fixed arrays indexed by slot, chained into hash buckets by
+ * their int key and into a recency list, so a lookup neither boxes the key nor
+ * allocates. Callers get a copy of the cached entity, so they cannot change it.
+ * @param <T> the entity type
+ */
+class EntityCache<T> {
+    private static final int NONE = -1;
+
+    private final int maxSize;
+    private final long ttlMs;
+    private final UnaryOperator<T> copier;
+
+    // Per slot: key, entity, load time, next slot in the same bucket, and the recency list
+    private final int[] keys;
+    private final Object[] values;
+    private final long[] loadedAt;
+    private final int[] chain;
+    private final int[] newer;
+    private final int[] older;
+
+    private final int[] buckets; // First slot of each bucket
+    private int newest = NONE;
+    private int oldest = NONE;
+    private int free; // First unused slot, chained through the chain array
+    private int size;
+
+    // Bumped on every invalidation so a load that raced with a write is not installed
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * @param maxSize most entities held; 0 or less disables the cache
+     * @param ttlMs how long an entity is served; 0 or less disables the cache
+     * @param copier copies an entity, so the cached one is never handed out
+     */
+    EntityCache(int maxSize, long ttlMs, UnaryOperator<T> copier) {
+        this.maxSize = ttlMs > 0 ? Math.max(0, maxSize) : 0;
+        this.ttlMs = ttlMs;
+        this.copier = copier;
+
+        int slots = this.maxSize;
+        keys = new int[slots];
+        values = new Object[slots];
+        loadedAt = new long[slots];
+        chain = new int[slots];
+        newer = new int[slots];
+        older = new int[slots];
+        for (int slot = 0; slot < slots; slot++) {
+            chain[slot] = slot + 1 < slots ? slot + 1 : NONE;
+        }
+        free = slots > 0 ? 0 : NONE;
+
+        // Power of two at least twice the size, so chains stay short
+        buckets = new int[slots > 0 ? Integer.highestOneBit(slots * 2 - 1) << 1 : 1];
+        Arrays.fill(buckets, NONE);
+    }
+
+    /**
+     * Get a copy of a cached entity if it has not expired
+     * @param id the primary key
+     * @return the copy, or null if the entity must be read from the database
+     */
+    T get(int id) {
+        if (maxSize == 0) {
+            return null;
+        }
+        T cached;
+        synchronized (this) {
+            int slot = find(id);
+            if (slot == NONE) {
+                misses++;
+                return null;
+            }
+            if (System.currentTimeMillis() - loadedAt[slot] >= ttlMs) {
+                remove(slot);
+                evictions++;
+                misses++;
+                return null;
+            }
+            unlink(slot);
+            linkNewest(slot);
+            hits++;
+            @SuppressWarnings("unchecked")
+            T value = (T) values[slot];
+            cached = value;
+        }
+        return copier.apply(cached);
+    }
+
+    synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Cache a freshly read entity, unless a write invalidated the cache while it was being read
+     * @param id the primary key
+     * @param entity the entity read from the database
+     * @param loadGeneration the value of {@link #generation()} before the read started
+     */
+    void put(int id, T entity, long loadGeneration) {
+        if (maxSize == 0) {
+            return;
+        }
+        T copy = copier.apply(entity);
+        synchronized (this) {
+            if (generation != loadGeneration) {
+                return;
+            }
+            int slot = find(id);
+            if (slot != NONE) {
+                unlink(slot);
+            } else {
+                if (free == NONE) {
+                    remove(oldest);
+                    evictions++;
+                }
+                slot = free;
+                free = chain[slot];
+                keys[slot] = id;
+                int bucket = bucket(id);
+                chain[slot] = buckets[bucket];
+                buckets[bucket] = slot;
+                size++;
+            }
+            values[slot] = copy;
+            loadedAt[slot] = System.currentTimeMillis();
+            linkNewest(slot);
+        }
+    }
+
+    /**
+     * Drop one entity, after it was written
+     * @param id the primary key
+     */
+    synchronized void invalidate(int id) {
+        generation++;
+        invalidations++;
+        int slot = find(id);
+        if (slot != NONE) {
+            remove(slot);
+        }
+    }
+
+    /**
+     * Drop every entity
+     */
+    synchronized void invalidateAll() {
+        generation++;
+        invalidations++;
+        while (oldest != NONE) {
+            remove(oldest);
+        }
+    }
+
+    synchronized CacheStats getStats() {
+        return new CacheStats(hits, misses, evictions, invalidations, size);
+    }
+
+    private int bucket(int id) {
+        int hash = id * 0x9E3779B9; // Spread sequential IDs over the buckets
+        return (hash ^ (hash >>> 16)) & (buckets.length - 1);
+    }
+
+    private int find(int id) {
+        for (int slot = buckets[bucket(id)]; slot != NONE; slot = chain[slot]) {
+            if (keys[slot] == id) {
+                return slot;
+            }
+        }
+        return NONE;
+    }
+
+    // Unhook a slot from its bucket and the recency list and return it to the free list
+    private void remove(int slot) {
+        int bucket = bucket(keys[slot]);
+        if (buckets[bucket] == slot) {
+            buckets[bucket] = chain[slot];
+        } else {
+            int previous = buckets[bucket];
+            while (chain[previous] != slot) {
+                previous = chain[previous];
+            }
+            chain[previous] = chain[slot];
+        }
+        unlink(slot);
+        values[slot] = null;
+        chain[slot] = free;
+        free = slot;
+        size--;
+    }
+
+    private void unlink(int slot) {
+        if (newer[slot] != NONE) {
+            older[newer[slot]] = older[slot];
+        } else {
+            newest = older[slot];
+        }
+        if (older[slot] != NONE) {
+            newer[older[slot]] = newer[slot];
+        } else {
+            oldest = newer[slot];
+        }
+    }
+
+    private void linkNewest(int slot) {
+        newer[slot] = NONE;
+        older[slot] = newest;
+        if (newest != NONE) {
+            newer[newest] = slot;
+        }
+        newest = slot;
+        if (oldest == NONE) {
+            oldest = slot;
+        }
+    }
+}
@@ -0,0 +1,774 @@
+package com.hospital.dao;
+
+import com.hospital.model.Bed;
+import com.hospital.model.Hospitalization;
+import com.hospital.util.AdmissionStats;
+import com.hospital.util.DaoMetrics;
+import com.hospital.util.DatabaseUtil;
+import com.hospital.util.Logger;
+import com.hospital.util.MethodMetrics;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hospitalization Data Access Object.
+ * Provides admission, discharge and CRUD operations for Hospitalization entities.
+ * <p>
+ * Which beds are occupied is kept in a shared in-memory {@link BedOccupancy}
+ * map, loaded from the open hospitalizations (those without a discharge date)
+ * on first use, and kept current by every write through this DAO and
+ * {@link WardDAO}. It answers free bed lookups without a query.
+ * <p>
+ * Admissions are optimistic: a bed is claimed in the map without locking,
+ * then the row is written only if no open stay holds the bed. If another
+ * writer (such as another application server) got there first, the bed stays
+ * marked occupied and the next free bed is tried, without asking the user.
+ * Counters for throughput and conflicts are available from
+ * {@link #getAdmissionStats()}.
+ */
+public class HospitalizationDAO {
+    private static final Logger log = Logger.getLogger(HospitalizationDAO.class);
+
+    // Latency and error counters of each public method, published over JMX
+    private static final MethodMetrics ADMIT_PATIENT = DaoMetrics.forMethod(HospitalizationDAO.class, "admitPatient");
+    private static final MethodMetrics ADMIT_TO_FREE_BED = DaoMetrics.forMethod(HospitalizationDAO.class, "admitToFreeBed");
+    private static final MethodMetrics ADMIT_TO_FREE_BED_IN_DEPARTMENT = DaoMetrics.forMethod(HospitalizationDAO.class, "admitToFreeBedInDepartment");
+    private static final MethodMetrics DISCHARGE_PATIENT = DaoMetrics.forMethod(HospitalizationDAO.class, "dischargePatient");
+    private static final MethodMetrics READ_HOSPITALIZATION = DaoMetrics.forMethod(HospitalizationDAO.class, "readHospitalization");
+    private static final MethodMetrics READ_ALL_HOSPITALIZATIONS = DaoMetrics.forMethod(HospitalizationDAO.class, "readAllHospitalizations");
+    private static final MethodMetrics GET_HOSPITALIZATIONS_BY_PATIENT = DaoMetrics.forMethod(HospitalizationDAO.class, "getHospitalizationsByPatient");
+    private static final MethodMetrics GET_OPEN_HOSPITALIZATIONS_BY_WARD = DaoMetrics.forMethod(HospitalizationDAO.class, "getOpenHospitalizationsByWard");
+    private static final MethodMetrics UPDATE_HOSPITALIZATION = DaoMetrics.forMethod(HospitalizationDAO.class, "updateHospitalization");
+    private static final MethodMetrics DELETE_HOSPITALIZATION = DaoMetrics.forMethod(HospitalizationDAO.class, "deleteHospitalization");
+    private static final MethodMetrics FIND_FREE_BED = DaoMetrics.forMethod(HospitalizationDAO.class, "findFreeBed");
+    private static final MethodMetrics FIND_FREE_BED_IN_DEPARTMENT = DaoMetrics.forMethod(HospitalizationDAO.class, "findFreeBedInDepartment");
+    private static final MethodMetrics COUNT_FREE_BEDS = DaoMetrics.forMethod(HospitalizationDAO.class, "countFreeBeds");
+
+    // Shared by all instances; WardDAO updates it too
+    static final BedOccupancy beds = new BedOccupancy();
+
+    // Beds tried per admission when other writers keep taking them first
+    private static final int MAX_ADMISSION_ATTEMPTS = 8;
+
+    // Times the same bed is written again after the database broke a lock conflict
+    private static final int MAX_LOCK_RETRIES = 3;
+
+    // Writes the row only if no open stay holds the bed; the UNIQUE
+    // (ward_id, bed_number, admission_date) constraint catches concurrent inserts.
+    // On InnoDB at REPEATABLE READ the NOT EXISTS read takes next-key locks, so
+    // concurrent admissions to neighbouring beds can deadlock; those are retried
+    private static final String ADMIT_SQL =
+            "INSERT INTO hospitalization (patient_id, ward_id, bed_number, diagnosis, doctor_id, admission_date) " +
+            "SELECT ?, ?, ?, ?, ?, ? FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM hospitalization " +
+            "WHERE ward_id = ? AND bed_number = ? AND discharge_date IS NULL)";
+
+    // insertAdmission results other than an ID
+    private static final int BED_OCCUPIED = 0;
+    private static final int BED_TAKEN_TODAY = -2;
+    private static final int INSERT_FAILED = -1;
+    private static final int LOCK_CONFLICT = -3;
+
+    private static final LongAdder admittedCount = new LongAdder();
+    private static final LongAdder attemptCount = new LongAdder();
+    private static final LongAdder conflictCount = new LongAdder();
+    private static final LongAdder noFreeBedCount = new LongAdder();
+    private static final LongAdder failedCount = new LongAdder();
+    private static volatile long statsStartNanos = System.nanoTime();
+
+    /**
+     * Admit a patient to a given bed. The bed must exist and be free.
+     * @param hospitalization the stay, without a discharge date
+     * @return the generated hospitalization ID if successful, -1 if failed
+     */
+    public int admitPatient(Hospitalization hospitalization) {
+        long start = System.nanoTime();
+        int wardId = hospitalization.getWardId();
+        int bedNumber = hospitalization.getBedNumber();
+        int id = admit(hospitalization, () -> beds.occupy(wardId, bedNumber) ? new Bed(wardId, bedNumber) : null,
+                1, "reason", "bed occupied or missing", "wardId", wardId, "bedNumber", bedNumber);
+        return recorded(ADMIT_PATIENT, start, id);
+    }
+
+    /**
+     * Admit a patient to the lowest-numbered free bed of a ward.
+     * If another writer takes the bed first, the next free bed is tried.
+     * @param hospitalization the stay, with its ward set; its bed number is filled in
+     * @return the generated hospitalization ID if successful, -1 if failed or the ward is full
+     */
+    public int admitToFreeBed(Hospitalization hospitalization) {
+        long start = System.nanoTime();
+        int wardId = hospitalization.getWardId();
+        int id = admit(hospitalization, () -> {
+            int bedNumber = beds.claimFreeBed(wardId);
+            return bedNumber > 0 ? new Bed(wardId, bedNumber) : null;
+        }, MAX_ADMISSION_ATTEMPTS, "reason", "no free bed", "wardId", wardId);
+        return recorded(ADMIT_TO_FREE_BED, start, id);
+    }
+
+    /**
+     * Admit a patient to a free bed in any ward of a department.
+     * If another writer takes the bed first, the next free bed is tried.
+     * @param hospitalization the stay; its ward and bed number are filled in
+     * @param departmentId the department ID
+     * @return the generated hospitalization ID if successful, -1 if failed or the department is full
+     */
+    public int admitToFreeBedInDepartment(Hospitalization hospitalization, int departmentId) {
+        long start = System.nanoTime();
+        int id = admit(hospitalization, () -> beds.claimFreeBedInDepartment(departmentId),
+                MAX_ADMISSION_ATTEMPTS, "reason", "no free bed", "departmentId", departmentId);
+        return recorded(ADMIT_TO_FREE_BED_IN_DEPARTMENT, start, id);
+    }
+
+    /**
+     * Get the admission counters, e.g. to watch throughput and conflicts during a surge
+     * @return the current AdmissionStats
+     */
+    public static AdmissionStats getAdmissionStats() {
+        return new AdmissionStats(admittedCount.sum(), attemptCount.sum(), conflictCount.sum(),
+                noFreeBedCount.sum(), failedCount.sum(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - statsStartNanos));
+    }
+
+    /**
+     * Start the admission counters from zero
+     */
+    public static void resetAdmissionStats() {
+        admittedCount.reset();
+        attemptCount.reset();
+        conflictCount.reset();
+        noFreeBedCount.reset();
+        failedCount.reset();
+        statsStartNanos = System.nanoTime();
+    }
+
+    // Times an admission; a full ward or department counts as an error too
+    private static int recorded(MethodMetrics metrics, long start, int id) {
+        if (id < 0) {
+            metrics.recordError();
+        }
+        metrics.record(start);
+        return id;
+    }
+
+    // Claims a bed in the map, or returns null if there is none to claim
+    private interface BedClaim {
+        Bed claim();
+    }
+
+    /**
+     * Claim a bed in the map and write the admission, moving on to the next
+     * claimed bed when another writer turns out to hold the bed already
+     */
+    private int admit(Hospitalization hospitalization, BedClaim bedClaim, int maxAttempts, Object... noBedFields) {
+        if (!loadBedOccupancy()) {
+            failedCount.increment();
+            return -1;
+        }
+
+        // Beds another stay was admitted to and discharged from on the same day;
+        // held until this admission is done so the next claim moves past them
+        List<Bed> takenToday = new ArrayList<>();
+        try {
+            for (int attempt = 0; attempt < maxAttempts; attempt++) {
+                Bed bed = bedClaim.claim();
+                if (bed == null) {
+                    noFreeBedCount.increment();
+                    log.warn("Patient not admitted", noBedFields);
+                    return -1;
+                }
+
+                attemptCount.increment();
+                int result = insertAdmission(hospitalization, bed);
+                for (int retry = 1; result == LOCK_CONFLICT && retry <= MAX_LOCK_RETRIES; retry++) {
+                    // The database rolled the statement back; the bed is still ours in the map
+                    conflictCount.increment();
+                    if (!backOff(retry)) {
+                        break;
+                    }
+                    attemptCount.increment();
+                    result = insertAdmission(hospitalization, bed);
+                }
+                if (result > 0) {
+                    admittedCount.increment();
+                    return result;
+                }
+                if (result == INSERT_FAILED || result == LOCK_CONFLICT) {
+                    if (result == LOCK_CONFLICT) {
+                        log.error("Error admitting patient", "reason", "lock conflict persisted",
+                                "wardId", bed.getWardId(), "bedNumber", bed.getBedNumber());
+                    }
+                    beds.release(bed.getWardId(), bed.getBedNumber()); // Give the claimed bed back
+                    failedCount.increment();
+                    return -1;
+                }
+
+                conflictCount.increment();
+                if (result == BED_TAKEN_TODAY) {
+                    takenToday.add(bed);
+                }
+                // BED_OCCUPIED: another writer holds the bed, so it stays marked occupied
+            }
+            failedCount.increment();
+            if (maxAttempts == 1) {
+                log.warn("Patient not admitted", noBedFields);
+            } else {
+                log.warn("Patient not admitted", "reason", "gave up after conflicting attempts",
+                        "attempts", maxAttempts);
+            }
+            return -1;
+        } finally {
+            for (Bed bed : takenToday) {
+                beds.release(bed.getWardId(), bed.getBedNumber());
+            }
+        }
+    }
+
+    /**
+     * Write an admission row unless the bed is already held by an open stay
+     * @return the generated hospitalization ID, or BED_OCCUPIED, BED_TAKEN_TODAY, LOCK_CONFLICT or INSERT_FAILED
+     */
+    private int insertAdmission(Hospitalization hospitalization, Bed bed) {
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(ADMIT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+
+            stmt.setInt(1, hospitalization.getPatientId());
+            stmt.setInt(2, bed.getWardId());
+            stmt.setInt(3, bed.getBedNumber());
+            stmt.setString(4, hospitalization.getDiagnosis());
+            stmt.setInt(5, hospitalization.getDoctorId());
+            stmt.setDate(6, Date.valueOf(hospitalization.getAdmissionDate()));
+            stmt.setInt(7, bed.getWardId());
+            stmt.setInt(8, bed.getBedNumber());
+
+            if (stmt.executeUpdate() == 0) {
+                return BED_OCCUPIED;
+            }
+
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    int id = generatedKeys.getInt(1);
+                    hospitalization.setHospitalizationId(id);
+                    hospitalization.setWardId(bed.getWardId());
+                    hospitalization.setBedNumber(bed.getBedNumber());
+                    hospitalization.setDischargeDate(null);
+                    return id;
+                } else {
+                    throw new SQLException("Admitting patient failed, no ID obtained.");
+                }
+            }
+        } catch (SQLException e) {
+            if (isDuplicateKey(e)) {
+                return BED_TAKEN_TODAY; // UNIQUE (ward_id, bed_number, admission_date)
+            }
+            if (isLockConflict(e)) {
+                log.warn("Admission hit a lock conflict", "error", e.getMessage());
+                return LOCK_CONFLICT;
+            }
+            log.error("Error admitting patient", "error", e.getMessage());
+            return INSERT_FAILED;
+        }
+    }
+
+    // MySQL reports duplicate keys as error 1062, H2 as SQLState 23505
+    private static boolean isDuplicateKey(SQLException e) {
+        return e.getErrorCode() == 1062 || "23505".equals(e.getSQLState());
+    }
+
+    // Deadlock (MySQL 1213, SQLState 40001 for MySQL and H2) or lock wait timeout (MySQL 1205, H2 HYT00)
+    private static boolean isLockConflict(SQLException e) {
+        return e.getErrorCode() == 1213 || e.getErrorCode() == 1205
+                || "40001".equals(e.getSQLState()) || "HYT00".equals(e.getSQLState());
+    }
+
+    /**
+     * Wait a little before writing again after a lock conflict, longer on each retry
+     * and with jitter, so the writers that collided do not collide again
+     * @return false if the thread was interrupted
+     */
+    private static boolean backOff(int retry) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(5L << retry, 10L << retry));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Discharge a patient, freeing their bed
+     * @param hospitalizationId the ID of the hospitalization to close
+     * @param dischargeDate the discharge date
+     * @return true if the patient was discharged, false if failed or already discharged
+     */
+    public boolean dischargePatient(int hospitalizationId, LocalDate dischargeDate) {
+        long start = System.nanoTime();
+        String sqlSelect = "SELECT ward_id, bed_number FROM hospitalization WHERE hospitalization_id = ? AND discharge_date IS NULL";
+        String sqlUpdate = "UPDATE hospitalization SET discharge_date = ? WHERE hospitalization_id = ? AND discharge_date IS NULL";
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement stmtSelect = conn.prepareStatement(sqlSelect);
+             PreparedStatement stmtUpdate = conn.prepareStatement(sqlUpdate)) {
+
+            stmtSelect.setInt(1, hospitalizationId);
+            int wardId;
+            int bedNumber;
+            try (ResultSet rs = stmtSelect.executeQuery()) {
+                if (!rs.next()) {
+                    return false; // Not found or already discharged
+                }
+                wardId = rs.getInt("ward_id");
+                bedNumber = rs.getInt("bed_number");
+            }
+
+            stmtUpdate.setDate(1, Date.valueOf(dischargeDate));
+            stmtUpdate.setInt(2, hospitalizationId);
+
+            int affectedRows = stmtUpdate.executeUpdate();
+            if (affectedRows > 0) {
+                beds.release(wardId, bedNumber);
+            }
+            return affectedRows > 0;
+        } catch (SQLException e) {
+            DISCHARGE_PATIENT.recordError();
+            log.error("Error discharging patient", "hospitalizationId", hospitalizationId, "error", e.getMessage());
+            return false;
+        } finally {
+            DISCHARGE_PATIENT.record(start);
+        }
+    }
+
+    /**
+     * Read a hospitalization record from the database by ID
+     * @param hospitalizationId the ID of the hospitalization to retrieve
+     * @return the Hospitalization object if found, null if not found
+     */
+    public Hospitalization readHospitalization(int hospitalizationId) {
+        long start = System.nanoTime();
+        String sql = "SELECT * FROM hospitalization WHERE hospitalization_id = ?";
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, hospitalizationId);
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                return mapHospitalization(rs);
+            } else {
+                return null; // Hospitalization not found
+            }
+        } catch (SQLException e) {
+            READ_HOSPITALIZATION.recordError();
+            log.error("Error reading hospitalization", "hospitalizationId", hospitalizationId, "error", e.getMessage());
+            return null;
+        } finally {
+            READ_HOSPITALIZATION.record(start);
+        }
+    }
+
+    /**
+     * Read all hospitalizations
+     * @return List of all Hospitalization objects
+     */
+    public List<Hospitalization> readAllHospitalizations() {
+        long start = System.nanoTime();
+        String sql = "SELECT * FROM hospitalization";
+        List<Hospitalization> hospitalizations = new ArrayList<>();
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                hospitalizations.add(mapHospitalization(rs));
+            }
+        } catch (SQLException e) {
+            READ_ALL_HOSPITALIZATIONS.recordError();
+            log.error("Error reading all hospitalizations", "error", e.getMessage());
+        } finally {
+            READ_ALL_HOSPITALIZATIONS.record(start);
+        }
+
+        return hospitalizations;
+    }
+
+    /**
+     * Read a patient's hospitalizations, most recent admission first
+     * @param patientId the patient ID
+     * @return List of the patient's Hospitalization objects
+     */
+    public List<Hospitalization> getHospitalizationsByPatient(int patientId) {
+        long start = System.nanoTime();
+        String sql = "SELECT * FROM hospitalization WHERE patient_id = ? ORDER BY admission_date DESC";
+        List<Hospitalization> hospitalizations = new ArrayList<>();
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, patientId);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                hospitalizations.add(mapHospitalization(rs));
+            }
+        } catch (SQLException e) {
+            GET_HOSPITALIZATIONS_BY_PATIENT.recordError();
+            log.error("Error reading hospitalizations by patient", "patientId", patientId, "error", e.getMessage());
+        } finally {
+            GET_HOSPITALIZATIONS_BY_PATIENT.record(start);
+        }
+
+        return hospitalizations;
+    }
+
+    /**
+     * Read the patients currently admitted to a ward
+     * @param wardId the ward ID
+     * @return List of the ward's open Hospitalization objects, by bed number
+     */
+    public List<Hospitalization> getOpenHospitalizationsByWard(int wardId) {
+        long start = System.nanoTime();
+        String sql = "SELECT * FROM hospitalization WHERE ward_id = ? AND discharge_date IS NULL ORDER BY bed_number";
+        List<Hospitalization> hospitalizations = new ArrayList<>();
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, wardId);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                hospitalizations.add(mapHospitalization(rs));
+            }
+        } catch (SQLException e) {
+            GET_OPEN_HOSPITALIZATIONS_BY_WARD.recordError();
+            log.error("Error reading hospitalizations by ward", "wardId", wardId, "error", e.getMessage());
+        } finally {
+            GET_OPEN_HOSPITALIZATIONS_BY_WARD.record(start);
+        }
+
+        return hospitalizations;
+    }
+
+    /**
+     * Update a hospitalization record in the database.
+     * Moving an admitted patient to another bed requires that bed to be free.
+     * @param hospitalization Hospitalization object with updated information
+     * @return true if update was successful, false otherwise
+     */
+    public boolean updateHospitalization(Hospitalization hospitalization) {
+        long start = System.nanoTime();
+        if (!loadBedOccupancy()) {
+            UPDATE_HOSPITALIZATION.recordError();
+            UPDATE_HOSPITALIZATION.record(start);
+            return false;
+        }
+
+        String sql = "UPDATE hospitalization SET patient_id = ?, ward_id = ?, bed_number = ?, diagnosis = ?, " +
+                "doctor_id = ?, admission_date = ?, discharge_date = ? WHERE hospitalization_id = ?";
+        int wardId = hospitalization.getWardId();
+        int bedNumber = hospitalization.getBedNumber();
+        // The bed the row will hold after the update, if it had to be claimed
+        boolean claimedNewBed = false;
+        Connection conn = null;
+
+        try {
+            conn = DatabaseUtil.getConnection();
+            conn.setAutoCommit(false); // Start transaction
+
+            // Read on the primary, locking the row, so the beds released below are the ones it holds
+            Hospitalization current = readHospitalization(conn, hospitalization.getHospitalizationId());
+            if (current == null) {
+                conn.rollback();
+                return false;
+            }
+
+            boolean sameBed = current.getWardId() == wardId && current.getBedNumber() == bedNumber;
+            if (hospitalization.isOpen() && !(sameBed && current.isOpen())) {
+                if (!beds.occupy(wardId, bedNumber)) {
+                    conn.rollback();
+                    UPDATE_HOSPITALIZATION.recordError();
+                    log.warn("Hospitalization not updated", "hospitalizationId", hospitalization.getHospitalizationId(),
+                            "reason", "bed occupied or missing", "wardId", wardId, "bedNumber", bedNumber);
+                    return false;
+                }
+                claimedNewBed = true;
+            }
+
+            int affectedRows;
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, hospitalization.getPatientId());
+                stmt.setInt(2, wardId);
+                stmt.setInt(3, bedNumber);
+                stmt.setString(4, hospitalization.getDiagnosis());
+                stmt.setInt(5, hospitalization.getDoctorId());
+                stmt.setDate(6, Date.valueOf(hospitalization.getAdmissionDate()));
+
+                if (hospitalization.getDischargeDate() != null) {
+                    stmt.setDate(7, Date.valueOf(hospitalization.getDischargeDate()));
+                } else {
+                    stmt.setNull(7, java.sql.Types.DATE);
+                }
+
+                stmt.setInt(8, hospitalization.getHospitalizationId());
+                affectedRows = stmt.executeUpdate();
+            }
+
+            conn.commit(); // Commit transaction
+            if (affectedRows > 0) {
+                // Free the old bed unless the patient is still in it
+                if (current.isOpen() && !(sameBed && hospitalization.isOpen())) {
+                    beds.release(current.getWardId(), current.getBedNumber());
+                }
+            } else if (claimedNewBed) {
+                beds.release(wardId, bedNumber);
+            }
+            return affectedRows > 0;
+        } catch (SQLException e) {
+            UPDATE_HOSPITALIZATION.recordError();
+            log.error("Error updating hospitalization", "hospitalizationId", hospitalization.getHospitalizationId(),
+                    "error", e.getMessage());
+            rollback(conn);
+            if (claimedNewBed) {
+                beds.release(wardId, bedNumber);
+            }
+            return false;
+        } finally {
+            close(conn);
+            UPDATE_HOSPITALIZATION.record(start);
+        }
+    }
+
+    /**
+     * Delete a hospitalization record from the database, freeing its bed if it was open
+     * @param hospitalizationId the ID of the hospitalization to delete
+     * @return true if deletion was successful, false otherwise
+     */
+    public boolean deleteHospitalization(int hospitalizationId) {
+        long start = System.nanoTime();
+        String sql = "DELETE FROM hospitalization WHERE hospitalization_id = ?";
+        Connection conn = null;
+
+        try {
+            conn = DatabaseUtil.getConnection();
+            conn.setAutoCommit(false); // Start transaction
+
+            // Read on the primary, locking the row, so the bed released below is the one it holds
+            Hospitalization current = readHospitalization(conn, hospitalizationId);
+            if (current == null) {
+                conn.rollback();
+                return false;
+            }
+
+            int affectedRows;
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, hospitalizationId);
+                affectedRows = stmt.executeUpdate();
+            }
+
+            conn.commit(); // Commit transaction
+            if (affectedRows > 0 && current.isOpen()) {
+                beds.release(current.getWardId(), current.getBedNumber());
+            }
+            return affectedRows > 0;
+        } catch (SQLException e) {
+            DELETE_HOSPITALIZATION.recordError();
+            log.error("Error deleting hospitalization", "hospitalizationId", hospitalizationId,
+                    "error", e.getMessage());
+            rollback(conn);
+            return false;
+        } finally {
+            close(conn);
+            DELETE_HOSPITALIZATION.record(start);
+        }
+    }
+
+    /**
+     * Read a hospitalization row on a write connection, locking it until the transaction ends
+     * @return the Hospitalization object if found, null if not found
+     */
+    private static Hospitalization readHospitalization(Connection conn, int hospitalizationId) throws SQLException {
+        String sql = "SELECT * FROM hospitalization WHERE hospitalization_id = ? FOR UPDATE";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, hospitalizationId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? mapHospitalization(rs) : null;
+            }
+        }
+    }
+
+    private static void rollback(Connection conn) {
+        try {
+            if (conn != null) {
+                conn.rollback(); // Rollback transaction
+            }
+        } catch (SQLException e) {
+            log.error("Error rolling back transaction", "error", e.getMessage());
+        }
+    }
+
+    private static void close(Connection conn) {
+        try {
+            if (conn != null) {
+                conn.setAutoCommit(true);
+                conn.close();
+            }
+        } catch (SQLException e) {
+            log.warn("Error closing resources", "error", e.getMessage());
+        }
+    }
+
+    /**
+     * Find the lowest-numbered free bed in a ward, without querying the database
+     * @param wardId the ward ID
+     * @return the bed number, or -1 if the ward is full or unknown
+     */
+    public int findFreeBed(int wardId) {
+        long start = System.nanoTime();
+        try {
+            return loadBedOccupancy() ? beds.firstFreeBed(wardId) : -1;
+        } finally {
+            FIND_FREE_BED.record(start);
+        }
+    }
+
+    /**
+     * Find a free bed in any ward of a department, without querying the database
+     * @param departmentId the department ID
+     * @return the bed, or null if the department has no free bed
+     */
+    public Bed findFreeBedInDepartment(int departmentId) {
+        long start = System.nanoTime();
+        try {
+            return loadBedOccupancy() ? beds.firstFreeBedInDepartment(departmentId) : null;
+        } finally {
+            FIND_FREE_BED_IN_DEPARTMENT.record(start);
+        }
+    }
+
+    /**
+     * Count the free beds of a ward, without querying the database
+     * @param wardId the ward ID
+     * @return the number of free beds, or -1 if the ward is unknown
+     */
+    public int countFreeBeds(int wardId) {
+        long start = System.nanoTime();
+        try {
+            return loadBedOccupancy() ? beds.freeBedCount(wardId) : -1;
+        } finally {
+            COUNT_FREE_BEDS.record(start);
+        }
+    }
+
+    /**
+     * Load the bed occupancy map from the database, if it has not been loaded yet.
+     * Called by the first admission or bed lookup; call it at startup to have the map ready.
+     * @return true if the map is ready, false if it could not be loaded
+     */
+    public static boolean loadBedOccupancy() {
+        if (beds.isLoaded()) {
+            return true;
+        }
+        synchronized (beds) {
+            if (beds.isLoaded()) {
+                return true;
+            }
+            // Bed changes made from here on are replayed over what the queries read
+            beds.startLoading();
+            List<int[]> wardRows = new ArrayList<>();
+            List<int[]> occupiedBeds = new ArrayList<>();
+
+            try (Connection conn = DatabaseUtil.getPrimaryReadConnection();
+                 Statement stmt = conn.createStatement()) {
+
+                try (ResultSet rs = stmt.executeQuery("SELECT ward_id, department_id, bed_count FROM ward")) {
+                    while (rs.next()) {
+                        wardRows.add(new int[]{rs.getInt("ward_id"), rs.getInt("department_id"), rs.getInt("bed_count")});
+                    }
+                }
+                try (ResultSet rs = stmt.executeQuery(
+                        "SELECT ward_id, bed_number FROM hospitalization WHERE discharge_date IS NULL")) {
+                    while (rs.next()) {
+                        occupiedBeds.add(new int[]{rs.getInt("ward_id"), rs.getInt("bed_number")});
+                    }
+                }
+            } catch (SQLException e) {
+                log.error("Error loading bed occupancy", "error", e.getMessage());
+                beds.cancelLoading();
+                return false;
+            }
+
+            beds.load(wardRows, occupiedBeds);
+            return true;
+        }
+    }
+
+    /**
+     * Bring one ward of the bed occupancy map up to date after its bed count or
+     * department changed, reading the ward's open hospitalizations again.
+     * Does nothing if the map has not been loaded yet.
+     * @param wardId the ward ID
+     * @param departmentId the ward's department
+     * @param bedCount the ward's number of beds
+     */
+    static void reloadWard(int wardId, int departmentId, int bedCount) {
+        synchronized (beds) {
+            if (!beds.isLoaded()) {
+                return; // The first lookup loads the ward as it is now
+            }
+            // Bed changes made from here on are replayed over what the query reads
+            beds.startLoading();
+            List<Integer> occupiedBeds = new ArrayList<>();
+
+            try (Connection conn = DatabaseUtil.getPrimaryReadConnection();
+                 PreparedStatement stmt = conn.prepareStatement(
+                         "SELECT bed_number FROM hospitalization WHERE ward_id = ? AND discharge_date IS NULL")) {
+
+                stmt.setInt(1, wardId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        occupiedBeds.add(rs.getInt("bed_number"));
+                    }
+                }
+            } catch (SQLException e) {
+                log.error("Error reloading ward beds", "wardId", wardId, "error", e.getMessage());
+                beds.cancelLoading();
+                beds.clear(); // Loaded in full by the next lookup
+                return;
+            }
+
+            beds.reloadWard(wardId, departmentId, bedCount, occupiedBeds);
+        }
+    }
+
+    /**
+     * Drop the bed occupancy map so the next lookup reloads it, e.g. after
+     * hospitalizations were written without going through this DAO
+     */
+    public static void resetBedOccupancy() {
+        beds.clear();
+    }
+
+    private static Hospitalization mapHospitalization(ResultSet rs) throws SQLException {
+        Date dischargeDate = rs.getDate("discharge_date"); // Null while admitted
+
+        return new Hospitalization(
+                rs.getInt("hospitalization_id"),
+                rs.getInt("patient_id"),
+                rs.getInt("ward_id"),
+                rs.getInt("bed_number"),
+                rs.getString("diagnosis"),
+                rs.getInt("doctor_id"),
+                rs.getDate("admission_date").toLocalDate(),
+                dischargeDate != null ? dischargeDate.toLocalDate() : null
+        );
+    }
+}
@@ -0,0 +1,153 @@
+package com.hospital.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyset ("seek") pagination shared by the DAOs.
+ * A page continues from the last row of the previous one with
+ * {@code WHERE (sort, id) > (last sort, last id) ORDER BY sort, id LIMIT n},
+ * so the database seeks straight to the start of the page through the primary
+ * key (or an index on the sort column) instead of skipping OFFSET rows, and
+ * reading page 10,000 costs the same as reading page 1.
+ * <p>
+ * The position is handed to callers as an opaque page token holding the
+ * sort column, the last sort value and the last primary key. Sort columns must
+ * be NOT NULL, because NULLs cannot be compared in the seek condition.
+ */
+final class KeysetQuery {
+    private static final char SEPARATOR = '\u0000';
+
+    private KeysetQuery() {
+    }
+
+    /**
+     * Read one page of rows
+     * @param conn connection to run the query on
+     * @param select SELECT ... FROM ... without WHERE, ORDER BY or LIMIT
+     * @param idColumn qualified primary key column, e.g. e.employee_id
+     * @param sortColumns allowed sort column names mapped to their qualified columns
+     * @param sortColumn sort column name, or null to page by primary key only
+     * @param pageToken token from the previous page, or null for the first page
+     * @param skip number of rows after the token to skip before the page starts
+     * @param limit maximum number of rows in the page
+     * @param mapper maps a row to an entity
+     * @return the page
+     * @throws IllegalArgumentException if the skip, limit, sort column or token is invalid
+     */
+    static <T> Page<T> fetch(Connection conn, String select, String idColumn,
+                             Map<String, String> sortColumns, String sortColumn,
+                             String pageToken, int skip, int limit, RowMapper<T> mapper) throws SQLException {
+        if (skip < 0) {
+            throw new IllegalArgumentException("Cannot skip a negative number of rows: " + skip);
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page limit must be positive: " + limit);
+        }
+        String sortExpression = null;
+        if (sortColumn != null) {
+            sortExpression = sortColumns.get(sortColumn);
+            if (sortExpression == null) {
+                throw new IllegalArgumentException("Cannot sort by " + sortColumn + ", expected one of " + sortColumns.keySet());
+            }
+        }
+        String[] after = pageToken != null ? decode(pageToken, sortColumn) : null;
+
+        StringBuilder sql = new StringBuilder(select);
+        if (after != null) {
+            if (sortExpression == null) {
+                sql.append(" WHERE ").append(idColumn).append(" > ?");
+            } else {
+                // Expanded form of (sort, id) > (?, ?), which MySQL turns into an index range scan
+                sql.append(" WHERE (").append(sortExpression).append(" > ? OR (")
+                        .append(sortExpression).append(" = ? AND ").append(idColumn).append(" > ?))");
+            }
+        }
+        sql.append(" ORDER BY ");
+        if (sortExpression != null) {
+            sql.append(sortExpression).append(", ");
+        }
+        sql.append(idColumn).append(" LIMIT ?");
+        if (skip > 0) {
+            // Only used to jump ahead from the nearest known page; the skipped rows are still read
+            sql.append(" OFFSET ?");
+        }
+
+        List<T> items = new ArrayList<>(Math.min(limit, 1_000));
+        String lastSortValue = null;
+        int lastId = 0;
+        boolean more = false;
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            if (after != null) {
+                if (sortExpression != null) {
+                    stmt.setString(index++, after[1]);
+                    stmt.setString(index++, after[1]);
+                }
+                stmt.setInt(index++, Integer.parseInt(after[2]));
+            }
+            stmt.setInt(index++, limit + 1); // One extra row tells us whether there is a next page
+            if (skip > 0) {
+                stmt.setInt(index, skip);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (items.size() == limit) {
+                        more = true;
+                        break;
+                    }
+                    items.add(mapper.map(rs));
+                    lastId = rs.getInt(label(idColumn));
+                    if (sortExpression != null) {
+                        lastSortValue = rs.getString(label(sortExpression));
+                    }
+                }
+            }
+        }
+
+        return new Page<>(items, more ? encode(sortColumn, lastSortValue, lastId) : null);
+    }
+
+    static String encode(String sortColumn, String sortValue, int lastId) {
+        String raw = (sortColumn != null ? sortColumn : "") + SEPARATOR
+                + (sortValue != null ? sortValue : "") + SEPARATOR + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a page token and check it was issued for the same sort column
+     * @return the sort column, last sort value and last id
+     */
+    static String[] decode(String pageToken, String sortColumn) {
+        String[] parts;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+            parts = raw.split(String.valueOf(SEPARATOR), -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Malformed page token");
+            }
+            Integer.parseInt(parts[2]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page token: " + pageToken, e);
+        }
+        String expected = sortColumn != null ? sortColumn : "";
+        if (!parts[0].equals(expected)) {
+            throw new IllegalArgumentException("Page token was issued for a different sort order");
+        }
+        return parts;
+    }
+
+    // e.last_name -> last_name, the column label in the result set
+    private static String label(String column) {
+        return column.substring(column.indexOf('.') + 1);
+    }
+}
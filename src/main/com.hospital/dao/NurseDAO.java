@@ -1,18 +1,59 @@
 package com.hospital.dao;
 
+import com.hospital.event.EntityEvent;
+import com.hospital.event.EntityEventBus;
+import com.hospital.model.Employee;
 import com.hospital.model.Nurse;
+import com.hospital.search.SearchService;
+import com.hospital.util.CacheStats;
+import com.hospital.util.DaoMetrics;
 import com.hospital.util.DatabaseUtil;
+import com.hospital.util.Logger;
+import com.hospital.util.MethodMetrics;
 
 import java.math.BigDecimal;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Nurse Data Access Object.
  * Provides CRUD operations for Nurse entities.
  */
 public class NurseDAO {
+    private static final Logger log = Logger.getLogger(NurseDAO.class);
+
+    // Latency and error counters of each public method, published over JMX
+    private static final MethodMetrics CREATE_NURSE = DaoMetrics.forMethod(NurseDAO.class, "createNurse");
+    private static final MethodMetrics CREATE_NURSES = DaoMetrics.forMethod(NurseDAO.class, "createNurses");
+    private static final MethodMetrics READ_NURSE = DaoMetrics.forMethod(NurseDAO.class, "readNurse");
+    private static final MethodMetrics READ_ALL_NURSES = DaoMetrics.forMethod(NurseDAO.class, "readAllNurses");
+    private static final MethodMetrics COUNT_NURSES = DaoMetrics.forMethod(NurseDAO.class, "countNurses");
+    private static final MethodMetrics READ_NURSES_PAGE = DaoMetrics.forMethod(NurseDAO.class, "readNursesPage");
+    private static final MethodMetrics UPDATE_NURSE = DaoMetrics.forMethod(NurseDAO.class, "updateNurse");
+    private static final MethodMetrics DELETE_NURSE = DaoMetrics.forMethod(NurseDAO.class, "deleteNurse");
+    private static final MethodMetrics SEARCH_NURSES = DaoMetrics.forMethod(NurseDAO.class, "searchNurses");
+    private static final MethodMetrics GET_NURSES_BY_DEPARTMENT = DaoMetrics.forMethod(NurseDAO.class, "getNursesByDepartment");
+
+    // Recently read nurses, shared by all instances; writes through this DAO or DepartmentDAO drop them
+    private static final EntityCache<Nurse> cache = new EntityCache<>(
+            Integer.getInteger("hospital.cache.nurse.maxSize", 1_000),
+            Long.getLong("hospital.cache.nurse.ttlMs", 60_000),
+            NurseDAO::copyOf);
+
+    // Columns the paged reads may sort by (all NOT NULL)
+    private static final Map<String, String> PAGE_SORT_COLUMNS = Map.of(
+            "first_name", "e.first_name",
+            "last_name", "e.last_name"
+    );
+
+    private static final String ALL_NURSES_SQL = "SELECT e.*, n.rotation, n.salary, n.department_id, " +
+            "d.code AS department_code, d.name AS department_name FROM employee e " +
+            "JOIN nurse n ON e.employee_id = n.employee_id " +
+            "LEFT JOIN department d ON n.department_id = d.department_id ORDER BY e.employee_id";
 
     /**
      * Create a new nurse record in the database
@@ -21,6 +62,7 @@ public class NurseDAO {
      * @return the generated employee ID if successful, -1 if failed
      */
     public int createNurse(Nurse nurse) {
+        long start = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmtEmployee = null;
         PreparedStatement stmtNurse = null;
@@ -62,19 +104,23 @@ public class NurseDAO {
                     stmtNurse.executeUpdate();
 
                     conn.commit(); // Commit transaction
+                    SearchService.indexNurse(nurse);
+                    nurse.clearModified(); // Matches the new row
+                    EntityEventBus.publish(EntityEvent.created(Nurse.class, employeeId, nurse));
                     return employeeId;
                 } else {
                     throw new SQLException("Creating employee failed, no ID obtained.");
                 }
             }
         } catch (SQLException e) {
-            System.out.println("Error creating nurse: " + e.getMessage());
+            CREATE_NURSE.recordError();
+            log.error("Error creating nurse", "error", e.getMessage());
             try {
                 if (conn != null) {
                     conn.rollback(); // Rollback transaction
                 }
             } catch (SQLException ex) {
-                System.out.println("Error rolling back transaction: " + ex.getMessage());
+                log.error("Error rolling back transaction", "error", ex.getMessage());
             }
             return -1;
         } finally {
@@ -86,143 +132,385 @@ public class NurseDAO {
                     conn.close();
                 }
             } catch (SQLException e) {
-                System.out.println("Error closing resources: " + e.getMessage());
+                log.warn("Error closing resources", "error", e.getMessage());
             }
+            CREATE_NURSE.record(start);
         }
     }
 
     /**
-     * Read a nurse record from the database by ID
+     * Create many nurse records using JDBC batching, with the default batch size
+     *
+     * @param nurses Nurse objects to be added
+     * @return the number of nurses created
+     * @see #createNurses(List, int)
+     */
+    public int createNurses(List<Nurse> nurses) {
+        return createNurses(nurses, DatabaseUtil.getBatchSize());
+    }
+
+    /**
+     * Create many nurse records using JDBC batching.
+     * Each batch inserts into the employee and nurse tables and is committed on
+     * its own; every created Nurse object is updated with its generated employee ID.
+     * Stops at the first batch that fails.
+     *
+     * @param nurses    Nurse objects to be added
+     * @param batchSize number of nurses sent and committed together
+     * @return the number of nurses created
+     * @throws IllegalArgumentException if batchSize is not positive
+     */
+    public int createNurses(List<Nurse> nurses, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        long startNanos = System.nanoTime();
+        Connection conn = null;
+        PreparedStatement stmtEmployee = null;
+        PreparedStatement stmtNurse = null;
+        int created = 0;
+
+        try {
+            conn = DatabaseUtil.getConnection();
+            conn.setAutoCommit(false); // Start transaction
+
+            String sqlEmployee = "INSERT INTO employee (first_name, last_name, address, telephone) VALUES (?, ?, ?, ?)";
+            String sqlNurse = "INSERT INTO nurse (employee_id, rotation, salary, department_id) VALUES (?, ?, ?, ?)";
+            stmtEmployee = conn.prepareStatement(sqlEmployee, Statement.RETURN_GENERATED_KEYS);
+            stmtNurse = conn.prepareStatement(sqlNurse);
+
+            for (int start = 0; start < nurses.size(); start += batchSize) {
+                List<Nurse> batch = nurses.subList(start, Math.min(start + batchSize, nurses.size()));
+
+                // First, insert into employee table
+                for (Nurse nurse : batch) {
+                    stmtEmployee.setString(1, nurse.getFirstName());
+                    stmtEmployee.setString(2, nurse.getLastName());
+                    stmtEmployee.setString(3, nurse.getAddress());
+                    stmtEmployee.setString(4, nurse.getTelephone());
+                    stmtEmployee.addBatch();
+                }
+                stmtEmployee.executeBatch();
+
+                // Get the generated employee IDs, in insertion order
+                try (ResultSet generatedKeys = stmtEmployee.getGeneratedKeys()) {
+                    for (Nurse nurse : batch) {
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("Creating employees failed, no ID obtained.");
+                        }
+                        nurse.setEmployeeId(generatedKeys.getInt(1));
+                    }
+                }
+
+                // Now, insert into nurse table
+                for (Nurse nurse : batch) {
+                    stmtNurse.setInt(1, nurse.getEmployeeId());
+                    stmtNurse.setString(2, nurse.getRotation());
+                    stmtNurse.setBigDecimal(3, nurse.getSalary());
+                    stmtNurse.setInt(4, nurse.getDepartmentId());
+                    stmtNurse.addBatch();
+                }
+                stmtNurse.executeBatch();
+
+                conn.commit(); // Commit this batch
+                for (Nurse nurse : batch) {
+                    SearchService.indexNurse(nurse);
+                    nurse.clearModified(); // Matches the new row
+                    EntityEventBus.publish(EntityEvent.created(Nurse.class, nurse.getEmployeeId(), nurse));
+                }
+                created += batch.size();
+            }
+            return created;
+        } catch (SQLException e) {
+            CREATE_NURSES.recordError();
+            log.error("Error creating nurses", "error", e.getMessage());
+            try {
+                if (conn != null) {
+                    conn.rollback(); // Rollback the failed batch
+                }
+            } catch (SQLException ex) {
+                log.error("Error rolling back transaction", "error", ex.getMessage());
+            }
+            return created;
+        } finally {
+            try {
+                if (stmtNurse != null) stmtNurse.close();
+                if (stmtEmployee != null) stmtEmployee.close();
+                if (conn != null) {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                }
+            } catch (SQLException e) {
+                log.warn("Error closing resources", "error", e.getMessage());
+            }
+            CREATE_NURSES.record(startNanos);
+        }
+    }
+
+    /**
+     * Read a nurse record from the database by ID.
+     * Recently read nurses are served from a shared cache without a query.
      *
      * @param employeeId the ID of the nurse to retrieve
      * @return the Nurse object if found, null if not found
      */
     public Nurse readNurse(int employeeId) {
-        String sql = "SELECT e.*, n.rotation, n.salary, n.department_id FROM employee e " +
+        long start = System.nanoTime();
+        // After a write the session reads from the primary, past the cache
+        boolean cacheable = !DatabaseUtil.wroteRecently();
+        Nurse cached = cacheable ? cache.get(employeeId) : null;
+        if (cached != null) {
+            READ_NURSE.record(start);
+            return cached;
+        }
+        long generation = cache.generation();
+        String sql = "SELECT e.*, n.rotation, n.salary, n.department_id, " +
+                "d.code AS department_code, d.name AS department_name FROM employee e " +
                 "JOIN nurse n ON e.employee_id = n.employee_id " +
+                "LEFT JOIN department d ON n.department_id = d.department_id " +
                 "WHERE e.employee_id = ?";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, employeeId);
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return new Nurse(
-                        rs.getInt("employee_id"),
-                        rs.getString("first_name"),
-                        rs.getString("last_name"),
-                        rs.getString("address"),
-                        rs.getString("telephone"),
-                        rs.getString("rotation"),
-                        rs.getBigDecimal("salary"),
-                        rs.getInt("department_id")
-                );
+                Nurse nurse = mapNurse(rs);
+                if (cacheable && !DatabaseUtil.isReplicaConnection(conn)) {
+                    cache.put(employeeId, nurse, generation); // Only rows read from the primary
+                }
+                return nurse;
             } else {
                 return null; // Nurse not found
             }
         } catch (SQLException e) {
-            System.out.println("Error reading nurse: " + e.getMessage());
+            READ_NURSE.recordError();
+            log.error("Error reading nurse", "employeeId", employeeId, "error", e.getMessage());
             return null;
+        } finally {
+            READ_NURSE.record(start);
         }
     }
 
     /**
-     * Read all nurses from the database
+     * Get the hit/miss statistics of the shared nurse cache
+     * @return the current CacheStats
+     */
+    public static CacheStats getCacheStats() {
+        return cache.getStats();
+    }
+
+    /**
+     * Drop the cached nurses, e.g. after a write that bypassed this DAO
+     */
+    public static void invalidateCache() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Read all nurses from the database, with their department code and name,
+     * in a single query
      *
      * @return List of all Nurse objects
      */
     public List<Nurse> readAllNurses() {
-        String sql = "SELECT e.*, n.rotation, n.salary, n.department_id FROM employee e " +
-                "JOIN nurse n ON e.employee_id = n.employee_id";
+        long start = System.nanoTime();
+        String sql = "SELECT e.*, n.rotation, n.salary, n.department_id, " +
+                "d.code AS department_code, d.name AS department_name FROM employee e " +
+                "JOIN nurse n ON e.employee_id = n.employee_id " +
+                "LEFT JOIN department d ON n.department_id = d.department_id";
         List<Nurse> nurses = new ArrayList<>();
 
-        try (Connection conn = DatabaseUtil.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (Connection conn = DatabaseUtil.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-                Nurse nurse = new Nurse(
-                        rs.getInt("employee_id"),
-                        rs.getString("first_name"),
-                        rs.getString("last_name"),
-                        rs.getString("address"),
-                        rs.getString("telephone"),
-                        rs.getString("rotation"),
-                        rs.getBigDecimal("salary"),
-                        rs.getInt("department_id")
-                );
-                nurses.add(nurse);
+                nurses.add(mapNurse(rs));
             }
         } catch (SQLException e) {
-            System.out.println("Error reading all nurses: " + e.getMessage());
+            READ_ALL_NURSES.recordError();
+            log.error("Error reading all nurses", "error", e.getMessage());
+        } finally {
+            READ_ALL_NURSES.record(start);
         }
 
         return nurses;
     }
 
     /**
-     * Update a nurse record in the database
+     * Count the nurses in the database
+     * @return the number of nurses, -1 if failed
+     */
+    public int countNurses() {
+        long start = System.nanoTime();
+        String sql = "SELECT COUNT(*) FROM nurse";
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            rs.next();
+            return rs.getInt(1);
+        } catch (SQLException e) {
+            COUNT_NURSES.recordError();
+            log.error("Error counting nurses", "error", e.getMessage());
+            return -1;
+        } finally {
+            COUNT_NURSES.record(start);
+        }
+    }
+
+    /**
+     * Read one page of nurses in employee ID order, using keyset pagination
+     * @param pageToken token from the previous page, or null for the first page
+     * @param limit maximum number of nurses in the page
+     * @return the page, with a token for the next page if there is one
+     */
+    public Page<Nurse> readNursesPage(String pageToken, int limit) {
+        return readNursesPage(pageToken, limit, null);
+    }
+
+    /**
+     * Read one page of nurses ordered by a column, using keyset pagination.
+     * Ties are broken by ID, and deep pages cost the same as the first one.
+     * @param pageToken token from the previous page with the same sort column, or null for the first page
+     * @param limit maximum number of nurses in the page
+     * @param sortColumn first_name or last_name, or null to sort by ID
+     * @return the page, with a token for the next page if there is one
+     * @throws IllegalArgumentException if the limit, sort column or page token is invalid
+     */
+    public Page<Nurse> readNursesPage(String pageToken, int limit, String sortColumn) {
+        return readNursesPage(pageToken, 0, limit, sortColumn);
+    }
+
+    /**
+     * Read one page of nurses in ID order, starting some rows after a page token.
+     * Lets a caller such as a scrolling table jump ahead from the nearest page it
+     * has a token for; the database still reads the skipped rows, so keep skip small.
+     * @param pageToken token of an earlier page, or null to count from the first row
+     * @param skip number of rows after the token to skip
+     * @param limit maximum number of nurses in the page
+     * @return the page, with a token for the next page if there is one
+     * @throws IllegalArgumentException if the skip, limit or page token is invalid
+     */
+    public Page<Nurse> readNursesPageSkipping(String pageToken, int skip, int limit) {
+        return readNursesPage(pageToken, skip, limit, null);
+    }
+
+    private Page<Nurse> readNursesPage(String pageToken, int skip, int limit, String sortColumn) {
+        long start = System.nanoTime();
+        String sql = "SELECT e.*, n.rotation, n.salary, n.department_id, " +
+                "d.code AS department_code, d.name AS department_name FROM employee e " +
+                "JOIN nurse n ON e.employee_id = n.employee_id " +
+                "LEFT JOIN department d ON n.department_id = d.department_id";
+
+        try (Connection conn = DatabaseUtil.getReadConnection()) {
+            return KeysetQuery.fetch(conn, sql, "e.employee_id",
+                    PAGE_SORT_COLUMNS, sortColumn, pageToken, skip, limit, this::mapNurse);
+        } catch (SQLException e) {
+            READ_NURSES_PAGE.recordError();
+            log.error("Error reading nurses page", "error", e.getMessage());
+            return Page.empty();
+        } finally {
+            READ_NURSES_PAGE.record(start);
+        }
+    }
+
+    /**
+     * Stream every nurse without loading them all into memory.
+     * Rows are read from the database as the stream is consumed; the stream
+     * holds a connection until it is closed, so use it in try-with-resources.
+     * @return a Stream of Nurse objects in ID order
+     */
+    public Stream<Nurse> streamAllNurses() {
+        return ResultSetStream.open(DatabaseUtil::getReadConnection, ALL_NURSES_SQL, this::mapNurse, "nurses");
+    }
+
+    /**
+     * Pass every nurse to an action, streaming the rows like {@link #streamAllNurses()}
+     * from the primary, for loads that must not miss a committed write such as the search index
+     * @param action called with each nurse, in ID order
+     * @return true if every nurse was read, false if a database error cut the read short
+     */
+    public boolean forEachNurse(Consumer<Nurse> action) {
+        return ResultSetStream.forEach(DatabaseUtil::getPrimaryReadConnection, ALL_NURSES_SQL,
+                this::mapNurse, "nurses", action);
+    }
+
+    /**
+     * Update a nurse record in the database.
+     * Only the columns of the fields modified since the nurse was loaded are
+     * written, a table with no modified column is skipped, and if nothing was
+     * modified no statement is sent. When both tables change, they are updated
+     * in one transaction.
      *
      * @param nurse Nurse object with updated information
-     * @return true if update was successful, false otherwise
+     * @return true if update was successful or there was nothing to update, false otherwise
      */
     public boolean updateNurse(Nurse nurse) {
+        long start = System.nanoTime();
+        if (!nurse.isModified()) {
+            UPDATE_NURSE.record(start);
+            return true; // Unchanged since it was loaded
+        }
+        ColumnUpdate employeeUpdate = new ColumnUpdate("employee")
+                .set(nurse.isModified(Employee.FIRST_NAME), "first_name", nurse.getFirstName(), Types.VARCHAR)
+                .set(nurse.isModified(Employee.LAST_NAME), "last_name", nurse.getLastName(), Types.VARCHAR)
+                .set(nurse.isModified(Employee.ADDRESS), "address", nurse.getAddress(), Types.VARCHAR)
+                .set(nurse.isModified(Employee.TELEPHONE), "telephone", nurse.getTelephone(), Types.VARCHAR);
+        ColumnUpdate nurseUpdate = new ColumnUpdate("nurse")
+                .set(nurse.isModified(Nurse.ROTATION), "rotation", nurse.getRotation(), Types.VARCHAR)
+                .set(nurse.isModified(Nurse.SALARY), "salary", nurse.getSalary(), Types.DECIMAL)
+                .set(nurse.isModified(Nurse.DEPARTMENT_ID), "department_id", nurse.getDepartmentId(), Types.INTEGER);
+        // A single statement needs no transaction of its own
+        boolean transaction = !employeeUpdate.isEmpty() && !nurseUpdate.isEmpty();
         Connection conn = null;
-        PreparedStatement stmtEmployee = null;
-        PreparedStatement stmtNurse = null;
 
         try {
             conn = DatabaseUtil.getConnection();
-            conn.setAutoCommit(false); // Start transaction
-
-            // Update employee table
-            String sqlEmployee = "UPDATE employee SET first_name = ?, last_name = ?, address = ?, telephone = ? WHERE employee_id = ?";
-            stmtEmployee = conn.prepareStatement(sqlEmployee);
-
-            stmtEmployee.setString(1, nurse.getFirstName());
-            stmtEmployee.setString(2, nurse.getLastName());
-            stmtEmployee.setString(3, nurse.getAddress());
-            stmtEmployee.setString(4, nurse.getTelephone());
-            stmtEmployee.setInt(5, nurse.getEmployeeId());
-
-            stmtEmployee.executeUpdate();
-
-            // Update nurse table
-            String sqlNurse = "UPDATE nurse SET rotation = ?, salary = ?, department_id = ? WHERE employee_id = ?";
-            stmtNurse = conn.prepareStatement(sqlNurse);
-
-            stmtNurse.setString(1, nurse.getRotation());
-            stmtNurse.setBigDecimal(2, nurse.getSalary());
-            stmtNurse.setInt(3, nurse.getDepartmentId());
-            stmtNurse.setInt(4, nurse.getEmployeeId());
+            if (transaction) {
+                conn.setAutoCommit(false); // Start transaction
+            }
 
-            stmtNurse.executeUpdate();
+            int affectedRows = employeeUpdate.execute(conn, "employee_id", nurse.getEmployeeId())
+                    + nurseUpdate.execute(conn, "employee_id", nurse.getEmployeeId());
 
-            conn.commit(); // Commit transaction
-            return true;
+            if (transaction) {
+                conn.commit(); // Commit transaction
+            }
+            cache.invalidate(nurse.getEmployeeId());
+            if (affectedRows > 0) {
+                nurse.clearModified();
+                SearchService.indexNurse(nurse);
+                EntityEventBus.publish(EntityEvent.updated(Nurse.class, nurse.getEmployeeId(), nurse));
+            }
+            return affectedRows > 0;
         } catch (SQLException e) {
-            System.out.println("Error updating nurse: " + e.getMessage());
+            UPDATE_NURSE.recordError();
+            log.error("Error updating nurse", "employeeId", nurse.getEmployeeId(), "error", e.getMessage());
             try {
-                if (conn != null) {
+                if (conn != null && transaction) {
                     conn.rollback(); // Rollback transaction
                 }
             } catch (SQLException ex) {
-                System.out.println("Error rolling back transaction: " + ex.getMessage());
+                log.error("Error rolling back transaction", "error", ex.getMessage());
             }
             return false;
         } finally {
             try {
-                if (stmtNurse != null) stmtNurse.close();
-                if (stmtEmployee != null) stmtEmployee.close();
                 if (conn != null) {
-                    conn.setAutoCommit(true);
+                    if (transaction) {
+                        conn.setAutoCommit(true);
+                    }
                     conn.close();
                 }
             } catch (SQLException e) {
-                System.out.println("Error closing resources: " + e.getMessage());
+                log.warn("Error closing resources", "error", e.getMessage());
             }
+            UPDATE_NURSE.record(start);
         }
     }
 
@@ -233,6 +521,7 @@ public class NurseDAO {
      * @return true if deletion was successful, false otherwise
      */
     public boolean deleteNurse(int employeeId) {
+        long start = System.nanoTime();
         Connection conn = null;
         PreparedStatement stmtNurse = null;
         PreparedStatement stmtEmployee = null;
@@ -254,15 +543,21 @@ public class NurseDAO {
             int affectedRows = stmtEmployee.executeUpdate();
 
             conn.commit(); // Commit transaction
+            cache.invalidate(employeeId);
+            SearchService.removeNurse(employeeId);
+            if (affectedRows > 0) {
+                EntityEventBus.publish(EntityEvent.deleted(Nurse.class, employeeId));
+            }
             return affectedRows > 0;
         } catch (SQLException e) {
-            System.out.println("Error deleting nurse: " + e.getMessage());
+            DELETE_NURSE.recordError();
+            log.error("Error deleting nurse", "employeeId", employeeId, "error", e.getMessage());
             try {
                 if (conn != null) {
                     conn.rollback(); // Rollback transaction
                 }
             } catch (SQLException ex) {
-                System.out.println("Error rolling back transaction: " + ex.getMessage());
+                log.error("Error rolling back transaction", "employeeId", employeeId, "error", ex.getMessage());
             }
             return false;
         } finally {
@@ -274,8 +569,9 @@ public class NurseDAO {
                     conn.close();
                 }
             } catch (SQLException e) {
-                System.out.println("Error closing resources: " + e.getMessage());
+                log.warn("Error closing resources", "error", e.getMessage());
             }
+            DELETE_NURSE.record(start);
         }
     }
 
@@ -286,12 +582,15 @@ public class NurseDAO {
      * @return List of matching Nurse objects
      */
     public List<Nurse> searchNurses(String query) {
-        String sql = "SELECT e.*, n.rotation, n.salary, n.department_id FROM employee e " +
+        long start = System.nanoTime();
+        String sql = "SELECT e.*, n.rotation, n.salary, n.department_id, " +
+                "d.code AS department_code, d.name AS department_name FROM employee e " +
                 "JOIN nurse n ON e.employee_id = n.employee_id " +
+                "LEFT JOIN department d ON n.department_id = d.department_id " +
                 "WHERE e.first_name LIKE ? OR e.last_name LIKE ? OR n.rotation LIKE ?";
         List<Nurse> nurses = new ArrayList<>();
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             String searchPattern = "%" + query + "%";
@@ -302,20 +601,13 @@ public class NurseDAO {
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Nurse nurse = new Nurse(
-                        rs.getInt("employee_id"),
-                        rs.getString("first_name"),
-                        rs.getString("last_name"),
-                        rs.getString("address"),
-                        rs.getString("telephone"),
-                        rs.getString("rotation"),
-                        rs.getBigDecimal("salary"),
-                        rs.getInt("department_id")
-                );
-                nurses.add(nurse);
+                nurses.add(mapNurse(rs));
             }
         } catch (SQLException e) {
-            System.out.println("Error searching nurses: " + e.getMessage());
+            SEARCH_NURSES.recordError();
+            log.error("Error searching nurses", "error", e.getMessage());
+        } finally {
+            SEARCH_NURSES.record(start);
         }
 
         return nurses;
@@ -328,34 +620,61 @@ public class NurseDAO {
      * @return List of Nurse objects in the department
      */
     public List<Nurse> getNursesByDepartment(int departmentId) {
-        String sql = "SELECT e.*, n.rotation, n.salary, n.department_id FROM employee e " +
+        long start = System.nanoTime();
+        String sql = "SELECT e.*, n.rotation, n.salary, n.department_id, " +
+                "d.code AS department_code, d.name AS department_name FROM employee e " +
                 "JOIN nurse n ON e.employee_id = n.employee_id " +
+                "LEFT JOIN department d ON n.department_id = d.department_id " +
                 "WHERE n.department_id = ?";
         List<Nurse> nurses = new ArrayList<>();
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, departmentId);
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Nurse nurse = new Nurse(
-                        rs.getInt("employee_id"),
-                        rs.getString("first_name"),
-                        rs.getString("last_name"),
-                        rs.getString("address"),
-                        rs.getString("telephone"),
-                        rs.getString("rotation"),
-                        rs.getBigDecimal("salary"),
-                        rs.getInt("department_id")
-                );
-                nurses.add(nurse);
+                nurses.add(mapNurse(rs));
             }
         } catch (SQLException e) {
-            System.out.println("Error getting nurses by department: " + e.getMessage());
+            GET_NURSES_BY_DEPARTMENT.recordError();
+            log.error("Error getting nurses by department", "departmentId", departmentId, "error", e.getMessage());
+        } finally {
+            GET_NURSES_BY_DEPARTMENT.record(start);
         }
 
         return nurses;
     }
+
+    /**
+     * Build a Nurse from the current row, including the joined department code and name,
+     * with no fields counted as modified
+     *
+     * @param rs a result set positioned on a nurse row
+     * @return the Nurse object
+     */
+    private Nurse mapNurse(ResultSet rs) throws SQLException {
+        Nurse nurse = new Nurse(
+                rs.getInt("employee_id"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getString("address"),
+                rs.getString("telephone"),
+                rs.getString("rotation"),
+                rs.getBigDecimal("salary"),
+                rs.getInt("department_id")
+        );
+        nurse.setDepartmentCode(rs.getString("department_code"));
+        nurse.setDepartmentName(rs.getString("department_name"));
+        nurse.clearModified();
+        return nurse;
+    }
+
+    // Callers get their own copy so they cannot change the cached rows
+    private static Nurse copyOf(Nurse nurse) {
+        Nurse copy = new Nurse(nurse);
+        copy.clearModified();
+        return copy;
+    }
 }
@@ -0,0 +1,50 @@
+package com.hospital.dao;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of rows returned by a keyset-paginated DAO read.
+ * Pass {@link #getNextPageToken()} back to the same DAO method to read the
+ * following page; it is null once the last page has been read.
+ * @param <T> the entity type
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final String nextPageToken;
+
+    public Page(List<T> items, String nextPageToken) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextPageToken = nextPageToken;
+    }
+
+    /**
+     * An empty last page, returned when a page could not be read
+     * @param <T> the entity type
+     * @return a page with no items and no next page
+     */
+    public static <T> Page<T> empty() {
+        return new Page<>(Collections.emptyList(), null);
+    }
+
+    // Getters
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
+    public boolean hasNextPage() {
+        return nextPageToken != null;
+    }
+
+    @Override
+    public String toString() {
+        return "Page{" +
+                "items=" + items.size() +
+                ", nextPageToken='" + nextPageToken + '\'' +
+                '}';
+    }
+}
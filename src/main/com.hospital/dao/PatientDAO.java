@@ -1,17 +1,70 @@
 package com.hospital.dao;
 
+import com.hospital.event.EntityEvent;
+import com.hospital.event.EntityEventBus;
 import com.hospital.model.Patient;
+import com.hospital.search.SearchService;
+import com.hospital.util.CacheStats;
+import com.hospital.util.DaoMetrics;
 import com.hospital.util.DatabaseUtil;
+import com.hospital.util.Logger;
+import com.hospital.util.MethodMetrics;
+import com.hospital.util.TextFold;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Patient Data Access Object.
  * Provides CRUD operations for Patient entities.
+ * Name searches are answered from a shared in-memory trigram index of patient
+ * names, which every write through this DAO keeps current.
  */
 public class PatientDAO {
+    private static final Logger log = Logger.getLogger(PatientDAO.class);
+
+    // Latency and error counters of each public method, published over JMX
+    private static final MethodMetrics CREATE_PATIENT = DaoMetrics.forMethod(PatientDAO.class, "createPatient");
+    private static final MethodMetrics CREATE_PATIENTS = DaoMetrics.forMethod(PatientDAO.class, "createPatients");
+    private static final MethodMetrics READ_PATIENT = DaoMetrics.forMethod(PatientDAO.class, "readPatient");
+    private static final MethodMetrics READ_ALL_PATIENTS = DaoMetrics.forMethod(PatientDAO.class, "readAllPatients");
+    private static final MethodMetrics COUNT_PATIENTS = DaoMetrics.forMethod(PatientDAO.class, "countPatients");
+    private static final MethodMetrics READ_PATIENTS_PAGE = DaoMetrics.forMethod(PatientDAO.class, "readPatientsPage");
+    private static final MethodMetrics UPDATE_PATIENT = DaoMetrics.forMethod(PatientDAO.class, "updatePatient");
+    private static final MethodMetrics DELETE_PATIENT = DaoMetrics.forMethod(PatientDAO.class, "deletePatient");
+    private static final MethodMetrics SEARCH_PATIENTS_BY_NAME = DaoMetrics.forMethod(PatientDAO.class, "searchPatientsByName");
+
+    // Recently read patients, shared by all instances; every write through this DAO drops the patient
+    private static final EntityCache<Patient> cache = new EntityCache<>(
+            Integer.getInteger("hospital.cache.patient.maxSize", 1_000),
+            Long.getLong("hospital.cache.patient.ttlMs", 60_000),
+            PatientDAO::copyOf);
+
+    // Shared by all instances; built from the patient table on first use
+    private static final TrigramIndex nameIndex = new TrigramIndex();
+    private static final boolean NAME_INDEX_ENABLED =
+            Boolean.parseBoolean(System.getProperty("hospital.search.patientIndex", "true"));
+    private static volatile boolean nameIndexBuilt;
+    // Names written while the index is being loaded, replayed over the rows the scan read earlier
+    private static volatile boolean nameIndexLoading;
+    private static final Map<Integer, String[]> namesWrittenWhileLoading = new ConcurrentHashMap<>();
+    private static final String[] DELETED = new String[0];
+
+    // IDs per lookup query; short lists are padded so every lookup reuses one statement
+    private static final int ID_LOOKUP_CHUNK = 100;
+    // Past this share of the table, one LIKE scan is cheaper than reading the matches by ID
+    private static final int MAX_INDEXED_MATCH_FRACTION = 32;
+
+    // Columns the paged reads may sort by (all NOT NULL)
+    private static final Map<String, String> PAGE_SORT_COLUMNS = Map.of(
+            "first_name", "first_name",
+            "last_name", "last_name"
+    );
 
     /**
      * Create a new patient record in the database
@@ -19,6 +72,7 @@ public class PatientDAO {
      * @return the generated patient ID if successful, -1 if failed
      */
     public int createPatient(Patient patient) {
+        long start = System.nanoTime();
         String sql = "INSERT INTO patient (first_name, last_name, address, telephone) VALUES (?, ?, ?, ?)";
 
         try (Connection conn = DatabaseUtil.getConnection();
@@ -42,99 +96,341 @@ public class PatientDAO {
                 if (generatedKeys.next()) {
                     int id = generatedKeys.getInt(1);
                     patient.setPatientId(id); // Update the patient object with the new ID
+                    indexName(patient);
+                    SearchService.indexPatient(patient);
+                    patient.clearModified(); // Matches the new row
+                    EntityEventBus.publish(EntityEvent.created(Patient.class, id, patient));
                     return id;
                 } else {
                     throw new SQLException("Creating patient failed, no ID obtained.");
                 }
             }
         } catch (SQLException e) {
-            System.out.println("Error creating patient: " + e.getMessage());
+            CREATE_PATIENT.recordError();
+            log.error("Error creating patient", "error", e.getMessage());
             return -1;
+        } finally {
+            CREATE_PATIENT.record(start);
         }
     }
 
     /**
-     * Read a patient record from the database by ID
+     * Create many patient records using JDBC batching, with the default batch size
+     * @param patients Patient objects to be added
+     * @return the number of patients created
+     * @see #createPatients(List, int)
+     */
+    public int createPatients(List<Patient> patients) {
+        return createPatients(patients, DatabaseUtil.getBatchSize());
+    }
+
+    /**
+     * Create many patient records using JDBC batching.
+     * Each batch is committed on its own, and every created Patient object is
+     * updated with its generated ID. Stops at the first batch that fails.
+     * @param patients Patient objects to be added
+     * @param batchSize number of rows sent and committed together
+     * @return the number of patients created
+     * @throws IllegalArgumentException if batchSize is not positive
+     */
+    public int createPatients(List<Patient> patients, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        long startNanos = System.nanoTime();
+        String sql = "INSERT INTO patient (first_name, last_name, address, telephone) VALUES (?, ?, ?, ?)";
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        int created = 0;
+
+        try {
+            conn = DatabaseUtil.getConnection();
+            conn.setAutoCommit(false); // Start transaction
+            stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+
+            for (int start = 0; start < patients.size(); start += batchSize) {
+                List<Patient> batch = patients.subList(start, Math.min(start + batchSize, patients.size()));
+
+                for (Patient patient : batch) {
+                    stmt.setString(1, patient.getFirstName());
+                    stmt.setString(2, patient.getLastName());
+                    stmt.setString(3, patient.getAddress());
+                    stmt.setString(4, patient.getTelephone());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+
+                // Get the generated patient IDs, in insertion order
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    for (Patient patient : batch) {
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("Creating patients failed, no ID obtained.");
+                        }
+                        patient.setPatientId(generatedKeys.getInt(1));
+                    }
+                }
+
+                conn.commit(); // Commit this batch
+                for (Patient patient : batch) {
+                    indexName(patient);
+                    SearchService.indexPatient(patient);
+                    patient.clearModified(); // Matches the new row
+                    EntityEventBus.publish(EntityEvent.created(Patient.class, patient.getPatientId(), patient));
+                }
+                created += batch.size();
+            }
+            return created;
+        } catch (SQLException e) {
+            CREATE_PATIENTS.recordError();
+            log.error("Error creating patients", "error", e.getMessage());
+            try {
+                if (conn != null) {
+                    conn.rollback(); // Rollback the failed batch
+                }
+            } catch (SQLException ex) {
+                log.error("Error rolling back transaction", "error", ex.getMessage());
+            }
+            return created;
+        } finally {
+            try {
+                if (stmt != null) stmt.close();
+                if (conn != null) {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                }
+            } catch (SQLException e) {
+                log.warn("Error closing resources", "error", e.getMessage());
+            }
+            CREATE_PATIENTS.record(startNanos);
+        }
+    }
+
+    /**
+     * Read a patient record from the database by ID.
+     * Recently read patients are served from a shared cache without a query.
      * @param patientId the ID of the patient to retrieve
      * @return the Patient object if found, null if not found
      */
     public Patient readPatient(int patientId) {
+        long start = System.nanoTime();
+        // After a write the session reads from the primary, past the cache
+        boolean cacheable = !DatabaseUtil.wroteRecently();
+        Patient cached = cacheable ? cache.get(patientId) : null;
+        if (cached != null) {
+            READ_PATIENT.record(start);
+            return cached;
+        }
+        long generation = cache.generation();
         String sql = "SELECT * FROM patient WHERE patient_id = ?";
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, patientId);
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return new Patient(
-                        rs.getInt("patient_id"),
-                        rs.getString("first_name"),
-                        rs.getString("last_name"),
-                        rs.getString("address"),
-                        rs.getString("telephone")
-                );
+                Patient patient = mapPatient(rs);
+                if (cacheable && !DatabaseUtil.isReplicaConnection(conn)) {
+                    cache.put(patientId, patient, generation); // Only rows read from the primary
+                }
+                return patient;
             } else {
                 return null; // Patient not found
             }
         } catch (SQLException e) {
-            System.out.println("Error reading patient: " + e.getMessage());
+            READ_PATIENT.recordError();
+            log.error("Error reading patient", "patientId", patientId, "error", e.getMessage());
             return null;
+        } finally {
+            READ_PATIENT.record(start);
         }
     }
 
+    /**
+     * Get the hit/miss statistics of the shared patient cache
+     * @return the current CacheStats
+     */
+    public static CacheStats getCacheStats() {
+        return cache.getStats();
+    }
+
+    /**
+     * Drop the cached patients, e.g. after a write that bypassed this DAO
+     */
+    public static void invalidateCache() {
+        cache.invalidateAll();
+    }
+
     /**
      * Read all patients from the database
      * @return List of all Patient objects
      */
     public List<Patient> readAllPatients() {
+        long start = System.nanoTime();
         String sql = "SELECT * FROM patient";
         List<Patient> patients = new ArrayList<>();
 
-        try (Connection conn = DatabaseUtil.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (Connection conn = DatabaseUtil.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-                Patient patient = new Patient(
-                        rs.getInt("patient_id"),
-                        rs.getString("first_name"),
-                        rs.getString("last_name"),
-                        rs.getString("address"),
-                        rs.getString("telephone")
-                );
-                patients.add(patient);
+                patients.add(mapPatient(rs));
             }
         } catch (SQLException e) {
-            System.out.println("Error reading all patients: " + e.getMessage());
+            READ_ALL_PATIENTS.recordError();
+            log.error("Error reading all patients", "error", e.getMessage());
+        } finally {
+            READ_ALL_PATIENTS.record(start);
         }
 
         return patients;
     }
 
     /**
-     * Update a patient record in the database
-     * @param patient Patient object with updated information
-     * @return true if update was successful, false otherwise
+     * Count the patients in the database
+     * @return the number of patients, -1 if failed
      */
-    public boolean updatePatient(Patient patient) {
-        String sql = "UPDATE patient SET first_name = ?, last_name = ?, address = ?, telephone = ? WHERE patient_id = ?";
+    public int countPatients() {
+        long start = System.nanoTime();
+        String sql = "SELECT COUNT(*) FROM patient";
 
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseUtil.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
 
-            stmt.setString(1, patient.getFirstName());
-            stmt.setString(2, patient.getLastName());
-            stmt.setString(3, patient.getAddress());
-            stmt.setString(4, patient.getTelephone());
-            stmt.setInt(5, patient.getPatientId());
+            rs.next();
+            return rs.getInt(1);
+        } catch (SQLException e) {
+            COUNT_PATIENTS.recordError();
+            log.error("Error counting patients", "error", e.getMessage());
+            return -1;
+        } finally {
+            COUNT_PATIENTS.record(start);
+        }
+    }
 
-            int affectedRows = stmt.executeUpdate();
+    /**
+     * Read one page of patients in patient ID order, using keyset pagination
+     * @param pageToken token from the previous page, or null for the first page
+     * @param limit maximum number of patients in the page
+     * @return the page, with a token for the next page if there is one
+     */
+    public Page<Patient> readPatientsPage(String pageToken, int limit) {
+        return readPatientsPage(pageToken, limit, null);
+    }
+
+    /**
+     * Read one page of patients ordered by a column, using keyset pagination.
+     * Ties are broken by ID, and deep pages cost the same as the first one.
+     * @param pageToken token from the previous page with the same sort column, or null for the first page
+     * @param limit maximum number of patients in the page
+     * @param sortColumn first_name or last_name, or null to sort by ID
+     * @return the page, with a token for the next page if there is one
+     * @throws IllegalArgumentException if the limit, sort column or page token is invalid
+     */
+    public Page<Patient> readPatientsPage(String pageToken, int limit, String sortColumn) {
+        return readPatientsPageSkipping(pageToken, 0, limit, sortColumn);
+    }
+
+    /**
+     * Read one page of patients in ID order, starting some rows after a page token.
+     * Lets a caller such as a scrolling table jump ahead from the nearest page it
+     * has a token for; the database still reads the skipped rows, so keep skip small.
+     * @param pageToken token of an earlier page, or null to count from the first row
+     * @param skip number of rows after the token to skip
+     * @param limit maximum number of patients in the page
+     * @return the page, with a token for the next page if there is one
+     * @throws IllegalArgumentException if the skip, limit or page token is invalid
+     */
+    public Page<Patient> readPatientsPageSkipping(String pageToken, int skip, int limit) {
+        return readPatientsPageSkipping(pageToken, skip, limit, null);
+    }
+
+    /**
+     * Read one page of patients ordered by a column, starting some rows after a page token
+     * @param pageToken token of an earlier page with the same sort column, or null to count from the first row
+     * @param skip number of rows after the token to skip
+     * @param limit maximum number of patients in the page
+     * @param sortColumn first_name or last_name, or null to sort by ID
+     * @return the page, with a token for the next page if there is one
+     * @throws IllegalArgumentException if the skip, limit, sort column or page token is invalid
+     */
+    public Page<Patient> readPatientsPageSkipping(String pageToken, int skip, int limit, String sortColumn) {
+        long start = System.nanoTime();
+        try (Connection conn = DatabaseUtil.getReadConnection()) {
+            return KeysetQuery.fetch(conn, "SELECT * FROM patient", "patient_id",
+                    PAGE_SORT_COLUMNS, sortColumn, pageToken, skip, limit,
+                    this::mapPatient);
+        } catch (SQLException e) {
+            READ_PATIENTS_PAGE.recordError();
+            log.error("Error reading patients page", "error", e.getMessage());
+            return Page.empty();
+        } finally {
+            READ_PATIENTS_PAGE.record(start);
+        }
+    }
+
+    /**
+     * Stream every patient without loading them all into memory.
+     * Rows are read from the database as the stream is consumed; the stream
+     * holds a connection until it is closed, so use it in try-with-resources.
+     * @return a Stream of Patient objects in ID order
+     */
+    public Stream<Patient> streamAllPatients() {
+        return ResultSetStream.open(DatabaseUtil::getReadConnection,
+                "SELECT * FROM patient ORDER BY patient_id",
+                this::mapPatient, "patients");
+    }
+
+    /**
+     * Pass every patient to an action, streaming the rows like {@link #streamAllPatients()}
+     * from the primary, for loads that must not miss a committed write such as the search index
+     * @param action called with each patient, in ID order
+     * @return true if every patient was read, false if a database error cut the read short
+     */
+    public boolean forEachPatient(Consumer<Patient> action) {
+        return ResultSetStream.forEach(DatabaseUtil::getPrimaryReadConnection,
+                "SELECT * FROM patient ORDER BY patient_id",
+                this::mapPatient, "patients", action);
+    }
+
+    /**
+     * Update a patient record in the database.
+     * Only the columns of the fields modified since the patient was loaded are
+     * written; if none were, nothing is sent to the database.
+     * @param patient Patient object with updated information
+     * @return true if update was successful or there was nothing to update, false otherwise
+     */
+    public boolean updatePatient(Patient patient) {
+        long start = System.nanoTime();
+        if (!patient.isModified()) {
+            UPDATE_PATIENT.record(start);
+            return true; // Unchanged since it was loaded
+        }
+        ColumnUpdate update = new ColumnUpdate("patient")
+                .set(patient.isModified(Patient.FIRST_NAME), "first_name", patient.getFirstName(), Types.VARCHAR)
+                .set(patient.isModified(Patient.LAST_NAME), "last_name", patient.getLastName(), Types.VARCHAR)
+                .set(patient.isModified(Patient.ADDRESS), "address", patient.getAddress(), Types.VARCHAR)
+                .set(patient.isModified(Patient.TELEPHONE), "telephone", patient.getTelephone(), Types.VARCHAR);
+
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            int affectedRows = update.execute(conn, "patient_id", patient.getPatientId());
+            cache.invalidate(patient.getPatientId());
+            if (affectedRows > 0) {
+                patient.clearModified();
+                indexName(patient);
+                SearchService.indexPatient(patient);
+                EntityEventBus.publish(EntityEvent.updated(Patient.class, patient.getPatientId(), patient));
+            }
             return affectedRows > 0;
         } catch (SQLException e) {
-            System.out.println("Error updating patient: " + e.getMessage());
+            UPDATE_PATIENT.recordError();
+            log.error("Error updating patient", "patientId", patient.getPatientId(), "error", e.getMessage());
             return false;
+        } finally {
+            UPDATE_PATIENT.record(start);
         }
     }
 
@@ -144,6 +440,7 @@ public class PatientDAO {
      * @return true if deletion was successful, false otherwise
      */
     public boolean deletePatient(int patientId) {
+        long start = System.nanoTime();
         String sql = "DELETE FROM patient WHERE patient_id = ?";
 
         try (Connection conn = DatabaseUtil.getConnection();
@@ -152,23 +449,179 @@ public class PatientDAO {
             stmt.setInt(1, patientId);
 
             int affectedRows = stmt.executeUpdate();
+            cache.invalidate(patientId);
+            unindexName(patientId);
+            SearchService.removePatient(patientId);
+            if (affectedRows > 0) {
+                EntityEventBus.publish(EntityEvent.deleted(Patient.class, patientId));
+            }
             return affectedRows > 0;
         } catch (SQLException e) {
-            System.out.println("Error deleting patient: " + e.getMessage());
+            DELETE_PATIENT.recordError();
+            log.error("Error deleting patient", "patientId", patientId, "error", e.getMessage());
             return false;
+        } finally {
+            DELETE_PATIENT.record(start);
         }
     }
 
     /**
-     * Search for patients by name (partial match)
+     * Search for patients by name (partial match, ignoring case and accents).
+     * Candidates come from the in-memory name index, and only the matching
+     * rows are read from the database by ID. Terms containing the LIKE
+     * wildcards % or _, and terms matching a large share of the patients,
+     * are searched in the database.
      * @param name the name to search for
-     * @return List of matching Patient objects
+     * @return List of matching Patient objects, in ID order
      */
     public List<Patient> searchPatientsByName(String name) {
-        String sql = "SELECT * FROM patient WHERE first_name LIKE ? OR last_name LIKE ?";
+        long start = System.nanoTime();
+        try {
+            if (NAME_INDEX_ENABLED && !name.isEmpty() && name.indexOf('%') < 0 && name.indexOf('_') < 0
+                    && name.indexOf('\\') < 0 && buildSearchIndex()) {
+                int[] ids = nameIndex.search(name);
+                if (ids.length <= nameIndex.size() / MAX_INDEXED_MATCH_FRACTION + ID_LOOKUP_CHUNK) {
+                    return readMatchingPatients(ids, name);
+                }
+            }
+            return querySearchPatientsByName(name);
+        } finally {
+            SEARCH_PATIENTS_BY_NAME.record(start);
+        }
+    }
+
+    /**
+     * Load the name index from the patient table, if it has not been loaded yet.
+     * Called by the first search; call it at startup to have the index ready.
+     * @return true if the index is ready, false if it is disabled or could not be loaded
+     */
+    public static boolean buildSearchIndex() {
+        if (!NAME_INDEX_ENABLED) {
+            return false;
+        }
+        if (nameIndexBuilt) {
+            return true;
+        }
+        synchronized (nameIndex) {
+            if (nameIndexBuilt) {
+                return true;
+            }
+            String sql = "SELECT patient_id, first_name, last_name FROM patient";
+            namesWrittenWhileLoading.clear();
+            nameIndexLoading = true;
+
+            // Stream the rows so the scan does not hold the whole table in memory
+            try (Connection conn = DatabaseUtil.getPrimaryReadConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+                stmt.setFetchSize(DatabaseUtil.getStreamingFetchSize());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        nameIndex.put(rs.getInt("patient_id"), rs.getString("first_name"), rs.getString("last_name"));
+                    }
+                }
+                for (Map.Entry<Integer, String[]> written : namesWrittenWhileLoading.entrySet()) {
+                    if (written.getValue() == DELETED) {
+                        nameIndex.remove(written.getKey());
+                    } else {
+                        nameIndex.put(written.getKey(), written.getValue());
+                    }
+                }
+                nameIndexBuilt = true;
+                return true;
+            } catch (SQLException e) {
+                log.error("Error building patient name index", "error", e.getMessage());
+                nameIndex.clear();
+                return false;
+            } finally {
+                nameIndexLoading = false;
+                namesWrittenWhileLoading.clear();
+            }
+        }
+    }
+
+    /**
+     * Drop the name index so the next search reloads it, e.g. after patients
+     * were written without going through this DAO
+     */
+    public static void resetSearchIndex() {
+        synchronized (nameIndex) {
+            nameIndexBuilt = false;
+            nameIndex.clear();
+        }
+    }
+
+    private static void indexName(Patient patient) {
+        if (NAME_INDEX_ENABLED) {
+            nameIndex.put(patient.getPatientId(), patient.getFirstName(), patient.getLastName());
+            if (nameIndexLoading) {
+                namesWrittenWhileLoading.put(patient.getPatientId(),
+                        new String[]{patient.getFirstName(), patient.getLastName()});
+            }
+        }
+    }
+
+    private static void unindexName(int patientId) {
+        if (NAME_INDEX_ENABLED) {
+            nameIndex.remove(patientId);
+            if (nameIndexLoading) {
+                namesWrittenWhileLoading.put(patientId, DELETED);
+            }
+        }
+    }
+
+    /**
+     * Read the patients with the given IDs and keep those whose name still contains the term
+     * @param ids candidate IDs in ascending order
+     * @param name the search term
+     * @return List of matching Patient objects, in ID order
+     */
+    private List<Patient> readMatchingPatients(int[] ids, String name) {
+        List<Patient> patients = new ArrayList<>(ids.length);
+        if (ids.length == 0) {
+            return patients;
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT * FROM patient WHERE patient_id IN (?");
+        for (int i = 1; i < ID_LOOKUP_CHUNK; i++) {
+            sql.append(", ?");
+        }
+        sql.append(") ORDER BY patient_id");
+        String term = TextFold.fold(name);
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            for (int start = 0; start < ids.length; start += ID_LOOKUP_CHUNK) {
+                for (int i = 0; i < ID_LOOKUP_CHUNK; i++) {
+                    // Pad a short chunk by repeating its last ID
+                    stmt.setInt(i + 1, ids[Math.min(start + i, ids.length - 1)]);
+                }
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Patient patient = mapPatient(rs);
+                        // The row may have changed since it was indexed
+                        if (TextFold.fold(patient.getFirstName()).contains(term)
+                                || TextFold.fold(patient.getLastName()).contains(term)) {
+                            patients.add(patient);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            SEARCH_PATIENTS_BY_NAME.recordError();
+            log.error("Error searching patients", "error", e.getMessage());
+        }
+
+        return patients;
+    }
+
+    private List<Patient> querySearchPatientsByName(String name) {
+        String sql = "SELECT * FROM patient WHERE first_name LIKE ? OR last_name LIKE ? ORDER BY patient_id";
         List<Patient> patients = new ArrayList<>();
 
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (Connection conn = DatabaseUtil.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             String searchPattern = "%" + name + "%";
@@ -178,19 +631,37 @@ public class PatientDAO {
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Patient patient = new Patient(
-                        rs.getInt("patient_id"),
-                        rs.getString("first_name"),
-                        rs.getString("last_name"),
-                        rs.getString("address"),
-                        rs.getString("telephone")
-                );
-                patients.add(patient);
+                patients.add(mapPatient(rs));
             }
         } catch (SQLException e) {
-            System.out.println("Error searching patients: " + e.getMessage());
+            SEARCH_PATIENTS_BY_NAME.recordError();
+            log.error("Error searching patients", "error", e.getMessage());
         }
 
         return patients;
     }
+
+    /**
+     * Build a Patient from the current row, with no fields counted as modified
+     * @param rs a result set positioned on a patient row
+     * @return the Patient object
+     */
+    private Patient mapPatient(ResultSet rs) throws SQLException {
+        Patient patient = new Patient(
+                rs.getInt("patient_id"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getString("address"),
+                rs.getString("telephone")
+        );
+        patient.clearModified();
+        return patient;
+    }
+
+    // Callers get their own copy so they cannot change the cached rows
+    private static Patient copyOf(Patient patient) {
+        Patient copy = new Patient(patient);
+        copy.clearModified();
+        return copy;
+    }
 }
@@ -0,0 +1,156 @@
+package com.hospital.dao;
+
+import com.hospital.util.DatabaseUtil;
+import com.hospital.util.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A lazily evaluated Stream over the rows of a query, shared by the DAOs'
+ * stream* methods.
+ * <p>
+ * Rows are read and mapped one at a time as the stream pulls them, so memory
+ * use does not grow with the table and a slow consumer simply reads more
+ * slowly (the database connection is the buffer). The statement uses the
+ * driver's streaming fetch mode ({@link DatabaseUtil#getStreamingFetchSize()}).
+ * <p>
+ * The stream holds a pooled connection until it is exhausted or closed, so
+ * callers must close it, ideally with try-with-resources. Closing it before
+ * the last row cancels the query rather than draining the remaining rows.
+ * A database error while iterating is printed and ends the stream, the same
+ * way the readAll* methods return the rows read so far. Callers that must not
+ * mistake a truncated result for the whole table, such as the search index
+ * loads, use {@link #forEach} instead, which reports whether every row was read.
+ */
+final class ResultSetStream<T> extends Spliterators.AbstractSpliterator<T> {
+    private static final Logger log = Logger.getLogger(ResultSetStream.class);
+
+    private final Connection conn;
+    private final PreparedStatement stmt;
+    private final ResultSet rs;
+    private final RowMapper<T> mapper;
+    private final String description;
+    private boolean finished;
+    private boolean failed;
+
+    private ResultSetStream(Connection conn, PreparedStatement stmt, ResultSet rs,
+                            RowMapper<T> mapper, String description) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.conn = conn;
+        this.stmt = stmt;
+        this.rs = rs;
+        this.mapper = mapper;
+        this.description = description;
+    }
+
+    /**
+     * Run a query and stream its rows
+     * @param connections where the connection comes from, e.g. DatabaseUtil::getReadConnection
+     * @param sql the query, without parameters
+     * @param mapper maps a row to an entity
+     * @param description what is being streamed, used in error messages, e.g. "patients"
+     * @return a stream of mapped rows that must be closed, or an empty stream if the query failed
+     */
+    static <T> Stream<T> open(ConnectionSource connections, String sql, RowMapper<T> mapper, String description) {
+        ResultSetStream<T> rows = start(connections, sql, mapper, description);
+        if (rows == null) {
+            return Stream.empty();
+        }
+        return StreamSupport.stream(rows, false).onClose(rows::close);
+    }
+
+    /**
+     * Run a query and pass each of its rows to an action, streaming them
+     * @param connections where the connection comes from, e.g. DatabaseUtil::getPrimaryReadConnection
+     * @param sql the query, without parameters
+     * @param mapper maps a row to an entity
+     * @param description what is being read, used in error messages, e.g. "patients"
+     * @param action called with each mapped row
+     * @return true if every row was read, false if the query failed before the last row
+     */
+    static <T> boolean forEach(ConnectionSource connections, String sql, RowMapper<T> mapper, String description, Consumer<? super T> action) {
+        ResultSetStream<T> rows = start(connections, sql, mapper, description);
+        if (rows == null) {
+            return false;
+        }
+        try {
+            rows.forEachRemaining(action);
+            return !rows.failed;
+        } finally {
+            rows.close();
+        }
+    }
+
+    private static <T> ResultSetStream<T> start(ConnectionSource connections, String sql, RowMapper<T> mapper, String description) {
+        Connection conn = null;
+        PreparedStatement stmt = null;
+
+        try {
+            conn = connections.get();
+            // A forward-only, read-only statement is required for MySQL row streaming
+            stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(DatabaseUtil.getStreamingFetchSize());
+            ResultSet rs = stmt.executeQuery();
+
+            return new ResultSetStream<>(conn, stmt, rs, mapper, description);
+        } catch (SQLException e) {
+            log.error("Error streaming " + description, "error", e.getMessage());
+            try {
+                if (stmt != null) stmt.close();
+                if (conn != null) conn.close();
+            } catch (SQLException ex) {
+                log.warn("Error closing resources", "error", ex.getMessage());
+            }
+            return null;
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (finished) {
+            return false;
+        }
+        try {
+            if (rs.next()) {
+                action.accept(mapper.map(rs));
+                return true;
+            }
+        } catch (SQLException e) {
+            log.error("Error streaming " + description, "error", e.getMessage());
+            failed = true;
+        }
+        // Give the connection back as soon as the rows run out, not when the caller gets round to closing
+        finished = true;
+        close();
+        return false;
+    }
+
+    private void close() {
+        try {
+            if (!rs.isClosed()) {
+                if (!finished) {
+                    // Stop the server sending the rest of the rows, which closing a streaming result would read
+                    stmt.cancel();
+                }
+                rs.close();
+            }
+        } catch (SQLException e) {
+            // Cancelling makes some drivers report the interrupted query here
+        }
+        finished = true;
+        try {
+            stmt.close();
+            conn.close();
+        } catch (SQLException e) {
+            log.warn("Error closing resources", "error", e.getMessage());
+        }
+    }
+}
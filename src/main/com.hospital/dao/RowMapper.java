@@ -0,0 +1,12 @@
+package com.hospital.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a result set to an entity.
+ * @param <T> the entity type
+ */
+interface RowMapper<T> {
+    T map(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,206 @@
+package com.hospital.dao;
+
+import com.hospital.util.TextFold;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index for case- and accent-insensitive substring search
+ * over the text fields of rows with int IDs, standing in for {@code LIKE '%term%'}.
+ * <p>
+ * Every three-character sequence of every field maps to a sorted list of the
+ * IDs containing it. A search looks up the rarest trigram of the term and
+ * checks only those IDs against the stored fields, so it never returns a
+ * false positive and never needs the database to find candidates. Terms
+ * shorter than three characters are checked against every stored row.
+ * <p>
+ * Fields and terms are compared after {@link TextFold#fold}, which approximates
+ * the MySQL {@code _ai_ci} collations: "Adjoa" matches "adjóa".
+ * <p>
+ * Rows are stored in arrays indexed by ID, which suits AUTO_INCREMENT keys.
+ * Changing or removing a row leaves its old trigrams in the lists; the
+ * check against the stored fields filters them out.
+ */
+final class TrigramIndex {
+    private static final int[] NO_IDS = new int[0];
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IdList> postings = new HashMap<>();
+    private String[][] fieldsById = new String[1024][]; // Folded fields, null if no row
+    private int size;
+
+    /**
+     * Add or replace a row
+     * @param id the row ID, not negative
+     * @param fields the searchable fields; null fields are ignored
+     */
+    void put(int id, String... fields) {
+        String[] lowered = new String[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            lowered[i] = fields[i] != null ? TextFold.fold(fields[i]) : null;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (id >= fieldsById.length) {
+                fieldsById = Arrays.copyOf(fieldsById, Math.max(id + 1, fieldsById.length * 2));
+            }
+            if (fieldsById[id] == null) {
+                size++;
+            }
+            fieldsById[id] = lowered;
+
+            for (String field : lowered) {
+                if (field == null) {
+                    continue;
+                }
+                for (int i = 0; i + 3 <= field.length(); i++) {
+                    postings.computeIfAbsent(trigram(field, i), k -> new IdList()).add(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a row
+     * @param id the row ID
+     */
+    void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            if (id >= 0 && id < fieldsById.length && fieldsById[id] != null) {
+                fieldsById[id] = null;
+                size--;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            fieldsById = new String[1024][];
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find the rows with a field containing the term, ignoring case and accents
+     * @param term the text to look for
+     * @return the matching IDs in ascending order
+     */
+    int[] search(String term) {
+        String lowered = TextFold.fold(term);
+
+        lock.readLock().lock();
+        try {
+            if (lowered.length() < 3) {
+                return scanAll(lowered);
+            }
+
+            // The rarest trigram gives the fewest candidates to check
+            IdList rarest = null;
+            for (int i = 0; i + 3 <= lowered.length(); i++) {
+                IdList ids = postings.get(trigram(lowered, i));
+                if (ids == null) {
+                    return NO_IDS;
+                }
+                if (rarest == null || ids.size < rarest.size) {
+                    rarest = ids;
+                }
+            }
+
+            int[] matches = new int[Math.min(rarest.size, 64)];
+            int count = 0;
+            for (int i = 0; i < rarest.size; i++) {
+                int id = rarest.ids[i];
+                if (contains(fieldsById[id], lowered)) {
+                    if (count == matches.length) {
+                        matches = Arrays.copyOf(matches, count * 2);
+                    }
+                    matches[count++] = id;
+                }
+            }
+            return Arrays.copyOf(matches, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] scanAll(String lowered) {
+        int[] matches = new int[64];
+        int count = 0;
+        for (int id = 0; id < fieldsById.length; id++) {
+            if (contains(fieldsById[id], lowered)) {
+                if (count == matches.length) {
+                    matches = Arrays.copyOf(matches, count * 2);
+                }
+                matches[count++] = id;
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    private static boolean contains(String[] fields, String lowered) {
+        if (fields == null) {
+            return false;
+        }
+        for (String field : fields) {
+            if (field != null && field.contains(lowered)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Three UTF-16 chars packed into one key
+    private static long trigram(String s, int start) {
+        return ((long) s.charAt(start) << 32) | ((long) s.charAt(start + 1) << 16) | s.charAt(start + 2);
+    }
+
+    // Sorted, duplicate-free list of IDs
+    private static final class IdList {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            if (size == 0 || id > ids[size - 1]) {
+                // IDs almost always arrive in ascending order
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                }
+                ids[size++] = id;
+                return;
+            }
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.hospital.dao;
+
+import com.hospital.model.Ward;
+import com.hospital.util.DaoMetrics;
+import com.hospital.util.DatabaseUtil;
+import com.hospital.util.Logger;
+import com.hospital.util.MethodMetrics;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ward Data Access Object.
+ * Provides CRUD operations for Ward entities.
+ * Writes keep the shared bed occupancy map of {@link HospitalizationDAO} in step.
+ */
+public class WardDAO {
+    private static final Logger log = Logger.getLogger(WardDAO.class);
+
+    // Latency and error counters of each public method, published over JMX
+    private static final MethodMetrics CREATE_WARD = DaoMetrics.forMethod(WardDAO.class, "createWard");
+    private static final MethodMetrics READ_WARD = DaoMetrics.forMethod(WardDAO.class, "readWard");
+    private static final MethodMetrics READ_ALL_WARDS = DaoMetrics.forMethod(WardDAO.class, "readAllWards");
+    private static final MethodMetrics GET_WARDS_BY_DEPARTMENT = DaoMetrics.forMethod(WardDAO.class, "getWardsByDepartment");
+    private static final MethodMetrics UPDATE_WARD = DaoMetrics.forMethod(WardDAO.class, "updateWard");
+    private static final MethodMetrics DELETE_WARD = DaoMetrics.forMethod(WardDAO.class, "deleteWard");
+
+    /**
+     * Create a new ward record in the database
+     * @param ward Ward object to be added
+     * @return the generated ward ID if successful, -1 if failed
+     */
+    public int createWard(Ward ward) {
+        long start = System.nanoTime();
+        String sql = "INSERT INTO ward (ward_number, bed_count, supervisor_id, department_id) VALUES (?, ?, ?, ?)";
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            stmt.setInt(1, ward.getWardNumber());
+            stmt.setInt(2, ward.getBedCount());
+
+            if (ward.getSupervisorId() != null) {
+                stmt.setInt(3, ward.getSupervisorId());
+            } else {
+                stmt.setNull(3, java.sql.Types.INTEGER);
+            }
+
+            stmt.setInt(4, ward.getDepartmentId());
+
+            int affectedRows = stmt.executeUpdate();
+
+            if (affectedRows == 0) {
+                throw new SQLException("Creating ward failed, no rows affected.");
+            }
+
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    int id = generatedKeys.getInt(1);
+                    ward.setWardId(id);
+                    HospitalizationDAO.beds.putWard(id, ward.getDepartmentId(), ward.getBedCount());
+                    return id;
+                } else {
+                    throw new SQLException("Creating ward failed, no ID obtained.");
+                }
+            }
+        } catch (SQLException e) {
+            CREATE_WARD.recordError();
+            log.error("Error creating ward", "error", e.getMessage());
+            return -1;
+        } finally {
+            CREATE_WARD.record(start);
+        }
+    }
+
+    /**
+     * Read a ward record from the database by ID
+     * @param wardId the ID of the ward to retrieve
+     * @return the Ward object if found, null if not found
+     */
+    public Ward readWard(int wardId) {
+        long start = System.nanoTime();
+        String sql = "SELECT * FROM ward WHERE ward_id = ?";
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, wardId);
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                return new Ward(
+                        rs.getInt("ward_id"),
+                        rs.getInt("ward_number"),
+                        rs.getInt("bed_count"),
+                        rs.getObject("supervisor_id", Integer.class), // Handles NULL values
+                        rs.getInt("department_id")
+                );
+            } else {
+                return null; // Ward not found
+            }
+        } catch (SQLException e) {
+            READ_WARD.recordError();
+            log.error("Error reading ward", "wardId", wardId, "error", e.getMessage());
+            return null;
+        } finally {
+            READ_WARD.record(start);
+        }
+    }
+
+    /**
+     * Read all wards
+     * @return List of all Ward objects
+     */
+    public List<Ward> readAllWards() {
+        long start = System.nanoTime();
+        String sql = "SELECT * FROM ward";
+        List<Ward> wards = new ArrayList<>();
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                Ward ward = new Ward(
+                        rs.getInt("ward_id"),
+                        rs.getInt("ward_number"),
+                        rs.getInt("bed_count"),
+                        rs.getObject("supervisor_id", Integer.class), // Handles NULL values
+                        rs.getInt("department_id")
+                );
+                wards.add(ward);
+            }
+        } catch (SQLException e) {
+            READ_ALL_WARDS.recordError();
+            log.error("Error reading all wards", "error", e.getMessage());
+        } finally {
+            READ_ALL_WARDS.record(start);
+        }
+
+        return wards;
+    }
+
+    /**
+     * Read the wards of a department
+     * @param departmentId the department ID
+     * @return List of the department's Ward objects, by ward number
+     */
+    public List<Ward> getWardsByDepartment(int departmentId) {
+        long start = System.nanoTime();
+        String sql = "SELECT * FROM ward WHERE department_id = ? ORDER BY ward_number";
+        List<Ward> wards = new ArrayList<>();
+
+        try (Connection conn = DatabaseUtil.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, departmentId);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                Ward ward = new Ward(
+                        rs.getInt("ward_id"),
+                        rs.getInt("ward_number"),
+                        rs.getInt("bed_count"),
+                        rs.getObject("supervisor_id", Integer.class), // Handles NULL values
+                        rs.getInt("department_id")
+                );
+                wards.add(ward);
+            }
+        } catch (SQLException e) {
+            GET_WARDS_BY_DEPARTMENT.recordError();
+            log.error("Error reading wards by department", "departmentId", departmentId, "error", e.getMessage());
+        } finally {
+            GET_WARDS_BY_DEPARTMENT.record(start);
+        }
+
+        return wards;
+    }
+
+    /**
+     * Update a ward record in the database.
+     * Lowering the bed count does not discharge anyone; patients in beds past
+     * the new count stay admitted, but those beds are no longer offered.
+     * @param ward Ward object with updated information
+     * @return true if update was successful, false otherwise
+     */
+    public boolean updateWard(Ward ward) {
+        long start = System.nanoTime();
+        String sqlSelect = "SELECT bed_count, department_id FROM ward WHERE ward_id = ? FOR UPDATE";
+        String sqlUpdate = "UPDATE ward SET ward_number = ?, bed_count = ?, supervisor_id = ?, department_id = ? WHERE ward_id = ?";
+        Connection conn = null;
+
+        try {
+            conn = DatabaseUtil.getConnection();
+            conn.setAutoCommit(false); // Start transaction
+
+            // The bed occupancy map only needs the ward again if its beds or department change
+            boolean bedsChanged;
+            try (PreparedStatement stmtSelect = conn.prepareStatement(sqlSelect)) {
+                stmtSelect.setInt(1, ward.getWardId());
+                try (ResultSet rs = stmtSelect.executeQuery()) {
+                    if (!rs.next()) {
+                        conn.rollback();
+                        return false; // Ward not found
+                    }
+                    bedsChanged = rs.getInt("bed_count") != ward.getBedCount()
+                            || rs.getInt("department_id") != ward.getDepartmentId();
+                }
+            }
+
+            int affectedRows;
+            try (PreparedStatement stmt = conn.prepareStatement(sqlUpdate)) {
+                stmt.setInt(1, ward.getWardNumber());
+                stmt.setInt(2, ward.getBedCount());
+
+                if (ward.getSupervisorId() != null) {
+                    stmt.setInt(3, ward.getSupervisorId());
+                } else {
+                    stmt.setNull(3, java.sql.Types.INTEGER);
+                }
+
+                stmt.setInt(4, ward.getDepartmentId());
+                stmt.setInt(5, ward.getWardId());
+                affectedRows = stmt.executeUpdate();
+            }
+
+            conn.commit(); // Commit transaction
+            if (affectedRows > 0 && bedsChanged) {
+                HospitalizationDAO.reloadWard(ward.getWardId(), ward.getDepartmentId(), ward.getBedCount());
+            }
+            return affectedRows > 0;
+        } catch (SQLException e) {
+            UPDATE_WARD.recordError();
+            log.error("Error updating ward", "wardId", ward.getWardId(), "error", e.getMessage());
+            try {
+                if (conn != null) {
+                    conn.rollback(); // Rollback transaction
+                }
+            } catch (SQLException ex) {
+                log.error("Error rolling back transaction", "wardId", ward.getWardId(), "error", ex.getMessage());
+            }
+            return false;
+        } finally {
+            try {
+                if (conn != null) {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                }
+            } catch (SQLException e) {
+                log.warn("Error closing resources", "error", e.getMessage());
+            }
+            UPDATE_WARD.record(start);
+        }
+    }
+
+    /**
+     * Delete a ward record from the database
+     * @param wardId the ID of the ward to delete
+     * @return true if deletion was successful, false otherwise
+     */
+    public boolean deleteWard(int wardId) {
+        long start = System.nanoTime();
+        String sql = "DELETE FROM ward WHERE ward_id = ?";
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, wardId);
+
+            int affectedRows = stmt.executeUpdate();
+            HospitalizationDAO.beds.removeWard(wardId);
+            return affectedRows > 0;
+        } catch (SQLException e) {
+            DELETE_WARD.recordError();
+            log.error("Error deleting ward", "wardId", wardId, "error", e.getMessage());
+            return false;
+        } finally {
+            DELETE_WARD.record(start);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.hospital.event;
+
+/**
+ * A change to one entity, published by its DAO after the change is committed.
+ * @param <T> the entity type, e.g. Patient
+ */
+public class EntityEvent<T> {
+
+    /**
+     * What happened to the entity
+     */
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Class<T> entityType;
+    private final int id;
+    private final T entity;
+
+    private EntityEvent(Type type, Class<T> entityType, int id, T entity) {
+        this.type = type;
+        this.entityType = entityType;
+        this.id = id;
+        this.entity = entity;
+    }
+
+    public static <T> EntityEvent<T> created(Class<T> entityType, int id, T entity) {
+        return new EntityEvent<>(Type.CREATED, entityType, id, entity);
+    }
+
+    public static <T> EntityEvent<T> updated(Class<T> entityType, int id, T entity) {
+        return new EntityEvent<>(Type.UPDATED, entityType, id, entity);
+    }
+
+    public static <T> EntityEvent<T> deleted(Class<T> entityType, int id) {
+        return new EntityEvent<>(Type.DELETED, entityType, id, null);
+    }
+
+    // Getters
+    public Type getType() {
+        return type;
+    }
+
+    public Class<T> getEntityType() {
+        return entityType;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Get the entity as it was written
+     * @return the entity, or null for a deletion
+     */
+    public T getEntity() {
+        return entity;
+    }
+
+    @Override
+    public String toString() {
+        return "EntityEvent{" +
+                "type=" + type +
+                ", entityType=" + entityType.getSimpleName() +
+                ", id=" + id +
+                '}';
+    }
+}
@@ -0,0 +1,66 @@
+package com.hospital.event;
+
+import com.hospital.util.Logger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-process bus for entity changes.
+ * The DAOs publish an {@link EntityEvent} for every row they create, update
+ * or delete, and views subscribe to the entity types they show, so they can
+ * patch the affected row instead of reading the whole table again.
+ * Events are delivered synchronously on the publishing thread; a listener
+ * that throws is logged and does not affect the DAO or the other listeners.
+ */
+public class EntityEventBus {
+    private static final Logger log = Logger.getLogger(EntityEventBus.class);
+
+    // Listeners by entity type; publishing far outnumbers subscribing
+    private static final Map<Class<?>, List<EntityListener<?>>> listeners = new ConcurrentHashMap<>();
+
+    /**
+     * Start receiving the changes to an entity type
+     * @param entityType the entity class, e.g. Patient.class
+     * @param listener the listener
+     * @param <T> the entity type
+     */
+    public static <T> void subscribe(Class<T> entityType, EntityListener<T> listener) {
+        listeners.computeIfAbsent(entityType, type -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * Stop receiving the changes to an entity type
+     * @param entityType the entity class the listener was subscribed with
+     * @param listener the listener
+     * @param <T> the entity type
+     */
+    public static <T> void unsubscribe(Class<T> entityType, EntityListener<T> listener) {
+        List<EntityListener<?>> subscribed = listeners.get(entityType);
+        if (subscribed != null) {
+            subscribed.remove(listener);
+        }
+    }
+
+    /**
+     * Deliver a change to the listeners of its entity type
+     * @param event the change
+     * @param <T> the entity type
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> void publish(EntityEvent<T> event) {
+        List<EntityListener<?>> subscribed = listeners.get(event.getEntityType());
+        if (subscribed == null) {
+            return;
+        }
+        for (EntityListener<?> listener : subscribed) {
+            try {
+                ((EntityListener<T>) listener).entityChanged(event);
+            } catch (RuntimeException e) {
+                log.error("Error delivering entity event", e, "event", event);
+            }
+        }
+    }
+}
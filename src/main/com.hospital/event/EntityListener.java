@@ -0,0 +1,14 @@
+package com.hospital.event;
+
+/**
+ * Receives the changes to one entity type from the {@link EntityEventBus}.
+ * @param <T> the entity type
+ */
+public interface EntityListener<T> {
+    /**
+     * Called on the thread that made the change, right after it was committed.
+     * Keep it short; Swing listeners should hand the event to the event dispatch thread.
+     * @param event the change
+     */
+    void entityChanged(EntityEvent<T> event);
+}
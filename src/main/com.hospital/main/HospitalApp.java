@@ -2,7 +2,10 @@ package com.hospital.main;
 
 import com.hospital.dao.PatientDAO;
 import com.hospital.model.Patient;
+import com.hospital.util.DaoMetrics;
 import com.hospital.util.DatabaseUtil;
+import com.hospital.util.Logger;
+import com.hospital.util.MethodStats;
 
 import java.util.List;
 import java.util.Scanner;
@@ -27,6 +30,7 @@ public class HospitalApp {
             System.out.println("4. Update patient information");
             System.out.println("5. Delete patient");
             System.out.println("6. Search patients by name");
+            System.out.println("7. Show DAO statistics");
             System.out.println("0. Exit");
             System.out.print("Select an option: ");
 
@@ -51,6 +55,9 @@ public class HospitalApp {
                 case 6:
                     searchPatientsByName();
                     break;
+                case 7:
+                    showDaoStatistics();
+                    break;
                 case 0:
                     exit = true;
                     System.out.println("Exiting application...");
@@ -209,6 +216,24 @@ public class HospitalApp {
         }
     }
 
+    private static void showDaoStatistics() {
+        System.out.println("\n--- DAO Statistics ---");
+        List<MethodStats> stats = DaoMetrics.getMethodStats();
+
+        boolean called = false;
+        for (MethodStats method : stats) {
+            if (method.getCallCount() > 0) {
+                System.out.println(method);
+                called = true;
+            }
+        }
+        if (!called) {
+            System.out.println("No DAO calls recorded yet.");
+        }
+        System.out.println("Patient cache: " + PatientDAO.getCacheStats());
+        System.out.println(Logger.getStats());
+    }
+
     private static void displayPatient(Patient patient) {
         System.out.println("Patient ID: " + patient.getPatientId());
         System.out.println("Name: " + patient.getFirstName() + " " + patient.getLastName());
@@ -0,0 +1,48 @@
+package com.hospital.model;
+
+/**
+ * Identifies one bed: a bed number within a ward.
+ */
+public class Bed {
+    private final int wardId;
+    private final int bedNumber;
+
+    public Bed(int wardId, int bedNumber) {
+        this.wardId = wardId;
+        this.bedNumber = bedNumber;
+    }
+
+    // Getters
+    public int getWardId() {
+        return wardId;
+    }
+
+    public int getBedNumber() {
+        return bedNumber;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Bed)) {
+            return false;
+        }
+        Bed other = (Bed) o;
+        return wardId == other.wardId && bedNumber == other.bedNumber;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * wardId + bedNumber;
+    }
+
+    @Override
+    public String toString() {
+        return "Bed{" +
+                "wardId=" + wardId +
+                ", bedNumber=" + bedNumber +
+                '}';
+    }
+}
@@ -1,14 +1,27 @@
 package com.hospital.model;
 
+import java.util.Objects;
+
 /**
  * Represents a Department entity in the hospital system.
+ * <p>
+ * A department tracks which of its fields were set to a new value since it
+ * was loaded, so an update writes only those columns. A department that was
+ * not loaded by a DAO counts every field as modified.
  */
 public class Department {
+    // Flags for isModified
+    public static final int CODE = 1;
+    public static final int NAME = 1 << 1;
+    public static final int BUILDING = 1 << 2;
+    public static final int DIRECTOR_ID = 1 << 3;
+
     private int departmentId;
     private String code;
     private String name;
     private String building;
     private Integer directorId; // Optional, can be null
+    private int modifiedFields = -1; // Every field until loaded
 
     // Default constructor
     public Department() {
@@ -45,7 +58,10 @@ public class Department {
     }
 
     public void setCode(String code) {
-        this.code = code;
+        if (!Objects.equals(this.code, code)) {
+            this.code = code;
+            modifiedFields |= CODE;
+        }
     }
 
     public String getName() {
@@ -53,7 +69,10 @@ public class Department {
     }
 
     public void setName(String name) {
-        this.name = name;
+        if (!Objects.equals(this.name, name)) {
+            this.name = name;
+            modifiedFields |= NAME;
+        }
     }
 
     public String getBuilding() {
@@ -61,7 +80,10 @@ public class Department {
     }
 
     public void setBuilding(String building) {
-        this.building = building;
+        if (!Objects.equals(this.building, building)) {
+            this.building = building;
+            modifiedFields |= BUILDING;
+        }
     }
 
     public Integer getDirectorId() {
@@ -69,7 +91,34 @@ public class Department {
     }
 
     public void setDirectorId(Integer directorId) {
-        this.directorId = directorId;
+        if (!Objects.equals(this.directorId, directorId)) {
+            this.directorId = directorId;
+            modifiedFields |= DIRECTOR_ID;
+        }
+    }
+
+    /**
+     * Check whether a field was modified since the department was loaded
+     * @param field a field flag, such as NAME, or several combined with |
+     * @return true if any of the fields was modified
+     */
+    public boolean isModified(int field) {
+        return (modifiedFields & field) != 0;
+    }
+
+    /**
+     * Check whether any field was modified since the department was loaded
+     * @return true if an update has something to write
+     */
+    public boolean isModified() {
+        return modifiedFields != 0;
+    }
+
+    /**
+     * Forget the modifications, once the fields match the database
+     */
+    public void clearModified() {
+        modifiedFields = 0;
     }
 
     @Override
@@ -1,10 +1,15 @@
 package com.hospital.model;
 
+import java.util.Objects;
+
 /**
  * Represents a Doctor entity in the hospital system.
  * Extends the base Employee class.
  */
 public class Doctor extends Employee {
+    // Flag for isModified
+    public static final int SPECIALITY = 1 << 4;
+
     private String speciality;
 
     // Default constructor
@@ -24,13 +29,22 @@ public class Doctor extends Employee {
         this.speciality = speciality;
     }
 
+    // Copy constructor (for editing a loaded doctor); keeps which fields were modified
+    public Doctor(Doctor other) {
+        super(other);
+        this.speciality = other.speciality;
+    }
+
     // Getters and Setters
     public String getSpeciality() {
         return speciality;
     }
 
     public void setSpeciality(String speciality) {
-        this.speciality = speciality;
+        if (!Objects.equals(this.speciality, speciality)) {
+            this.speciality = speciality;
+            markModified(SPECIALITY);
+        }
     }
 
     @Override
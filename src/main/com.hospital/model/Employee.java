@@ -1,15 +1,28 @@
 package com.hospital.model;
 
+import java.util.Objects;
+
 /**
  * Represents an Employee entity in the hospital system.
  * Base class for Doctor and Nurse.
+ * <p>
+ * Each employee tracks which of its fields were set to a new value since it
+ * was loaded, so an update writes only those columns. An employee that was
+ * not loaded by a DAO counts every field as modified.
  */
 public class Employee {
+    // Flags for isModified; subclasses use the bits above these
+    public static final int FIRST_NAME = 1;
+    public static final int LAST_NAME = 1 << 1;
+    public static final int ADDRESS = 1 << 2;
+    public static final int TELEPHONE = 1 << 3;
+
     private int employeeId;
     private String firstName;
     private String lastName;
     private String address;
     private String telephone;
+    private int modifiedFields = -1; // Every field until loaded
 
     // Default constructor
     public Employee() {
@@ -32,6 +45,12 @@ public class Employee {
         this.telephone = telephone;
     }
 
+    // Copy constructor for subclasses; keeps which fields were modified
+    protected Employee(Employee other) {
+        this(other.employeeId, other.firstName, other.lastName, other.address, other.telephone);
+        this.modifiedFields = other.modifiedFields;
+    }
+
     // Getters and Setters
     public int getEmployeeId() {
         return employeeId;
@@ -46,7 +65,10 @@ public class Employee {
     }
 
     public void setFirstName(String firstName) {
-        this.firstName = firstName;
+        if (!Objects.equals(this.firstName, firstName)) {
+            this.firstName = firstName;
+            markModified(FIRST_NAME);
+        }
     }
 
     public String getLastName() {
@@ -54,7 +76,10 @@ public class Employee {
     }
 
     public void setLastName(String lastName) {
-        this.lastName = lastName;
+        if (!Objects.equals(this.lastName, lastName)) {
+            this.lastName = lastName;
+            markModified(LAST_NAME);
+        }
     }
 
     public String getAddress() {
@@ -62,7 +87,10 @@ public class Employee {
     }
 
     public void setAddress(String address) {
-        this.address = address;
+        if (!Objects.equals(this.address, address)) {
+            this.address = address;
+            markModified(ADDRESS);
+        }
     }
 
     public String getTelephone() {
@@ -70,7 +98,38 @@ public class Employee {
     }
 
     public void setTelephone(String telephone) {
-        this.telephone = telephone;
+        if (!Objects.equals(this.telephone, telephone)) {
+            this.telephone = telephone;
+            markModified(TELEPHONE);
+        }
+    }
+
+    /**
+     * Check whether a field was modified since the employee was loaded
+     * @param field a field flag, such as FIRST_NAME, or several combined with |
+     * @return true if any of the fields was modified
+     */
+    public boolean isModified(int field) {
+        return (modifiedFields & field) != 0;
+    }
+
+    /**
+     * Check whether any field was modified since the employee was loaded
+     * @return true if an update has something to write
+     */
+    public boolean isModified() {
+        return modifiedFields != 0;
+    }
+
+    /**
+     * Forget the modifications, once the fields match the database
+     */
+    public void clearModified() {
+        modifiedFields = 0;
+    }
+
+    protected void markModified(int field) {
+        modifiedFields |= field;
     }
 
     public String getFullName() {
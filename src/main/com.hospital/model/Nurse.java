@@ -1,16 +1,26 @@
 package com.hospital.model;
 
 import java.math.BigDecimal;
+import java.util.Objects;
 
 /**
  * Represents a Nurse entity in the hospital system.
  * Extends the base Employee class.
  */
 public class Nurse extends Employee {
+    // Flags for isModified
+    public static final int ROTATION = 1 << 4;
+    public static final int SALARY = 1 << 5;
+    public static final int DEPARTMENT_ID = 1 << 6;
+
     private String rotation;
     private BigDecimal salary;
     private int departmentId;
 
+    // Department details, filled in when the nurse is read with its department
+    private String departmentCode;
+    private String departmentName;
+
     // Default constructor
     public Nurse() {
         super();
@@ -32,13 +42,26 @@ public class Nurse extends Employee {
         this.departmentId = departmentId;
     }
 
+    // Copy constructor (for editing a loaded nurse); keeps which fields were modified
+    public Nurse(Nurse other) {
+        super(other);
+        this.rotation = other.rotation;
+        this.salary = other.salary;
+        this.departmentId = other.departmentId;
+        this.departmentCode = other.departmentCode;
+        this.departmentName = other.departmentName;
+    }
+
     // Getters and Setters
     public String getRotation() {
         return rotation;
     }
 
     public void setRotation(String rotation) {
-        this.rotation = rotation;
+        if (!Objects.equals(this.rotation, rotation)) {
+            this.rotation = rotation;
+            markModified(ROTATION);
+        }
     }
 
     public BigDecimal getSalary() {
@@ -46,7 +69,14 @@ public class Nurse extends Employee {
     }
 
     public void setSalary(BigDecimal salary) {
-        this.salary = salary;
+        // Compared by value, so 4500 and 4500.00 are the same salary
+        boolean changed = salary == null || this.salary == null
+                ? salary != this.salary
+                : salary.compareTo(this.salary) != 0;
+        if (changed) {
+            this.salary = salary;
+            markModified(SALARY);
+        }
     }
 
     public int getDepartmentId() {
@@ -54,7 +84,26 @@ public class Nurse extends Employee {
     }
 
     public void setDepartmentId(int departmentId) {
-        this.departmentId = departmentId;
+        if (this.departmentId != departmentId) {
+            this.departmentId = departmentId;
+            markModified(DEPARTMENT_ID);
+        }
+    }
+
+    public String getDepartmentCode() {
+        return departmentCode;
+    }
+
+    public void setDepartmentCode(String departmentCode) {
+        this.departmentCode = departmentCode;
+    }
+
+    public String getDepartmentName() {
+        return departmentName;
+    }
+
+    public void setDepartmentName(String departmentName) {
+        this.departmentName = departmentName;
     }
 
     @Override
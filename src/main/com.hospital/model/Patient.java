@@ -1,14 +1,27 @@
 package com.hospital.model;
 
+import java.util.Objects;
+
 /**
  * Represents a Patient entity in the hospital system.
+ * <p>
+ * A patient tracks which of its fields were set to a new value since it was
+ * loaded, so an update writes only those columns. A patient that was not
+ * loaded by a DAO counts every field as modified.
  */
 public class Patient {
+    // Flags for isModified
+    public static final int FIRST_NAME = 1;
+    public static final int LAST_NAME = 1 << 1;
+    public static final int ADDRESS = 1 << 2;
+    public static final int TELEPHONE = 1 << 3;
+
     private int patientId;
     private String firstName;
     private String lastName;
     private String address;
     private String telephone;
+    private int modifiedFields = -1; // Every field until loaded
 
     // Default constructor
     public Patient() {
@@ -31,6 +44,12 @@ public class Patient {
         this.telephone = telephone;
     }
 
+    // Copy constructor (for editing a loaded patient); keeps which fields were modified
+    public Patient(Patient other) {
+        this(other.patientId, other.firstName, other.lastName, other.address, other.telephone);
+        this.modifiedFields = other.modifiedFields;
+    }
+
     // Getters and Setters
     public int getPatientId() {
         return patientId;
@@ -45,7 +64,10 @@ public class Patient {
     }
 
     public void setFirstName(String firstName) {
-        this.firstName = firstName;
+        if (!Objects.equals(this.firstName, firstName)) {
+            this.firstName = firstName;
+            modifiedFields |= FIRST_NAME;
+        }
     }
 
     public String getLastName() {
@@ -53,7 +75,10 @@ public class Patient {
     }
 
     public void setLastName(String lastName) {
-        this.lastName = lastName;
+        if (!Objects.equals(this.lastName, lastName)) {
+            this.lastName = lastName;
+            modifiedFields |= LAST_NAME;
+        }
     }
 
     public String getAddress() {
@@ -61,7 +86,10 @@ public class Patient {
     }
 
     public void setAddress(String address) {
-        this.address = address;
+        if (!Objects.equals(this.address, address)) {
+            this.address = address;
+            modifiedFields |= ADDRESS;
+        }
     }
 
     public String getTelephone() {
@@ -69,7 +97,34 @@ public class Patient {
     }
 
     public void setTelephone(String telephone) {
-        this.telephone = telephone;
+        if (!Objects.equals(this.telephone, telephone)) {
+            this.telephone = telephone;
+            modifiedFields |= TELEPHONE;
+        }
+    }
+
+    /**
+     * Check whether a field was modified since the patient was loaded
+     * @param field a field flag, such as FIRST_NAME, or several combined with |
+     * @return true if any of the fields was modified
+     */
+    public boolean isModified(int field) {
+        return (modifiedFields & field) != 0;
+    }
+
+    /**
+     * Check whether any field was modified since the patient was loaded
+     * @return true if an update has something to write
+     */
+    public boolean isModified() {
+        return modifiedFields != 0;
+    }
+
+    /**
+     * Forget the modifications, once the fields match the database
+     */
+    public void clearModified() {
+        modifiedFields = 0;
     }
 
     @Override
@@ -0,0 +1,86 @@
+package com.hospital.model;
+
+/**
+ * Represents a Ward entity in the hospital system.
+ * Beds in a ward are numbered from 1 to the bed count.
+ */
+public class Ward {
+    private int wardId;
+    private int wardNumber; // Unique within the department
+    private int bedCount;
+    private Integer supervisorId; // Optional nurse, can be null
+    private int departmentId;
+
+    // Default constructor
+    public Ward() {
+    }
+
+    // Constructor for creating new wards
+    public Ward(int wardNumber, int bedCount, Integer supervisorId, int departmentId) {
+        this.wardNumber = wardNumber;
+        this.bedCount = bedCount;
+        this.supervisorId = supervisorId;
+        this.departmentId = departmentId;
+    }
+
+    // Constructor for retrieving existing wards
+    public Ward(int wardId, int wardNumber, int bedCount, Integer supervisorId, int departmentId) {
+        this.wardId = wardId;
+        this.wardNumber = wardNumber;
+        this.bedCount = bedCount;
+        this.supervisorId = supervisorId;
+        this.departmentId = departmentId;
+    }
+
+    // Getters and Setters
+    public int getWardId() {
+        return wardId;
+    }
+
+    public void setWardId(int wardId) {
+        this.wardId = wardId;
+    }
+
+    public int getWardNumber() {
+        return wardNumber;
+    }
+
+    public void setWardNumber(int wardNumber) {
+        this.wardNumber = wardNumber;
+    }
+
+    public int getBedCount() {
+        return bedCount;
+    }
+
+    public void setBedCount(int bedCount) {
+        this.bedCount = bedCount;
+    }
+
+    public Integer getSupervisorId() {
+        return supervisorId;
+    }
+
+    public void setSupervisorId(Integer supervisorId) {
+        this.supervisorId = supervisorId;
+    }
+
+    public int getDepartmentId() {
+        return departmentId;
+    }
+
+    public void setDepartmentId(int departmentId) {
+        this.departmentId = departmentId;
+    }
+
+    @Override
+    public String toString() {
+        return "Ward{" +
+                "wardId=" + wardId +
+                ", wardNumber=" + wardNumber +
+                ", bedCount=" + bedCount +
+                ", supervisorId=" + supervisorId +
+                ", departmentId=" + departmentId +
+                '}';
+    }
+}
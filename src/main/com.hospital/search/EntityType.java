@@ -0,0 +1,11 @@
+package com.hospital.search;
+
+/**
+ * The kinds of entity the search service indexes.
+ */
+public enum EntityType {
+    PATIENT,
+    DOCTOR,
+    NURSE,
+    DEPARTMENT
+}
@@ -0,0 +1,358 @@
+package com.hospital.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the searchable fields of every entity type.
+ * <p>
+ * Each distinct token maps to a sorted list of document keys (entity type and
+ * ID packed into a long). Each document keeps its own sorted terms and
+ * weights, which are used for scoring and to ignore postings left behind
+ * when the document changes. A document can be linked to another one, such as a
+ * nurse to its department; the linked document's fields are then searchable
+ * through it too, and are refreshed when the linked document changes.
+ * <p>
+ * Queries are ranked first by how many query terms matched and then by a
+ * TF-IDF score: the sum over terms of idf x field weight. Query terms also
+ * match tokens they are a prefix of, at a lower weight.
+ */
+final class InvertedIndex {
+
+    /**
+     * A searchable piece of text and how much a match in it counts
+     */
+    static final class Field {
+        final String text;
+        final float weight;
+
+        Field(String text, float weight) {
+            this.text = text;
+            this.weight = weight;
+        }
+    }
+
+    private static final float PREFIX_MATCH_WEIGHT = 0.7f;
+    private static final float LINKED_FIELD_WEIGHT = 0.75f;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MAX_QUERY_TERMS = 16;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, KeyList> postings = new TreeMap<>();
+    private final Doc[][] docs = new Doc[EntityType.values().length][];
+    // Linked document key -> keys of the documents linking to it
+    private final Map<Long, KeyList> backlinks = new HashMap<>();
+    private int docCount;
+
+    InvertedIndex() {
+        for (int i = 0; i < docs.length; i++) {
+            docs[i] = new Doc[256];
+        }
+    }
+
+    /**
+     * Add or replace a document
+     * @param type the entity type
+     * @param id the entity ID, not negative
+     * @param title text shown for the hit
+     * @param fields the searchable fields
+     * @param linkType type of the linked document, or null
+     * @param linkId ID of the linked document
+     */
+    void put(EntityType type, int id, String title, Field[] fields, EntityType linkType, int linkId) {
+        lock.writeLock().lock();
+        try {
+            Doc[] ofType = docs[type.ordinal()];
+            if (id >= ofType.length) {
+                ofType = Arrays.copyOf(ofType, Math.max(id + 1, ofType.length * 2));
+                docs[type.ordinal()] = ofType;
+            }
+            if (ofType[id] == null) {
+                docCount++;
+            }
+            long key = key(type, id);
+            Doc doc = new Doc(title, fields, linkType, linkId);
+            ofType[id] = doc;
+            indexTerms(key, doc);
+            if (linkType != null) {
+                backlinks.computeIfAbsent(key(linkType, linkId), k -> new KeyList()).add(key);
+            }
+
+            // Documents linked to this one pick up its new fields
+            KeyList linking = backlinks.get(key);
+            if (linking != null) {
+                for (int i = 0; i < linking.size; i++) {
+                    Doc other = docAt(linking.keys[i]);
+                    if (other != null && other.linkType == type && other.linkId == id) {
+                        indexTerms(linking.keys[i], other);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a document
+     * @param type the entity type
+     * @param id the entity ID
+     */
+    void remove(EntityType type, int id) {
+        lock.writeLock().lock();
+        try {
+            Doc[] ofType = docs[type.ordinal()];
+            if (id >= 0 && id < ofType.length && ofType[id] != null) {
+                ofType[id] = null;
+                docCount--;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            backlinks.clear();
+            for (int i = 0; i < docs.length; i++) {
+                docs[i] = new Doc[256];
+            }
+            docCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return docCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find the best matching documents
+     * @param query one or more terms, e.g. "John Cardiology"
+     * @param limit maximum number of results
+     * @return the results, best first
+     */
+    List<SearchResult> search(String query, int limit) {
+        List<String> tokens = tokenize(query, false);
+        if (tokens.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        List<String> terms = tokens.size() > MAX_QUERY_TERMS ? tokens.subList(0, MAX_QUERY_TERMS) : tokens;
+
+        lock.readLock().lock();
+        try {
+            // Per document: the best score of each query term
+            Map<Long, float[]> scores = new HashMap<>();
+            for (int t = 0; t < terms.size(); t++) {
+                String term = terms.get(t);
+                for (Map.Entry<String, KeyList> entry : expand(term).entrySet()) {
+                    String token = entry.getKey();
+                    KeyList keys = entry.getValue();
+                    float match = token.equals(term) ? 1f : PREFIX_MATCH_WEIGHT;
+                    float idf = (float) Math.log(1.0 + (double) docCount / keys.size);
+
+                    for (int i = 0; i < keys.size; i++) {
+                        long key = keys.keys[i];
+                        Doc doc = docAt(key);
+                        float weight = doc != null ? doc.weightOf(token) : 0f; // 0 if the posting is stale
+                        if (weight > 0f) {
+                            float[] docScores = scores.computeIfAbsent(key, k -> new float[terms.size()]);
+                            docScores[t] = Math.max(docScores[t], idf * weight * match);
+                        }
+                    }
+                }
+            }
+
+            PriorityQueue<SearchResult> best = new PriorityQueue<>(limit + 1,
+                    (a, b) -> a.getMatchedTerms() != b.getMatchedTerms()
+                            ? Integer.compare(a.getMatchedTerms(), b.getMatchedTerms())
+                            : Double.compare(a.getScore(), b.getScore()));
+            for (Map.Entry<Long, float[]> entry : scores.entrySet()) {
+                int matched = 0;
+                double score = 0;
+                for (float termScore : entry.getValue()) {
+                    if (termScore > 0f) {
+                        matched++;
+                        score += termScore;
+                    }
+                }
+                long key = entry.getKey();
+                best.add(new SearchResult(typeOf(key), idOf(key), docAt(key).title, matched, score));
+                if (best.size() > limit) {
+                    best.poll(); // Keep the top K only
+                }
+            }
+
+            List<SearchResult> results = new ArrayList<>(best);
+            results.sort(best.comparator().reversed());
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Split text into lower-case tokens of letters and digits
+     * @param text the text
+     * @param withJoinedDigits also add the digits of the whole text as one token,
+     *                         so "0240-123-456" can be found as "0240123456"
+     * @return the tokens
+     */
+    static List<String> tokenize(String text, boolean withJoinedDigits) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder token = new StringBuilder();
+        StringBuilder digits = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+                if (Character.isDigit(c)) {
+                    digits.append(c);
+                }
+            } else if (token.length() > 0) {
+                tokens.add(token.toString().toLowerCase(Locale.ROOT));
+                token.setLength(0);
+            }
+        }
+        if (withJoinedDigits && tokens.size() > 1 && digits.length() > 0 && !tokens.contains(digits.toString())) {
+            tokens.add(digits.toString());
+        }
+        return tokens;
+    }
+
+    // The postings of the term itself and of the tokens it is a prefix of
+    private Map<String, KeyList> expand(String term) {
+        if (term.length() < MIN_PREFIX_LENGTH) {
+            KeyList exact = postings.get(term);
+            return exact != null ? Map.of(term, exact) : Map.of();
+        }
+        NavigableMap<String, KeyList> matches = postings.subMap(term, true, term + Character.MAX_VALUE, false);
+        if (matches.size() <= MAX_PREFIX_EXPANSIONS) {
+            return matches;
+        }
+        Map<String, KeyList> limited = new HashMap<>();
+        for (Map.Entry<String, KeyList> entry : matches.entrySet()) {
+            limited.put(entry.getKey(), entry.getValue());
+            if (limited.size() == MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+        }
+        return limited;
+    }
+
+    private void indexTerms(long key, Doc doc) {
+        Map<String, Float> weights = new HashMap<>();
+        addFieldWeights(weights, doc.fields, 1f);
+        if (doc.linkType != null) {
+            Doc linked = docAt(key(doc.linkType, doc.linkId));
+            if (linked != null) {
+                addFieldWeights(weights, linked.fields, LINKED_FIELD_WEIGHT);
+            }
+        }
+
+        String[] terms = weights.keySet().toArray(new String[0]);
+        Arrays.sort(terms);
+        float[] termWeights = new float[terms.length];
+        for (int i = 0; i < terms.length; i++) {
+            termWeights[i] = weights.get(terms[i]);
+            postings.computeIfAbsent(terms[i], t -> new KeyList()).add(key);
+        }
+        doc.terms = terms;
+        doc.weights = termWeights;
+    }
+
+    private static void addFieldWeights(Map<String, Float> weights, Field[] fields, float scale) {
+        for (Field field : fields) {
+            for (String token : tokenize(field.text, true)) {
+                weights.merge(token, field.weight * scale, Float::sum);
+            }
+        }
+    }
+
+    private Doc docAt(long key) {
+        Doc[] ofType = docs[(int) (key >>> 32)];
+        int id = (int) key;
+        return id < ofType.length ? ofType[id] : null;
+    }
+
+    private static long key(EntityType type, int id) {
+        return ((long) type.ordinal() << 32) | id;
+    }
+
+    private static EntityType typeOf(long key) {
+        return EntityType.values()[(int) (key >>> 32)];
+    }
+
+    private static int idOf(long key) {
+        return (int) key;
+    }
+
+    // An indexed entity
+    private static final class Doc {
+        final String title;
+        final Field[] fields;
+        final EntityType linkType;
+        final int linkId;
+        String[] terms;  // Sorted
+        float[] weights; // Parallel to terms
+
+        Doc(String title, Field[] fields, EntityType linkType, int linkId) {
+            this.title = title;
+            this.fields = fields;
+            this.linkType = linkType;
+            this.linkId = linkId;
+        }
+
+        float weightOf(String term) {
+            int i = Arrays.binarySearch(terms, term);
+            return i >= 0 ? weights[i] : 0f;
+        }
+    }
+
+    // Sorted, duplicate-free list of document keys
+    private static final class KeyList {
+        private long[] keys = new long[4];
+        private int size;
+
+        void add(long key) {
+            if (size == 0 || key > keys[size - 1]) {
+                if (size == keys.length) {
+                    keys = Arrays.copyOf(keys, size * 2);
+                }
+                keys[size++] = key;
+                return;
+            }
+            int pos = Arrays.binarySearch(keys, 0, size, key);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            System.arraycopy(keys, pos, keys, pos + 1, size - pos);
+            keys[pos] = key;
+            size++;
+        }
+    }
+}
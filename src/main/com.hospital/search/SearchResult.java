@@ -0,0 +1,53 @@
+package com.hospital.search;
+
+/**
+ * One hit returned by the {@link SearchService}.
+ * Read the full entity through its DAO using the type and ID.
+ */
+public class SearchResult {
+    private final EntityType type;
+    private final int id;
+    private final String title;
+    private final int matchedTerms;
+    private final double score;
+
+    public SearchResult(EntityType type, int id, String title, int matchedTerms, double score) {
+        this.type = type;
+        this.id = id;
+        this.title = title;
+        this.matchedTerms = matchedTerms;
+        this.score = score;
+    }
+
+    // Getters
+    public EntityType getType() {
+        return type;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public int getMatchedTerms() {
+        return matchedTerms;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchResult{" +
+                "type=" + type +
+                ", id=" + id +
+                ", title='" + title + '\'' +
+                ", matchedTerms=" + matchedTerms +
+                ", score=" + score +
+                '}';
+    }
+}
@@ -0,0 +1,224 @@
+package com.hospital.search;
+
+import com.hospital.dao.DepartmentDAO;
+import com.hospital.dao.DoctorDAO;
+import com.hospital.dao.NurseDAO;
+import com.hospital.dao.PatientDAO;
+import com.hospital.model.Department;
+import com.hospital.model.Doctor;
+import com.hospital.model.Nurse;
+import com.hospital.model.Patient;
+import com.hospital.util.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * One search box over patients, doctors, nurses and departments.
+ * <p>
+ * Backed by a shared in-memory {@link InvertedIndex} of names, telephone
+ * numbers, specialities, rotations and department codes and names. Nurses are
+ * also found by their department's code and name. The index is loaded from
+ * the database on first use (or by {@link #buildIndex()} at startup) and the
+ * DAOs update it after every successful write.
+ * <p>
+ * Set the hospital.search.fullText system property to false to disable it.
+ */
+public class SearchService {
+    private static final Logger log = Logger.getLogger(SearchService.class);
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    // How much a match in each kind of field counts towards the score
+    private static final float NAME_WEIGHT = 3f;
+    private static final float CATEGORY_WEIGHT = 2f; // Speciality, department name
+    private static final float DETAIL_WEIGHT = 1f;   // Rotation, telephone
+
+    private static final InvertedIndex index = new InvertedIndex();
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("hospital.search.fullText", "true"));
+    private static volatile boolean built;
+
+    // Writes made while the index is loading, replayed over the rows the load read earlier
+    private static volatile boolean loading;
+    private static final Queue<Runnable> writtenWhileLoading = new ConcurrentLinkedQueue<>();
+
+    private SearchService() {
+    }
+
+    /**
+     * Search everything for the best matches
+     * @param query one or more words, e.g. "John Cardiology"; words also match as prefixes
+     * @return up to 20 results, best first
+     */
+    public static List<SearchResult> search(String query) {
+        return search(query, DEFAULT_LIMIT);
+    }
+
+    /**
+     * Search everything for the best matches.
+     * Results matching more of the query words rank first, then those matching rarer words
+     * or matching in more important fields.
+     * @param query one or more words, e.g. "John Cardiology"; words also match as prefixes
+     * @param limit maximum number of results
+     * @return the results, best first; empty if the index is disabled or could not be loaded
+     */
+    public static List<SearchResult> search(String query, int limit) {
+        if (query == null || !buildIndex()) {
+            return new ArrayList<>();
+        }
+        return index.search(query, limit);
+    }
+
+    /**
+     * Load the index from the database, if it has not been loaded yet.
+     * Called by the first search; call it at startup to have the index ready.
+     * If a table cannot be read completely the index stays unloaded, and the
+     * next call tries again.
+     * @return true if the index is ready, false if it is disabled or could not be loaded
+     */
+    public static boolean buildIndex() {
+        if (!ENABLED) {
+            return false;
+        }
+        if (built) {
+            return true;
+        }
+        synchronized (index) {
+            if (built) {
+                return true;
+            }
+            writtenWhileLoading.clear();
+            loading = true;
+            try {
+                // Departments first, so nurses can link to them
+                boolean loaded = new DepartmentDAO().forEachDepartment(SearchService::putDepartment)
+                        && new PatientDAO().forEachPatient(SearchService::putPatient)
+                        && new DoctorDAO().forEachDoctor(SearchService::putDoctor)
+                        && new NurseDAO().forEachNurse(SearchService::putNurse);
+                if (!loaded) {
+                    log.error("Error building search index");
+                    index.clear();
+                    return false;
+                }
+
+                Runnable write;
+                while ((write = writtenWhileLoading.poll()) != null) {
+                    write.run();
+                }
+                built = true;
+                return true;
+            } finally {
+                loading = false;
+                writtenWhileLoading.clear();
+            }
+        }
+    }
+
+    /**
+     * Drop the index so the next search reloads it, e.g. after rows were
+     * written without going through the DAOs
+     */
+    public static void resetIndex() {
+        synchronized (index) {
+            built = false;
+            index.clear();
+        }
+    }
+
+    /**
+     * Get the number of indexed entities
+     * @return the number of patients, doctors, nurses and departments in the index
+     */
+    public static int getIndexedCount() {
+        return index.size();
+    }
+
+    // Called by the DAOs after a successful write
+
+    public static void indexPatient(Patient patient) {
+        write(() -> putPatient(patient));
+    }
+
+    public static void removePatient(int patientId) {
+        write(() -> index.remove(EntityType.PATIENT, patientId));
+    }
+
+    public static void indexDoctor(Doctor doctor) {
+        write(() -> putDoctor(doctor));
+    }
+
+    public static void removeDoctor(int employeeId) {
+        write(() -> index.remove(EntityType.DOCTOR, employeeId));
+    }
+
+    public static void indexNurse(Nurse nurse) {
+        write(() -> putNurse(nurse));
+    }
+
+    public static void removeNurse(int employeeId) {
+        write(() -> index.remove(EntityType.NURSE, employeeId));
+    }
+
+    public static void indexDepartment(Department department) {
+        write(() -> putDepartment(department));
+    }
+
+    public static void removeDepartment(int departmentId) {
+        write(() -> index.remove(EntityType.DEPARTMENT, departmentId));
+    }
+
+    private static void write(Runnable write) {
+        if (!ENABLED) {
+            return;
+        }
+        write.run();
+        if (loading) {
+            writtenWhileLoading.add(write);
+        }
+    }
+
+    private static void putPatient(Patient patient) {
+        index.put(EntityType.PATIENT, patient.getPatientId(),
+                patient.getFirstName() + " " + patient.getLastName(),
+                new InvertedIndex.Field[]{
+                        new InvertedIndex.Field(patient.getFirstName(), NAME_WEIGHT),
+                        new InvertedIndex.Field(patient.getLastName(), NAME_WEIGHT),
+                        new InvertedIndex.Field(patient.getTelephone(), DETAIL_WEIGHT)
+                }, null, 0);
+    }
+
+    private static void putDoctor(Doctor doctor) {
+        index.put(EntityType.DOCTOR, doctor.getEmployeeId(),
+                "Dr. " + doctor.getFirstName() + " " + doctor.getLastName() + " (" + doctor.getSpeciality() + ")",
+                new InvertedIndex.Field[]{
+                        new InvertedIndex.Field(doctor.getFirstName(), NAME_WEIGHT),
+                        new InvertedIndex.Field(doctor.getLastName(), NAME_WEIGHT),
+                        new InvertedIndex.Field(doctor.getSpeciality(), CATEGORY_WEIGHT),
+                        new InvertedIndex.Field(doctor.getTelephone(), DETAIL_WEIGHT)
+                }, null, 0);
+    }
+
+    private static void putNurse(Nurse nurse) {
+        // The department's code and name come through the link
+        index.put(EntityType.NURSE, nurse.getEmployeeId(),
+                "Nurse " + nurse.getFirstName() + " " + nurse.getLastName(),
+                new InvertedIndex.Field[]{
+                        new InvertedIndex.Field(nurse.getFirstName(), NAME_WEIGHT),
+                        new InvertedIndex.Field(nurse.getLastName(), NAME_WEIGHT),
+                        new InvertedIndex.Field(nurse.getRotation(), DETAIL_WEIGHT),
+                        new InvertedIndex.Field(nurse.getTelephone(), DETAIL_WEIGHT)
+                }, EntityType.DEPARTMENT, nurse.getDepartmentId());
+    }
+
+    private static void putDepartment(Department department) {
+        index.put(EntityType.DEPARTMENT, department.getDepartmentId(),
+                department.getName() + " (" + department.getCode() + ")",
+                new InvertedIndex.Field[]{
+                        new InvertedIndex.Field(department.getCode(), NAME_WEIGHT),
+                        new InvertedIndex.Field(department.getName(), CATEGORY_WEIGHT)
+                }, null, 0);
+    }
+}
@@ -1,11 +1,11 @@
 package com.hospital.ui;
 
 import com.hospital.dao.DoctorDAO;
+import com.hospital.event.EntityEventBus;
 import com.hospital.model.Doctor;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
@@ -17,9 +17,11 @@ import java.util.List;
 public class DoctorPanel extends JPanel {
 
     private DoctorDAO doctorDAO;
+    private UiTaskRunner taskRunner;
     private JTable doctorTable;
-    private DefaultTableModel tableModel;
+    private LazyTableModel<Doctor> tableModel;
     private JTextField searchField;
+    private IncrementalSearch<Doctor> search;
     private JTextField firstNameField;
     private JTextField lastNameField;
     private JTextField addressField;
@@ -31,9 +33,11 @@ public class DoctorPanel extends JPanel {
     private JButton clearButton;
 
     private int selectedDoctorId = -1;
+    private Doctor selectedDoctor; // The row as loaded; an update starts from a copy of it
 
-    public DoctorPanel() {
+    public DoctorPanel(UiTaskRunner taskRunner) {
         doctorDAO = new DoctorDAO();
+        this.taskRunner = taskRunner;
         setLayout(new BorderLayout(10, 10));
         setBorder(new EmptyBorder(10, 10, 10, 10));
 
@@ -42,6 +46,12 @@ public class DoctorPanel extends JPanel {
 
         // Load initial data
         refreshDoctorTable();
+
+        // Patch the table as doctors are added, changed or removed, here or in another panel
+        EntityEventBus.subscribe(Doctor.class, event -> SwingUtilities.invokeLater(() -> {
+            search.invalidate(); // Cached results may hold the old values
+            tableModel.apply(event);
+        }));
     }
 
     private void initComponents() {
@@ -59,12 +69,16 @@ public class DoctorPanel extends JPanel {
 
         // Center panel - Doctor table
         String[] columnNames = {"ID", "First Name", "Last Name", "Address", "Telephone", "Speciality"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Make table non-editable
-            }
-        };
+        // Rows are read from the database a page at a time as they scroll into view
+        tableModel = new LazyTableModel<>(columnNames, doctorDAO::countDoctors, doctorDAO::readDoctorsPageSkipping,
+                doctor -> new Object[]{
+                        doctor.getEmployeeId(),
+                        doctor.getFirstName(),
+                        doctor.getLastName(),
+                        doctor.getAddress(),
+                        doctor.getTelephone(),
+                        doctor.getSpeciality()
+                }, Doctor::getEmployeeId);
 
         doctorTable = new JTable(tableModel);
         doctorTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -129,29 +143,29 @@ public class DoctorPanel extends JPanel {
 
         // Add event listeners
 
-        // Search button
-        searchButton.addActionListener(e -> {
-            String searchTerm = searchField.getText().trim();
-            if (!searchTerm.isEmpty()) {
-                List<Doctor> doctors = doctorDAO.searchDoctors(searchTerm);
-                updateTableWithDoctors(doctors);
-            } else {
-                refreshDoctorTable();
-            }
-        });
+        // Search as the user types; Search runs it right away
+        search = new IncrementalSearch<>(searchField, taskRunner, "doctor-search", "Searching doctors",
+                doctorDAO::searchDoctors,
+                (doctor, term) -> IncrementalSearch.contains(doctor.getFirstName(), term)
+                        || IncrementalSearch.contains(doctor.getLastName(), term)
+                        || IncrementalSearch.contains(doctor.getSpeciality(), term),
+                this::updateTableWithDoctors, this::refreshDoctorTable);
+        searchButton.addActionListener(e -> search.searchNow());
 
         // Table row selection
         doctorTable.addMouseListener(new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
                 int selectedRow = doctorTable.getSelectedRow();
-                if (selectedRow >= 0) {
-                    selectedDoctorId = (int) doctorTable.getValueAt(selectedRow, 0);
-                    firstNameField.setText((String) doctorTable.getValueAt(selectedRow, 1));
-                    lastNameField.setText((String) doctorTable.getValueAt(selectedRow, 2));
-                    addressField.setText((String) doctorTable.getValueAt(selectedRow, 3));
-                    telephoneField.setText((String) doctorTable.getValueAt(selectedRow, 4));
-                    specialityField.setText((String) doctorTable.getValueAt(selectedRow, 5));
+                Doctor doctor = selectedRow >= 0 ? tableModel.getRow(selectedRow) : null;
+                if (doctor != null) { // Null while the row is still loading
+                    selectedDoctorId = doctor.getEmployeeId();
+                    selectedDoctor = doctor;
+                    firstNameField.setText(doctor.getFirstName());
+                    lastNameField.setText(doctor.getLastName());
+                    addressField.setText(doctor.getAddress());
+                    telephoneField.setText(doctor.getTelephone());
+                    specialityField.setText(doctor.getSpeciality());
 
                     // Enable update and delete buttons
                     updateButton.setEnabled(true);
@@ -171,45 +185,44 @@ public class DoctorPanel extends JPanel {
                         specialityField.getText().trim()
                 );
 
-                int doctorId = doctorDAO.createDoctor(doctor);
-                if (doctorId > 0) {
-                    JOptionPane.showMessageDialog(this,
-                            "Doctor added successfully with ID: " + doctorId,
-                            "Success", JOptionPane.INFORMATION_MESSAGE);
-                    clearForm();
-                    refreshDoctorTable();
-                } else {
-                    JOptionPane.showMessageDialog(this,
-                            "Failed to add doctor.",
-                            "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                taskRunner.submit("Adding doctor", () -> doctorDAO.createDoctor(doctor), doctorId -> {
+                    if (doctorId > 0) {
+                        JOptionPane.showMessageDialog(this,
+                                "Doctor added successfully with ID: " + doctorId,
+                                "Success", JOptionPane.INFORMATION_MESSAGE);
+                        clearForm();
+                    } else {
+                        JOptionPane.showMessageDialog(this,
+                                "Failed to add doctor.",
+                                "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                });
             }
         });
 
         // Update button
         updateButton.addActionListener(e -> {
             if (validateForm() && selectedDoctorId > 0) {
-                Doctor doctor = new Doctor(
-                        selectedDoctorId,
-                        firstNameField.getText().trim(),
-                        lastNameField.getText().trim(),
-                        addressField.getText().trim(),
-                        telephoneField.getText().trim(),
-                        specialityField.getText().trim()
-                );
-
-                boolean updated = doctorDAO.updateDoctor(doctor);
-                if (updated) {
-                    JOptionPane.showMessageDialog(this,
-                            "Doctor updated successfully.",
-                            "Success", JOptionPane.INFORMATION_MESSAGE);
-                    clearForm();
-                    refreshDoctorTable();
-                } else {
-                    JOptionPane.showMessageDialog(this,
-                            "Failed to update doctor.",
-                            "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                // Only the fields changed in the form are marked modified, and so written
+                Doctor doctor = new Doctor(selectedDoctor);
+                doctor.setFirstName(firstNameField.getText().trim());
+                doctor.setLastName(lastNameField.getText().trim());
+                doctor.setAddress(addressField.getText().trim());
+                doctor.setTelephone(telephoneField.getText().trim());
+                doctor.setSpeciality(specialityField.getText().trim());
+
+                taskRunner.submit("Updating doctor", () -> doctorDAO.updateDoctor(doctor), updated -> {
+                    if (updated) {
+                        JOptionPane.showMessageDialog(this,
+                                "Doctor updated successfully.",
+                                "Success", JOptionPane.INFORMATION_MESSAGE);
+                        clearForm();
+                    } else {
+                        JOptionPane.showMessageDialog(this,
+                                "Failed to update doctor.",
+                                "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                });
             }
         });
 
@@ -221,18 +234,19 @@ public class DoctorPanel extends JPanel {
                         "Confirm Delete", JOptionPane.YES_NO_OPTION);
 
                 if (confirm == JOptionPane.YES_OPTION) {
-                    boolean deleted = doctorDAO.deleteDoctor(selectedDoctorId);
-                    if (deleted) {
-                        JOptionPane.showMessageDialog(this,
-                                "Doctor deleted successfully.",
-                                "Success", JOptionPane.INFORMATION_MESSAGE);
-                        clearForm();
-                        refreshDoctorTable();
-                    } else {
-                        JOptionPane.showMessageDialog(this,
-                                "Failed to delete doctor.",
-                                "Error", JOptionPane.ERROR_MESSAGE);
-                    }
+                    int doctorId = selectedDoctorId; // Read on this thread, not in the background
+                    taskRunner.submit("Deleting doctor", () -> doctorDAO.deleteDoctor(doctorId), deleted -> {
+                        if (deleted) {
+                            JOptionPane.showMessageDialog(this,
+                                    "Doctor deleted successfully.",
+                                    "Success", JOptionPane.INFORMATION_MESSAGE);
+                            clearForm();
+                        } else {
+                            JOptionPane.showMessageDialog(this,
+                                    "Failed to delete doctor.",
+                                    "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    });
                 }
             }
         });
@@ -248,6 +262,7 @@ public class DoctorPanel extends JPanel {
         telephoneField.setText("");
         specialityField.setText("");
         selectedDoctorId = -1;
+        selectedDoctor = null;
         updateButton.setEnabled(false);
         deleteButton.setEnabled(false);
         doctorTable.clearSelection();
@@ -276,25 +291,11 @@ public class DoctorPanel extends JPanel {
     }
 
     private void refreshDoctorTable() {
-        List<Doctor> doctors = doctorDAO.readAllDoctors();
-        updateTableWithDoctors(doctors);
+        search.invalidate(); // Rows may have changed
+        tableModel.reload();
     }
 
     private void updateTableWithDoctors(List<Doctor> doctors) {
-        // Clear existing rows
-        tableModel.setRowCount(0);
-
-        // Add doctors to the table
-        for (Doctor doctor : doctors) {
-            Object[] rowData = {
-                    doctor.getEmployeeId(),
-                    doctor.getFirstName(),
-                    doctor.getLastName(),
-                    doctor.getAddress(),
-                    doctor.getTelephone(),
-                    doctor.getSpeciality()
-            };
-            tableModel.addRow(rowData);
-        }
+        tableModel.showRows(doctors);
     }
 }
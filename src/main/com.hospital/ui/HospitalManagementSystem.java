@@ -1,5 +1,10 @@
 package com.hospital.ui;
 
+import com.hospital.dao.HospitalizationDAO;
+import com.hospital.dao.PatientDAO;
+import com.hospital.search.SearchService;
+import com.hospital.util.Logger;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
@@ -10,9 +15,13 @@ import java.awt.event.ActionListener;
  * Provides a tabbed interface for managing patients, doctors, and nurses.
  */
 public class HospitalManagementSystem extends JFrame {
+    private static final Logger log = Logger.getLogger(HospitalManagementSystem.class);
 
     private JTabbedPane tabbedPane;
 
+    // Runs the panels' database work off the event dispatch thread
+    private UiTaskRunner taskRunner;
+
     // Panels for each entity
     private PatientPanel patientPanel;
     private DoctorPanel doctorPanel;
@@ -46,9 +55,15 @@ public class HospitalManagementSystem extends JFrame {
         tabbedPane = new JTabbedPane();
 
         // Create panels for each entity
-        patientPanel = new PatientPanel();
-        doctorPanel = new DoctorPanel();
-        nursePanel = new NursePanel();
+        taskRunner = new UiTaskRunner();
+        patientPanel = new PatientPanel(taskRunner);
+        doctorPanel = new DoctorPanel(taskRunner);
+        nursePanel = new NursePanel(taskRunner);
+
+        // Load the search indexes and bed map now rather than on first use
+        taskRunner.submit("Indexing patients", PatientDAO::buildSearchIndex, ready -> { });
+        taskRunner.submit("Indexing search", SearchService::buildIndex, ready -> { });
+        taskRunner.submit("Loading bed occupancy", HospitalizationDAO::loadBedOccupancy, ready -> { });
 
         // Add panels to tabbed pane
         tabbedPane.addTab("Patients", new ImageIcon(), patientPanel, "Manage patients");
@@ -92,6 +107,17 @@ public class HospitalManagementSystem extends JFrame {
         statusLabel.setBorder(BorderFactory.createEmptyBorder(2, 5, 2, 5));
         statusBar.add(statusLabel, BorderLayout.WEST);
 
+        // Spins while database work is running in the background
+        JProgressBar progressBar = new JProgressBar();
+        progressBar.setIndeterminate(true);
+        progressBar.setVisible(false);
+        statusBar.add(progressBar, BorderLayout.EAST);
+
+        taskRunner.addStatusListener((message, busy) -> {
+            statusLabel.setText(message);
+            progressBar.setVisible(busy);
+        });
+
         return statusBar;
     }
 
@@ -106,7 +132,7 @@ public class HospitalManagementSystem extends JFrame {
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
         } catch (Exception e) {
-            e.printStackTrace();
+            log.warn("Could not set the system look and feel", "error", e.getMessage());
         }
 
         // Start application
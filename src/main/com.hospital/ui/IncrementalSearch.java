@@ -0,0 +1,195 @@
+package com.hospital.ui;
+
+import com.hospital.util.TextFold;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Search-as-you-type for a panel's search field.
+ * <p>
+ * The search runs once typing pauses for a moment rather than on every key.
+ * A search still running when a newer one starts is cancelled. Results are
+ * cached by term, so a term that extends an earlier one (e.g. "Man" after
+ * "Ma") is answered by filtering the earlier result in memory instead of
+ * querying the database again; this holds because the DAO searches match
+ * substrings. Terms and fields are compared after {@link TextFold#fold}, so
+ * the filter ignores case and accents as the database searches do. The cache must be cleared with {@link #invalidate()} after
+ * the panel writes to the database.
+ * <p>
+ * Everything here runs on the event dispatch thread.
+ */
+public class IncrementalSearch<T> {
+
+    /**
+     * Decides whether a row from a shorter term's result also matches a longer term
+     */
+    public interface Matcher<T> {
+        /**
+         * @param row a row found by the search
+         * @param foldedTerm the search term, folded by {@link TextFold#fold}
+         * @return true if the DAO search would return the row for this term
+         */
+        boolean matches(T row, String foldedTerm);
+    }
+
+    private static final int DEBOUNCE_DELAY_MS = 250;
+    private static final int MAX_CACHED_TERMS = 16;
+
+    private final JTextField field;
+    private final UiTaskRunner taskRunner;
+    private final String key;
+    private final String description;
+    private final Function<String, List<T>> search;
+    private final Matcher<T> matcher;
+    private final Consumer<List<T>> onResults;
+    private final Runnable onCleared;
+    private final Timer debounceTimer;
+
+    // Folded term -> complete result, least recently used first
+    private final Map<String, List<T>> cache = new LinkedHashMap<String, List<T>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<T>> eldest) {
+            return size() > MAX_CACHED_TERMS;
+        }
+    };
+    private int generation; // Bumped by invalidate() so older results are not cached
+    private String lastTerm = "";
+
+    /**
+     * Start searching as the user types into a field
+     * @param field the search field
+     * @param taskRunner runs the database searches
+     * @param key identifies the searches to the task runner, e.g. "patient-search"
+     * @param description shown in the status bar, e.g. "Searching patients"
+     * @param search the DAO search, called on a background thread
+     * @param matcher repeats the DAO search's test on a single row
+     * @param onResults shows the results
+     * @param onCleared called when the field is emptied, e.g. to show all rows again
+     */
+    public IncrementalSearch(JTextField field, UiTaskRunner taskRunner, String key, String description,
+                             Function<String, List<T>> search, Matcher<T> matcher,
+                             Consumer<List<T>> onResults, Runnable onCleared) {
+        this.field = field;
+        this.taskRunner = taskRunner;
+        this.key = key;
+        this.description = description;
+        this.search = search;
+        this.matcher = matcher;
+        this.onResults = onResults;
+        this.onCleared = onCleared;
+
+        debounceTimer = new Timer(DEBOUNCE_DELAY_MS, e -> run(false));
+        debounceTimer.setRepeats(false);
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                debounceTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                debounceTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                // Attribute changes only
+            }
+        });
+    }
+
+    /**
+     * Search for the field's current text right away, e.g. when Search is pressed
+     */
+    public void searchNow() {
+        run(true);
+    }
+
+    /**
+     * Forget the cached results, e.g. after a row was added, changed or deleted
+     */
+    public void invalidate() {
+        cache.clear();
+        generation++;
+    }
+
+    private void run(boolean force) {
+        debounceTimer.stop();
+        String term = field.getText().trim();
+        if (!force && term.equals(lastTerm)) {
+            return; // e.g. only surrounding spaces changed
+        }
+        lastTerm = term;
+
+        if (term.isEmpty()) {
+            taskRunner.cancel(key);
+            cache.clear();
+            onCleared.run();
+            return;
+        }
+
+        String folded = TextFold.fold(term);
+        List<T> cached = force ? null : fromCache(folded);
+        if (cached != null) {
+            taskRunner.cancel(key); // An older search must not overwrite this result
+            onResults.accept(cached);
+            return;
+        }
+
+        int startedGeneration = generation;
+        taskRunner.submitLatest(key, description, () -> search.apply(term), results -> {
+            if (startedGeneration == generation) {
+                cache.put(folded, results);
+            }
+            onResults.accept(results);
+        });
+    }
+
+    // The result for the term, filtered from the result of its longest cached prefix
+    private List<T> fromCache(String folded) {
+        if (hasWildcard(folded)) {
+            return null; // The DAO passes the term to LIKE, where these are not literal
+        }
+        for (int length = folded.length(); length > 0; length--) {
+            String prefix = folded.substring(0, length);
+            List<T> prefixResults = cache.get(prefix);
+            if (prefixResults == null) {
+                continue;
+            }
+            if (length == folded.length()) {
+                return prefixResults;
+            }
+            List<T> results = new ArrayList<>();
+            for (T row : prefixResults) {
+                if (matcher.matches(row, folded)) {
+                    results.add(row);
+                }
+            }
+            cache.put(folded, results);
+            return results;
+        }
+        return null;
+    }
+
+    /**
+     * Check a row's field the way the DAO searches' LIKE '%term%' does
+     * @param text the field, may be null
+     * @param foldedTerm the search term, folded by {@link TextFold#fold}
+     * @return true if the field contains the term, ignoring case and accents
+     */
+    public static boolean contains(String text, String foldedTerm) {
+        return text != null && TextFold.fold(text).contains(foldedTerm);
+    }
+
+    private static boolean hasWildcard(String term) {
+        return term.indexOf('%') >= 0 || term.indexOf('_') >= 0 || term.indexOf('\\') >= 0;
+    }
+}
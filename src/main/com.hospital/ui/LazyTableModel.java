@@ -0,0 +1,416 @@
+package com.hospital.ui;
+
+import com.hospital.dao.Page;
+import com.hospital.event.EntityEvent;
+import com.hospital.util.DatabaseUtil;
+import com.hospital.util.ReadSession;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Read-only table model that loads its rows from a DAO a page at a time,
+ * only when they are scrolled into view.
+ * <p>
+ * The row count comes from a COUNT query, and each page is read with the
+ * DAO's keyset pagination on a background thread. Until a page arrives its rows
+ * show a placeholder. At most {@code maxPages} pages stay loaded, and the least
+ * recently shown page is dropped first, so memory use does not grow with the table.
+ * The model can also show a fixed list of rows, such as search results.
+ * <p>
+ * Entity changes passed to {@link #apply(EntityEvent)} patch the loaded rows
+ * in place: an update replaces one row, a creation appends one (rows are in ID
+ * order) and a deletion removes one. Changes that arrive together are announced
+ * to the table with one notification per kind.
+ * <p>
+ * Like every Swing model, it must only be used on the event dispatch thread.
+ * @param <T> the entity type shown in each row
+ */
+public class LazyTableModel<T> extends AbstractTableModel {
+
+    /**
+     * Reads a page of rows in table order, e.g. {@code patientDAO::readPatientsPageSkipping}
+     * @param <T> the entity type
+     */
+    public interface PageReader<T> {
+        Page<T> read(String pageToken, int skip, int limit);
+    }
+
+    private static final String LOADING = "Loading...";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int DEFAULT_MAX_PAGES = 50;
+    // Queued page loads this many pages away from the one last shown are dropped
+    private static final int STALE_PAGE_DISTANCE = 4;
+
+    private final String[] columnNames;
+    private final IntSupplier rowCounter;
+    private final PageReader<T> pageReader;
+    private final Function<T, Object[]> rowMapper;
+    private final ToIntFunction<T> rowId; // Null if changes are applied by reloading
+    private final int pageSize;
+    private final ExecutorService loader;
+
+    private int rowCount;
+    private List<Row<T>> fixedRows; // Set while a fixed list, e.g. search results, is shown
+    private final Map<Integer, List<Row<T>>> pages;
+    // Token for the first row of each page we have seen; the first page needs none
+    private final TreeMap<Integer, String> pageTokens = new TreeMap<>();
+    private final Set<Integer> loadingPages = new HashSet<>();
+    // Loaded pages that lost a row to a deletion and are read again when shown
+    private final Set<Integer> stalePages = new HashSet<>();
+    private final List<EntityEvent<? extends T>> pendingChanges = new ArrayList<>();
+    private int generation; // Bumped on reload so late results for old data are ignored
+
+    // Page most recently asked for by the table, read by the loader thread
+    private volatile int wantedPage;
+
+    public LazyTableModel(String[] columnNames, IntSupplier rowCounter,
+                          PageReader<T> pageReader, Function<T, Object[]> rowMapper) {
+        this(columnNames, rowCounter, pageReader, rowMapper, null, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES);
+    }
+
+    public LazyTableModel(String[] columnNames, IntSupplier rowCounter, PageReader<T> pageReader,
+                          Function<T, Object[]> rowMapper, ToIntFunction<T> rowId) {
+        this(columnNames, rowCounter, pageReader, rowMapper, rowId, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES);
+    }
+
+    public LazyTableModel(String[] columnNames, IntSupplier rowCounter, PageReader<T> pageReader,
+                          Function<T, Object[]> rowMapper, int pageSize, int maxPages) {
+        this(columnNames, rowCounter, pageReader, rowMapper, null, pageSize, maxPages);
+    }
+
+    /**
+     * @param columnNames the column headers
+     * @param rowCounter counts the rows, returning a negative number on failure
+     * @param pageReader reads one page of rows, returning an empty page on failure
+     * @param rowMapper turns an entity into the values of its row
+     * @param rowId gets the ID of an entity, or null to apply changes by reloading
+     * @param pageSize rows per page
+     * @param maxPages pages kept in memory before the least recently shown one is dropped
+     */
+    public LazyTableModel(String[] columnNames, IntSupplier rowCounter, PageReader<T> pageReader,
+                          Function<T, Object[]> rowMapper, ToIntFunction<T> rowId, int pageSize, int maxPages) {
+        this.columnNames = columnNames.clone();
+        this.rowCounter = rowCounter;
+        this.pageReader = pageReader;
+        this.rowMapper = rowMapper;
+        this.rowId = rowId;
+        this.pageSize = pageSize;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<Row<T>>> eldest) {
+                return size() > maxPages;
+            }
+        };
+        // Loads run in the session of the thread that built the model, so they see its writes
+        ReadSession session = DatabaseUtil.currentSession();
+        this.loader = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(() -> {
+                DatabaseUtil.bindSession(session);
+                r.run();
+            }, "table-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Drop every loaded row and count the rows again, e.g. after a write.
+     * Rows already on screen keep showing until the new count arrives.
+     */
+    public void reload() {
+        int loadGeneration = ++generation;
+        fixedRows = null;
+        pages.clear();
+        pageTokens.clear();
+        loadingPages.clear();
+        stalePages.clear();
+        fireTableDataChanged();
+
+        loader.execute(() -> {
+            int count = rowCounter.getAsInt();
+            SwingUtilities.invokeLater(() -> {
+                if (loadGeneration == generation) {
+                    rowCount = Math.max(0, count);
+                    fireTableDataChanged();
+                }
+            });
+        });
+    }
+
+    /**
+     * Show a fixed list of rows instead of paging through the table,
+     * until the next {@link #reload()}
+     * @param items the rows to show
+     */
+    public void showRows(List<T> items) {
+        generation++;
+        List<Row<T>> rows = new ArrayList<>(items.size());
+        for (T item : items) {
+            rows.add(new Row<>(item, rowMapper.apply(item)));
+        }
+        fixedRows = rows;
+        pages.clear();
+        pageTokens.clear();
+        loadingPages.clear();
+        stalePages.clear();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Patch the rows for a change to one entity, without reading the table again.
+     * Changes are collected and applied together on a later turn of the event
+     * dispatch thread, so a burst of them costs one repaint.
+     * @param event the change, published by the entity's DAO
+     */
+    public void apply(EntityEvent<? extends T> event) {
+        pendingChanges.add(event);
+        if (pendingChanges.size() == 1) {
+            SwingUtilities.invokeLater(this::applyPendingChanges);
+        }
+    }
+
+    /**
+     * Get the entity shown in a row
+     * @param rowIndex the row in the model
+     * @return the entity, or null if the row has not been loaded yet
+     */
+    public T getRow(int rowIndex) {
+        Row<T> row = findRow(rowIndex);
+        return row != null ? row.item : null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return fixedRows != null ? fixedRows.size() : rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int rowIndex, int columnIndex) {
+        return false; // Make table non-editable
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        Row<T> row = findRow(rowIndex);
+        if (row == null) {
+            return columnIndex == 0 ? LOADING : null;
+        }
+        return row.values[columnIndex];
+    }
+
+    private Row<T> findRow(int rowIndex) {
+        if (fixedRows != null) {
+            return rowIndex < fixedRows.size() ? fixedRows.get(rowIndex) : null;
+        }
+
+        int pageIndex = rowIndex / pageSize;
+        List<Row<T>> page = pages.get(pageIndex);
+        if (page == null || stalePages.contains(pageIndex)) {
+            requestPage(pageIndex);
+        }
+        if (page == null) {
+            return null;
+        }
+        int offset = rowIndex % pageSize;
+        return offset < page.size() ? page.get(offset) : null; // Rows deleted since the count
+    }
+
+    private void requestPage(int pageIndex) {
+        wantedPage = pageIndex;
+        if (!loadingPages.add(pageIndex)) {
+            return;
+        }
+
+        // Seek from the nearest page we have a token for, skipping the pages in between
+        Map.Entry<Integer, String> start = pageTokens.floorEntry(pageIndex);
+        int startPage = start != null ? start.getKey() : 0;
+        String pageToken = start != null ? start.getValue() : null;
+        int skip = (pageIndex - startPage) * pageSize;
+        int loadGeneration = generation;
+
+        loader.execute(() -> {
+            // Skip pages the user has already scrolled well past
+            if (Math.abs(pageIndex - wantedPage) > STALE_PAGE_DISTANCE) {
+                SwingUtilities.invokeLater(() -> loadingPages.remove(pageIndex));
+                return;
+            }
+            Page<T> page = pageReader.read(pageToken, skip, pageSize);
+            SwingUtilities.invokeLater(() -> pageLoaded(loadGeneration, pageIndex, page));
+        });
+    }
+
+    private void pageLoaded(int loadGeneration, int pageIndex, Page<T> page) {
+        if (loadGeneration != generation) {
+            return;
+        }
+        loadingPages.remove(pageIndex);
+        int firstRow = pageIndex * pageSize;
+        if (page.getItems().isEmpty() && firstRow < rowCount) {
+            // The read failed; the page is not kept, so the next time a row of it is shown it is read again
+            return;
+        }
+        stalePages.remove(pageIndex);
+
+        List<Row<T>> rows = new ArrayList<>(page.getItems().size());
+        for (T item : page.getItems()) {
+            rows.add(new Row<>(item, rowMapper.apply(item)));
+        }
+        pages.put(pageIndex, rows);
+        if (page.hasNextPage()) {
+            pageTokens.put(pageIndex + 1, page.getNextPageToken());
+        }
+
+        int lastRow = Math.min(rowCount, firstRow + pageSize) - 1;
+        if (lastRow >= firstRow) {
+            fireTableRowsUpdated(firstRow, lastRow);
+        }
+    }
+
+    private void applyPendingChanges() {
+        List<EntityEvent<? extends T>> changes = new ArrayList<>(pendingChanges);
+        pendingChanges.clear();
+        if (rowId == null) {
+            reload();
+            return;
+        }
+
+        // Rows changed or appended by this batch, announced once at the end
+        int updatedFrom = Integer.MAX_VALUE;
+        int updatedTo = -1;
+        int insertedFrom = Integer.MAX_VALUE;
+        int insertedTo = -1;
+        for (EntityEvent<? extends T> change : changes) {
+            if (change.getType() == EntityEvent.Type.DELETED) {
+                // Later rows move up, so announce what came before first
+                fireChanges(updatedFrom, updatedTo, insertedFrom, insertedTo);
+                updatedFrom = insertedFrom = Integer.MAX_VALUE;
+                updatedTo = insertedTo = -1;
+                removeRow(change.getId());
+                continue;
+            }
+
+            Row<T> row = new Row<>(change.getEntity(), rowMapper.apply(change.getEntity()));
+            int rowIndex = indexOf(change.getId());
+            if (rowIndex >= 0) {
+                replaceRow(rowIndex, row);
+                updatedFrom = Math.min(updatedFrom, rowIndex);
+                updatedTo = Math.max(updatedTo, rowIndex);
+            } else if (change.getType() == EntityEvent.Type.CREATED && fixedRows == null) {
+                rowIndex = appendRow(row);
+                insertedFrom = Math.min(insertedFrom, rowIndex);
+                insertedTo = Math.max(insertedTo, rowIndex);
+            }
+            // An updated row that is not loaded is read fresh when it is shown
+        }
+        fireChanges(updatedFrom, updatedTo, insertedFrom, insertedTo);
+    }
+
+    private void fireChanges(int updatedFrom, int updatedTo, int insertedFrom, int insertedTo) {
+        if (insertedTo >= 0) {
+            fireTableRowsInserted(insertedFrom, insertedTo);
+        }
+        if (updatedTo >= 0) {
+            fireTableRowsUpdated(updatedFrom, updatedTo);
+        }
+    }
+
+    // Index of the loaded row with an ID, or -1
+    private int indexOf(int id) {
+        if (fixedRows != null) {
+            for (int i = 0; i < fixedRows.size(); i++) {
+                if (rowId.applyAsInt(fixedRows.get(i).item) == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        for (Map.Entry<Integer, List<Row<T>>> page : pages.entrySet()) {
+            List<Row<T>> rows = page.getValue();
+            for (int i = 0; i < rows.size(); i++) {
+                if (rowId.applyAsInt(rows.get(i).item) == id) {
+                    return page.getKey() * pageSize + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void replaceRow(int rowIndex, Row<T> row) {
+        if (fixedRows != null) {
+            fixedRows.set(rowIndex, row);
+        } else {
+            pages.get(rowIndex / pageSize).set(rowIndex % pageSize, row);
+        }
+    }
+
+    // New IDs are the highest, so the row goes at the end of the table
+    private int appendRow(Row<T> row) {
+        int rowIndex = rowCount++;
+        List<Row<T>> lastPage = pages.get(rowIndex / pageSize);
+        if (lastPage != null && lastPage.size() == rowIndex % pageSize) {
+            lastPage.add(row);
+        }
+        return rowIndex;
+    }
+
+    private void removeRow(int id) {
+        int rowIndex = indexOf(id);
+        if (rowIndex < 0) {
+            if (fixedRows == null) {
+                reload(); // Somewhere in the pages not loaded; the row positions after it are unknown
+            }
+            return;
+        }
+
+        if (fixedRows != null) {
+            fixedRows.remove(rowIndex);
+        } else {
+            // Later pages now start one row earlier, so drop them and the tokens that found them
+            int pageIndex = rowIndex / pageSize;
+            pages.get(pageIndex).remove(rowIndex % pageSize);
+            pages.keySet().removeIf(index -> index > pageIndex);
+            pageTokens.tailMap(pageIndex, false).clear();
+            rowCount--;
+            if (rowCount > (pageIndex + 1) * pageSize - 1) {
+                stalePages.add(pageIndex); // Its last row now comes from the next page
+            }
+            generation++; // Pages being read were counted from the old positions
+            loadingPages.clear();
+        }
+        fireTableRowsDeleted(rowIndex, rowIndex);
+    }
+
+    // A loaded entity with its row values
+    private static class Row<T> {
+        private final T item;
+        private final Object[] values;
+
+        Row(T item, Object[] values) {
+            this.item = item;
+            this.values = values;
+        }
+    }
+}
@@ -2,12 +2,12 @@ package com.hospital.ui;
 
 import com.hospital.dao.DepartmentDAO;
 import com.hospital.dao.NurseDAO;
+import com.hospital.event.EntityEventBus;
 import com.hospital.model.Department;
 import com.hospital.model.Nurse;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
@@ -20,10 +20,12 @@ import java.util.List;
 public class NursePanel extends JPanel {
 
     private NurseDAO nurseDAO;
+    private UiTaskRunner taskRunner;
     private DepartmentDAO departmentDAO;
     private JTable nurseTable;
-    private DefaultTableModel tableModel;
+    private LazyTableModel<Nurse> tableModel;
     private JTextField searchField;
+    private IncrementalSearch<Nurse> search;
     private JTextField firstNameField;
     private JTextField lastNameField;
     private JTextField addressField;
@@ -37,9 +39,11 @@ public class NursePanel extends JPanel {
     private JButton clearButton;
 
     private int selectedNurseId = -1;
+    private Nurse selectedNurse; // The row as loaded; an update starts from a copy of it
 
-    public NursePanel() {
+    public NursePanel(UiTaskRunner taskRunner) {
         nurseDAO = new NurseDAO();
+        this.taskRunner = taskRunner;
         departmentDAO = new DepartmentDAO();
         setLayout(new BorderLayout(10, 10));
         setBorder(new EmptyBorder(10, 10, 10, 10));
@@ -49,6 +53,12 @@ public class NursePanel extends JPanel {
 
         // Load initial data
         refreshNurseTable();
+
+        // Patch the table as nurses are added, changed or removed, here or in another panel
+        EntityEventBus.subscribe(Nurse.class, event -> SwingUtilities.invokeLater(() -> {
+            search.invalidate(); // Cached results may hold the old values
+            tableModel.apply(event);
+        }));
     }
 
     private void initComponents() {
@@ -66,12 +76,19 @@ public class NursePanel extends JPanel {
 
         // Center panel - Nurse table
         String[] columnNames = {"ID", "First Name", "Last Name", "Address", "Telephone", "Rotation", "Salary", "Department"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Make table non-editable
-            }
-        };
+        // Rows are read from the database a page at a time as they scroll into view;
+        // the DAO already joined in the department name
+        tableModel = new LazyTableModel<>(columnNames, nurseDAO::countNurses, nurseDAO::readNursesPageSkipping,
+                nurse -> new Object[]{
+                        nurse.getEmployeeId(),
+                        nurse.getFirstName(),
+                        nurse.getLastName(),
+                        nurse.getAddress(),
+                        nurse.getTelephone(),
+                        nurse.getRotation(),
+                        nurse.getSalary(),
+                        nurse.getDepartmentName() != null ? nurse.getDepartmentName() : "Unknown"
+                }, Nurse::getEmployeeId);
 
         nurseTable = new JTable(tableModel);
         nurseTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -147,48 +164,44 @@ public class NursePanel extends JPanel {
 
         // Add event listeners
 
-        // Search button
-        searchButton.addActionListener(e -> {
-            String searchTerm = searchField.getText().trim();
-            if (!searchTerm.isEmpty()) {
-                List<Nurse> nurses = nurseDAO.searchNurses(searchTerm);
-                updateTableWithNurses(nurses);
-            } else {
-                refreshNurseTable();
-            }
-        });
+        // Search as the user types; Search runs it right away
+        search = new IncrementalSearch<>(searchField, taskRunner, "nurse-search", "Searching nurses",
+                nurseDAO::searchNurses,
+                (nurse, term) -> IncrementalSearch.contains(nurse.getFirstName(), term)
+                        || IncrementalSearch.contains(nurse.getLastName(), term)
+                        || IncrementalSearch.contains(nurse.getRotation(), term),
+                this::updateTableWithNurses, this::refreshNurseTable);
+        searchButton.addActionListener(e -> search.searchNow());
 
         // Table row selection
         nurseTable.addMouseListener(new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
                 int selectedRow = nurseTable.getSelectedRow();
-                if (selectedRow >= 0) {
-                    selectedNurseId = (int) nurseTable.getValueAt(selectedRow, 0);
-
-                    // Retrieve the nurse data from the database to get all fields
-                    Nurse nurse = nurseDAO.readNurse(selectedNurseId);
-                    if (nurse != null) {
-                        firstNameField.setText(nurse.getFirstName());
-                        lastNameField.setText(nurse.getLastName());
-                        addressField.setText(nurse.getAddress());
-                        telephoneField.setText(nurse.getTelephone());
-                        rotationField.setText(nurse.getRotation());
-                        salaryField.setText(nurse.getSalary().toString());
-
-                        // Select the correct department in the combo box
-                        for (int i = 0; i < departmentCombo.getItemCount(); i++) {
-                            ComboItem item = departmentCombo.getItemAt(i);
-                            if (item.getValue() == nurse.getDepartmentId()) {
-                                departmentCombo.setSelectedIndex(i);
-                                break;
-                            }
+                Nurse nurse = selectedRow >= 0 ? tableModel.getRow(selectedRow) : null;
+                if (nurse != null) { // Null while the row is still loading
+                    // The row already holds every field, so there is nothing to read
+                    selectedNurseId = nurse.getEmployeeId();
+                    selectedNurse = nurse;
+                    firstNameField.setText(nurse.getFirstName());
+                    lastNameField.setText(nurse.getLastName());
+                    addressField.setText(nurse.getAddress());
+                    telephoneField.setText(nurse.getTelephone());
+                    rotationField.setText(nurse.getRotation());
+                    salaryField.setText(nurse.getSalary().toString());
+
+                    // Select the correct department in the combo box
+                    for (int i = 0; i < departmentCombo.getItemCount(); i++) {
+                        ComboItem item = departmentCombo.getItemAt(i);
+                        if (item.getValue() == nurse.getDepartmentId()) {
+                            departmentCombo.setSelectedIndex(i);
+                            break;
                         }
-
-                        // Enable update and delete buttons
-                        updateButton.setEnabled(true);
-                        deleteButton.setEnabled(true);
                     }
+
+                    // Enable update and delete buttons
+                    updateButton.setEnabled(true);
+                    deleteButton.setEnabled(true);
                 }
             }
         });
@@ -208,19 +221,20 @@ public class NursePanel extends JPanel {
                             new BigDecimal(salaryField.getText().trim()),
                             selectedDepartment.getValue()
                     );
-
-                    int nurseId = nurseDAO.createNurse(nurse);
-                    if (nurseId > 0) {
-                        JOptionPane.showMessageDialog(this,
-                                "Nurse added successfully with ID: " + nurseId,
-                                "Success", JOptionPane.INFORMATION_MESSAGE);
-                        clearForm();
-                        refreshNurseTable();
-                    } else {
-                        JOptionPane.showMessageDialog(this,
-                                "Failed to add nurse.",
-                                "Error", JOptionPane.ERROR_MESSAGE);
-                    }
+                    nurse.setDepartmentName(selectedDepartment.toString()); // Shown in the table row
+
+                    taskRunner.submit("Adding nurse", () -> nurseDAO.createNurse(nurse), nurseId -> {
+                        if (nurseId > 0) {
+                            JOptionPane.showMessageDialog(this,
+                                    "Nurse added successfully with ID: " + nurseId,
+                                    "Success", JOptionPane.INFORMATION_MESSAGE);
+                            clearForm();
+                        } else {
+                            JOptionPane.showMessageDialog(this,
+                                    "Failed to add nurse.",
+                                    "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    });
                 } catch (NumberFormatException ex) {
                     JOptionPane.showMessageDialog(this,
                             "Invalid salary format. Please enter a valid number.",
@@ -236,29 +250,29 @@ public class NursePanel extends JPanel {
                 try {
                     ComboItem selectedDepartment = (ComboItem) departmentCombo.getSelectedItem();
 
-                    Nurse nurse = new Nurse(
-                            selectedNurseId,
-                            firstNameField.getText().trim(),
-                            lastNameField.getText().trim(),
-                            addressField.getText().trim(),
-                            telephoneField.getText().trim(),
-                            rotationField.getText().trim(),
-                            new BigDecimal(salaryField.getText().trim()),
-                            selectedDepartment.getValue()
-                    );
-
-                    boolean updated = nurseDAO.updateNurse(nurse);
-                    if (updated) {
-                        JOptionPane.showMessageDialog(this,
-                                "Nurse updated successfully.",
-                                "Success", JOptionPane.INFORMATION_MESSAGE);
-                        clearForm();
-                        refreshNurseTable();
-                    } else {
-                        JOptionPane.showMessageDialog(this,
-                                "Failed to update nurse.",
-                                "Error", JOptionPane.ERROR_MESSAGE);
-                    }
+                    // Only the fields changed in the form are marked modified, and so written
+                    Nurse nurse = new Nurse(selectedNurse);
+                    nurse.setFirstName(firstNameField.getText().trim());
+                    nurse.setLastName(lastNameField.getText().trim());
+                    nurse.setAddress(addressField.getText().trim());
+                    nurse.setTelephone(telephoneField.getText().trim());
+                    nurse.setRotation(rotationField.getText().trim());
+                    nurse.setSalary(new BigDecimal(salaryField.getText().trim()));
+                    nurse.setDepartmentId(selectedDepartment.getValue());
+                    nurse.setDepartmentName(selectedDepartment.toString()); // Shown in the table row
+
+                    taskRunner.submit("Updating nurse", () -> nurseDAO.updateNurse(nurse), updated -> {
+                        if (updated) {
+                            JOptionPane.showMessageDialog(this,
+                                    "Nurse updated successfully.",
+                                    "Success", JOptionPane.INFORMATION_MESSAGE);
+                            clearForm();
+                        } else {
+                            JOptionPane.showMessageDialog(this,
+                                    "Failed to update nurse.",
+                                    "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    });
                 } catch (NumberFormatException ex) {
                     JOptionPane.showMessageDialog(this,
                             "Invalid salary format. Please enter a valid number.",
@@ -276,18 +290,19 @@ public class NursePanel extends JPanel {
                         "Confirm Delete", JOptionPane.YES_NO_OPTION);
 
                 if (confirm == JOptionPane.YES_OPTION) {
-                    boolean deleted = nurseDAO.deleteNurse(selectedNurseId);
-                    if (deleted) {
-                        JOptionPane.showMessageDialog(this,
-                                "Nurse deleted successfully.",
-                                "Success", JOptionPane.INFORMATION_MESSAGE);
-                        clearForm();
-                        refreshNurseTable();
-                    } else {
-                        JOptionPane.showMessageDialog(this,
-                                "Failed to delete nurse.",
-                                "Error", JOptionPane.ERROR_MESSAGE);
-                    }
+                    int nurseId = selectedNurseId; // Read on this thread, not in the background
+                    taskRunner.submit("Deleting nurse", () -> nurseDAO.deleteNurse(nurseId), deleted -> {
+                        if (deleted) {
+                            JOptionPane.showMessageDialog(this,
+                                    "Nurse deleted successfully.",
+                                    "Success", JOptionPane.INFORMATION_MESSAGE);
+                            clearForm();
+                        } else {
+                            JOptionPane.showMessageDialog(this,
+                                    "Failed to delete nurse.",
+                                    "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    });
                 }
             }
         });
@@ -297,12 +312,13 @@ public class NursePanel extends JPanel {
     }
 
     private void populateDepartmentCombo() {
-        departmentCombo.removeAllItems();
+        taskRunner.submit("Loading departments", departmentDAO::readAllDepartments, departments -> {
+            departmentCombo.removeAllItems();
 
-        List<Department> departments = departmentDAO.readAllDepartments();
-        for (Department department : departments) {
-            departmentCombo.addItem(new ComboItem(department.getName(), department.getDepartmentId()));
-        }
+            for (Department department : departments) {
+                departmentCombo.addItem(new ComboItem(department.getName(), department.getDepartmentId()));
+            }
+        });
     }
 
     private void clearForm() {
@@ -314,6 +330,7 @@ public class NursePanel extends JPanel {
         salaryField.setText("");
         departmentCombo.setSelectedIndex(departmentCombo.getItemCount() > 0 ? 0 : -1);
         selectedNurseId = -1;
+        selectedNurse = null;
         updateButton.setEnabled(false);
         deleteButton.setEnabled(false);
         nurseTable.clearSelection();
@@ -362,32 +379,12 @@ public class NursePanel extends JPanel {
     }
 
     private void refreshNurseTable() {
-        List<Nurse> nurses = nurseDAO.readAllNurses();
-        updateTableWithNurses(nurses);
+        search.invalidate(); // Rows may have changed
+        tableModel.reload();
     }
 
     private void updateTableWithNurses(List<Nurse> nurses) {
-        // Clear existing rows
-        tableModel.setRowCount(0);
-
-        // Add nurses to the table
-        for (Nurse nurse : nurses) {
-            // Get department name for the nurse's department ID
-            Department department = departmentDAO.readDepartment(nurse.getDepartmentId());
-            String departmentName = department != null ? department.getName() : "Unknown";
-
-            Object[] rowData = {
-                    nurse.getEmployeeId(),
-                    nurse.getFirstName(),
-                    nurse.getLastName(),
-                    nurse.getAddress(),
-                    nurse.getTelephone(),
-                    nurse.getRotation(),
-                    nurse.getSalary(),
-                    departmentName
-            };
-            tableModel.addRow(rowData);
-        }
+        tableModel.showRows(nurses);
     }
 
     // Helper class for ComboBox items
@@ -1,11 +1,11 @@
 package com.hospital.ui;
 
 import com.hospital.dao.PatientDAO;
+import com.hospital.event.EntityEventBus;
 import com.hospital.model.Patient;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
@@ -17,9 +17,11 @@ import java.util.List;
 public class PatientPanel extends JPanel {
 
     private PatientDAO patientDAO;
+    private UiTaskRunner taskRunner;
     private JTable patientTable;
-    private DefaultTableModel tableModel;
+    private LazyTableModel<Patient> tableModel;
     private JTextField searchField;
+    private IncrementalSearch<Patient> search;
     private JTextField firstNameField;
     private JTextField lastNameField;
     private JTextField addressField;
@@ -30,9 +32,11 @@ public class PatientPanel extends JPanel {
     private JButton clearButton;
 
     private int selectedPatientId = -1;
+    private Patient selectedPatient; // The row as loaded; an update starts from a copy of it
 
-    public PatientPanel() {
+    public PatientPanel(UiTaskRunner taskRunner) {
         patientDAO = new PatientDAO();
+        this.taskRunner = taskRunner;
         setLayout(new BorderLayout(10, 10));
         setBorder(new EmptyBorder(10, 10, 10, 10));
 
@@ -41,6 +45,12 @@ public class PatientPanel extends JPanel {
 
         // Load initial data
         refreshPatientTable();
+
+        // Patch the table as patients are added, changed or removed, here or in another panel
+        EntityEventBus.subscribe(Patient.class, event -> SwingUtilities.invokeLater(() -> {
+            search.invalidate(); // Cached results may hold the old values
+            tableModel.apply(event);
+        }));
     }
 
     private void initComponents() {
@@ -58,12 +68,15 @@ public class PatientPanel extends JPanel {
 
         // Center panel - Patient table
         String[] columnNames = {"ID", "First Name", "Last Name", "Address", "Telephone"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Make table non-editable
-            }
-        };
+        // Rows are read from the database a page at a time as they scroll into view
+        tableModel = new LazyTableModel<>(columnNames, patientDAO::countPatients, patientDAO::readPatientsPageSkipping,
+                patient -> new Object[]{
+                        patient.getPatientId(),
+                        patient.getFirstName(),
+                        patient.getLastName(),
+                        patient.getAddress(),
+                        patient.getTelephone()
+                }, Patient::getPatientId);
 
         patientTable = new JTable(tableModel);
         patientTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -124,28 +137,27 @@ public class PatientPanel extends JPanel {
 
         // Add event listeners
 
-        // Search button
-        searchButton.addActionListener(e -> {
-            String searchTerm = searchField.getText().trim();
-            if (!searchTerm.isEmpty()) {
-                List<Patient> patients = patientDAO.searchPatientsByName(searchTerm);
-                updateTableWithPatients(patients);
-            } else {
-                refreshPatientTable();
-            }
-        });
+        // Search as the user types; Search runs it right away
+        search = new IncrementalSearch<>(searchField, taskRunner, "patient-search", "Searching patients",
+                patientDAO::searchPatientsByName,
+                (patient, term) -> IncrementalSearch.contains(patient.getFirstName(), term)
+                        || IncrementalSearch.contains(patient.getLastName(), term),
+                this::updateTableWithPatients, this::refreshPatientTable);
+        searchButton.addActionListener(e -> search.searchNow());
 
         // Table row selection
         patientTable.addMouseListener(new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
                 int selectedRow = patientTable.getSelectedRow();
-                if (selectedRow >= 0) {
-                    selectedPatientId = (int) patientTable.getValueAt(selectedRow, 0);
-                    firstNameField.setText((String) patientTable.getValueAt(selectedRow, 1));
-                    lastNameField.setText((String) patientTable.getValueAt(selectedRow, 2));
-                    addressField.setText((String) patientTable.getValueAt(selectedRow, 3));
-                    telephoneField.setText((String) patientTable.getValueAt(selectedRow, 4));
+                Patient patient = selectedRow >= 0 ? tableModel.getRow(selectedRow) : null;
+                if (patient != null) { // Null while the row is still loading
+                    selectedPatientId = patient.getPatientId();
+                    selectedPatient = patient;
+                    firstNameField.setText(patient.getFirstName());
+                    lastNameField.setText(patient.getLastName());
+                    addressField.setText(patient.getAddress());
+                    telephoneField.setText(patient.getTelephone());
 
                     // Enable update and delete buttons
                     updateButton.setEnabled(true);
@@ -164,44 +176,43 @@ public class PatientPanel extends JPanel {
                         telephoneField.getText().trim()
                 );
 
-                int patientId = patientDAO.createPatient(patient);
-                if (patientId > 0) {
-                    JOptionPane.showMessageDialog(this,
-                            "Patient added successfully with ID: " + patientId,
-                            "Success", JOptionPane.INFORMATION_MESSAGE);
-                    clearForm();
-                    refreshPatientTable();
-                } else {
-                    JOptionPane.showMessageDialog(this,
-                            "Failed to add patient.",
-                            "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                taskRunner.submit("Adding patient", () -> patientDAO.createPatient(patient), patientId -> {
+                    if (patientId > 0) {
+                        JOptionPane.showMessageDialog(this,
+                                "Patient added successfully with ID: " + patientId,
+                                "Success", JOptionPane.INFORMATION_MESSAGE);
+                        clearForm();
+                    } else {
+                        JOptionPane.showMessageDialog(this,
+                                "Failed to add patient.",
+                                "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                });
             }
         });
 
         // Update button
         updateButton.addActionListener(e -> {
             if (validateForm() && selectedPatientId > 0) {
-                Patient patient = new Patient(
-                        selectedPatientId,
-                        firstNameField.getText().trim(),
-                        lastNameField.getText().trim(),
-                        addressField.getText().trim(),
-                        telephoneField.getText().trim()
-                );
-
-                boolean updated = patientDAO.updatePatient(patient);
-                if (updated) {
-                    JOptionPane.showMessageDialog(this,
-                            "Patient updated successfully.",
-                            "Success", JOptionPane.INFORMATION_MESSAGE);
-                    clearForm();
-                    refreshPatientTable();
-                } else {
-                    JOptionPane.showMessageDialog(this,
-                            "Failed to update patient.",
-                            "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                // Only the fields changed in the form are marked modified, and so written
+                Patient patient = new Patient(selectedPatient);
+                patient.setFirstName(firstNameField.getText().trim());
+                patient.setLastName(lastNameField.getText().trim());
+                patient.setAddress(addressField.getText().trim());
+                patient.setTelephone(telephoneField.getText().trim());
+
+                taskRunner.submit("Updating patient", () -> patientDAO.updatePatient(patient), updated -> {
+                    if (updated) {
+                        JOptionPane.showMessageDialog(this,
+                                "Patient updated successfully.",
+                                "Success", JOptionPane.INFORMATION_MESSAGE);
+                        clearForm();
+                    } else {
+                        JOptionPane.showMessageDialog(this,
+                                "Failed to update patient.",
+                                "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                });
             }
         });
 
@@ -213,18 +224,19 @@ public class PatientPanel extends JPanel {
                         "Confirm Delete", JOptionPane.YES_NO_OPTION);
 
                 if (confirm == JOptionPane.YES_OPTION) {
-                    boolean deleted = patientDAO.deletePatient(selectedPatientId);
-                    if (deleted) {
-                        JOptionPane.showMessageDialog(this,
-                                "Patient deleted successfully.",
-                                "Success", JOptionPane.INFORMATION_MESSAGE);
-                        clearForm();
-                        refreshPatientTable();
-                    } else {
-                        JOptionPane.showMessageDialog(this,
-                                "Failed to delete patient.",
-                                "Error", JOptionPane.ERROR_MESSAGE);
-                    }
+                    int patientId = selectedPatientId; // Read on this thread, not in the background
+                    taskRunner.submit("Deleting patient", () -> patientDAO.deletePatient(patientId), deleted -> {
+                        if (deleted) {
+                            JOptionPane.showMessageDialog(this,
+                                    "Patient deleted successfully.",
+                                    "Success", JOptionPane.INFORMATION_MESSAGE);
+                            clearForm();
+                        } else {
+                            JOptionPane.showMessageDialog(this,
+                                    "Failed to delete patient.",
+                                    "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    });
                 }
             }
         });
@@ -239,6 +251,7 @@ public class PatientPanel extends JPanel {
         addressField.setText("");
         telephoneField.setText("");
         selectedPatientId = -1;
+        selectedPatient = null;
         updateButton.setEnabled(false);
         deleteButton.setEnabled(false);
         patientTable.clearSelection();
@@ -261,24 +274,11 @@ public class PatientPanel extends JPanel {
     }
 
     private void refreshPatientTable() {
-        List<Patient> patients = patientDAO.readAllPatients();
-        updateTableWithPatients(patients);
+        search.invalidate(); // Rows may have changed
+        tableModel.reload();
     }
 
     private void updateTableWithPatients(List<Patient> patients) {
-        // Clear existing rows
-        tableModel.setRowCount(0);
-
-        // Add patients to the table
-        for (Patient patient : patients) {
-            Object[] rowData = {
-                    patient.getPatientId(),
-                    patient.getFirstName(),
-                    patient.getLastName(),
-                    patient.getAddress(),
-                    patient.getTelephone()
-            };
-            tableModel.addRow(rowData);
-        }
+        tableModel.showRows(patients);
     }
 }
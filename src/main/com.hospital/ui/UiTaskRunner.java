@@ -0,0 +1,200 @@
+package com.hospital.ui;
+
+import com.hospital.util.DatabaseUtil;
+import com.hospital.util.Logger;
+import com.hospital.util.ReadSession;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs the panels' database work on background threads so a slow query never
+ * freezes the window.
+ * <p>
+ * Work runs on a small bounded pool; the result is handed back on the event
+ * dispatch thread. Work submitted under a key replaces any earlier work with
+ * the same key that has not finished yet (e.g. a newer search replaces an
+ * older one), and the older result is then discarded. Listeners are told when
+ * work starts and finishes so the status bar can show progress.
+ * <p>
+ * Work runs in the submitter's {@link ReadSession}, so a read sees what
+ * earlier work wrote even when a different worker thread ran it.
+ * <p>
+ * Apart from the work itself, everything here runs on the event dispatch thread.
+ */
+public class UiTaskRunner {
+    private static final Logger log = Logger.getLogger(UiTaskRunner.class);
+
+    /**
+     * Notified on the event dispatch thread when background work starts or finishes
+     */
+    public interface StatusListener {
+        /**
+         * @param message what is running, or "Ready" when idle
+         * @param busy true while any work is running
+         */
+        void statusChanged(String message, boolean busy);
+    }
+
+    /**
+     * A submitted piece of work
+     */
+    public static class Task {
+        private volatile boolean cancelled;
+        private Future<?> future;
+        private Runnable onDropped; // Called if the work is cancelled before it starts
+
+        /**
+         * Stop the work if it has not started yet and discard its result.
+         * Work already running is not interrupted, because interrupting a
+         * thread inside a JDBC call can break its connection.
+         */
+        public void cancel() {
+            cancelled = true;
+            if (future != null && future.cancel(false) && onDropped != null) {
+                onDropped.run();
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private static final int DEFAULT_THREADS = 4;
+    private static final int DEFAULT_QUEUE_CAPACITY = 100;
+
+    private final ThreadPoolExecutor executor;
+    private final Map<String, Task> latestByKey = new HashMap<>();
+    private final List<StatusListener> listeners = new ArrayList<>();
+    private int running;
+
+    public UiTaskRunner() {
+        this(DEFAULT_THREADS, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param threads number of worker threads
+     * @param queueCapacity work that can wait for a thread before new work is refused
+     */
+    public UiTaskRunner(int threads, int queueCapacity) {
+        executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), r -> {
+            Thread thread = new Thread(r, "ui-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    public void addStatusListener(StatusListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Run work in the background and pass its result to a callback on the event dispatch thread
+     * @param description what the work does, shown in the status bar, e.g. "Adding patient"
+     * @param work the work, typically a DAO call
+     * @param onSuccess receives the result unless the task was cancelled
+     * @return the task
+     */
+    public <T> Task submit(String description, Callable<T> work, Consumer<T> onSuccess) {
+        Task task = new Task();
+        task.onDropped = this::finished;
+        started(description);
+        ReadSession session = DatabaseUtil.currentSession();
+
+        try {
+            task.future = executor.submit(() -> {
+                ReadSession previous = DatabaseUtil.bindSession(session);
+                try {
+                    T result = work.call();
+                    SwingUtilities.invokeLater(() -> {
+                        finished();
+                        if (!task.cancelled) {
+                            onSuccess.accept(result);
+                        }
+                    });
+                } catch (Exception e) {
+                    log.error("Error " + description.toLowerCase(), e);
+                    SwingUtilities.invokeLater(() -> {
+                        finished();
+                        notifyListeners(description + " failed", running > 0);
+                    });
+                } finally {
+                    DatabaseUtil.bindSession(previous);
+                }
+                return null;
+            });
+        } catch (RejectedExecutionException e) {
+            finished();
+            notifyListeners("Too busy, please try again", running > 0);
+            task.cancelled = true;
+        }
+        return task;
+    }
+
+    /**
+     * Like {@link #submit}, but first cancels unfinished work submitted with the same key,
+     * so only the result of the newest request is shown
+     * @param key identifies the kind of request, e.g. "patient-search"
+     * @param description what the work does, shown in the status bar
+     * @param work the work, typically a DAO call
+     * @param onSuccess receives the result unless a newer request replaced it
+     * @return the task
+     */
+    public <T> Task submitLatest(String key, String description, Callable<T> work, Consumer<T> onSuccess) {
+        Task previous = latestByKey.get(key);
+        if (previous != null) {
+            previous.cancel();
+        }
+
+        Task[] holder = new Task[1];
+        Task task = submit(description, work, result -> {
+            latestByKey.remove(key, holder[0]);
+            onSuccess.accept(result);
+        });
+        holder[0] = task;
+        latestByKey.put(key, task);
+        return task;
+    }
+
+    /**
+     * Cancel unfinished work submitted with a key, e.g. when a search box is cleared
+     * @param key the key the work was submitted with
+     */
+    public void cancel(String key) {
+        Task previous = latestByKey.remove(key);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    private void started(String description) {
+        running++;
+        notifyListeners(description + "...", true);
+    }
+
+    private void finished() {
+        running--;
+        if (running == 0) {
+            notifyListeners("Ready", false);
+        }
+    }
+
+    private void notifyListeners(String message, boolean busy) {
+        for (StatusListener listener : listeners) {
+            listener.statusChanged(message, busy);
+        }
+    }
+}
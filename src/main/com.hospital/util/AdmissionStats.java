@@ -0,0 +1,83 @@
+package com.hospital.util;
+
+/**
+ * Point-in-time snapshot of the admission counters.
+ * A conflict is an attempt that lost its bed to another writer and was retried
+ * with the next free bed; an admission can take several attempts.
+ */
+public class AdmissionStats {
+    private final long admittedCount;
+    private final long attemptCount;
+    private final long conflictCount;
+    private final long noFreeBedCount;
+    private final long failedCount;
+    private final long elapsedMillis;
+
+    public AdmissionStats(long admittedCount, long attemptCount, long conflictCount, long noFreeBedCount,
+                          long failedCount, long elapsedMillis) {
+        this.admittedCount = admittedCount;
+        this.attemptCount = attemptCount;
+        this.conflictCount = conflictCount;
+        this.noFreeBedCount = noFreeBedCount;
+        this.failedCount = failedCount;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Getters
+    public long getAdmittedCount() {
+        return admittedCount;
+    }
+
+    public long getAttemptCount() {
+        return attemptCount;
+    }
+
+    public long getConflictCount() {
+        return conflictCount;
+    }
+
+    /**
+     * Get the share of insert attempts that lost their bed to another writer
+     * @return conflicts per attempt, between 0 and 1
+     */
+    public double getConflictRate() {
+        return attemptCount == 0 ? 0.0 : (double) conflictCount / attemptCount;
+    }
+
+    public long getNoFreeBedCount() {
+        return noFreeBedCount;
+    }
+
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * Get the time the counters cover
+     * @return milliseconds since the counters started or were last reset
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Get the admission throughput over the time the counters cover
+     * @return admissions per second
+     */
+    public double getAdmissionsPerSecond() {
+        return elapsedMillis == 0 ? 0.0 : admittedCount * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "AdmissionStats{" +
+                "admitted=" + admittedCount +
+                ", attempts=" + attemptCount +
+                ", conflicts=" + conflictCount +
+                ", conflictRate=" + String.format("%.3f", getConflictRate()) +
+                ", noFreeBed=" + noFreeBedCount +
+                ", failed=" + failedCount +
+                ", admissionsPerSecond=" + String.format("%.1f", getAdmissionsPerSecond()) +
+                '}';
+    }
+}
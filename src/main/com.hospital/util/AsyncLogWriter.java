@@ -0,0 +1,267 @@
+package com.hospital.util;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes {@link LogEvent}s to a rolling file on a background thread.
+ * Logging threads only add the event to a lock-free queue; the writer thread
+ * formats it, appends it to the file and flushes once the queue is empty.
+ * When the file grows past its size limit it is renamed to {@code <file>.1},
+ * the older files move up one number and the oldest is deleted.
+ * <p>
+ * The queue holds a bounded number of events. When it is full the event is
+ * either dropped and counted ({@link WhenFull#DROP}), so a slow disk never
+ * slows down the application, or the logging thread waits for space
+ * ({@link WhenFull#BLOCK}), so no event is lost.
+ */
+public class AsyncLogWriter {
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long CLOSE_TIMEOUT_MS = 5_000;
+
+    /**
+     * What a logging thread does when the queue is full
+     */
+    public enum WhenFull {
+        DROP,
+        BLOCK
+    }
+
+    private final Path file;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final int capacity;
+    private final WhenFull whenFull;
+    private final boolean console;
+
+    private final Queue<LogEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger(); // Queued events, including reserved slots
+    private final LongAdder queuedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder blockedCount = new LongAdder();
+    private final Thread writer;
+    private volatile long writtenCount; // Only the writer thread updates it
+    private volatile long flushedCount;
+    private volatile boolean idle;
+    private volatile boolean closed;
+
+    // Owned by the writer thread
+    private OutputStream out;
+    private long fileBytes;
+
+    /**
+     * Create a writer and start its thread
+     * @param file the log file, appended to and created on the first event
+     * @param maxFileBytes size at which the file is rolled over
+     * @param maxFiles number of rolled-over files to keep
+     * @param capacity events waiting to be written before the queue counts as full
+     * @param whenFull whether to drop events or wait when the queue is full
+     * @param console true to also print each line to standard output
+     */
+    public AsyncLogWriter(Path file, long maxFileBytes, int maxFiles, int capacity, WhenFull whenFull,
+                          boolean console) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        this.file = file;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = Math.max(0, maxFiles);
+        this.capacity = capacity;
+        this.whenFull = whenFull;
+        this.console = console;
+        this.writer = new Thread(this::writeEvents, "hospital-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queue an event for the writer thread
+     * @param event the event to write
+     * @return true if it was queued, false if it was dropped
+     */
+    public boolean append(LogEvent event) {
+        if (closed || !reserveSlot()) {
+            droppedCount.increment();
+            return false;
+        }
+        queue.offer(event);
+        queuedCount.increment();
+        if (idle) {
+            LockSupport.unpark(writer);
+        }
+        return true;
+    }
+
+    /**
+     * Wait until every event queued so far has been written and flushed
+     * @param timeoutMs the longest time to wait
+     * @return true if they were, false on timeout
+     */
+    public boolean flush(long timeoutMs) {
+        long target = queuedCount.sum();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (flushedCount < target) {
+            if (System.nanoTime() - deadline >= 0 || !writer.isAlive()) {
+                return false;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+        return true;
+    }
+
+    /**
+     * Get a snapshot of the writer's counters
+     * @return the stats
+     */
+    public LogStats getStats() {
+        return new LogStats(queuedCount.sum(), writtenCount, droppedCount.sum(), blockedCount.sum(), size.get());
+    }
+
+    /**
+     * Stop accepting events and wait for the queued ones to be written
+     */
+    public void close() {
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(CLOSE_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean reserveSlot() {
+        boolean waited = false;
+        while (true) {
+            int queued = size.get();
+            if (queued < capacity) {
+                if (size.compareAndSet(queued, queued + 1)) {
+                    return true;
+                }
+                continue;
+            }
+            // The writer thread itself must never wait for its own queue
+            if (whenFull == WhenFull.DROP || closed || Thread.currentThread() == writer) {
+                return false;
+            }
+            if (!waited) {
+                blockedCount.increment();
+                waited = true;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+    }
+
+    private void writeEvents() {
+        try {
+            while (true) {
+                LogEvent event = queue.poll();
+                if (event != null) {
+                    size.decrementAndGet();
+                    write(event);
+                    writtenCount++;
+                    continue;
+                }
+                flushFile();
+                if (closed && size.get() == 0) {
+                    break;
+                }
+                idle = true;
+                if (queue.isEmpty()) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+                idle = false;
+            }
+        } finally {
+            closeFile();
+        }
+    }
+
+    private void write(LogEvent event) {
+        String line = event.format();
+        if (console) {
+            System.out.println(line);
+        }
+        byte[] bytes = (line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+        try {
+            if (out != null && fileBytes > 0 && fileBytes + bytes.length > maxFileBytes) {
+                rollOver();
+            }
+            if (out == null) {
+                openFile();
+            }
+            out.write(bytes);
+            fileBytes += bytes.length;
+        } catch (IOException e) {
+            // Logging the failure would only queue another event for this thread
+            System.err.println("Error writing log file " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void openFile() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        fileBytes = Files.exists(file) ? Files.size(file) : 0;
+        out = new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+    }
+
+    private void rollOver() throws IOException {
+        closeFile();
+        if (maxFiles == 0) {
+            Files.deleteIfExists(file);
+            return;
+        }
+        Files.deleteIfExists(rolledFile(maxFiles));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            Path older = rolledFile(i);
+            if (Files.exists(older)) {
+                Files.move(older, rolledFile(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(file, rolledFile(1), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Path rolledFile(int number) {
+        return file.resolveSibling(file.getFileName() + "." + number);
+    }
+
+    private void flushFile() {
+        if (out != null) {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                System.err.println("Error flushing log file " + file + ": " + e.getMessage());
+            }
+        }
+        flushedCount = writtenCount;
+    }
+
+    private void closeFile() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                System.err.println("Error closing log file " + file + ": " + e.getMessage());
+            }
+            out = null;
+        }
+    }
+}
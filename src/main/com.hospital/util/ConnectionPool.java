@@ -0,0 +1,481 @@
+package com.hospital.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe JDBC connection pool.
+ * Callers borrow a connection with {@link #getConnection()} and give it back by
+ * closing it, so the DAOs' try-with-resources blocks return connections to the
+ * pool instead of tearing down the physical MySQL session.
+ * Each pooled connection keeps a {@link StatementCache} so repeated SQL is only
+ * prepared once per connection.
+ */
+public class ConnectionPool {
+    private static final Logger log = Logger.getLogger(ConnectionPool.class);
+
+    private final PoolConfig config;
+
+    // Idle connections, most recently returned first so hot connections are reused
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> active = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+    private final SlowQueryLog slowQueryLog; // null when slow query logging is disabled
+    private volatile boolean closed;
+
+    // Statistics
+    private final AtomicInteger threadsAwaiting = new AtomicInteger();
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder destroyedCount = new LongAdder();
+    private final LongAdder leakCount = new LongAdder();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+    private final LongAdder statementCacheEvictions = new LongAdder();
+
+    public ConnectionPool(PoolConfig config) {
+        this.config = config;
+        this.permits = new Semaphore(config.getMaximumPoolSize(), true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hospital-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = config.getHousekeepingIntervalMs();
+        housekeeper.scheduleWithFixedDelay(this::housekeep, interval, interval, TimeUnit.MILLISECONDS);
+        this.slowQueryLog = config.getSlowQueryThresholdMs() >= 0
+                ? new SlowQueryLog(config.getSlowQueryThresholdMs(), Paths.get(config.getSlowQueryLogFile()),
+                        config.getSlowQueryQueueSize())
+                : null;
+    }
+
+    /**
+     * Borrow a connection from the pool, opening a new one if none is idle.
+     * Closing the returned connection gives it back to the pool.
+     * @return a pooled Connection
+     * @throws SQLTimeoutException if no connection became free within the connection timeout
+     * @throws SQLException if the pool is closed or a new connection could not be opened
+     */
+    public Connection getConnection() throws SQLException {
+        return getConnection(null);
+    }
+
+    /**
+     * Borrow a connection for writing
+     * @param afterWrite called each time the connection commits and when it is closed,
+     *                   so the caller can tell when its writes are visible; may be null
+     * @return a pooled Connection
+     * @throws SQLTimeoutException if no connection became free within the connection timeout
+     * @throws SQLException if the pool is closed or a new connection could not be opened
+     */
+    Connection getConnection(Runnable afterWrite) throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long start = System.nanoTime();
+        boolean acquired;
+        threadsAwaiting.incrementAndGet();
+        try {
+            acquired = permits.tryAcquire(config.getConnectionTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        } finally {
+            threadsAwaiting.decrementAndGet();
+        }
+
+        if (!acquired) {
+            timeoutCount.increment();
+            throw new SQLTimeoutException("Timed out after " + config.getConnectionTimeoutMs() +
+                    "ms waiting for a database connection (active=" + active.size() +
+                    ", max=" + config.getMaximumPoolSize() + ")");
+        }
+
+        try {
+            PooledConnection pooled = takeIdle();
+            if (pooled == null) {
+                pooled = openConnection();
+            }
+
+            long waited = System.nanoTime() - start;
+            borrowCount.increment();
+            totalWaitNanos.add(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+            pooled.lease(config.getLeakDetectionThresholdMs() > 0, waited);
+            active.add(pooled);
+            return pooled.newHandle(this, afterWrite);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Check whether a connection was borrowed from this pool
+     * @param conn the connection
+     * @return true if it is one of this pool's connections
+     */
+    public boolean owns(Connection conn) {
+        if (!Proxy.isProxyClass(conn.getClass())) {
+            return false;
+        }
+        InvocationHandler handler = Proxy.getInvocationHandler(conn);
+        return handler instanceof Handle && ((Handle) handler).pool == this;
+    }
+
+    /**
+     * Take a snapshot of the pool statistics
+     * @return the current PoolStats
+     */
+    public PoolStats getStats() {
+        return new PoolStats(
+                active.size(),
+                idle.size(),
+                threadsAwaiting.get(),
+                config.getMaximumPoolSize(),
+                borrowCount.sum(),
+                totalWaitNanos.sum(),
+                maxWaitNanos.get(),
+                timeoutCount.sum(),
+                createdCount.sum(),
+                destroyedCount.sum(),
+                leakCount.sum(),
+                statementCacheHits.sum(),
+                statementCacheMisses.sum(),
+                statementCacheEvictions.sum()
+        );
+    }
+
+    public PoolConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Get the log the pool writes slow statements to
+     * @return the SlowQueryLog, or null if slow query logging is disabled
+     */
+    public SlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
+    /**
+     * Close the pool and every idle connection.
+     * Connections still borrowed are closed as they are returned.
+     */
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+        if (slowQueryLog != null) {
+            slowQueryLog.close();
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Give a borrowed connection back to the pool. Called when a handle is closed.
+     */
+    void release(PooledConnection pooled) {
+        active.remove(pooled);
+        try {
+            if (closed || isExpired(pooled) || pooled.getPhysical().isClosed()) {
+                destroy(pooled);
+            } else {
+                pooled.reset();
+                idle.offerFirst(pooled);
+            }
+        } catch (SQLException e) {
+            // The connection could not be reset, so it cannot be trusted with the next caller
+            destroy(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private PooledConnection takeIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isExpired(pooled) || !isValid(pooled)) {
+                destroy(pooled);
+                continue;
+            }
+            return pooled;
+        }
+        return null;
+    }
+
+    private PooledConnection openConnection() throws SQLException {
+        Properties info = new Properties();
+        info.putAll(config.getDriverProperties());
+        if (config.getUsername() != null) {
+            info.setProperty("user", config.getUsername());
+        }
+        if (config.getPassword() != null) {
+            info.setProperty("password", config.getPassword());
+        }
+
+        Connection physical = DriverManager.getConnection(config.getJdbcUrl(), info);
+        createdCount.increment();
+
+        StatementCache statements = null;
+        if (config.getStatementCacheSize() > 0) {
+            statements = new StatementCache(physical, config.getStatementCacheSize(),
+                    statementCacheHits, statementCacheMisses, statementCacheEvictions);
+        }
+        return new PooledConnection(physical, statements);
+    }
+
+    private boolean isExpired(PooledConnection pooled) {
+        long maxLifetime = config.getMaxLifetimeMs();
+        return maxLifetime > 0 && System.currentTimeMillis() - pooled.getCreatedAt() > maxLifetime;
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        // Skip the validation round trip for connections that were in use moments ago
+        if (System.currentTimeMillis() - pooled.getLastReturnedAt() < config.getValidationIntervalMs()) {
+            return true;
+        }
+        try {
+            return pooled.getPhysical().isValid(config.getValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void destroy(PooledConnection pooled) {
+        destroyedCount.increment();
+        try {
+            pooled.getPhysical().close();
+        } catch (SQLException e) {
+            log.warn("Error closing pooled connection", "error", e.getMessage());
+        }
+    }
+
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+
+        // Retire idle connections that outlived their lifetime or sat unused too long
+        Iterator<PooledConnection> iterator = idle.descendingIterator();
+        while (iterator.hasNext()) {
+            PooledConnection pooled = iterator.next();
+            boolean idleTooLong = config.getIdleTimeoutMs() > 0
+                    && now - pooled.getLastReturnedAt() > config.getIdleTimeoutMs()
+                    && idle.size() > config.getMinimumIdle();
+            if ((isExpired(pooled) || idleTooLong) && idle.remove(pooled)) {
+                destroy(pooled);
+            }
+        }
+
+        // Report connections that have been borrowed for longer than the leak threshold
+        long threshold = config.getLeakDetectionThresholdMs();
+        if (threshold > 0) {
+            for (PooledConnection pooled : active) {
+                if (now - pooled.getLeasedAt() > threshold && pooled.markLeakReported()) {
+                    leakCount.increment();
+                    // The lease trace, if captured, shows where the connection was borrowed
+                    log.warn("Possible connection leak: connection has not been closed", pooled.getLeaseTrace(),
+                            "borrowedMs", now - pooled.getLeasedAt());
+                }
+            }
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool, along with its bookkeeping.
+     */
+    static class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statements; // null when statement caching is disabled
+        private final long createdAt;
+        private volatile long lastReturnedAt;
+        private volatile long leasedAt;
+        private volatile long leaseWaitNanos;
+        private volatile Throwable leaseTrace;
+        private volatile boolean leakReported;
+
+        PooledConnection(Connection physical, StatementCache statements) {
+            this.physical = physical;
+            this.statements = statements;
+            this.createdAt = System.currentTimeMillis();
+            this.lastReturnedAt = createdAt;
+        }
+
+        Connection getPhysical() {
+            return physical;
+        }
+
+        StatementCache getStatements() {
+            return statements;
+        }
+
+        long getCreatedAt() {
+            return createdAt;
+        }
+
+        long getLastReturnedAt() {
+            return lastReturnedAt;
+        }
+
+        long getLeasedAt() {
+            return leasedAt;
+        }
+
+        long getLeaseWaitNanos() {
+            return leaseWaitNanos;
+        }
+
+        Throwable getLeaseTrace() {
+            return leaseTrace;
+        }
+
+        void lease(boolean captureTrace, long waitNanos) {
+            leasedAt = System.currentTimeMillis();
+            leaseWaitNanos = waitNanos;
+            leaseTrace = captureTrace ? new Throwable("Connection borrowed here") : null;
+            leakReported = false;
+        }
+
+        boolean markLeakReported() {
+            if (leakReported) {
+                return false;
+            }
+            leakReported = true;
+            return true;
+        }
+
+        /**
+         * Undo anything the previous borrower left behind
+         */
+        void reset() throws SQLException {
+            if (statements != null) {
+                statements.closeInUse();
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            physical.clearWarnings();
+            leaseTrace = null;
+            lastReturnedAt = System.currentTimeMillis();
+        }
+
+        Connection newHandle(ConnectionPool pool, Runnable afterWrite) {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(pool, this, afterWrite));
+        }
+    }
+
+    /**
+     * The Connection a caller sees. Closing it returns the physical connection to the
+     * pool, after which the handle refuses further use.
+     */
+    private static class Handle implements InvocationHandler {
+        private final ConnectionPool pool;
+        private final PooledConnection pooled;
+        private final Runnable afterWrite;
+        private boolean closed;
+
+        Handle(ConnectionPool pool, PooledConnection pooled, Runnable afterWrite) {
+            this.pool = pool;
+            this.pooled = pooled;
+            this.afterWrite = afterWrite;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        pool.release(pooled);
+                        if (afterWrite != null) {
+                            afterWrite.run();
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || pooled.getPhysical().isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.getPhysical() + (closed ? ", returned]" : "]");
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+
+            Object result = null;
+            // Route plain prepares through the statement cache
+            StatementCache statements = pooled.getStatements();
+            if (statements != null && method.getName().equals("prepareStatement")) {
+                if (args.length == 1) {
+                    result = statements.prepare((Connection) proxy, (String) args[0], Statement.NO_GENERATED_KEYS);
+                } else if (args.length == 2 && method.getParameterTypes()[1] == int.class) {
+                    result = statements.prepare((Connection) proxy, (String) args[0], (Integer) args[1]);
+                }
+            }
+
+            if (result == null) {
+                try {
+                    result = method.invoke(pooled.getPhysical(), args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                if (afterWrite != null && method.getName().equals("commit")) {
+                    afterWrite.run();
+                }
+            }
+
+            // Time what the statement executes, for the slow query log
+            if (pool.slowQueryLog != null) {
+                if (method.getName().equals("prepareStatement")) {
+                    result = TimedStatement.wrap((Statement) result, (String) args[0],
+                            pooled.getLeaseWaitNanos(), pool.slowQueryLog);
+                } else if (method.getName().equals("createStatement")) {
+                    result = TimedStatement.wrap((Statement) result, null, pooled.getLeaseWaitNanos(), pool.slowQueryLog);
+                }
+            }
+            return result;
+        }
+    }
+}
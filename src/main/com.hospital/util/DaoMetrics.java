@@ -0,0 +1,80 @@
+package com.hospital.util;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the per-method {@link MethodMetrics} of the DAOs.
+ * Each DAO holds one MethodMetrics constant per public method, created here
+ * when the DAO class loads and published as a JMX MXBean under
+ * com.hospital:type=DaoMetrics, so jconsole or any JMX agent can read the
+ * latency percentiles and counters of a running application.
+ */
+public class DaoMetrics {
+    private static final Logger log = Logger.getLogger(DaoMetrics.class);
+
+    private static final String JMX_DOMAIN = "com.hospital";
+
+    private static final Map<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+
+    private DaoMetrics() {
+    }
+
+    /**
+     * Get the metrics of a DAO method, creating and registering them on first use
+     * @param dao the DAO class
+     * @param methodName the method name; overloads share their metrics
+     * @return the MethodMetrics
+     */
+    public static MethodMetrics forMethod(Class<?> dao, String methodName) {
+        String daoName = dao.getSimpleName();
+        return methods.computeIfAbsent(daoName + "." + methodName, key -> {
+            MethodMetrics metrics = new MethodMetrics(daoName, methodName);
+            register(metrics);
+            return metrics;
+        });
+    }
+
+    /**
+     * Get a snapshot of the metrics of every DAO method loaded so far
+     * @return the MethodStats, by DAO and method name
+     */
+    public static List<MethodStats> getMethodStats() {
+        List<MethodStats> stats = new ArrayList<>();
+        for (MethodMetrics metrics : methods.values()) {
+            stats.add(metrics.getStats());
+        }
+        stats.sort(Comparator.comparing(MethodStats::getDaoName).thenComparing(MethodStats::getMethodName));
+        return stats;
+    }
+
+    /**
+     * Reset the metrics of every DAO method
+     */
+    public static void reset() {
+        for (MethodMetrics metrics : methods.values()) {
+            metrics.reset();
+        }
+    }
+
+    private static void register(MethodMetrics metrics) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(JMX_DOMAIN + ":type=DaoMetrics,dao=" + metrics.getDaoName() +
+                    ",method=" + metrics.getMethodName());
+            if (!server.isRegistered(name)) {
+                server.registerMBean(metrics, name);
+            }
+        } catch (JMException e) {
+            log.error("Error registering DAO metrics", "dao", metrics.getDaoName(),
+                    "method", metrics.getMethodName(), "error", e.getMessage());
+        }
+    }
+}
@@ -1,57 +1,361 @@
 package com.hospital.util;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 /**
  * Database connection utility class.
- * Provides methods to get and close database connections.
+ * Hands out connections from a shared {@link ConnectionPool}; closing a
+ * connection returns it to the pool. When the pool starts, the schema is
+ * brought up to date by the {@link MigrationRunner}.
+ * <p>
+ * If hospital.db.replica.url names a read replica, {@link #getReadConnection()}
+ * hands out replica connections through a {@link ReplicaRouter}, and falls
+ * back to the primary while the replica lags or is down, or for good if the
+ * replica could not be set up. After a connection taken for writing commits
+ * or is returned, the reads of the same {@link ReadSession} go to the
+ * primary for a while, so they see the write.
  */
 public class DatabaseUtil {
+    private static final Logger log = Logger.getLogger(DatabaseUtil.class);
+
     // JDBC URL, username and password of MySQL server
     private static final String JDBC_URL = "/////////////"; // JDBC url
     private static final String USERNAME = "//////////"; // My username
     private static final String PASSWORD = "///////////"; // MySQL password
 
-    // JDBC variables for opening and managing connection
-    private static Connection connection;
+    // Rows per JDBC batch (and per commit) for the DAOs' bulk create methods
+    private static final int DEFAULT_BATCH_SIZE = 500;
+
+    // Rows fetched per round trip by streaming reads on drivers without row-by-row streaming
+    private static final int DEFAULT_STREAM_FETCH_SIZE = 1_000;
+
+    // Classpath directory of the schema migration scripts
+    private static final String MIGRATION_LOCATION = "db/migration";
+
+    // Replication lag above which reads go to the primary, and how often it is measured
+    private static final long DEFAULT_REPLICA_MAX_LAG_MS = 1_000;
+    private static final long DEFAULT_REPLICA_LAG_CHECK_INTERVAL_MS = 1_000;
+
+    // How long reads go to the primary after the replica could not be reached
+    private static final long DEFAULT_REPLICA_RETRY_MS = 5_000;
+
+    // Shared pool, started on first use
+    private static volatile ConnectionPool pool;
+
+    // Router to the read replica, started with the pool; null without a replica
+    private static volatile ReplicaRouter replica;
+
+    // Reads of a session go to the primary until this long after its last write
+    private static volatile long stickyMs;
+
+    // The session of every thread that has not started or been given one of its own
+    private static final ReadSession processSession = new ReadSession();
+    private static final ThreadLocal<ReadSession> threadSession = new ThreadLocal<>();
 
     /**
-     * Get a database connection
+     * Get a connection to the primary database from the pool, for writing.
+     * Once it commits or is closed, reads of the calling thread's session go
+     * to the primary for a while.
+     * Close it when done to return it to the pool.
      * @return a Connection object
      * @throws SQLException if a database access error occurs
      */
     public static Connection getConnection() throws SQLException {
         try {
-            // Register JDBC driver
-            Class.forName("com.mysql.cj.jdbc.Driver");
-
-            // Open a connection
-            if (connection == null || connection.isClosed()) {
-                connection = DriverManager.getConnection(JDBC_URL, USERNAME, PASSWORD);
-                System.out.println("Database connection established successfully!");
+            ConnectionPool primary = getPool();
+            if (replica == null) {
+                return primary.getConnection();
             }
-            return connection;
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("MySQL JDBC Driver not found", e);
+            ReadSession session = currentSession();
+            return primary.getConnection(session::wrote);
         } catch (SQLException e) {
-            System.out.println("Connection failed! Check output console");
+            log.error("Connection failed", "error", e.getMessage());
             throw e;
         }
     }
 
     /**
-     * Close the database connection
+     * Get a connection for reading only. It comes from the replica if one is
+     * configured, is caught up and is reachable, and the calling thread's
+     * session has not written recently; otherwise it comes from the primary.
+     * Close it when done to return it to the pool.
+     * @return a Connection object
+     * @throws SQLException if a database access error occurs
      */
-    public static void closeConnection() {
+    public static Connection getReadConnection() throws SQLException {
         try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Database connection closed.");
+            ConnectionPool primary = getPool();
+            ReplicaRouter router = replica;
+            if (router != null && !wroteRecently()) {
+                Connection conn = router.tryGetConnection();
+                if (conn != null) {
+                    return conn;
+                }
             }
+            return primary.getConnection();
+        } catch (SQLException e) {
+            log.error("Connection failed", "error", e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Check whether the calling thread's session wrote recently, so its reads
+     * go to the primary
+     * @return true within hospital.db.replica.stickyMs of the session's last write;
+     *         always false without a replica
+     */
+    public static boolean wroteRecently() {
+        return replica != null && currentSession().wroteWithin(stickyMs);
+    }
+
+    /**
+     * Check whether a connection from {@link #getReadConnection()} reads from the replica
+     * @param conn the connection
+     * @return true if it comes from the replica, false if from the primary
+     */
+    public static boolean isReplicaConnection(Connection conn) {
+        ReplicaRouter router = replica;
+        return router != null && router.getPool().owns(conn);
+    }
+
+    /**
+     * Get a connection to the primary database for reading only, for loads
+     * that must not miss a committed write, such as the caches and in-memory
+     * indexes. Unlike {@link #getConnection()} it does not send later reads
+     * of the session to the primary.
+     * Close it when done to return it to the pool.
+     * @return a Connection object
+     * @throws SQLException if a database access error occurs
+     */
+    public static Connection getPrimaryReadConnection() throws SQLException {
+        try {
+            return getPool().getConnection();
         } catch (SQLException e) {
-            System.out.println("Error closing database connection: " + e.getMessage());
+            log.error("Connection failed", "error", e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Get the session the calling thread reads and writes in, to hand to
+     * another thread that works for the same user with {@link #bindSession}
+     * @return the thread's own session, or the process-wide one
+     */
+    public static ReadSession currentSession() {
+        ReadSession session = threadSession.get();
+        return session != null ? session : processSession;
+    }
+
+    /**
+     * Give the calling thread a session of its own, e.g. when a server thread
+     * starts serving one of several users. Its writes then send only its own
+     * reads to the primary. End it with {@link #endSession()}.
+     * @return the new session
+     */
+    public static ReadSession startSession() {
+        ReadSession session = new ReadSession();
+        threadSession.set(session);
+        return session;
+    }
+
+    /**
+     * Make the calling thread work in a session, e.g. one taken with
+     * {@link #currentSession()} on the thread that handed it the work
+     * @param session the session, or null for the process-wide one
+     * @return the session the thread had of its own before, or null; bind it
+     *         again when the work is done
+     */
+    public static ReadSession bindSession(ReadSession session) {
+        ReadSession previous = threadSession.get();
+        if (session == null || session == processSession) {
+            threadSession.remove();
+        } else {
+            threadSession.set(session);
         }
+        return previous;
+    }
+
+    /**
+     * End the calling thread's session: drop the session it started or was
+     * given, or else forget the process-wide session's recent writes, so the
+     * next reads may go to the replica.
+     */
+    public static void endSession() {
+        if (threadSession.get() != null) {
+            threadSession.remove();
+        } else {
+            processSession.forgetWrites();
+        }
+    }
+
+    /**
+     * Get the router to the read replica
+     * @return the router, or null if no replica is configured or the pool has not been started
+     */
+    public static ReplicaRouter getReplicaRouter() {
+        return replica;
+    }
+
+    /**
+     * Get the statistics of the connection pool
+     * @return the current PoolStats, or null if the pool has not been started
+     */
+    public static PoolStats getPoolStats() {
+        ConnectionPool current = pool;
+        return current != null ? current.getStats() : null;
+    }
+
+    /**
+     * Get the most connections the pool opens at once, without starting it.
+     * Override with the hospital.db.pool.maxSize system property.
+     * @return the maximum pool size
+     */
+    public static int getMaximumPoolSize() {
+        ConnectionPool current = pool;
+        if (current != null) {
+            return current.getConfig().getMaximumPoolSize();
+        }
+        return Integer.getInteger("hospital.db.pool.maxSize", new PoolConfig().getMaximumPoolSize());
+    }
+
+    /**
+     * Get the number of rows the DAOs send per JDBC batch and commit together
+     * in bulk operations. Override with the hospital.db.batchSize system property.
+     * @return the batch size
+     */
+    public static int getBatchSize() {
+        return Math.max(1, Integer.getInteger("hospital.db.batchSize", DEFAULT_BATCH_SIZE));
+    }
+
+    /**
+     * Get the fetch size the DAOs' streaming reads set on their statements.
+     * On MySQL this is Integer.MIN_VALUE, which makes Connector/J stream the
+     * result one row at a time instead of reading it all into memory; other
+     * drivers fetch hospital.db.streamFetchSize rows per round trip.
+     * @return the fetch size
+     */
+    public static int getStreamingFetchSize() {
+        if (getJdbcUrl().startsWith("jdbc:mysql:")) {
+            return Integer.MIN_VALUE;
+        }
+        return Math.max(1, Integer.getInteger("hospital.db.streamFetchSize", DEFAULT_STREAM_FETCH_SIZE));
+    }
+
+    /**
+     * Apply the schema migrations the database has not seen yet.
+     * This runs by itself when the pool starts, unless the hospital.db.migrate
+     * system property is false; call it again after replacing the database.
+     * @return the number of migrations applied
+     * @throws SQLException if a migration fails or was changed after it was applied
+     */
+    public static int migrate() throws SQLException {
+        return migrate(getPool());
+    }
+
+    /**
+     * Close the connection pool and all of its connections
+     */
+    public static void closeConnection() {
+        synchronized (DatabaseUtil.class) {
+            if (replica != null) {
+                replica.close();
+                replica = null;
+            }
+            if (pool != null) {
+                pool.close();
+                pool = null;
+                log.info("Database connection pool closed");
+            }
+        }
+    }
+
+    private static ConnectionPool getPool() throws SQLException {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DatabaseUtil.class) {
+                current = pool;
+                if (current == null) {
+                    String username = System.getProperty("hospital.db.user", USERNAME);
+                    String password = System.getProperty("hospital.db.password", PASSWORD);
+                    current = new ConnectionPool(createConfig(getJdbcUrl(), username, password));
+                    if (Boolean.parseBoolean(System.getProperty("hospital.db.migrate", "true"))) {
+                        try {
+                            migrate(current);
+                        } catch (SQLException e) {
+                            current.close();
+                            throw e;
+                        }
+                    }
+                    try {
+                        replica = createReplicaRouter(username, password);
+                    } catch (SQLException | RuntimeException e) {
+                        // Reads go to the primary, as they do while the replica is down
+                        log.error("Read replica not started", "error", e.getMessage());
+                        replica = null;
+                    }
+                    pool = current;
+                    log.info("Database connection pool started",
+                            "maxConnections", current.getConfig().getMaximumPoolSize(),
+                            "replica", replica != null);
+                }
+            }
+        }
+        return current;
+    }
+
+    private static PoolConfig createConfig(String url, String username, String password) throws SQLException {
+        if (url.startsWith("jdbc:mysql:")) {
+            try {
+                // Register JDBC driver
+                Class.forName("com.mysql.cj.jdbc.Driver");
+            } catch (ClassNotFoundException e) {
+                throw new SQLException("MySQL JDBC Driver not found", e);
+            }
+        }
+
+        PoolConfig config = PoolConfig.fromSystemProperties(url, username, password);
+        if (url.startsWith("jdbc:mysql:")) {
+            // Prepare on the server so cached statements skip the parse on reuse
+            config.getDriverProperties().setProperty("useServerPrepStmts", "true");
+            // Send JDBC batches as multi-row inserts
+            config.getDriverProperties().setProperty("rewriteBatchedStatements", "true");
+        }
+        return config;
+    }
+
+    // The replica's pool takes the primary's settings; it is opened on the first read, not here
+    private static ReplicaRouter createReplicaRouter(String username, String password) throws SQLException {
+        String url = System.getProperty("hospital.db.replica.url");
+        if (url == null || url.isEmpty()) {
+            return null;
+        }
+        PoolConfig config = createConfig(url,
+                System.getProperty("hospital.db.replica.user", username),
+                System.getProperty("hospital.db.replica.password", password));
+        String slowQueryFile = config.getSlowQueryLogFile();
+        config.setSlowQueryLogFile(slowQueryFile.endsWith(".log")
+                ? slowQueryFile.substring(0, slowQueryFile.length() - 4) + "-replica.log"
+                : slowQueryFile + "-replica");
+
+        long maxLagMs = Long.getLong("hospital.db.replica.maxLagMs", DEFAULT_REPLICA_MAX_LAG_MS);
+        long lagCheckIntervalMs = Long.getLong("hospital.db.replica.lagCheckIntervalMs",
+                DEFAULT_REPLICA_LAG_CHECK_INTERVAL_MS);
+        // By then the replica has either caught up with the write or been found lagging
+        stickyMs = Long.getLong("hospital.db.replica.stickyMs", maxLagMs + lagCheckIntervalMs);
+        return new ReplicaRouter(new ConnectionPool(config), maxLagMs, lagCheckIntervalMs,
+                Long.getLong("hospital.db.replica.retryMs", DEFAULT_REPLICA_RETRY_MS),
+                url.startsWith("jdbc:mysql:") ? ReplicaRouter.MYSQL_LAG : ReplicaRouter.NO_LAG);
+    }
+
+    private static int migrate(ConnectionPool pool) throws SQLException {
+        try (Connection conn = pool.getConnection()) {
+            return MigrationRunner.fromClasspath(MIGRATION_LOCATION).migrate(conn);
+        }
+    }
+
+    private static String getJdbcUrl() {
+        return System.getProperty("hospital.db.url", JDBC_URL);
     }
 }
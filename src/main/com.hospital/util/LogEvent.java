@@ -0,0 +1,132 @@
+package com.hospital.util;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+
+/**
+ * One log message with its key/value fields.
+ * Events are created on the logging thread and formatted into a line by the
+ * {@link AsyncLogWriter}'s background thread, e.g.
+ * <pre>2024-04-01T09:30:00.125Z ERROR [ui-worker-1] PatientDAO: Error reading patient patientId=42 error="Connection refused"</pre>
+ */
+public class LogEvent {
+    private final long timestamp;
+    private final LogLevel level;
+    private final String loggerName;
+    private final String threadName;
+    private final String message;
+    private final Object[] fields;
+    private final Throwable error;
+
+    /**
+     * Create an event stamped with the current time and thread
+     * @param level the severity
+     * @param loggerName the name of the logger, usually a class name
+     * @param message the message, without the field values
+     * @param fields alternating keys and values
+     * @param error an exception whose stack trace follows the line, or null
+     */
+    public LogEvent(LogLevel level, String loggerName, String message, Object[] fields, Throwable error) {
+        this.timestamp = System.currentTimeMillis();
+        this.level = level;
+        this.loggerName = loggerName;
+        this.threadName = Thread.currentThread().getName();
+        this.message = message;
+        this.fields = fields;
+        this.error = error;
+    }
+
+    // Getters
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public LogLevel getLevel() {
+        return level;
+    }
+
+    public String getLoggerName() {
+        return loggerName;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * Get the value of a field
+     * @param key the field name
+     * @return the value, or null if the event has no such field
+     */
+    public Object getField(String key) {
+        for (int i = 0; i + 1 < fields.length; i += 2) {
+            if (key.equals(fields[i])) {
+                return fields[i + 1];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Format the event as a log line, followed by the stack trace of its exception if it has one
+     * @return the formatted text, without a trailing line break
+     */
+    public String format() {
+        StringBuilder line = new StringBuilder(96 + message.length());
+        line.append(Instant.ofEpochMilli(timestamp)).append(' ')
+                .append(level).append(" [").append(threadName).append("] ")
+                .append(loggerName).append(": ").append(message);
+        for (int i = 0; i < fields.length; i += 2) {
+            line.append(' ').append(fields[i]).append('=');
+            appendValue(line, i + 1 < fields.length ? fields[i + 1] : null);
+        }
+        if (error != null) {
+            StringWriter trace = new StringWriter();
+            error.printStackTrace(new PrintWriter(trace));
+            line.append(System.lineSeparator()).append(trace.toString().stripTrailing());
+        }
+        return line.toString();
+    }
+
+    // Quote values a reader could not otherwise split on spaces
+    private static void appendValue(StringBuilder line, Object value) {
+        String text = String.valueOf(value);
+        boolean quote = text.isEmpty();
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = Character.isWhitespace(c) || c == '"' || c == '=';
+        }
+        if (!quote) {
+            line.append(text);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c == '\n') {
+                line.append("\\n");
+            } else if (c == '\r') {
+                line.append("\\r");
+            } else {
+                line.append(c);
+            }
+        }
+        line.append('"');
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
@@ -0,0 +1,11 @@
+package com.hospital.util;
+
+/**
+ * Severity of a {@link LogEvent}, from least to most severe.
+ */
+public enum LogLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR
+}
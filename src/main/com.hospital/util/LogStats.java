@@ -0,0 +1,52 @@
+package com.hospital.util;
+
+/**
+ * Point-in-time snapshot of the log writer's counters.
+ */
+public class LogStats {
+    private final long queuedCount;
+    private final long writtenCount;
+    private final long droppedCount;
+    private final long blockedCount;
+    private final int queueSize;
+
+    public LogStats(long queuedCount, long writtenCount, long droppedCount, long blockedCount, int queueSize) {
+        this.queuedCount = queuedCount;
+        this.writtenCount = writtenCount;
+        this.droppedCount = droppedCount;
+        this.blockedCount = blockedCount;
+        this.queueSize = queueSize;
+    }
+
+    // Getters
+    public long getQueuedCount() {
+        return queuedCount;
+    }
+
+    public long getWrittenCount() {
+        return writtenCount;
+    }
+
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    public long getBlockedCount() {
+        return blockedCount;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    @Override
+    public String toString() {
+        return "LogStats{" +
+                "queued=" + queuedCount +
+                ", written=" + writtenCount +
+                ", dropped=" + droppedCount +
+                ", blocked=" + blockedCount +
+                ", queueSize=" + queueSize +
+                '}';
+    }
+}
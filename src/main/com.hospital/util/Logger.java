@@ -0,0 +1,147 @@
+package com.hospital.util;
+
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Structured logger for the DAOs, the UI and the connection pool.
+ * A message is a fixed text followed by key/value fields, e.g.
+ * {@code log.error("Error reading patient", "patientId", id, "error", e.getMessage())}.
+ * Events below the configured level are discarded before anything is
+ * allocated beyond the varargs array; the others are handed to a shared
+ * {@link AsyncLogWriter}, so logging never waits on the disk.
+ * <p>
+ * Configured through system properties, read when the first event is logged:
+ * <ul>
+ *   <li>{@code hospital.log.file} - log file, default {@code hospital.log}</li>
+ *   <li>{@code hospital.log.level} - DEBUG, INFO, WARN or ERROR, default INFO</li>
+ *   <li>{@code hospital.log.queueSize} - events waiting to be written, default 8192</li>
+ *   <li>{@code hospital.log.whenFull} - {@code drop} or {@code block}, default drop</li>
+ *   <li>{@code hospital.log.maxFileBytes} - size at which the file rolls over, default 10 MB</li>
+ *   <li>{@code hospital.log.maxFiles} - rolled-over files kept, default 5</li>
+ *   <li>{@code hospital.log.console} - true to echo events to standard output, default false</li>
+ * </ul>
+ */
+public final class Logger {
+    private static final Map<String, Logger> loggers = new ConcurrentHashMap<>();
+    private static final long FLUSH_TIMEOUT_MS = 5_000;
+
+    private static volatile LogLevel level = LogLevel.valueOf(
+            System.getProperty("hospital.log.level", "INFO").trim().toUpperCase(Locale.ROOT));
+    private static volatile AsyncLogWriter writer;
+
+    private final String name;
+
+    private Logger(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get the logger of a class, named after its simple name
+     * @param type the class that logs
+     * @return the shared logger for that class
+     */
+    public static Logger getLogger(Class<?> type) {
+        return loggers.computeIfAbsent(type.getSimpleName(), Logger::new);
+    }
+
+    /**
+     * Set the lowest level that is written, for all loggers
+     * @param newLevel the level
+     */
+    public static void setLevel(LogLevel newLevel) {
+        level = newLevel;
+    }
+
+    /**
+     * Get the lowest level that is written
+     * @return the level
+     */
+    public static LogLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * Get a snapshot of the log writer's counters
+     * @return the stats, including the number of dropped events
+     */
+    public static LogStats getStats() {
+        return getWriter().getStats();
+    }
+
+    /**
+     * Wait until everything logged so far is in the log file
+     */
+    public static void flush() {
+        getWriter().flush(FLUSH_TIMEOUT_MS);
+    }
+
+    /**
+     * Check whether events of a level are written
+     * @param eventLevel the level
+     * @return true if they are
+     */
+    public boolean isEnabled(LogLevel eventLevel) {
+        return eventLevel.compareTo(level) >= 0;
+    }
+
+    public void debug(String message, Object... fields) {
+        log(LogLevel.DEBUG, message, null, fields);
+    }
+
+    public void info(String message, Object... fields) {
+        log(LogLevel.INFO, message, null, fields);
+    }
+
+    public void warn(String message, Object... fields) {
+        log(LogLevel.WARN, message, null, fields);
+    }
+
+    public void warn(String message, Throwable error, Object... fields) {
+        log(LogLevel.WARN, message, error, fields);
+    }
+
+    public void error(String message, Object... fields) {
+        log(LogLevel.ERROR, message, null, fields);
+    }
+
+    public void error(String message, Throwable error, Object... fields) {
+        log(LogLevel.ERROR, message, error, fields);
+    }
+
+    private void log(LogLevel eventLevel, String message, Throwable error, Object[] fields) {
+        if (isEnabled(eventLevel)) {
+            getWriter().append(new LogEvent(eventLevel, name, message, fields, error));
+        }
+    }
+
+    private static AsyncLogWriter getWriter() {
+        AsyncLogWriter current = writer;
+        if (current == null) {
+            synchronized (Logger.class) {
+                current = writer;
+                if (current == null) {
+                    current = createWriter();
+                    writer = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static AsyncLogWriter createWriter() {
+        AsyncLogWriter created = new AsyncLogWriter(
+                Paths.get(System.getProperty("hospital.log.file", "hospital.log")),
+                Long.getLong("hospital.log.maxFileBytes", 10L * 1024 * 1024),
+                Integer.getInteger("hospital.log.maxFiles", 5),
+                Integer.getInteger("hospital.log.queueSize", 8192),
+                AsyncLogWriter.WhenFull.valueOf(
+                        System.getProperty("hospital.log.whenFull", "drop").trim().toUpperCase(Locale.ROOT)),
+                Boolean.getBoolean("hospital.log.console"));
+        // Write out what is still queued when the JVM exits
+        Runtime.getRuntime().addShutdownHook(new Thread(created::close, "hospital-log-shutdown"));
+        return created;
+    }
+}
@@ -0,0 +1,103 @@
+package com.hospital.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and call/error counters of one DAO method.
+ * A method takes {@code long start = System.nanoTime()} on entry, calls
+ * {@link #recordError()} when it fails and {@link #record(long)} on the way
+ * out; neither allocates.
+ */
+public class MethodMetrics implements MethodMetricsMXBean {
+    private final String daoName;
+    private final String methodName;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder errorCount = new LongAdder();
+    private volatile long startedAtNanos = System.nanoTime();
+
+    public MethodMetrics(String daoName, String methodName) {
+        this.daoName = daoName;
+        this.methodName = methodName;
+    }
+
+    /**
+     * Record one call
+     * @param startNanos System.nanoTime() when the call started
+     */
+    public void record(long startNanos) {
+        latencies.record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Count one failed call; the call is still timed by {@link #record(long)}
+     */
+    public void recordError() {
+        errorCount.increment();
+    }
+
+    /**
+     * Get a snapshot of the metrics
+     * @return the current MethodStats
+     */
+    public MethodStats getStats() {
+        return new MethodStats(daoName, methodName, latencies.getCount(), errorCount.sum(),
+                latencies.getPercentileNanos(50), latencies.getPercentileNanos(90),
+                latencies.getPercentileNanos(99), latencies.getMaxNanos(), latencies.getMeanNanos(),
+                (System.nanoTime() - startedAtNanos) / 1_000_000);
+    }
+
+    public String getDaoName() {
+        return daoName;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+
+    @Override
+    public long getCallCount() {
+        return latencies.getCount();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errorCount.sum();
+    }
+
+    @Override
+    public double getCallsPerSecond() {
+        return getStats().getCallsPerSecond();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return latencies.getMeanNanos() / 1_000.0;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return latencies.getPercentileNanos(50) / 1_000.0;
+    }
+
+    @Override
+    public double getP90Micros() {
+        return latencies.getPercentileNanos(90) / 1_000.0;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return latencies.getPercentileNanos(99) / 1_000.0;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return latencies.getMaxNanos() / 1_000.0;
+    }
+
+    @Override
+    public void reset() {
+        latencies.reset();
+        errorCount.reset();
+        startedAtNanos = System.nanoTime();
+    }
+}
@@ -0,0 +1,26 @@
+package com.hospital.util;
+
+/**
+ * JMX view of the metrics of one DAO method, registered by {@link DaoMetrics}
+ * as com.hospital:type=DaoMetrics,dao=&lt;DAO&gt;,method=&lt;method&gt;.
+ * Latencies are in microseconds.
+ */
+public interface MethodMetricsMXBean {
+    long getCallCount();
+
+    long getErrorCount();
+
+    double getCallsPerSecond();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP90Micros();
+
+    double getP99Micros();
+
+    double getMaxMicros();
+
+    void reset();
+}
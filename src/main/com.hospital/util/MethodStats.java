@@ -0,0 +1,94 @@
+package com.hospital.util;
+
+/**
+ * Point-in-time snapshot of the metrics of one DAO method.
+ * Percentiles are bucket upper bounds, within 12.5% of the true latency.
+ */
+public class MethodStats {
+    private final String daoName;
+    private final String methodName;
+    private final long callCount;
+    private final long errorCount;
+    private final long p50Nanos;
+    private final long p90Nanos;
+    private final long p99Nanos;
+    private final long maxNanos;
+    private final double meanNanos;
+    private final long elapsedMillis;
+
+    public MethodStats(String daoName, String methodName, long callCount, long errorCount,
+                       long p50Nanos, long p90Nanos, long p99Nanos, long maxNanos, double meanNanos,
+                       long elapsedMillis) {
+        this.daoName = daoName;
+        this.methodName = methodName;
+        this.callCount = callCount;
+        this.errorCount = errorCount;
+        this.p50Nanos = p50Nanos;
+        this.p90Nanos = p90Nanos;
+        this.p99Nanos = p99Nanos;
+        this.maxNanos = maxNanos;
+        this.meanNanos = meanNanos;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Getters
+    public String getDaoName() {
+        return daoName;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+
+    public long getCallCount() {
+        return callCount;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public long getP90Nanos() {
+        return p90Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public double getMeanNanos() {
+        return meanNanos;
+    }
+
+    /**
+     * Get the time the counters cover
+     * @return milliseconds since the metrics were created or last reset
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Get the call throughput over the time the counters cover
+     * @return calls per second
+     */
+    public double getCallsPerSecond() {
+        return elapsedMillis == 0 ? 0.0 : callCount * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s.%s{calls=%d, errors=%d, callsPerSecond=%.1f, " +
+                        "p50=%.1fus, p90=%.1fus, p99=%.1fus, max=%.1fus, mean=%.1fus}",
+                daoName, methodName, callCount, errorCount, getCallsPerSecond(),
+                p50Nanos / 1_000.0, p90Nanos / 1_000.0, p99Nanos / 1_000.0, maxNanos / 1_000.0, meanNanos / 1_000.0);
+    }
+}
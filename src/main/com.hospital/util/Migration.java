@@ -0,0 +1,71 @@
+package com.hospital.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * One numbered schema migration script, applied by {@link MigrationRunner}.
+ * The checksum covers the script text (with line endings normalised), so a
+ * script edited after it was applied is detected at the next startup.
+ */
+public class Migration {
+    private final int version;
+    private final String description;
+    private final String script;
+    private final long checksum;
+
+    public Migration(int version, String description, String script) {
+        if (version <= 0) {
+            throw new IllegalArgumentException("Migration version must be positive: " + version);
+        }
+        this.version = version;
+        this.description = description;
+        this.script = script;
+        this.checksum = checksum(script);
+    }
+
+    /**
+     * Create a migration from a script file name such as V2__secondary_indexes.sql
+     * @param fileName the script file name
+     * @param script the script text
+     * @return the Migration
+     * @throws IllegalArgumentException if the name does not follow the V&lt;version&gt;__&lt;description&gt;.sql pattern
+     */
+    public static Migration fromFileName(String fileName, String script) {
+        if (!fileName.matches("V\\d+__\\w+\\.sql")) {
+            throw new IllegalArgumentException("Migration file name must look like V2__description.sql: " + fileName);
+        }
+        int separator = fileName.indexOf("__");
+        int version = Integer.parseInt(fileName.substring(1, separator));
+        String description = fileName.substring(separator + 2, fileName.length() - ".sql".length()).replace('_', ' ');
+        return new Migration(version, description, script);
+    }
+
+    private static long checksum(String script) {
+        CRC32 crc = new CRC32();
+        crc.update(script.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    // Getters
+    public int getVersion() {
+        return version;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getScript() {
+        return script;
+    }
+
+    public long getChecksum() {
+        return checksum;
+    }
+
+    @Override
+    public String toString() {
+        return "V" + version + " (" + description + ")";
+    }
+}
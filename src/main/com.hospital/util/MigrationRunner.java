@@ -0,0 +1,374 @@
+package com.hospital.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Brings a database schema up to date by applying numbered {@link Migration}
+ * scripts in version order.
+ * <p>
+ * Each applied script is recorded with its checksum in the schema_version
+ * table. A startup with nothing to do costs one query against that table:
+ * the recorded checksums are compared with the scripts and the runner returns.
+ * A script that was changed after it was applied stops the startup instead of
+ * leaving the schema to drift.
+ * <p>
+ * Consecutive CREATE INDEX statements in a script are built together. On
+ * MySQL the indexes of each table are added by a single online
+ * {@code ALTER TABLE ... ALGORITHM=INPLACE, LOCK=NONE}, so the table is read
+ * once for the whole batch and stays writable while the indexes are built.
+ * Indexes that already exist are skipped, which lets a script whose index
+ * build was interrupted be run again. On MySQL a named lock keeps app servers
+ * that start together from applying the same script twice.
+ */
+public class MigrationRunner {
+    private static final Logger log = Logger.getLogger(MigrationRunner.class);
+
+    static final String VERSION_TABLE = "schema_version";
+
+    // Lists the scripts of a migration directory, in order
+    private static final String LIST_FILE = "migrations.txt";
+
+    // A database with this table but no version history was created by hand from the
+    // old one-shot schema.sql; version 1 is recorded for it without being run
+    private static final String BASELINE_TABLE = "employee";
+
+    private static final String LOCK_NAME = "hospital_schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 600;
+
+    // CREATE [UNIQUE] INDEX name ON table (columns)
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+            "CREATE\\s+(UNIQUE\\s+)?INDEX\\s+(\\w+)\\s+ON\\s+(\\w+)\\s*(\\(.*\\))",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private final List<Migration> migrations;
+
+    /**
+     * Create a runner for the given migrations
+     * @param migrations the migrations, in any order
+     * @throws IllegalArgumentException if two migrations have the same version
+     */
+    public MigrationRunner(List<Migration> migrations) {
+        List<Migration> sorted = new ArrayList<>(migrations);
+        sorted.sort(Comparator.comparingInt(Migration::getVersion));
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).getVersion() == sorted.get(i - 1).getVersion()) {
+                throw new IllegalArgumentException("Two migrations have version " + sorted.get(i).getVersion());
+            }
+        }
+        this.migrations = sorted;
+    }
+
+    /**
+     * Create a runner for the scripts listed in the migrations.txt file of a
+     * classpath directory
+     * @param location the classpath directory, e.g. db/migration
+     * @return the MigrationRunner
+     * @throws SQLException if the list or one of its scripts cannot be read
+     */
+    public static MigrationRunner fromClasspath(String location) throws SQLException {
+        List<Migration> migrations = new ArrayList<>();
+        for (String line : readResource(location + "/" + LIST_FILE).split("\n")) {
+            String fileName = line.trim();
+            if (fileName.isEmpty() || fileName.startsWith("#")) {
+                continue;
+            }
+            migrations.add(Migration.fromFileName(fileName, readResource(location + "/" + fileName)));
+        }
+        return new MigrationRunner(migrations);
+    }
+
+    /**
+     * Get the migrations this runner applies
+     * @return the migrations, by version
+     */
+    public List<Migration> getMigrations() {
+        return new ArrayList<>(migrations);
+    }
+
+    /**
+     * Apply the migrations the database has not seen yet
+     * @param conn connection to the database to migrate
+     * @return the number of migrations applied, 0 if the schema was up to date
+     * @throws SQLException if a migration was changed after it was applied, or a migration fails
+     */
+    public int migrate(Connection conn) throws SQLException {
+        List<Migration> pending = pending(readAppliedVersions(conn));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        boolean autoCommit = conn.getAutoCommit();
+        boolean mysql = isMySql(conn);
+        conn.setAutoCommit(true); // MySQL commits DDL statement by statement anyway
+        if (mysql) {
+            lock(conn);
+        }
+        try {
+            createVersionTable(conn);
+            // Another server may have applied some of them while this one waited for the lock
+            Map<Integer, Long> applied = readAppliedVersions(conn);
+            pending = pending(applied);
+
+            int count = 0;
+            for (Migration migration : pending) {
+                if (migration.getVersion() == 1 && applied.isEmpty() && tableExists(conn, BASELINE_TABLE)) {
+                    record(conn, migration, 0);
+                    log.info("Recorded existing schema as migration", "migration", migration);
+                    continue;
+                }
+                apply(conn, migration, mysql);
+                count++;
+            }
+            return count;
+        } finally {
+            if (mysql) {
+                unlock(conn);
+            }
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Split a script into statements at semicolons outside string literals,
+     * dropping -- comments
+     * @param script the script text
+     * @return the statements, without their semicolons
+     */
+    private static List<String> splitStatements(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inString = false;
+
+        for (int i = 0; i < script.length(); i++) {
+            char c = script.charAt(i);
+            if (inString) {
+                current.append(c);
+                if (c == '\'') {
+                    inString = false; // A doubled quote reopens the string on the next character
+                }
+            } else if (c == '\'') {
+                current.append(c);
+                inString = true;
+            } else if (c == '-' && i + 1 < script.length() && script.charAt(i + 1) == '-') {
+                while (i + 1 < script.length() && script.charAt(i + 1) != '\n') {
+                    i++;
+                }
+            } else if (c == ';') {
+                addStatement(statements, current);
+            } else {
+                current.append(c);
+            }
+        }
+        addStatement(statements, current);
+        return statements;
+    }
+
+    private static void addStatement(List<String> statements, StringBuilder current) {
+        String statement = current.toString().trim();
+        if (!statement.isEmpty()) {
+            statements.add(statement);
+        }
+        current.setLength(0);
+    }
+
+    private List<Migration> pending(Map<Integer, Long> applied) throws SQLException {
+        List<Migration> pending = new ArrayList<>();
+        for (Migration migration : migrations) {
+            Long checksum = applied.get(migration.getVersion());
+            if (checksum == null) {
+                pending.add(migration);
+            } else if (checksum != migration.getChecksum()) {
+                throw new SQLException("Migration " + migration + " was changed after it was applied " +
+                        "(checksum " + migration.getChecksum() + ", recorded " + checksum + "). " +
+                        "Restore the script and put the change in a new migration.");
+            }
+        }
+        return pending;
+    }
+
+    private void apply(Connection conn, Migration migration, boolean mysql) throws SQLException {
+        long start = System.nanoTime();
+        List<Matcher> indexes = new ArrayList<>();
+
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : splitStatements(migration.getScript())) {
+                Matcher index = CREATE_INDEX.matcher(sql);
+                if (index.matches()) {
+                    indexes.add(index);
+                    continue;
+                }
+                buildIndexes(conn, stmt, indexes, mysql);
+                stmt.execute(sql);
+            }
+            buildIndexes(conn, stmt, indexes, mysql);
+        } catch (SQLException e) {
+            throw new SQLException("Migration " + migration + " failed: " + e.getMessage(),
+                    e.getSQLState(), e.getErrorCode(), e);
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        record(conn, migration, elapsedMillis);
+        log.info("Applied migration", "migration", migration, "elapsedMs", elapsedMillis);
+    }
+
+    /**
+     * Build a batch of CREATE INDEX statements, grouped by table, then clear it
+     */
+    private static void buildIndexes(Connection conn, Statement stmt, List<Matcher> indexes, boolean mysql)
+            throws SQLException {
+        Map<String, List<Matcher>> byTable = new LinkedHashMap<>();
+        for (Matcher index : indexes) {
+            String table = index.group(3);
+            if (!indexExists(conn, table, index.group(2))) {
+                byTable.computeIfAbsent(table, key -> new ArrayList<>()).add(index);
+            }
+        }
+        indexes.clear();
+
+        for (Map.Entry<String, List<Matcher>> table : byTable.entrySet()) {
+            if (mysql) {
+                StringBuilder sql = new StringBuilder("ALTER TABLE ").append(table.getKey());
+                for (Matcher index : table.getValue()) {
+                    sql.append(index.group(1) != null ? " ADD UNIQUE INDEX " : " ADD INDEX ")
+                            .append(index.group(2)).append(' ').append(index.group(4)).append(',');
+                }
+                sql.append(" ALGORITHM=INPLACE, LOCK=NONE");
+                stmt.execute(sql.toString());
+            } else {
+                for (Matcher index : table.getValue()) {
+                    stmt.execute(index.group());
+                }
+            }
+        }
+    }
+
+    private static boolean indexExists(Connection conn, String table, String index) throws SQLException {
+        DatabaseMetaData metaData = conn.getMetaData();
+        try (ResultSet rs = metaData.getIndexInfo(conn.getCatalog(), null, table, false, true)) {
+            while (rs.next()) {
+                if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Map<Integer, Long> readAppliedVersions(Connection conn) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM " + VERSION_TABLE)) {
+            while (rs.next()) {
+                applied.put(rs.getInt(1), rs.getLong(2));
+            }
+        } catch (SQLException e) {
+            if (!isMissingTable(e)) {
+                throw e;
+            }
+        }
+        return applied;
+    }
+
+    private static void createVersionTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS " + VERSION_TABLE + " (" +
+                    "version INT PRIMARY KEY, " +
+                    "description VARCHAR(200) NOT NULL, " +
+                    "checksum BIGINT NOT NULL, " +
+                    "applied_at TIMESTAMP NOT NULL, " +
+                    "execution_ms BIGINT NOT NULL)");
+        }
+    }
+
+    private static void record(Connection conn, Migration migration, long elapsedMillis) throws SQLException {
+        String sql = "INSERT INTO " + VERSION_TABLE +
+                " (version, description, checksum, applied_at, execution_ms) VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, migration.getVersion());
+            stmt.setString(2, migration.getDescription());
+            stmt.setLong(3, migration.getChecksum());
+            stmt.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
+            stmt.setLong(5, elapsedMillis);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static boolean tableExists(Connection conn, String table) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeQuery("SELECT 1 FROM " + table + " WHERE 1 = 0").close();
+            return true;
+        } catch (SQLException e) {
+            if (isMissingTable(e)) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isMissingTable(SQLException e) {
+        // 42S02 on MySQL; H2 reports 42S04 instead while the schema is still empty
+        return "42S02".equals(e.getSQLState()) || "42S04".equals(e.getSQLState());
+    }
+
+    private static boolean isMySql(Connection conn) throws SQLException {
+        return "MySQL".equalsIgnoreCase(conn.getMetaData().getDatabaseProductName());
+    }
+
+    private static void lock(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Timed out waiting for another server to finish migrating the schema");
+                }
+            }
+        }
+    }
+
+    private static void unlock(Connection conn) {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.executeQuery().close();
+        } catch (SQLException e) {
+            log.warn("Error releasing migration lock", "error", e.getMessage());
+        }
+    }
+
+    private static String readResource(String path) throws SQLException {
+        try (InputStream in = MigrationRunner.class.getClassLoader().getResourceAsStream(path)) {
+            if (in == null) {
+                throw new SQLException("Migration resource not found on the classpath: " + path);
+            }
+            StringBuilder text = new StringBuilder();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    text.append(line).append('\n');
+                }
+            }
+            return text.toString();
+        } catch (IOException e) {
+            throw new SQLException("Cannot read migration resource " + path, e);
+        }
+    }
+}
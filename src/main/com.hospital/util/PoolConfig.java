@@ -0,0 +1,223 @@
+package com.hospital.util;
+
+import java.util.Properties;
+
+/**
+ * Configuration for the {@link ConnectionPool}.
+ * Every setting has a sensible default and can be overridden with a
+ * {@code hospital.db.pool.*} system property.
+ */
+public class PoolConfig {
+    private String jdbcUrl;
+    private String username;
+    private String password;
+
+    private int maximumPoolSize = 10;           // Upper bound on open connections
+    private int minimumIdle = 2;                // Idle connections are never evicted below this count
+    private long connectionTimeoutMs = 30_000;  // How long a caller waits for a free connection
+    private long idleTimeoutMs = 600_000;       // Idle connections above minimumIdle are closed after this
+    private long maxLifetimeMs = 1_800_000;     // Connections are retired after this, busy or not
+    private long validationIntervalMs = 5_000;  // Connections idle longer than this are validated on borrow
+    private int validationTimeoutSeconds = 5;
+    private long leakDetectionThresholdMs = 0;  // 0 disables leak detection, which records a stack trace per borrow
+    private long housekeepingIntervalMs = 30_000;
+    private int statementCacheSize = 64;        // Prepared statements cached per connection, 0 disables
+    private long slowQueryThresholdMs = 1_000;  // Statements slower than this are logged, -1 disables
+    private String slowQueryLogFile = "slow-query.log";
+    private int slowQueryQueueSize = 1_024;     // Slow query entries waiting to be written; more are dropped
+    private Properties driverProperties = new Properties();
+
+    // Default constructor
+    public PoolConfig() {
+    }
+
+    // Constructor with the connection details, pool settings keep their defaults
+    public PoolConfig(String jdbcUrl, String username, String password) {
+        this.jdbcUrl = jdbcUrl;
+        this.username = username;
+        this.password = password;
+    }
+
+    /**
+     * Build a configuration for the given database, applying any
+     * {@code hospital.db.pool.*} system property overrides.
+     * @param jdbcUrl the JDBC url of the database
+     * @param username the database user
+     * @param password the database password
+     * @return the pool configuration
+     */
+    public static PoolConfig fromSystemProperties(String jdbcUrl, String username, String password) {
+        PoolConfig config = new PoolConfig(jdbcUrl, username, password);
+        config.setMaximumPoolSize(Integer.getInteger("hospital.db.pool.maxSize", config.getMaximumPoolSize()));
+        config.setMinimumIdle(Integer.getInteger("hospital.db.pool.minIdle", config.getMinimumIdle()));
+        config.setConnectionTimeoutMs(Long.getLong("hospital.db.pool.connectionTimeoutMs", config.getConnectionTimeoutMs()));
+        config.setIdleTimeoutMs(Long.getLong("hospital.db.pool.idleTimeoutMs", config.getIdleTimeoutMs()));
+        config.setMaxLifetimeMs(Long.getLong("hospital.db.pool.maxLifetimeMs", config.getMaxLifetimeMs()));
+        config.setValidationIntervalMs(Long.getLong("hospital.db.pool.validationIntervalMs", config.getValidationIntervalMs()));
+        config.setValidationTimeoutSeconds(Integer.getInteger("hospital.db.pool.validationTimeoutSeconds", config.getValidationTimeoutSeconds()));
+        config.setLeakDetectionThresholdMs(Long.getLong("hospital.db.pool.leakDetectionThresholdMs", config.getLeakDetectionThresholdMs()));
+        config.setHousekeepingIntervalMs(Long.getLong("hospital.db.pool.housekeepingIntervalMs", config.getHousekeepingIntervalMs()));
+        config.setStatementCacheSize(Integer.getInteger("hospital.db.pool.statementCacheSize", config.getStatementCacheSize()));
+        config.setSlowQueryThresholdMs(Long.getLong("hospital.db.slowQuery.thresholdMs", config.getSlowQueryThresholdMs()));
+        config.setSlowQueryLogFile(System.getProperty("hospital.db.slowQuery.file", config.getSlowQueryLogFile()));
+        config.setSlowQueryQueueSize(Integer.getInteger("hospital.db.slowQuery.queueSize", config.getSlowQueryQueueSize()));
+        return config;
+    }
+
+    // Getters and Setters
+    public String getJdbcUrl() {
+        return jdbcUrl;
+    }
+
+    public void setJdbcUrl(String jdbcUrl) {
+        this.jdbcUrl = jdbcUrl;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public void setMaximumPoolSize(int maximumPoolSize) {
+        if (maximumPoolSize < 1) {
+            throw new IllegalArgumentException("maximumPoolSize must be at least 1");
+        }
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    public int getMinimumIdle() {
+        return minimumIdle;
+    }
+
+    public void setMinimumIdle(int minimumIdle) {
+        this.minimumIdle = Math.max(0, minimumIdle);
+    }
+
+    public long getConnectionTimeoutMs() {
+        return connectionTimeoutMs;
+    }
+
+    public void setConnectionTimeoutMs(long connectionTimeoutMs) {
+        this.connectionTimeoutMs = connectionTimeoutMs;
+    }
+
+    public long getIdleTimeoutMs() {
+        return idleTimeoutMs;
+    }
+
+    public void setIdleTimeoutMs(long idleTimeoutMs) {
+        this.idleTimeoutMs = idleTimeoutMs;
+    }
+
+    public long getMaxLifetimeMs() {
+        return maxLifetimeMs;
+    }
+
+    public void setMaxLifetimeMs(long maxLifetimeMs) {
+        this.maxLifetimeMs = maxLifetimeMs;
+    }
+
+    public long getValidationIntervalMs() {
+        return validationIntervalMs;
+    }
+
+    public void setValidationIntervalMs(long validationIntervalMs) {
+        this.validationIntervalMs = validationIntervalMs;
+    }
+
+    public int getValidationTimeoutSeconds() {
+        return validationTimeoutSeconds;
+    }
+
+    public void setValidationTimeoutSeconds(int validationTimeoutSeconds) {
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    public long getLeakDetectionThresholdMs() {
+        return leakDetectionThresholdMs;
+    }
+
+    public void setLeakDetectionThresholdMs(long leakDetectionThresholdMs) {
+        this.leakDetectionThresholdMs = leakDetectionThresholdMs;
+    }
+
+    public long getHousekeepingIntervalMs() {
+        return housekeepingIntervalMs;
+    }
+
+    public void setHousekeepingIntervalMs(long housekeepingIntervalMs) {
+        this.housekeepingIntervalMs = housekeepingIntervalMs;
+    }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    public void setStatementCacheSize(int statementCacheSize) {
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+    }
+
+    public long getSlowQueryThresholdMs() {
+        return slowQueryThresholdMs;
+    }
+
+    public void setSlowQueryThresholdMs(long slowQueryThresholdMs) {
+        this.slowQueryThresholdMs = slowQueryThresholdMs;
+    }
+
+    public String getSlowQueryLogFile() {
+        return slowQueryLogFile;
+    }
+
+    public void setSlowQueryLogFile(String slowQueryLogFile) {
+        this.slowQueryLogFile = slowQueryLogFile;
+    }
+
+    public int getSlowQueryQueueSize() {
+        return slowQueryQueueSize;
+    }
+
+    public void setSlowQueryQueueSize(int slowQueryQueueSize) {
+        this.slowQueryQueueSize = Math.max(1, slowQueryQueueSize);
+    }
+
+    public Properties getDriverProperties() {
+        return driverProperties;
+    }
+
+    public void setDriverProperties(Properties driverProperties) {
+        this.driverProperties = driverProperties;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolConfig{" +
+                "jdbcUrl='" + jdbcUrl + '\'' +
+                ", username='" + username + '\'' +
+                ", maximumPoolSize=" + maximumPoolSize +
+                ", minimumIdle=" + minimumIdle +
+                ", connectionTimeoutMs=" + connectionTimeoutMs +
+                ", idleTimeoutMs=" + idleTimeoutMs +
+                ", maxLifetimeMs=" + maxLifetimeMs +
+                ", validationIntervalMs=" + validationIntervalMs +
+                ", leakDetectionThresholdMs=" + leakDetectionThresholdMs +
+                ", statementCacheSize=" + statementCacheSize +
+                ", slowQueryThresholdMs=" + slowQueryThresholdMs +
+                '}';
+    }
+}
@@ -0,0 +1,33 @@
+package com.hospital.util;
+
+/**
+ * The writes of one user, for read-your-writes routing with a read replica.
+ * While a session has written recently, {@link DatabaseUtil#getReadConnection()}
+ * sends its reads to the primary, which already has the write.
+ * <p>
+ * By default the whole process is one session, which suits the desktop
+ * application: a write made on one worker thread is seen by reads on any other.
+ * A server thread serving one of several users can start a session of its own
+ * with {@link DatabaseUtil#startSession()}; the executors that run work for
+ * it carry the session over to their threads.
+ */
+public final class ReadSession {
+    private volatile long lastWriteAt; // 0 until the session writes
+
+    ReadSession() {
+    }
+
+    // Called when a connection taken for writing commits or is returned
+    void wrote() {
+        lastWriteAt = System.currentTimeMillis();
+    }
+
+    boolean wroteWithin(long ms) {
+        long writtenAt = lastWriteAt;
+        return writtenAt != 0 && System.currentTimeMillis() - writtenAt < ms;
+    }
+
+    void forgetWrites() {
+        lastWriteAt = 0;
+    }
+}
@@ -0,0 +1,212 @@
+package com.hospital.util;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hands out read connections from a replica's {@link ConnectionPool} while the
+ * replica is up and close enough to the primary.
+ * The replica's lag is measured on one of the borrowed connections at most
+ * once per check interval; while it is above the limit, or for a retry
+ * interval after the replica could not be reached, {@link #tryGetConnection()}
+ * returns null and the caller reads from the primary instead.
+ */
+public class ReplicaRouter {
+    private static final Logger log = Logger.getLogger(ReplicaRouter.class);
+
+    /**
+     * Measures how far a replica is behind its primary
+     */
+    public interface LagProbe {
+        /**
+         * @param replica a connection to the replica
+         * @return the replication lag in milliseconds, Long.MAX_VALUE if replication is stopped
+         * @throws SQLException if the replica cannot be queried
+         */
+        long lagMillis(Connection replica) throws SQLException;
+    }
+
+    /**
+     * Reads Seconds_Behind_Source from SHOW REPLICA STATUS (MySQL 8.0.22 and later).
+     * A server that is not a replica reports no lag.
+     */
+    public static final LagProbe MYSQL_LAG = replica -> {
+        try (Statement stmt = replica.createStatement();
+             ResultSet rs = stmt.executeQuery("SHOW REPLICA STATUS")) {
+            if (!rs.next()) {
+                return 0;
+            }
+            long seconds = rs.getLong("Seconds_Behind_Source");
+            return rs.wasNull() ? Long.MAX_VALUE : seconds * 1000;
+        }
+    };
+
+    /**
+     * For databases without replication status, such as the in-process test databases
+     */
+    public static final LagProbe NO_LAG = replica -> 0;
+
+    private final ConnectionPool pool;
+    private final long maxLagMs;
+    private final long lagCheckIntervalMs;
+    private final long retryIntervalMs;
+    private final LagProbe probe;
+
+    private final AtomicBoolean checking = new AtomicBoolean();
+    private volatile long lagCheckedAt = Long.MIN_VALUE / 2;
+    private volatile long lagMs;
+    private volatile long downUntil;
+    private volatile boolean lagging;
+    private volatile boolean down;
+
+    private final LongAdder replicaCount = new LongAdder();
+    private final LongAdder laggingCount = new LongAdder();
+    private final LongAdder downCount = new LongAdder();
+
+    /**
+     * Create a router over a replica's pool
+     * @param pool the pool of replica connections, closed with the router
+     * @param maxLagMs reads go to the primary while the replica is further behind than this
+     * @param lagCheckIntervalMs how often the lag is measured
+     * @param retryIntervalMs how long to read from the primary after the replica could not be reached
+     * @param probe measures the lag
+     */
+    public ReplicaRouter(ConnectionPool pool, long maxLagMs, long lagCheckIntervalMs, long retryIntervalMs,
+                         LagProbe probe) {
+        this.pool = pool;
+        this.maxLagMs = maxLagMs;
+        this.lagCheckIntervalMs = lagCheckIntervalMs;
+        this.retryIntervalMs = retryIntervalMs;
+        this.probe = probe;
+    }
+
+    /**
+     * Borrow a replica connection, if the replica is fit to read from
+     * @return a pooled replica Connection, or null to read from the primary
+     */
+    public Connection tryGetConnection() {
+        long now = System.currentTimeMillis();
+        if (down && now < downUntil) {
+            downCount.increment();
+            return null;
+        }
+        boolean checkLag = now - lagCheckedAt >= lagCheckIntervalMs && checking.compareAndSet(false, true);
+        if (lagging && !checkLag) {
+            laggingCount.increment();
+            return null;
+        }
+
+        Connection conn = null;
+        try {
+            conn = pool.getConnection();
+            if (checkLag) {
+                updateLag(probe.lagMillis(conn));
+            }
+            if (down) {
+                down = false;
+                log.info("Replica is reachable again, reads go to the replica");
+            }
+        } catch (SQLException e) {
+            closeQuietly(conn);
+            markDown(now, e);
+            return null;
+        } finally {
+            if (checkLag) {
+                lagCheckedAt = now;
+                checking.set(false);
+            }
+        }
+
+        if (lagging) {
+            closeQuietly(conn);
+            laggingCount.increment();
+            return null;
+        }
+        replicaCount.increment();
+        return conn;
+    }
+
+    /**
+     * Get the number of reads served by the replica
+     * @return the count
+     */
+    public long getReplicaCount() {
+        return replicaCount.sum();
+    }
+
+    /**
+     * Get the number of reads sent to the primary because the replica lagged
+     * @return the count
+     */
+    public long getLaggingCount() {
+        return laggingCount.sum();
+    }
+
+    /**
+     * Get the number of reads sent to the primary because the replica was down
+     * @return the count
+     */
+    public long getDownCount() {
+        return downCount.sum();
+    }
+
+    /**
+     * Get the replication lag seen at the last check
+     * @return the lag in milliseconds
+     */
+    public long getLagMs() {
+        return lagMs;
+    }
+
+    /**
+     * Get the replica's connection pool
+     * @return the pool
+     */
+    public ConnectionPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Close the replica's connection pool
+     */
+    public void close() {
+        pool.close();
+    }
+
+    private void updateLag(long lag) {
+        lagMs = lag;
+        boolean nowLagging = lag > maxLagMs;
+        if (nowLagging != lagging) {
+            lagging = nowLagging;
+            if (nowLagging) {
+                log.warn("Replica is lagging, reads go to the primary", "lagMs", lag, "maxLagMs", maxLagMs);
+            } else {
+                log.info("Replica caught up, reads go to the replica", "lagMs", lag);
+            }
+        }
+    }
+
+    private void markDown(long now, SQLException e) {
+        downUntil = now + retryIntervalMs;
+        downCount.increment();
+        if (!down) {
+            down = true;
+            log.warn("Replica is unreachable, reads go to the primary", "retryMs", retryIntervalMs,
+                    "error", e.getMessage());
+        }
+    }
+
+    private static void closeQuietly(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                // Already on the way back to the pool, or broken; either way the read goes elsewhere
+            }
+        }
+    }
+}
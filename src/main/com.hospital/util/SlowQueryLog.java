@@ -0,0 +1,234 @@
+package com.hospital.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log of the SQL statements that ran longer than a threshold.
+ * The {@link ConnectionPool} times every statement its connections execute
+ * and hands the slow ones to {@link #log}, which only queues them: a
+ * background thread formats and appends them to the log file. When the
+ * queue is full the entry is dropped and counted rather than making the
+ * caller wait.
+ * <p>
+ * Each line holds the time spent executing and reading the result, the rows
+ * read or changed, how long the caller waited for its connection, the DAO
+ * method that ran the statement, the bind values and the SQL. Bind values of
+ * statements that mention a patient are masked.
+ */
+public class SlowQueryLog {
+    private static final Logger log = Logger.getLogger(SlowQueryLog.class);
+
+    private static final long CLOSE_TIMEOUT_MS = 5_000;
+
+    private final long thresholdNanos;
+    private final Path file;
+    private final BlockingQueue<Entry> queue;
+    private final Thread writer;
+    private final LongAdder loggedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private volatile boolean closed;
+
+    /**
+     * Create a log and start its writer thread
+     * @param thresholdMs statements taking at least this long are logged
+     * @param file the log file, appended to and created on the first entry
+     * @param queueSize entries waiting to be written before new ones are dropped
+     */
+    public SlowQueryLog(long thresholdMs, Path file, int queueSize) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.file = file;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.writer = new Thread(this::writeEntries, "hospital-slow-query-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Check whether a statement took long enough to be logged
+     * @param elapsedNanos time spent executing the statement and reading its result
+     * @return true if it should be logged
+     */
+    public boolean isSlow(long elapsedNanos) {
+        return elapsedNanos >= thresholdNanos;
+    }
+
+    /**
+     * Queue a slow statement for the writer thread, without waiting.
+     * The DAO method on the caller's stack is recorded as the caller.
+     * @param sql the SQL text
+     * @param parameters the bind values by parameter index, starting at 1; may be null
+     * @param batches number of parameter sets sent as a batch, 0 if not batched
+     * @param rows rows read or changed, -1 if unknown
+     * @param elapsedNanos time spent executing the statement and reading its result
+     * @param connectionWaitNanos time the caller waited for its connection
+     */
+    public void log(String sql, Object[] parameters, int batches, long rows, long elapsedNanos,
+                    long connectionWaitNanos) {
+        if (closed) {
+            return;
+        }
+        Entry entry = new Entry(System.currentTimeMillis(), sql, parameters != null ? parameters.clone() : null,
+                batches, rows, elapsedNanos, connectionWaitNanos, findCaller());
+        if (queue.offer(entry)) {
+            loggedCount.increment();
+        } else {
+            droppedCount.increment();
+        }
+    }
+
+    /**
+     * Get the number of statements queued for the log
+     * @return the count
+     */
+    public long getLoggedCount() {
+        return loggedCount.sum();
+    }
+
+    /**
+     * Get the number of statements left out of the log because the queue was full
+     * @return the count
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * Stop accepting entries and wait for the queued ones to be written
+     */
+    public void close() {
+        closed = true;
+        try {
+            writer.join(CLOSE_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeEntries() {
+        BufferedWriter out = null;
+        try {
+            while (!(closed && queue.isEmpty())) {
+                Entry entry = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (entry == null) {
+                    continue;
+                }
+                try {
+                    if (out == null) {
+                        out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                    }
+                    out.write(entry.format());
+                    out.newLine();
+                    if (queue.isEmpty()) {
+                        out.flush();
+                    }
+                } catch (IOException e) {
+                    log.error("Error writing slow query log", "file", file, "error", e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    log.warn("Error closing slow query log", "file", file, "error", e.getMessage());
+                }
+            }
+        }
+    }
+
+    // The innermost DAO method on the stack, e.g. PatientDAO.readPatient
+    private static String findCaller() {
+        Optional<String> caller = StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith("com.hospital.dao.")
+                        && frame.getClassName().endsWith("DAO"))
+                .map(frame -> frame.getClassName().substring("com.hospital.dao.".length())
+                        + "." + frame.getMethodName())
+                .findFirst());
+        return caller.orElse("unknown");
+    }
+
+    /**
+     * One slow statement, formatted on the writer thread
+     */
+    private static final class Entry {
+        private final long loggedAt;
+        private final String sql;
+        private final Object[] parameters;
+        private final int batches;
+        private final long rows;
+        private final long elapsedNanos;
+        private final long connectionWaitNanos;
+        private final String caller;
+
+        Entry(long loggedAt, String sql, Object[] parameters, int batches, long rows, long elapsedNanos,
+              long connectionWaitNanos, String caller) {
+            this.loggedAt = loggedAt;
+            this.sql = sql;
+            this.parameters = parameters;
+            this.batches = batches;
+            this.rows = rows;
+            this.elapsedNanos = elapsedNanos;
+            this.connectionWaitNanos = connectionWaitNanos;
+            this.caller = caller;
+        }
+
+        String format() {
+            StringBuilder line = new StringBuilder(160 + sql.length());
+            line.append(Instant.ofEpochMilli(loggedAt))
+                    .append(String.format(Locale.ROOT, " elapsedMs=%.1f connectionWaitMs=%.1f",
+                            elapsedNanos / 1e6, connectionWaitNanos / 1e6))
+                    .append(" rows=").append(rows);
+            if (batches > 0) {
+                line.append(" batches=").append(batches);
+            }
+            line.append(" caller=").append(caller)
+                    .append(" params=").append(formatParameters())
+                    .append(" sql=").append(sql.replaceAll("\\s+", " ").trim());
+            return line.toString();
+        }
+
+        private String formatParameters() {
+            if (parameters == null) {
+                return "[]";
+            }
+            // Patient rows hold names, addresses, phone numbers and diagnoses; none of it goes to the log
+            boolean mask = sql.toLowerCase(Locale.ROOT).contains("patient");
+            StringBuilder formatted = new StringBuilder("[");
+            for (int i = 1; i < parameters.length; i++) {
+                if (i > 1) {
+                    formatted.append(", ");
+                }
+                Object value = parameters[i];
+                if (value == null) {
+                    formatted.append("NULL");
+                } else if (mask) {
+                    formatted.append("***");
+                } else if (value instanceof Number || value instanceof Boolean) {
+                    formatted.append(value);
+                } else if (value instanceof CharSequence || value instanceof Date || value instanceof TemporalAccessor) {
+                    formatted.append('\'').append(value.toString().replace("'", "''")).append('\'');
+                } else {
+                    formatted.append('<').append(value.getClass().getSimpleName()).append('>'); // Streams, blobs
+                }
+            }
+            return formatted.append(']').toString();
+        }
+    }
+}
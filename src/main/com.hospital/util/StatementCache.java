@@ -0,0 +1,271 @@
+package com.hospital.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LRU cache of PreparedStatements for a single pooled connection.
+ * Statements are keyed by SQL text and generated-keys mode. Closing a cached
+ * statement hands it back to the cache instead of closing it, so the next
+ * {@code prepareStatement} call with the same SQL skips the prepare round trip.
+ * <p>
+ * A statement goes back with its parameters cleared and its fetch size, fetch
+ * direction, row and field size limits and query timeout restored, so the next
+ * caller does not inherit them. A statement whose other settings were changed
+ * is closed instead of cached.
+ */
+class StatementCache {
+    private static final Logger log = Logger.getLogger(StatementCache.class);
+
+    // Settings restored on give-back; their values before the first change are kept
+    private static final Set<String> RESTORED_SETTINGS = Set.of(
+            "setFetchSize", "setFetchDirection", "setMaxRows", "setLargeMaxRows", "setMaxFieldSize", "setQueryTimeout");
+    // Settings that cannot be restored portably, so the statement is not reused
+    private static final Set<String> UNCACHEABLE_SETTINGS = Set.of(
+            "setCursorName", "setEscapeProcessing", "setPoolable", "closeOnCompletion");
+
+    private final Connection physical;
+    private final int maxSize;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    // Idle statements in least-recently-used order
+    private final LinkedHashMap<Key, PreparedStatement> cache = new LinkedHashMap<>(16, 0.75f, true);
+    // Statements currently handed out to a caller
+    private final Set<PreparedStatement> inUse = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    StatementCache(Connection physical, int maxSize, LongAdder hits, LongAdder misses, LongAdder evictions) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    /**
+     * Get a statement for the SQL, reusing a cached one if available
+     * @param handle the pooled connection handle the caller holds
+     * @param sql the SQL text
+     * @param autoGeneratedKeys the generated-keys mode
+     * @return a PreparedStatement whose close() returns it to the cache
+     */
+    synchronized PreparedStatement prepare(Connection handle, String sql, int autoGeneratedKeys) throws SQLException {
+        Key key = new Key(sql, autoGeneratedKeys);
+        PreparedStatement stmt = cache.remove(key);
+
+        if (stmt != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            stmt = physical.prepareStatement(sql, autoGeneratedKeys);
+        }
+
+        inUse.add(stmt);
+        return (PreparedStatement) Proxy.newProxyInstance(
+                StatementCache.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new CachedStatement(this, key, stmt, handle));
+    }
+
+    /**
+     * Close statements a caller forgot to close before giving the connection back
+     */
+    synchronized void closeInUse() {
+        for (PreparedStatement stmt : inUse) {
+            closeQuietly(stmt);
+        }
+        inUse.clear();
+    }
+
+    synchronized int size() {
+        return cache.size();
+    }
+
+    /**
+     * Return a statement to the cache, or close it if it cannot be reused
+     * @param key the cache key
+     * @param stmt the underlying statement
+     * @param settings the settings to restore, as saved by {@link #saveSettings}, or null if unchanged
+     * @param reusable false if the caller changed a setting that cannot be restored
+     */
+    private synchronized void giveBack(Key key, PreparedStatement stmt, long[] settings, boolean reusable) {
+        if (!inUse.remove(stmt)) {
+            return; // Already closed by closeInUse
+        }
+        if (!reusable) {
+            closeQuietly(stmt);
+            return;
+        }
+
+        try {
+            stmt.clearParameters();
+            stmt.clearBatch();
+            stmt.clearWarnings();
+            if (settings != null) {
+                // Limits first, as some drivers reject a fetch size above the row limit
+                stmt.setLargeMaxRows(settings[2]);
+                stmt.setMaxFieldSize((int) settings[3]);
+                stmt.setFetchSize((int) settings[0]);
+                stmt.setFetchDirection((int) settings[1]);
+                stmt.setQueryTimeout((int) settings[4]);
+            }
+        } catch (SQLException e) {
+            closeQuietly(stmt);
+            return;
+        }
+
+        // The same SQL may have been prepared twice at once; keep only one copy
+        PreparedStatement previous = cache.put(key, stmt);
+        if (previous != null) {
+            closeQuietly(previous);
+        }
+
+        if (cache.size() > maxSize) {
+            Iterator<PreparedStatement> eldest = cache.values().iterator();
+            closeQuietly(eldest.next());
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private static long[] saveSettings(PreparedStatement stmt) throws SQLException {
+        return new long[]{
+                stmt.getFetchSize(),
+                stmt.getFetchDirection(),
+                stmt.getLargeMaxRows(),
+                stmt.getMaxFieldSize(),
+                stmt.getQueryTimeout()
+        };
+    }
+
+    private static void closeQuietly(Statement stmt) {
+        try {
+            stmt.close();
+        } catch (SQLException e) {
+            log.warn("Error closing cached statement", "error", e.getMessage());
+        }
+    }
+
+    /**
+     * Cache key: SQL text plus generated-keys mode
+     */
+    private static final class Key {
+        private final String sql;
+        private final int autoGeneratedKeys;
+
+        Key(String sql, int autoGeneratedKeys) {
+            this.sql = sql;
+            this.autoGeneratedKeys = autoGeneratedKeys;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return autoGeneratedKeys == other.autoGeneratedKeys && sql.equals(other.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sql, autoGeneratedKeys);
+        }
+    }
+
+    /**
+     * The PreparedStatement a caller sees. Closing it closes any result sets it
+     * produced and returns the underlying statement to the cache.
+     */
+    private static class CachedStatement implements InvocationHandler {
+        private final StatementCache owner;
+        private final Key key;
+        private final PreparedStatement stmt;
+        private final Connection handle;
+        private final List<ResultSet> openResults = new ArrayList<>(1);
+        private long[] savedSettings; // Taken before the caller first changed a restorable setting
+        private boolean reusable = true;
+        private boolean closed;
+
+        CachedStatement(StatementCache owner, Key key, PreparedStatement stmt, Connection handle) {
+            this.owner = owner;
+            this.key = key;
+            this.stmt = stmt;
+            this.handle = handle;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        closeResults();
+                        owner.giveBack(key, stmt, savedSettings, reusable);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || stmt.isClosed();
+                case "getConnection":
+                    return handle;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + key.sql + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+            if (savedSettings == null && RESTORED_SETTINGS.contains(method.getName())) {
+                savedSettings = saveSettings(stmt);
+            } else if (UNCACHEABLE_SETTINGS.contains(method.getName())) {
+                reusable = false;
+            }
+
+            Object result;
+            try {
+                result = method.invoke(stmt, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+
+            // Result sets are closed with the statement, as they would be without the cache
+            if (result instanceof ResultSet) {
+                openResults.add((ResultSet) result);
+            }
+            return result;
+        }
+
+        private void closeResults() {
+            for (ResultSet rs : openResults) {
+                try {
+                    rs.close();
+                } catch (SQLException e) {
+                    log.warn("Error closing result set", "error", e.getMessage());
+                }
+            }
+            openResults.clear();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.hospital.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Folds text for name matching the way the MySQL {@code _ai_ci} collations
+ * compare it: lower case and without accents, so "Adjoa" matches "adjóa".
+ * Unlike MySQL it does not expand ligatures, so "ß" does not match "ss".
+ * In-memory matching that must agree with the database searches uses it.
+ */
+public final class TextFold {
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private TextFold() {
+    }
+
+    /**
+     * Lower-case text and strip its accents
+     * @param text the text to fold
+     * @return the folded text
+     */
+    public static String fold(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+                return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+            }
+        }
+        return text.toLowerCase(Locale.ROOT); // Plain ASCII has no accents to strip
+    }
+}
@@ -0,0 +1,225 @@
+package com.hospital.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Times the statements of a pooled connection for the {@link SlowQueryLog}.
+ * Wraps a Statement or PreparedStatement, remembers its bind values and adds
+ * up the time spent executing it and reading its result set. The total is
+ * checked against the threshold once the result set has been read to the end
+ * or closed, or as soon as an update returns.
+ */
+class TimedStatement implements InvocationHandler {
+    private static final Object[] NO_PARAMETERS = new Object[1];
+
+    private final Statement stmt;
+    private final String preparedSql; // null for a plain Statement, which gets its SQL per execute
+    private final long connectionWaitNanos;
+    private final SlowQueryLog log;
+
+    private Object[] parameters = NO_PARAMETERS; // By parameter index; slot 0 is unused
+    private int batches;
+
+    // The query whose result set is still being read
+    private TimedResultSet pendingResult;
+    private String pendingSql;
+    private long pendingNanos;
+    private long pendingRows;
+
+    private TimedStatement(Statement stmt, String preparedSql, long connectionWaitNanos, SlowQueryLog log) {
+        this.stmt = stmt;
+        this.preparedSql = preparedSql;
+        this.connectionWaitNanos = connectionWaitNanos;
+        this.log = log;
+    }
+
+    /**
+     * Wrap a statement so its slow executions are logged
+     * @param stmt the statement handed out by the connection
+     * @param preparedSql the SQL it was prepared with, or null for a plain Statement
+     * @param connectionWaitNanos how long the caller waited for the connection
+     * @param log the log to write slow executions to
+     * @return a Statement, or a PreparedStatement if stmt is one
+     */
+    static Statement wrap(Statement stmt, String preparedSql, long connectionWaitNanos, SlowQueryLog log) {
+        Class<?> type = stmt instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return (Statement) Proxy.newProxyInstance(
+                TimedStatement.class.getClassLoader(),
+                new Class<?>[]{type},
+                new TimedStatement(stmt, preparedSql, connectionWaitNanos, log));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        switch (name) {
+            case "close":
+                finishPending();
+                break;
+            case "clearParameters":
+                Arrays.fill(parameters, null);
+                break;
+            case "addBatch":
+                batches++;
+                break;
+            case "clearBatch":
+                batches = 0;
+                break;
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                if (name.startsWith("execute")) {
+                    return execute(method, args);
+                }
+                // setString(1, ...), setNull(2, Types.INTEGER) and the like
+                if (name.startsWith("set") && args != null && args.length >= 2
+                        && method.getParameterTypes()[0] == int.class) {
+                    bind((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                }
+                break;
+        }
+        return invokeTarget(stmt, method, args);
+    }
+
+    private Object execute(Method method, Object[] args) throws Throwable {
+        finishPending(); // Executing again closes the previous result set
+        String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = invokeTarget(stmt, method, args);
+        } catch (Throwable e) {
+            finish(sql, -1, System.nanoTime() - start);
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (result instanceof ResultSet) {
+            pendingResult = new TimedResultSet((ResultSet) result);
+            pendingSql = sql;
+            pendingNanos = elapsed;
+            pendingRows = 0;
+            return Proxy.newProxyInstance(
+                    TimedStatement.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class},
+                    pendingResult);
+        }
+
+        finish(sql, rowsChanged(result), elapsed);
+        if (method.getName().startsWith("executeBatch") || method.getName().startsWith("executeLargeBatch")) {
+            batches = 0;
+        }
+        return result;
+    }
+
+    private void bind(int index, Object value) {
+        if (index < 1) {
+            return; // The driver rejects it
+        }
+        if (index >= parameters.length) {
+            parameters = Arrays.copyOf(parameters, Math.max(index + 1, parameters.length * 2));
+        }
+        parameters[index] = value;
+    }
+
+    private void finishPending() {
+        if (pendingResult != null) {
+            pendingResult = null;
+            finish(pendingSql, pendingRows, pendingNanos);
+        }
+    }
+
+    private void finish(String sql, long rows, long elapsedNanos) {
+        if (log.isSlow(elapsedNanos)) {
+            log.log(sql != null ? sql : "", trimmedParameters(), batches, rows, elapsedNanos, connectionWaitNanos);
+        }
+    }
+
+    private Object[] trimmedParameters() {
+        int count = parameters.length - 1;
+        while (count > 0 && parameters[count] == null) {
+            count--;
+        }
+        return Arrays.copyOf(parameters, count + 1);
+    }
+
+    private static long rowsChanged(Object result) {
+        if (result instanceof Number) {
+            return ((Number) result).longValue();
+        }
+        long rows = 0;
+        if (result instanceof int[]) {
+            for (int count : (int[]) result) {
+                rows += Math.max(0, count); // SUCCESS_NO_INFO is negative
+            }
+            return rows;
+        }
+        if (result instanceof long[]) {
+            for (long count : (long[]) result) {
+                rows += Math.max(0, count);
+            }
+            return rows;
+        }
+        return -1; // execute() reports only whether there is a result set
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * The ResultSet a caller sees. Counts the rows read and the time spent reading them.
+     */
+    private final class TimedResultSet implements InvocationHandler {
+        private final ResultSet rs;
+
+        TimedResultSet(ResultSet rs) {
+            this.rs = rs;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next":
+                    if (pendingResult != this) {
+                        return invokeTarget(rs, method, args);
+                    }
+                    long start = System.nanoTime();
+                    boolean hasRow = (Boolean) invokeTarget(rs, method, args);
+                    pendingNanos += System.nanoTime() - start;
+                    if (hasRow) {
+                        pendingRows++;
+                    } else {
+                        finishPending();
+                    }
+                    return hasRow;
+                case "close":
+                    if (pendingResult == this) {
+                        finishPending();
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            return invokeTarget(rs, method, args);
+        }
+    }
+}
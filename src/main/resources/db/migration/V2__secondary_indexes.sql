@@ -0,0 +1,21 @@
+-- Secondary indexes for the lookups and page orders the DAOs use.
+--
+-- Page orders: KeysetQuery seeks with ORDER BY <column>, <primary key>, so the
+-- primary key ends each index and a page is a range read with no sort.
+CREATE INDEX idx_employee_last_name ON employee (last_name, employee_id);
+CREATE INDEX idx_employee_first_name ON employee (first_name, employee_id);
+CREATE INDEX idx_patient_last_name ON patient (last_name, patient_id);
+CREATE INDEX idx_patient_first_name ON patient (first_name, patient_id);
+CREATE INDEX idx_doctor_speciality ON doctor (speciality, employee_id);
+CREATE INDEX idx_department_name ON department (name, department_id);
+-- code is UNIQUE already, but InnoDB is the only engine that appends the primary key to it
+CREATE INDEX idx_department_code ON department (code, department_id);
+-- Wards of a department, by ward number
+CREATE INDEX idx_ward_department ON ward (department_id, ward_number);
+-- Stays of a patient, latest first; also serves the patient foreign key
+CREATE INDEX idx_hospitalization_patient ON hospitalization (patient_id, admission_date);
+-- Open stays: the occupancy load (all wards), the open stays of a ward by bed,
+-- and the check that a bed is free when admitting
+CREATE INDEX idx_hospitalization_open_bed ON hospitalization (discharge_date, ward_id, bed_number);
+-- nurse(department_id) and hospitalization(doctor_id) need nothing here: both
+-- MySQL and H2 index the columns of a foreign key when the constraint is created.
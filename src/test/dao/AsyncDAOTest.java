@@ -0,0 +1,78 @@
+package dao;
+
+import com.hospital.dao.AsyncDepartmentDAO;
+import com.hospital.dao.AsyncPatientDAO;
+import com.hospital.dao.DaoExecutor;
+import com.hospital.dao.DepartmentDAO;
+import com.hospital.dao.PatientDAO;
+import com.hospital.model.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncDAOTest {
+
+    private DaoExecutor executor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestDatabase.reset();
+        executor = new DaoExecutor(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void testOperationsCompleteWithDaoResults() throws Exception {
+        AsyncPatientDAO patients = new AsyncPatientDAO(new PatientDAO(), executor);
+        AsyncDepartmentDAO departments = new AsyncDepartmentDAO(new DepartmentDAO(), executor);
+
+        Patient patient = new Patient("Ama", "Owusu", "12 Ring Road", "0244000000");
+        int id = patients.createPatient(patient).get(5, TimeUnit.SECONDS);
+        assertTrue(id > 0);
+
+        CompletableFuture<Patient> read = patients.readPatient(id);
+        CompletableFuture<Integer> departmentCount = departments.readAllDepartments().thenApply(List::size);
+        assertEquals("Owusu", read.get(5, TimeUnit.SECONDS).getLastName());
+        assertEquals(3, departmentCount.get(5, TimeUnit.SECONDS));
+        assertNull(patients.readPatient(-1).get(5, TimeUnit.SECONDS)); // Failures keep the DAO's result
+    }
+
+    @Test
+    void testConcurrencyIsCapped() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<CompletableFuture<Integer>> calls = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            calls.add(executor.submit(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                return 1;
+            }));
+        }
+
+        int total = 0;
+        for (CompletableFuture<Integer> call : calls) {
+            total += call.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(20, total);
+        assertTrue(maxRunning.get() <= 2, "At most two calls ran at once, saw " + maxRunning.get());
+        assertEquals(0, executor.getActiveCount());
+    }
+}
@@ -0,0 +1,53 @@
+package dao;
+
+import com.hospital.dao.DepartmentDAO;
+import com.hospital.model.Department;
+import com.hospital.util.CacheStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DepartmentDAOTest {
+
+    private DepartmentDAO departmentDAO;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestDatabase.reset();
+        departmentDAO = new DepartmentDAO();
+    }
+
+    @Test
+    void testReadsAreServedFromCache() {
+        departmentDAO.readAllDepartments(); // Loads the table
+        CacheStats before = DepartmentDAO.getCacheStats();
+
+        assertEquals("Cardiology", departmentDAO.readDepartment(1).getName());
+        assertEquals("Neurology", departmentDAO.readDepartmentByCode("NEUR").getName());
+        assertEquals("Pediatrics", departmentDAO.readDepartmentByCode("pedi").getName());
+        assertNull(departmentDAO.readDepartment(99));
+
+        CacheStats after = DepartmentDAO.getCacheStats();
+        assertEquals(before.getHitCount() + 4, after.getHitCount());
+        assertEquals(before.getMissCount(), after.getMissCount());
+        assertEquals(3, after.getSize());
+    }
+
+    @Test
+    void testWritesInvalidateCache() {
+        Department cardiology = departmentDAO.readDepartment(1);
+        cardiology.setName("Heart Centre");
+        assertEquals("Cardiology", departmentDAO.readDepartment(1).getName()); // Cached rows are copies
+
+        assertTrue(departmentDAO.updateDepartment(cardiology));
+        assertEquals("Heart Centre", departmentDAO.readDepartment(1).getName());
+
+        int id = departmentDAO.createDepartment(new Department("ONCO", "Oncology", "Building D", null));
+        assertEquals("Oncology", departmentDAO.readDepartment(id).getName());
+        assertEquals(4, departmentDAO.readAllDepartments().size());
+
+        assertTrue(departmentDAO.deleteDepartment(id));
+        assertNull(departmentDAO.readDepartmentByCode("ONCO"));
+    }
+}
@@ -0,0 +1,209 @@
+package dao;
+
+import com.hospital.dao.HospitalizationDAO;
+import com.hospital.dao.WardDAO;
+import com.hospital.model.Bed;
+import com.hospital.model.Hospitalization;
+import com.hospital.model.Ward;
+import com.hospital.util.AdmissionStats;
+import com.hospital.util.DatabaseUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HospitalizationDAOTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 4, 1);
+
+    private HospitalizationDAO hospitalizationDAO;
+    private WardDAO wardDAO;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestDatabase.reset();
+        hospitalizationDAO = new HospitalizationDAO();
+        wardDAO = new WardDAO();
+        HospitalizationDAO.resetAdmissionStats();
+    }
+
+    @Test
+    void testOccupancyIsLoadedFromOpenHospitalizations() {
+        // sample-data.sql: only hospitalization 2 (ward 2, bed 5) has no discharge date
+        assertEquals(7, hospitalizationDAO.countFreeBeds(2));
+        assertEquals(10, hospitalizationDAO.countFreeBeds(1));
+
+        assertEquals(-1, hospitalizationDAO.admitPatient(admission(2, 5)));
+        assertEquals(-1, hospitalizationDAO.admitPatient(admission(2, 9))); // Ward 2 has 8 beds
+        assertTrue(hospitalizationDAO.admitPatient(admission(1, 3)) > 0); // Bed 3 was discharged
+        assertEquals(9, hospitalizationDAO.countFreeBeds(1));
+    }
+
+    @Test
+    void testFreeBedLookupsFollowAdmissionsAndDischarges() {
+        int[] ids = new int[10];
+        for (int i = 0; i < 10; i++) {
+            int bed = hospitalizationDAO.findFreeBed(1);
+            assertEquals(i + 1, bed);
+            ids[i] = hospitalizationDAO.admitPatient(admission(1, bed));
+            assertTrue(ids[i] > 0);
+        }
+        assertEquals(-1, hospitalizationDAO.findFreeBed(1));
+        assertNull(hospitalizationDAO.findFreeBedInDepartment(1));
+
+        int wardId = wardDAO.createWard(new Ward(2, 2, null, 1));
+        assertEquals(new Bed(wardId, 1), hospitalizationDAO.findFreeBedInDepartment(1));
+
+        assertTrue(hospitalizationDAO.dischargePatient(ids[3], TODAY));
+        assertFalse(hospitalizationDAO.dischargePatient(ids[3], TODAY)); // Already discharged
+        assertEquals(4, hospitalizationDAO.findFreeBed(1));
+        assertEquals(new Bed(1, 4), hospitalizationDAO.findFreeBedInDepartment(1));
+        assertEquals(TODAY, hospitalizationDAO.readHospitalization(ids[3]).getDischargeDate());
+    }
+
+    @Test
+    void testLargeWardAndBedMoves() {
+        int wardId = wardDAO.createWard(new Ward(5, 130, null, 3));
+        for (int bed = 1; bed <= 70; bed++) {
+            assertTrue(hospitalizationDAO.admitPatient(admission(wardId, bed)) > 0);
+        }
+        assertEquals(71, hospitalizationDAO.findFreeBed(wardId));
+
+        // Moving a patient frees their old bed and takes the new one
+        Hospitalization stay = hospitalizationDAO.getOpenHospitalizationsByWard(wardId).get(0);
+        stay.setBedNumber(71);
+        assertTrue(hospitalizationDAO.updateHospitalization(stay));
+        assertEquals(1, hospitalizationDAO.findFreeBed(wardId));
+        stay.setBedNumber(2);
+        assertFalse(hospitalizationDAO.updateHospitalization(stay)); // Bed 2 is taken
+
+        assertTrue(hospitalizationDAO.deleteHospitalization(stay.getHospitalizationId()));
+        assertEquals(130 - 69, hospitalizationDAO.countFreeBeds(wardId));
+    }
+
+    @Test
+    void testWardUpdateReloadsOnlyAResizedOrMovedWard() throws Exception {
+        HospitalizationDAO.loadBedOccupancy();
+        // Written behind the map's back, so only a reload of ward 1 sees it
+        try (Connection conn = DatabaseUtil.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("INSERT INTO hospitalization (patient_id, ward_id, bed_number, diagnosis, doctor_id, admission_date) " +
+                    "VALUES (2, 1, 1, 'Elsewhere', 1, '2024-03-30')");
+        }
+
+        Ward ward = wardDAO.readWard(1);
+        ward.setSupervisorId(4);
+        assertTrue(wardDAO.updateWard(ward));
+        assertEquals(10, hospitalizationDAO.countFreeBeds(1)); // Not reloaded
+
+        ward.setBedCount(12);
+        assertTrue(wardDAO.updateWard(ward));
+        assertEquals(11, hospitalizationDAO.countFreeBeds(1));
+        assertEquals(2, hospitalizationDAO.findFreeBed(1));
+        assertEquals(7, hospitalizationDAO.countFreeBeds(2));
+
+        ward.setDepartmentId(2);
+        assertTrue(wardDAO.updateWard(ward));
+        assertNull(hospitalizationDAO.findFreeBedInDepartment(1));
+        for (int i = 0; i < 7; i++) {
+            assertTrue(hospitalizationDAO.admitToFreeBedInDepartment(admission(0, 0), 2) > 0); // Fills ward 2
+        }
+        assertEquals(new Bed(1, 2), hospitalizationDAO.findFreeBedInDepartment(2));
+    }
+
+    @Test
+    void testConcurrentAdmissionsGetDistinctBeds() throws Exception {
+        int wardId = wardDAO.createWard(new Ward(6, 100, null, 2));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 80; i++) {
+            results.add(executor.submit(() -> hospitalizationDAO.admitToFreeBed(admission(wardId, 0))));
+        }
+        for (Future<Integer> result : results) {
+            assertTrue(result.get() > 0);
+        }
+        executor.shutdown();
+
+        Set<Integer> beds = new HashSet<>();
+        for (Hospitalization stay : hospitalizationDAO.getOpenHospitalizationsByWard(wardId)) {
+            assertTrue(beds.add(stay.getBedNumber()));
+        }
+        assertEquals(80, beds.size());
+        assertEquals(20, hospitalizationDAO.countFreeBeds(wardId));
+        assertEquals(80, HospitalizationDAO.getAdmissionStats().getAdmittedCount());
+    }
+
+    @Test
+    void testAdmissionRetriesWhenAnotherWriterHoldsTheBed() throws Exception {
+        HospitalizationDAO.loadBedOccupancy();
+        // Written behind the map's back, as another application server would
+        try (Connection conn = DatabaseUtil.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("INSERT INTO hospitalization (patient_id, ward_id, bed_number, diagnosis, doctor_id, admission_date) " +
+                    "VALUES (2, 1, 1, 'Elsewhere', 1, '2024-03-30')");
+            stmt.executeUpdate("INSERT INTO hospitalization (patient_id, ward_id, bed_number, diagnosis, doctor_id, admission_date, discharge_date) " +
+                    "VALUES (3, 1, 2, 'Day case', 1, '2024-04-01', '2024-04-01')");
+        }
+
+        Hospitalization stay = admission(1, 0);
+        assertTrue(hospitalizationDAO.admitToFreeBed(stay) > 0);
+
+        // Bed 1 is held by an open stay; bed 2 was already used today
+        assertEquals(3, stay.getBedNumber());
+        assertEquals(2, hospitalizationDAO.findFreeBed(1)); // Still free for other days
+        AdmissionStats stats = HospitalizationDAO.getAdmissionStats();
+        assertEquals(1, stats.getAdmittedCount());
+        assertEquals(3, stats.getAttemptCount());
+        assertEquals(2, stats.getConflictCount());
+
+        Hospitalization inDepartment = admission(0, 0);
+        assertTrue(hospitalizationDAO.admitToFreeBedInDepartment(inDepartment, 1) > 0);
+        assertEquals(new Bed(1, 4), new Bed(inDepartment.getWardId(), inDepartment.getBedNumber()));
+    }
+
+    @Test
+    void testAdmissionRetriesAfterLockTimeout() throws Exception {
+        HospitalizationDAO.loadBedOccupancy();
+        try (Connection conn = DatabaseUtil.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("SET DEFAULT_LOCK_TIMEOUT 200");
+            try {
+                // Another writer's uncommitted stay on the same bed and day blocks the insert's unique key check
+                conn.setAutoCommit(false);
+                stmt.executeUpdate("INSERT INTO hospitalization (patient_id, ward_id, bed_number, diagnosis, doctor_id, admission_date) " +
+                        "VALUES (2, 1, 1, 'Elsewhere', 1, '2024-04-01')");
+
+                ExecutorService executor = Executors.newSingleThreadExecutor();
+                Future<Integer> result = executor.submit(() -> hospitalizationDAO.admitPatient(admission(1, 1)));
+                Thread.sleep(300); // Past the first lock timeout
+                conn.rollback();
+
+                assertTrue(result.get() > 0);
+                executor.shutdown();
+            } finally {
+                conn.setAutoCommit(true);
+                stmt.execute("SET DEFAULT_LOCK_TIMEOUT 10000");
+            }
+        }
+
+        AdmissionStats stats = HospitalizationDAO.getAdmissionStats();
+        assertEquals(1, stats.getAdmittedCount());
+        assertTrue(stats.getConflictCount() >= 1);
+        assertEquals(0, stats.getFailedCount());
+    }
+
+    private static Hospitalization admission(int wardId, int bedNumber) {
+        return new Hospitalization(1, wardId, bedNumber, "Observation", 1, TODAY);
+    }
+}
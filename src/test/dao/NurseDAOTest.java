@@ -0,0 +1,129 @@
+package dao;
+
+import com.hospital.dao.NurseDAO;
+import com.hospital.model.Employee;
+import com.hospital.model.Nurse;
+import com.hospital.util.DatabaseUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NurseDAOTest {
+
+    private NurseDAO nurseDAO;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestDatabase.reset();
+        nurseDAO = new NurseDAO();
+    }
+
+    @Test
+    void testCreateNursesInBatches() {
+        List<Nurse> nurses = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            nurses.add(new Nurse("First" + i, "Last" + i, "Address " + i, "0240-000-" + i,
+                    "Night", new BigDecimal("50000.00"), 1 + i % 3));
+        }
+
+        int created = nurseDAO.createNurses(nurses, 3);
+
+        assertEquals(7, created);
+        for (Nurse nurse : nurses) {
+            Nurse stored = nurseDAO.readNurse(nurse.getEmployeeId());
+            assertNotNull(stored);
+            assertEquals(nurse.getFirstName(), stored.getFirstName());
+            assertEquals(nurse.getDepartmentId(), stored.getDepartmentId());
+        }
+    }
+
+    @Test
+    void testCreateNursesRejectsNonPositiveBatchSize() {
+        List<Nurse> nurses = List.of(new Nurse("First", "Last", "Address", "0240-000-0",
+                "Night", new BigDecimal("50000.00"), 1));
+
+        assertThrows(IllegalArgumentException.class, () -> nurseDAO.createNurses(nurses, 0));
+        assertEquals(3, nurseDAO.readAllNurses().size());
+    }
+
+    @Test
+    void testReadAllNursesIncludesDepartment() {
+        List<Nurse> nurses = nurseDAO.readAllNurses();
+
+        assertEquals(3, nurses.size());
+        for (Nurse nurse : nurses) {
+            assertNotNull(nurse.getDepartmentName());
+        }
+        Nurse steelman = nurseDAO.readNurse(3);
+        assertEquals("CARD", steelman.getDepartmentCode());
+        assertEquals("Cardiology", steelman.getDepartmentName());
+    }
+
+    @Test
+    void testUpdateNurseWritesOnlyModifiedColumns() throws Exception {
+        Nurse nurse = nurseDAO.readNurse(3);
+        assertFalse(nurse.isModified());
+        // Someone else renames the nurse after it was read
+        try (Connection conn = DatabaseUtil.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE employee SET first_name = 'Renamed' WHERE employee_id = 3");
+        }
+
+        nurse.setSalary(new BigDecimal("61000.00"));
+        assertTrue(nurseDAO.updateNurse(nurse));
+        assertFalse(nurse.isModified());
+
+        Nurse stored = nurseDAO.readNurse(3);
+        assertEquals(0, new BigDecimal("61000.00").compareTo(stored.getSalary()));
+        assertEquals("Renamed", stored.getFirstName()); // The employee table was not written
+
+        long borrowed = DatabaseUtil.getPoolStats().getBorrowCount();
+        assertTrue(nurseDAO.updateNurse(stored)); // Nothing modified
+        assertEquals(borrowed, DatabaseUtil.getPoolStats().getBorrowCount());
+    }
+
+    @Test
+    void testEditedCopyOfLoadedRowWritesOnlyTheSalary() throws Exception {
+        Nurse row = nurseDAO.readNurse(3);
+        try (Connection conn = DatabaseUtil.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE employee SET first_name = 'Renamed' WHERE employee_id = 3");
+        }
+
+        // As the panels do: copy the row, then set every form field, of which only the salary changed
+        Nurse nurse = new Nurse(row);
+        nurse.setFirstName(row.getFirstName());
+        nurse.setLastName(row.getLastName());
+        nurse.setAddress(row.getAddress());
+        nurse.setTelephone(row.getTelephone());
+        nurse.setRotation(row.getRotation());
+        nurse.setSalary(new BigDecimal("61000"));
+        nurse.setDepartmentId(row.getDepartmentId());
+        assertTrue(nurse.isModified(Nurse.SALARY));
+        assertFalse(nurse.isModified(Employee.FIRST_NAME | Employee.LAST_NAME | Employee.ADDRESS
+                | Employee.TELEPHONE | Nurse.ROTATION | Nurse.DEPARTMENT_ID));
+        assertTrue(nurseDAO.updateNurse(nurse));
+
+        Nurse stored = nurseDAO.readNurse(3);
+        assertEquals(0, new BigDecimal("61000").compareTo(stored.getSalary()));
+        assertEquals("Renamed", stored.getFirstName()); // The employee table was not written
+        assertEquals(0, new BigDecimal("65000").compareTo(row.getSalary())); // The row itself is unchanged
+    }
+
+    @Test
+    void testUpdateOfMissingNurseReportsFailure() {
+        Nurse nurse = nurseDAO.readNurse(3);
+        nurseDAO.deleteNurse(3);
+
+        nurse.setRotation("Night");
+        assertFalse(nurseDAO.updateNurse(nurse));
+        assertTrue(nurse.isModified(Nurse.ROTATION)); // Still to be written
+    }
+}
@@ -0,0 +1,202 @@
+package dao;
+
+import com.hospital.dao.Page;
+import com.hospital.dao.PatientDAO;
+import com.hospital.model.Patient;
+import com.hospital.util.CacheStats;
+import com.hospital.util.DatabaseUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PatientDAOTest {
+
+    private PatientDAO patientDAO;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestDatabase.reset();
+        patientDAO = new PatientDAO();
+    }
+
+    @Test
+    void testCreatePatientsInBatches() {
+        List<Patient> patients = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            patients.add(new Patient("First" + i, "Last" + i, "Address " + i, "0240-000-" + i));
+        }
+
+        int created = patientDAO.createPatients(patients, 10);
+
+        assertEquals(25, created);
+        assertEquals(28, patientDAO.readAllPatients().size()); // 3 sample patients in sample-data.sql
+        for (Patient patient : patients) {
+            assertTrue(patient.getPatientId() > 0);
+            assertEquals(patient.getFirstName(), patientDAO.readPatient(patient.getPatientId()).getFirstName());
+        }
+    }
+
+    @Test
+    void testCreatePatientsStopsAtFailingBatch() {
+        List<Patient> patients = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            patients.add(new Patient("First" + i, "Last" + i, "Address " + i, "0240-000-" + i));
+        }
+        patients.add(new Patient(null, "Nameless", "Nowhere", "000")); // first_name is NOT NULL
+
+        int created = patientDAO.createPatients(patients, 3);
+
+        assertEquals(3, created);
+        assertEquals(6, patientDAO.readAllPatients().size());
+    }
+
+    @Test
+    void testCreatePatientsRejectsNonPositiveBatchSize() {
+        List<Patient> patients = List.of(new Patient("First", "Last", "Address", "0240-000-0"));
+
+        assertThrows(IllegalArgumentException.class, () -> patientDAO.createPatients(patients, 0));
+        assertThrows(IllegalArgumentException.class, () -> patientDAO.createPatients(patients, -1));
+        assertEquals(3, patientDAO.readAllPatients().size());
+    }
+
+    @Test
+    void testReadPatientsPageWalksAllRows() {
+        List<Patient> patients = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            patients.add(new Patient("First" + i, i % 2 == 0 ? "Same" : "Other" + i, "Address " + i, "0240-000-" + i));
+        }
+        patientDAO.createPatients(patients);
+
+        List<Integer> byId = new ArrayList<>();
+        List<String> byLastName = new ArrayList<>();
+        String token = null;
+        do {
+            Page<Patient> page = patientDAO.readPatientsPage(token, 2);
+            assertTrue(page.getItems().size() <= 2);
+            page.getItems().forEach(p -> byId.add(p.getPatientId()));
+            token = page.getNextPageToken();
+        } while (token != null);
+        do {
+            Page<Patient> page = patientDAO.readPatientsPage(token, 4, "last_name");
+            page.getItems().forEach(p -> byLastName.add(p.getLastName() + "#" + p.getPatientId()));
+            token = page.getNextPageToken();
+        } while (token != null);
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9), byId);
+        List<String> expected = new ArrayList<>();
+        for (Patient patient : patientDAO.readAllPatients()) {
+            expected.add(patient.getLastName() + "#" + patient.getPatientId());
+        }
+        expected.sort((a, b) -> {
+            String[] x = a.split("#"), y = b.split("#");
+            int c = x[0].compareTo(y[0]);
+            return c != 0 ? c : Integer.compare(Integer.parseInt(x[1]), Integer.parseInt(y[1]));
+        });
+        assertEquals(expected, byLastName);
+    }
+
+    @Test
+    void testCountAndSkipAheadFromPageToken() {
+        assertEquals(3, patientDAO.countPatients());
+
+        String token = patientDAO.readPatientsPage(null, 1).getNextPageToken(); // After patient 1
+        Page<Patient> page = patientDAO.readPatientsPageSkipping(token, 1, 5);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(3, page.getItems().get(0).getPatientId());
+        assertFalse(page.hasNextPage());
+    }
+
+    @Test
+    void testReadPatientsPageRejectsBadArguments() {
+        String token = patientDAO.readPatientsPage(null, 1).getNextPageToken();
+
+        assertThrows(IllegalArgumentException.class, () -> patientDAO.readPatientsPage(token, 1, "last_name"));
+        assertThrows(IllegalArgumentException.class, () -> patientDAO.readPatientsPage("not a token", 1));
+        assertThrows(IllegalArgumentException.class, () -> patientDAO.readPatientsPage(null, 1, "address"));
+        assertThrows(IllegalArgumentException.class, () -> patientDAO.readPatientsPage(null, 0));
+    }
+
+    @Test
+    void testStreamAllPatientsReleasesConnection() {
+        List<Patient> patients = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            patients.add(new Patient("First" + i, "Last" + i, "Address " + i, "0240-000-" + i));
+        }
+        patientDAO.createPatients(patients);
+
+        try (Stream<Patient> stream = patientDAO.streamAllPatients()) {
+            List<Integer> ids = stream.map(Patient::getPatientId).collect(Collectors.toList());
+            assertEquals(53, ids.size());
+            assertEquals(1, ids.get(0));
+            assertEquals(0, DatabaseUtil.getPoolStats().getActiveConnections()); // Released once exhausted
+        }
+
+        try (Stream<Patient> stream = patientDAO.streamAllPatients()) {
+            assertEquals("Koo", stream.findFirst().get().getFirstName());
+            assertEquals(1, DatabaseUtil.getPoolStats().getActiveConnections());
+        }
+        assertEquals(0, DatabaseUtil.getPoolStats().getActiveConnections()); // Released on early close
+    }
+
+    @Test
+    void testSearchPatientsByNameUsesIndexAndStaysCurrent() {
+        // Sample patients: 1 Koo Poku, 2 Ama Mansa, 3 Kofi Peter
+        assertEquals(List.of(2), ids(patientDAO.searchPatientsByName("ansa")));
+        assertEquals(List.of(1, 3), ids(patientDAO.searchPatientsByName("KO")));
+        assertEquals(List.of(1, 3), ids(patientDAO.searchPatientsByName("p")));
+
+        Patient created = new Patient("Yaw", "Mansah", "Bantama", "0240-555-000");
+        patientDAO.createPatient(created);
+        assertEquals(List.of(2, 4), ids(patientDAO.searchPatientsByName("mansa")));
+
+        created.setLastName("Owusu");
+        patientDAO.updatePatient(created);
+        assertEquals(List.of(2), ids(patientDAO.searchPatientsByName("mansa")));
+        assertEquals(List.of(4), ids(patientDAO.searchPatientsByName("wus")));
+
+        patientDAO.deletePatient(created.getPatientId());
+        assertTrue(patientDAO.searchPatientsByName("wus").isEmpty());
+        assertTrue(patientDAO.searchPatientsByName("xyz").isEmpty());
+    }
+
+    @Test
+    void testSearchPatientsByNameIgnoresAccents() {
+        Patient created = new Patient("Adjóa", "Ǹkansah", "Bantama", "0240-555-001");
+        patientDAO.createPatient(created);
+
+        assertEquals(List.of(created.getPatientId()), ids(patientDAO.searchPatientsByName("adjoa")));
+        assertEquals(List.of(created.getPatientId()), ids(patientDAO.searchPatientsByName("NKAN")));
+        assertEquals(List.of(2, created.getPatientId()), ids(patientDAO.searchPatientsByName("ansa")));
+    }
+
+    private static List<Integer> ids(List<Patient> patients) {
+        return patients.stream().map(Patient::getPatientId).collect(Collectors.toList());
+    }
+
+    @Test
+    void testReadPatientIsCachedUntilWritten() {
+        int patientId = patientDAO.createPatient(new Patient("Ama", "Owusu", "Kumasi", "0240-123-456"));
+        CacheStats before = PatientDAO.getCacheStats();
+        Patient first = patientDAO.readPatient(patientId);
+        Patient second = patientDAO.readPatient(patientId);
+
+        assertNotSame(first, second); // Each caller gets its own copy
+        assertEquals(first.getLastName(), second.getLastName());
+        assertFalse(second.isModified());
+        assertEquals(before.getHitCount() + 1, PatientDAO.getCacheStats().getHitCount());
+
+        second.setLastName("Changed");
+        assertTrue(patientDAO.updatePatient(second));
+        assertEquals("Changed", patientDAO.readPatient(patientId).getLastName()); // The write dropped the cached row
+
+        assertTrue(patientDAO.deletePatient(patientId));
+        assertNull(patientDAO.readPatient(patientId));
+    }
+}
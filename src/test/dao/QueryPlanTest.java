@@ -0,0 +1,249 @@
+package dao;
+
+import com.hospital.dao.DepartmentDAO;
+import com.hospital.dao.DoctorDAO;
+import com.hospital.dao.HospitalizationDAO;
+import com.hospital.dao.NurseDAO;
+import com.hospital.dao.PatientDAO;
+import com.hospital.dao.WardDAO;
+import com.hospital.model.Department;
+import com.hospital.model.Doctor;
+import com.hospital.model.Hospitalization;
+import com.hospital.model.Nurse;
+import com.hospital.model.Patient;
+import com.hospital.model.Ward;
+import com.hospital.util.DatabaseUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the DAOs with H2's query statistics switched on, then EXPLAINs every
+ * statement they sent and fails if a lookup reads a whole table.
+ * Reads without a WHERE clause (read all, count, stream, the in-memory index
+ * loads) and the LIKE '%term%' searches scan by design and are not checked.
+ */
+class QueryPlanTest {
+
+    // One table access in an H2 plan, e.g. /* public.idx_patient_last_name: last_name = ?1 */
+    private static final Pattern TABLE_ACCESS = Pattern.compile("/\\* public\\.([A-Za-z0-9_.]+)(:?)");
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestDatabase.reset();
+        // Plans are chosen by cost, so the tables need more than the handful of sample rows
+        List<Patient> patients = new ArrayList<>();
+        List<Doctor> doctors = new ArrayList<>();
+        List<Nurse> nurses = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            patients.add(new Patient("First" + i, "Last" + i % 97, "Address " + i, "0240-" + i));
+            doctors.add(new Doctor("First" + i, "Last" + i % 97, "Address " + i, "0241-" + i, "Speciality " + i % 13));
+            nurses.add(new Nurse("First" + i, "Last" + i % 97, "Address " + i, "0242-" + i,
+                    "Night", new BigDecimal("60000.00"), 1 + i % 3));
+        }
+        new PatientDAO().createPatients(patients);
+        new DoctorDAO().createDoctors(doctors);
+        new NurseDAO().createNurses(nurses);
+        DepartmentDAO departmentDAO = new DepartmentDAO();
+        for (int i = 0; i < 200; i++) {
+            departmentDAO.createDepartment(new Department("D" + i, "Department " + i, "Block " + i % 7, null));
+        }
+        HospitalizationDAO hospitalizationDAO = new HospitalizationDAO();
+        LocalDate day = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < 500; i++, day = day.plusDays(1)) {
+            int id = hospitalizationDAO.admitPatient(new Hospitalization(1 + i % 3, 1, 1 + i % 10, "Observation", 1, day));
+            hospitalizationDAO.dischargePatient(id, day.plusDays(1));
+        }
+        execute("ANALYZE");
+        PatientDAO.buildSearchIndex();
+        execute("SET QUERY_STATISTICS_MAX_ENTRIES 1000");
+        execute("SET QUERY_STATISTICS FALSE"); // Clears the statistics of earlier tests
+        execute("SET QUERY_STATISTICS TRUE");
+    }
+
+    @Test
+    void testDaoLookupsUseIndexes() throws SQLException {
+        exercisePatients();
+        exerciseEmployees();
+        exerciseDepartmentsAndWards();
+        exerciseHospitalizations();
+
+        List<String> statements = recordedStatements();
+        assertTrue(statements.size() > 30, "Expected the DAO statements to be recorded: " + statements);
+
+        List<String> failures = new ArrayList<>();
+        for (String sql : statements) {
+            if (!needsIndex(sql)) {
+                continue;
+            }
+            String plan = explain(sql);
+            // H2 orders a join without regard to LIMIT, so it drives the doctor and nurse
+            // pages from the subtype table; MySQL reads them in sort index order instead.
+            // Those pages are checked from the second table on, and for a sort index below.
+            boolean joinPage = sql.contains(" JOIN ") && sql.contains(" LIMIT ");
+            Matcher access = TABLE_ACCESS.matcher(plan);
+            for (int table = 0; access.find(); table++) {
+                boolean seek = !access.group(2).isEmpty();
+                // A page read in index order may start at the top of the index; LIMIT ends it
+                boolean orderedPage = plan.contains("/* index sorted */");
+                boolean scan = access.group(1).endsWith(".tableScan") || !(seek || orderedPage);
+                if (scan && !(joinPage && table == 0)) {
+                    failures.add(sql + "\n" + plan);
+                    break;
+                }
+            }
+        }
+        assertTrue(failures.isEmpty(), "Full scans:\n\n" + String.join("\n\n", failures));
+    }
+
+    @Test
+    void testPageSortColumnsLeadAnIndex() throws SQLException {
+        String[][] sortColumns = {
+                {"patient", "first_name"}, {"patient", "last_name"},
+                {"employee", "first_name"}, {"employee", "last_name"}, {"doctor", "speciality"},
+                {"department", "code"}, {"department", "name"}
+        };
+        String sql = "SELECT COUNT(*) FROM information_schema.index_columns " +
+                "WHERE table_name = ? AND column_name = ? AND ordinal_position = 1";
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (String[] column : sortColumns) {
+                stmt.setString(1, column[0]);
+                stmt.setString(2, column[1]);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    rs.next();
+                    assertTrue(rs.getInt(1) > 0, "No index on " + column[0] + "(" + column[1] + ", ...)");
+                }
+            }
+        }
+    }
+
+    private void exercisePatients() {
+        PatientDAO patientDAO = new PatientDAO();
+        Patient patient = patientDAO.readPatient(1);
+        patientDAO.updatePatient(patient);
+        patientDAO.searchPatientsByName("Men");
+        patientDAO.readPatientsPage(patientDAO.readPatientsPage(null, 1).getNextPageToken(), 1);
+        for (String column : new String[]{"first_name", "last_name"}) {
+            String token = patientDAO.readPatientsPage(null, 1, column).getNextPageToken();
+            patientDAO.readPatientsPage(token, 1, column);
+        }
+        patientDAO.readPatientsPageSkipping(null, 1, 1);
+        patientDAO.deletePatient(patientDAO.createPatient(new Patient("Esi", "Nyarko", "Accra", "0240-111-222")));
+    }
+
+    private void exerciseEmployees() {
+        DoctorDAO doctorDAO = new DoctorDAO();
+        Doctor doctor = doctorDAO.readDoctor(1);
+        doctorDAO.updateDoctor(doctor);
+        for (String column : new String[]{"first_name", "last_name", "speciality"}) {
+            String token = doctorDAO.readDoctorsPage(null, 1, column).getNextPageToken();
+            doctorDAO.readDoctorsPage(token, 1, column);
+        }
+        doctorDAO.readDoctorsPage(doctorDAO.readDoctorsPage(null, 1).getNextPageToken(), 1);
+        doctorDAO.deleteDoctor(doctorDAO.createDoctor(new Doctor("Kojo", "Antwi", "Kumasi", "0240-333-444", "Surgery")));
+
+        NurseDAO nurseDAO = new NurseDAO();
+        Nurse nurse = nurseDAO.readNurse(nurseDAO.readAllNurses().get(0).getEmployeeId());
+        nurseDAO.updateNurse(nurse);
+        nurseDAO.getNursesByDepartment(nurse.getDepartmentId());
+        for (String column : new String[]{"first_name", "last_name"}) {
+            String token = nurseDAO.readNursesPage(null, 1, column).getNextPageToken();
+            nurseDAO.readNursesPage(token, 1, column);
+        }
+        nurseDAO.deleteNurse(nurseDAO.createNurse(new Nurse("Efua", "Sarpong", "Tema", "0240-555-666",
+                "Night", new BigDecimal("60000.00"), nurse.getDepartmentId())));
+    }
+
+    private void exerciseDepartmentsAndWards() {
+        DepartmentDAO departmentDAO = new DepartmentDAO();
+        DepartmentDAO.invalidateCache();
+        Department department = departmentDAO.readDepartment(1);
+        departmentDAO.readDepartmentByCode(department.getCode());
+        for (String column : new String[]{"code", "name"}) {
+            String token = departmentDAO.readDepartmentsPage(null, 1, column).getNextPageToken();
+            departmentDAO.readDepartmentsPage(token, 1, column);
+        }
+        departmentDAO.deleteDepartment(departmentDAO.createDepartment(new Department("TMP", "Temporary", "Annex", null)));
+
+        WardDAO wardDAO = new WardDAO();
+        Ward ward = wardDAO.readWard(1);
+        wardDAO.getWardsByDepartment(ward.getDepartmentId());
+        wardDAO.deleteWard(wardDAO.createWard(new Ward(9, 4, null, ward.getDepartmentId())));
+    }
+
+    private void exerciseHospitalizations() {
+        HospitalizationDAO.resetBedOccupancy();
+        HospitalizationDAO.loadBedOccupancy(); // Reads the open stays of every ward
+        HospitalizationDAO hospitalizationDAO = new HospitalizationDAO();
+        LocalDate today = LocalDate.of(2024, 4, 1);
+        int id = hospitalizationDAO.admitToFreeBed(new Hospitalization(1, 1, 0, "Observation", 1, today));
+        Hospitalization stay = hospitalizationDAO.readHospitalization(id);
+        hospitalizationDAO.getHospitalizationsByPatient(stay.getPatientId());
+        hospitalizationDAO.getOpenHospitalizationsByWard(stay.getWardId());
+        hospitalizationDAO.updateHospitalization(stay);
+        hospitalizationDAO.dischargePatient(id, today);
+        hospitalizationDAO.deleteHospitalization(id);
+    }
+
+    private static boolean needsIndex(String sql) {
+        String upper = sql.toUpperCase();
+        if (upper.startsWith("SET ") || upper.startsWith("EXPLAIN") || upper.contains("INFORMATION_SCHEMA")) {
+            return false;
+        }
+        if (upper.startsWith("INSERT") && !upper.contains("SELECT")) {
+            return false;
+        }
+        if (upper.contains(" LIKE ")) {
+            return false; // A leading wildcard cannot use a B-tree index
+        }
+        return upper.contains(" WHERE ") || upper.contains(" LIMIT ");
+    }
+
+    private static List<String> recordedStatements() throws SQLException {
+        List<String> statements = new ArrayList<>();
+        try (Connection conn = DatabaseUtil.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT sql_statement FROM information_schema.query_statistics")) {
+            while (rs.next()) {
+                statements.add(rs.getString(1));
+            }
+        }
+        return statements;
+    }
+
+    // Parameters are left NULL; H2 plans the access path from the predicates alone
+    private static String explain(String sql) throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + sql)) {
+            int parameters = stmt.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                stmt.setObject(i, null);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getString(1);
+            }
+        }
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+}
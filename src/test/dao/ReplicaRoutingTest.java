@@ -0,0 +1,156 @@
+package dao;
+
+import com.hospital.dao.AsyncPatientDAO;
+import com.hospital.dao.HospitalizationDAO;
+import com.hospital.dao.PatientDAO;
+import com.hospital.model.Hospitalization;
+import com.hospital.model.Patient;
+import com.hospital.search.EntityType;
+import com.hospital.search.SearchService;
+import com.hospital.util.DatabaseUtil;
+import com.hospital.util.MigrationRunner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingTest {
+    private static final String REPLICA_URL =
+            "jdbc:h2:mem:hospital_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private PatientDAO patientDAO;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestDatabase.reset();
+        DatabaseUtil.closeConnection(); // Restarted with the replica on the next connection
+
+        // The replica holds the same rows, except that patient 1 has a different last name
+        try (Connection conn = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+            MigrationRunner.fromClasspath("db/migration").migrate(conn);
+            TestDatabase.loadSampleData(conn);
+            stmt.execute("UPDATE patient SET last_name = 'FromReplica' WHERE patient_id = 1");
+        }
+        System.setProperty("hospital.db.replica.url", REPLICA_URL);
+        patientDAO = new PatientDAO();
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseUtil.closeConnection();
+        DatabaseUtil.endSession();
+        System.clearProperty("hospital.db.replica.url");
+    }
+
+    @Test
+    void testReadsGoToReplicaAndWritesToPrimary() {
+        assertEquals("FromReplica", patientDAO.readPatient(1).getLastName());
+        assertEquals(1, DatabaseUtil.getReplicaRouter().getReplicaCount());
+
+        Patient patient = patientDAO.readPatient(2);
+        patient.setLastName("Written");
+        assertTrue(patientDAO.updatePatient(patient));
+
+        // Read-your-writes: the writing thread reads from the primary for a while
+        assertEquals("Written", patientDAO.readPatient(2).getLastName());
+        assertEquals("Poku", patientDAO.readPatient(1).getLastName());
+
+        DatabaseUtil.endSession();
+        assertEquals("Mansa", patientDAO.readPatient(2).getLastName()); // The replica has not seen the write
+    }
+
+    @Test
+    void testWriteOnAnotherThreadMakesReadsSticky() throws Exception {
+        Patient patient = patientDAO.readPatient(2);
+        patient.setLastName("Written");
+        // The UI and async DAOs write on worker threads and read on others
+        assertTrue(new AsyncPatientDAO().updatePatient(patient).get());
+
+        assertEquals("Written", patientDAO.readPatient(2).getLastName());
+        assertEquals("Written", CompletableFuture.supplyAsync(() -> patientDAO.readPatient(2)).get().getLastName());
+    }
+
+    @Test
+    void testPrimaryLoadsDoNotMakeReadsSticky() {
+        PatientDAO.resetSearchIndex();
+        assertTrue(PatientDAO.buildSearchIndex()); // Loads from the primary
+
+        assertEquals("FromReplica", patientDAO.readPatient(1).getLastName());
+    }
+
+    @Test
+    void testSearchIndexIsBuiltFromThePrimary() {
+        assertTrue(SearchService.buildIndex());
+
+        assertTrue(SearchService.search("FromReplica").isEmpty());
+        assertTrue(SearchService.search("Poku").stream()
+                .anyMatch(result -> result.getType() == EntityType.PATIENT && result.getId() == 1));
+        assertEquals("FromReplica", patientDAO.readPatient(1).getLastName());
+    }
+
+    @Test
+    void testThreadSessionKeepsItsWritesToItself() throws Exception {
+        DatabaseUtil.startSession();
+        Patient patient = patientDAO.readPatient(2);
+        patient.setLastName("Written");
+        assertTrue(patientDAO.updatePatient(patient));
+
+        // Another user's thread still reads from the replica, work handed on in the session does not
+        assertEquals("Mansa", CompletableFuture.supplyAsync(() -> patientDAO.readPatient(2)).get().getLastName());
+        assertEquals("Written", new AsyncPatientDAO().readPatient(2).get().getLastName());
+
+        DatabaseUtil.endSession();
+        assertEquals("Mansa", patientDAO.readPatient(2).getLastName());
+    }
+
+    @Test
+    void testHospitalizationUpdateFreesTheBedThePrimaryHolds() throws Exception {
+        moveHospitalizationOnReplica();
+        HospitalizationDAO hospitalizationDAO = new HospitalizationDAO();
+        assertEquals(7, hospitalizationDAO.countFreeBeds(2));
+
+        assertTrue(hospitalizationDAO.updateHospitalization(new Hospitalization(2, 2, 2, 5, "Migraine", 2,
+                LocalDate.of(2024, 3, 10), LocalDate.of(2024, 3, 12))));
+        assertEquals(8, hospitalizationDAO.countFreeBeds(2)); // Bed 5 freed, not the replica's bed 6
+    }
+
+    @Test
+    void testHospitalizationDeleteFreesTheBedThePrimaryHolds() throws Exception {
+        moveHospitalizationOnReplica();
+        HospitalizationDAO hospitalizationDAO = new HospitalizationDAO();
+        assertEquals(7, hospitalizationDAO.countFreeBeds(2));
+
+        assertTrue(hospitalizationDAO.deleteHospitalization(2));
+        assertEquals(8, hospitalizationDAO.countFreeBeds(2));
+        assertTrue(hospitalizationDAO.admitPatient(new Hospitalization(2, 2, 5, "Migraine", 2,
+                LocalDate.of(2024, 3, 13))) > 0);
+    }
+
+    // The replica has not seen hospitalization 2 move from bed 6 to bed 5 of ward 2
+    private static void moveHospitalizationOnReplica() throws Exception {
+        try (Connection conn = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("UPDATE hospitalization SET bed_number = 6 WHERE hospitalization_id = 2");
+        }
+        assertEquals(6, new HospitalizationDAO().readHospitalization(2).getBedNumber());
+    }
+
+    @Test
+    void testReadsFallBackToPrimaryWhenReplicaIsDown() {
+        System.setProperty("hospital.db.replica.url", "jdbc:h2:tcp://localhost:1/unreachable");
+
+        assertEquals("Poku", patientDAO.readPatient(1).getLastName());
+        assertEquals(3, patientDAO.readAllPatients().size());
+        assertEquals(0, DatabaseUtil.getReplicaRouter().getReplicaCount());
+        assertEquals(2, DatabaseUtil.getReplicaRouter().getDownCount());
+    }
+}
@@ -0,0 +1,68 @@
+package dao;
+
+import com.hospital.dao.DepartmentDAO;
+import com.hospital.dao.DoctorDAO;
+import com.hospital.dao.HospitalizationDAO;
+import com.hospital.dao.NurseDAO;
+import com.hospital.dao.PatientDAO;
+import com.hospital.search.SearchService;
+import com.hospital.util.DatabaseUtil;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Points DatabaseUtil at an in-memory H2 database in MySQL mode, recreates
+ * the schema with the migrations and reloads sample-data.sql before each DAO
+ * or search test.
+ */
+public final class TestDatabase {
+    static final String JDBC_URL = "jdbc:h2:mem:hospital_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private TestDatabase() {
+    }
+
+    public static void reset() throws SQLException, IOException {
+        System.setProperty("hospital.db.url", JDBC_URL);
+        System.setProperty("hospital.db.user", "sa");
+        System.setProperty("hospital.db.password", "");
+        System.setProperty("hospital.db.slowQuery.file", "target/slow-query.log");
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        DatabaseUtil.migrate();
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            loadSampleData(conn);
+        }
+        DepartmentDAO.invalidateCache();
+        PatientDAO.invalidateCache();
+        DoctorDAO.invalidateCache();
+        NurseDAO.invalidateCache();
+        PatientDAO.resetSearchIndex();
+        SearchService.resetIndex();
+        HospitalizationDAO.resetBedOccupancy();
+    }
+
+    /**
+     * Run sample-data.sql against a database that has the schema but no rows
+     */
+    static void loadSampleData(Connection conn) throws SQLException, IOException {
+        try (Statement stmt = conn.createStatement()) {
+            String script = new String(Files.readAllBytes(Paths.get("sample-data.sql")));
+            for (String sql : script.split(";")) {
+                String trimmed = sql.trim();
+                // H2 has a single schema per database, so skip the MySQL database selection
+                if (trimmed.isEmpty() || trimmed.startsWith("USE ")) {
+                    continue;
+                }
+                stmt.execute(trimmed);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package model;
+
+import com.hospital.model.Hospitalization;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HospitalizationTest {
+
+    @Test
+    void testAdmissionConstructor() {
+        Hospitalization stay = new Hospitalization(4, 2, 5, "Migraine", 1, LocalDate.of(2024, 3, 10));
+
+        assertEquals(0, stay.getHospitalizationId());
+        assertEquals(4, stay.getPatientId());
+        assertEquals(2, stay.getWardId());
+        assertEquals(5, stay.getBedNumber());
+        assertEquals("Migraine", stay.getDiagnosis());
+        assertEquals(1, stay.getDoctorId());
+        assertEquals(LocalDate.of(2024, 3, 10), stay.getAdmissionDate());
+        assertNull(stay.getDischargeDate());
+        assertTrue(stay.isOpen());
+    }
+
+    @Test
+    void testDischargeClosesStay() {
+        Hospitalization stay = new Hospitalization(1, 1, 1, 3, "Hypertension", 1,
+                LocalDate.of(2024, 3, 1), null);
+        stay.setDischargeDate(LocalDate.of(2024, 3, 7));
+
+        assertFalse(stay.isOpen());
+        assertEquals("Hospitalization{hospitalizationId=1, patientId=1, wardId=1, bedNumber=3, " +
+                "diagnosis='Hypertension', doctorId=1, admissionDate=2024-03-01, dischargeDate=2024-03-07}", stay.toString());
+    }
+}
@@ -61,4 +61,18 @@ class PatientTest {
         String expected = "Patient{patientId=3, firstName='Bob', lastName='White', address='101 Elm St', telephone='555-0000'}";
         assertEquals(expected, patient.toString());
     }
+
+    @Test
+    void testModifiedFields() {
+        Patient patient = new Patient(1, "Jane", "Doe", "123 Maple St", "555-1234");
+        assertTrue(patient.isModified(Patient.FIRST_NAME | Patient.TELEPHONE)); // Not loaded, so all fields
+
+        patient.clearModified();
+        patient.setFirstName("Jane"); // Same value
+        assertFalse(patient.isModified());
+
+        patient.setTelephone("555-9876");
+        assertTrue(patient.isModified(Patient.TELEPHONE));
+        assertFalse(patient.isModified(Patient.FIRST_NAME | Patient.LAST_NAME | Patient.ADDRESS));
+    }
 }
@@ -0,0 +1,36 @@
+package model;
+
+import com.hospital.model.Ward;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class WardTest {
+
+    @Test
+    void testDefaultConstructor() {
+        Ward ward = new Ward();
+        assertEquals(0, ward.getWardId());
+        assertEquals(0, ward.getWardNumber());
+        assertEquals(0, ward.getBedCount());
+        assertNull(ward.getSupervisorId());
+        assertEquals(0, ward.getDepartmentId());
+    }
+
+    @Test
+    void testConstructorWithAllFields() {
+        Ward ward = new Ward(7, 2, 12, 3, 1);
+
+        assertEquals(7, ward.getWardId());
+        assertEquals(2, ward.getWardNumber());
+        assertEquals(12, ward.getBedCount());
+        assertEquals(3, ward.getSupervisorId());
+        assertEquals(1, ward.getDepartmentId());
+    }
+
+    @Test
+    void testToString() {
+        Ward ward = new Ward(1, 4, 10, null, 2);
+        String expected = "Ward{wardId=1, wardNumber=4, bedCount=10, supervisorId=null, departmentId=2}";
+        assertEquals(expected, ward.toString());
+    }
+}
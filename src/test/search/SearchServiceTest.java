@@ -0,0 +1,117 @@
+package search;
+
+import com.hospital.dao.DepartmentDAO;
+import com.hospital.dao.PatientDAO;
+import com.hospital.model.Department;
+import com.hospital.model.Patient;
+import com.hospital.search.EntityType;
+import com.hospital.search.SearchResult;
+import com.hospital.search.SearchService;
+import com.hospital.util.DatabaseUtil;
+import dao.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchServiceTest {
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestDatabase.reset();
+    }
+
+    @Test
+    void testMultiTermQueryRanksBestMatchFirst() {
+        List<SearchResult> results = SearchService.search("John Cardiology");
+
+        // Dr. John Mensa is a cardiologist; the Cardiology department and its nurse match one term
+        assertEquals(EntityType.DOCTOR, results.get(0).getType());
+        assertEquals(1, results.get(0).getId());
+        assertEquals(2, results.get(0).getMatchedTerms());
+        assertTrue(contains(results, EntityType.DEPARTMENT, 1));
+        assertTrue(contains(results, EntityType.NURSE, 3));
+        for (int i = 1; i < results.size(); i++) {
+            assertEquals(1, results.get(i).getMatchedTerms());
+        }
+    }
+
+    @Test
+    void testSearchMatchesPrefixesTelephonesAndLimit() {
+        assertTrue(contains(SearchService.search("neur"), EntityType.DOCTOR, 2));
+        assertTrue(contains(SearchService.search("evening"), EntityType.NURSE, 4));
+        assertTrue(contains(SearchService.search("0240222111"), EntityType.PATIENT, 1));
+        assertEquals(2, SearchService.search("0240", 2).size());
+        assertTrue(SearchService.search("   ").isEmpty());
+    }
+
+    @Test
+    void testDaoWritesUpdateTheIndex() {
+        SearchService.buildIndex();
+        PatientDAO patientDAO = new PatientDAO();
+        Patient patient = new Patient("Zed", "Quixote", "Somewhere", "0240-999-999");
+        int id = patientDAO.createPatient(patient);
+
+        assertTrue(contains(SearchService.search("quixote"), EntityType.PATIENT, id));
+
+        patient.setLastName("Other");
+        patientDAO.updatePatient(patient);
+        assertFalse(contains(SearchService.search("quixote"), EntityType.PATIENT, id));
+        assertTrue(contains(SearchService.search("zed other"), EntityType.PATIENT, id));
+
+        patientDAO.deletePatient(id);
+        assertTrue(SearchService.search("zed").isEmpty());
+    }
+
+    @Test
+    void testRenamingDepartmentReindexesItsNurses() {
+        SearchService.buildIndex();
+        DepartmentDAO departmentDAO = new DepartmentDAO();
+        Department cardiology = departmentDAO.readDepartment(1);
+        cardiology.setName("Heart Centre");
+        departmentDAO.updateDepartment(cardiology);
+
+        List<SearchResult> results = SearchService.search("heart");
+
+        assertTrue(contains(results, EntityType.DEPARTMENT, 1));
+        assertTrue(contains(results, EntityType.NURSE, 3)); // Works in Cardiology
+        assertFalse(contains(SearchService.search("cardiology"), EntityType.NURSE, 3));
+    }
+
+    @Test
+    void testFailedLoadLeavesIndexUnbuilt() throws SQLException {
+        renameTable("doctor", "doctor_moved");
+        try {
+            assertFalse(SearchService.buildIndex());
+            assertTrue(SearchService.search("John").isEmpty());
+            assertEquals(0, SearchService.getIndexedCount());
+        } finally {
+            renameTable("doctor_moved", "doctor");
+        }
+
+        // The next call loads the index once the table is back
+        assertTrue(SearchService.buildIndex());
+        assertTrue(contains(SearchService.search("neur"), EntityType.DOCTOR, 2));
+    }
+
+    private static void renameTable(String from, String to) throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE " + from + " RENAME TO " + to);
+        }
+    }
+
+    private static boolean contains(List<SearchResult> results, EntityType type, int id) {
+        for (SearchResult result : results) {
+            if (result.getType() == type && result.getId() == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,100 @@
+package ui;
+
+import com.hospital.ui.IncrementalSearch;
+import com.hospital.ui.UiTaskRunner;
+import com.hospital.util.TextFold;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalSearchTest {
+
+    private static final List<String> NAMES = List.of("Ama Mansa", "Kofi Manu", "Abena Memuna", "Yaw Adoma");
+
+    @Test
+    void testLongerTermIsFilteredFromCachedResult() throws Exception {
+        List<String> queries = Collections.synchronizedList(new ArrayList<>());
+        BlockingQueue<List<String>> shown = new LinkedBlockingQueue<>();
+        JTextField[] field = new JTextField[1];
+        @SuppressWarnings("unchecked")
+        IncrementalSearch<String>[] search = new IncrementalSearch[1];
+
+        SwingUtilities.invokeAndWait(() -> {
+            field[0] = new JTextField();
+            search[0] = new IncrementalSearch<>(field[0], new UiTaskRunner(1, 10), "search", "Searching",
+                    term -> {
+                        queries.add(term);
+                        List<String> matches = new ArrayList<>();
+                        for (String name : NAMES) {
+                            if (name.toLowerCase().contains(term.toLowerCase())) {
+                                matches.add(name);
+                            }
+                        }
+                        return matches;
+                    },
+                    (name, term) -> name.toLowerCase().contains(term),
+                    shown::add, () -> shown.add(NAMES));
+            field[0].setText("Ma");
+        });
+
+        // Typing pauses, so the search runs once the debounce delay has passed
+        assertEquals(List.of("Ama Mansa", "Kofi Manu", "Yaw Adoma"), shown.poll(5, TimeUnit.SECONDS));
+
+        SwingUtilities.invokeAndWait(() -> field[0].setText("Man"));
+        assertEquals(List.of("Ama Mansa", "Kofi Manu"), shown.poll(5, TimeUnit.SECONDS));
+        assertEquals(List.of("Ma"), queries); // "Man" came from the cached "Ma" result
+
+        SwingUtilities.invokeAndWait(() -> {
+            search[0].invalidate();
+            field[0].setText("Mans");
+        });
+        assertEquals(List.of("Ama Mansa"), shown.poll(5, TimeUnit.SECONDS));
+        assertEquals(List.of("Ma", "Mans"), queries);
+
+        SwingUtilities.invokeAndWait(() -> field[0].setText(""));
+        assertEquals(NAMES, shown.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testLongerTermIgnoresAccentsLikeTheDatabase() throws Exception {
+        List<String> names = List.of("José Owusu", "Joseph Mensah", "Jon Appiah");
+        List<String> queries = Collections.synchronizedList(new ArrayList<>());
+        BlockingQueue<List<String>> shown = new LinkedBlockingQueue<>();
+        JTextField[] field = new JTextField[1];
+
+        SwingUtilities.invokeAndWait(() -> {
+            field[0] = new JTextField();
+            new IncrementalSearch<>(field[0], new UiTaskRunner(1, 10), "search", "Searching",
+                    term -> {
+                        queries.add(term);
+                        // Like the DAO searches, which ignore accents
+                        List<String> matches = new ArrayList<>();
+                        for (String name : names) {
+                            if (TextFold.fold(name).contains(TextFold.fold(term))) {
+                                matches.add(name);
+                            }
+                        }
+                        return matches;
+                    },
+                    IncrementalSearch::contains,
+                    shown::add, () -> shown.add(names));
+            field[0].setText("jos");
+        });
+        assertEquals(List.of("José Owusu", "Joseph Mensah"), shown.poll(5, TimeUnit.SECONDS));
+
+        SwingUtilities.invokeAndWait(() -> field[0].setText("jose"));
+        assertEquals(List.of("José Owusu", "Joseph Mensah"), shown.poll(5, TimeUnit.SECONDS));
+
+        SwingUtilities.invokeAndWait(() -> field[0].setText("josé o"));
+        assertEquals(List.of("José Owusu"), shown.poll(5, TimeUnit.SECONDS));
+        assertEquals(List.of("jos"), queries); // Both came from the cached "jos" result
+    }
+}
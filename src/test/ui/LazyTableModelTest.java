@@ -0,0 +1,153 @@
+package ui;
+
+import com.hospital.dao.Page;
+import com.hospital.event.EntityEvent;
+import com.hospital.ui.LazyTableModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyTableModelTest {
+
+    private static final int ROWS = 1000;
+
+    // Calls made to the page reader, as "token/skip/limit"
+    private final List<String> reads = Collections.synchronizedList(new ArrayList<>());
+    private LazyTableModel<Integer> model;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Rows are the numbers 0..999; a token is the last number of the previous page.
+        // A row's ID is its number below 10000, so an update can show a different value
+        model = new LazyTableModel<>(new String[]{"Value"}, () -> ROWS, (token, skip, limit) -> {
+            reads.add(token + "/" + skip + "/" + limit);
+            int start = (token != null ? Integer.parseInt(token) + 1 : 0) + skip;
+            List<Integer> items = new ArrayList<>();
+            for (int i = start; i < Math.min(ROWS, start + limit); i++) {
+                items.add(i);
+            }
+            String next = start + limit < ROWS ? String.valueOf(start + limit - 1) : null;
+            return new Page<>(items, next);
+        }, value -> new Object[]{value}, value -> value % 10_000, 100, 2);
+
+        onEdt(() -> {
+            model.reload();
+            return null;
+        });
+        await(() -> model.getRowCount() == ROWS);
+    }
+
+    @Test
+    void testRowsLoadOnDemand() throws Exception {
+        assertEquals("Loading...", onEdt(() -> model.getValueAt(5, 0)));
+        await(() -> model.getRow(5) != null);
+        assertEquals(5, onEdt(() -> model.getValueAt(5, 0)));
+        assertEquals(99, onEdt(() -> model.getValueAt(99, 0))); // Same page, no new read
+        assertEquals(List.of("null/0/100"), reads);
+
+        // Jumps ahead from the nearest page token instead of reading the pages in between
+        await(() -> model.getRow(550) != null);
+        assertEquals(550, onEdt(() -> model.getRow(550)));
+        assertEquals("99/400/100", reads.get(1));
+    }
+
+    @Test
+    void testLoadedPagesAreBounded() throws Exception {
+        await(() -> model.getRow(0) != null);
+        await(() -> model.getRow(100) != null);
+        await(() -> model.getRow(200) != null);
+
+        assertEquals(3, reads.size());
+        assertNull(onEdt(() -> model.getRow(0))); // Least recently used page was dropped
+    }
+
+    @Test
+    void testShowRows() throws Exception {
+        onEdt(() -> {
+            model.showRows(List.of(7, 8));
+            return null;
+        });
+
+        assertEquals(2, onEdt(model::getRowCount));
+        assertEquals(8, onEdt(() -> model.getValueAt(1, 0)));
+        assertTrue(reads.isEmpty());
+    }
+
+    @Test
+    void testApplyPatchesLoadedRows() throws Exception {
+        await(() -> model.getRow(5) != null);
+        onEdt(() -> {
+            model.apply(EntityEvent.updated(Integer.class, 5, 10_005));
+            model.apply(EntityEvent.created(Integer.class, 1000, 1000));
+            return null;
+        });
+
+        await(() -> model.getRowCount() == ROWS + 1);
+        assertEquals(10_005, onEdt(() -> model.getValueAt(5, 0)));
+        assertEquals(1, reads.size()); // Patched in place, not read again
+
+        onEdt(() -> {
+            model.apply(EntityEvent.deleted(Integer.class, 3));
+            return null;
+        });
+        await(() -> model.getRowCount() == ROWS);
+        assertEquals(4, onEdt(() -> model.getValueAt(3, 0))); // Later rows moved up
+    }
+
+    @Test
+    void testFailedPageReadIsRetried() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        LazyTableModel<Integer> flaky = new LazyTableModel<>(new String[]{"Value"}, () -> ROWS, (token, skip, limit) -> {
+            if (calls.incrementAndGet() == 1) {
+                return new Page<>(Collections.emptyList(), null); // What the DAOs return when a read fails
+            }
+            List<Integer> items = new ArrayList<>();
+            for (int i = skip; i < skip + limit; i++) {
+                items.add(i);
+            }
+            return new Page<>(items, String.valueOf(skip + limit - 1));
+        }, value -> new Object[]{value}, 100, 2);
+        onEdt(() -> {
+            flaky.reload();
+            return null;
+        });
+        await(() -> flaky.getRowCount() == ROWS);
+
+        // Each paint asks for the row again, and the failed page is read again
+        await(() -> Integer.valueOf(5).equals(flaky.getValueAt(5, 0)));
+        assertTrue(calls.get() >= 2);
+    }
+
+    private static <V> V onEdt(Callable<V> call) throws Exception {
+        AtomicReference<V> result = new AtomicReference<>();
+        AtomicReference<Exception> error = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> {
+            try {
+                result.set(call.call());
+            } catch (Exception e) {
+                error.set(e);
+            }
+        });
+        if (error.get() != null) {
+            throw error.get();
+        }
+        return result.get();
+    }
+
+    private static void await(Callable<Boolean> condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!onEdt(condition)) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for the model");
+            Thread.sleep(5);
+        }
+    }
+}
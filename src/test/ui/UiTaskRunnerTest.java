@@ -0,0 +1,46 @@
+package ui;
+
+import com.hospital.ui.UiTaskRunner;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UiTaskRunnerTest {
+
+    @Test
+    void testNewerRequestReplacesOlder() throws Exception {
+        UiTaskRunner runner = new UiTaskRunner(1, 10);
+        List<String> results = Collections.synchronizedList(new ArrayList<>());
+        List<String> statuses = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+
+        SwingUtilities.invokeAndWait(() -> {
+            runner.addStatusListener((message, busy) -> statuses.add(message + (busy ? " (busy)" : "")));
+            // The single worker is held by the first search, so the second one queues
+            runner.submitLatest("search", "Searching", () -> {
+                release.await();
+                return "first";
+            }, results::add);
+            runner.submitLatest("search", "Searching", () -> "queued", results::add);
+            runner.submitLatest("search", "Searching", () -> "latest", result -> {
+                results.add(result);
+                done.countDown();
+            });
+        });
+        release.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        SwingUtilities.invokeAndWait(() -> { }); // Let the last status update run
+        assertEquals(List.of("latest"), results);
+        assertEquals("Searching... (busy)", statuses.get(0));
+        assertEquals("Ready", statuses.get(statuses.size() - 1));
+    }
+}
@@ -0,0 +1,80 @@
+package util;
+
+import com.hospital.util.AsyncLogWriter;
+import com.hospital.util.LogEvent;
+import com.hospital.util.LogLevel;
+import com.hospital.util.LogStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncLogWriterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testFormatsMessageAndFields() {
+        LogEvent event = new LogEvent(LogLevel.ERROR, "PatientDAO", "Error reading patient",
+                new Object[]{"patientId", 42, "error", "Connection refused", "sql", null}, null);
+
+        String line = event.format();
+        assertTrue(line.endsWith(" ERROR [" + Thread.currentThread().getName() + "] PatientDAO: " +
+                "Error reading patient patientId=42 error=\"Connection refused\" sql=null"), line);
+        assertEquals(42, event.getField("patientId"));
+        assertNull(event.getField("wardId"));
+    }
+
+    @Test
+    void testWritesStackTraceOfError() throws Exception {
+        Path file = dir.resolve("hospital.log");
+        AsyncLogWriter writer = new AsyncLogWriter(file, 1024 * 1024, 1, 16, AsyncLogWriter.WhenFull.BLOCK, false);
+        writer.append(new LogEvent(LogLevel.WARN, "ConnectionPool", "Possible connection leak",
+                new Object[]{"borrowedMs", 1500}, new SQLException("leased here")));
+        assertTrue(writer.flush(5_000));
+        writer.close();
+
+        List<String> lines = Files.readAllLines(file);
+        assertTrue(lines.get(0).endsWith("ConnectionPool: Possible connection leak borrowedMs=1500"), lines.get(0));
+        assertEquals("java.sql.SQLException: leased here", lines.get(1));
+        assertTrue(lines.get(2).trim().startsWith("at util.AsyncLogWriterTest."), lines.get(2));
+    }
+
+    @Test
+    void testRollsOverFullFile() throws Exception {
+        Path file = dir.resolve("hospital.log");
+        AsyncLogWriter writer = new AsyncLogWriter(file, 500, 2, 1024, AsyncLogWriter.WhenFull.BLOCK, false);
+        for (int i = 0; i < 50; i++) {
+            writer.append(new LogEvent(LogLevel.INFO, "WardDAO", "Ward read", new Object[]{"wardId", i}, null));
+        }
+        writer.close();
+
+        assertTrue(Files.size(file) <= 500);
+        assertTrue(Files.exists(dir.resolve("hospital.log.1")));
+        assertTrue(Files.exists(dir.resolve("hospital.log.2")));
+        assertFalse(Files.exists(dir.resolve("hospital.log.3")), "Only two rolled-over files are kept");
+        assertTrue(Files.readAllLines(file).get(Files.readAllLines(file).size() - 1).endsWith("wardId=49"));
+        assertEquals(50, writer.getStats().getWrittenCount());
+    }
+
+    @Test
+    void testFullQueueDropsEvents() {
+        AsyncLogWriter writer = new AsyncLogWriter(dir.resolve("full.log"), 1024 * 1024, 1, 1,
+                AsyncLogWriter.WhenFull.DROP, false);
+        for (int i = 0; i < 1000; i++) {
+            writer.append(new LogEvent(LogLevel.INFO, "Test", "Event", new Object[]{"i", i}, null));
+        }
+        writer.close();
+
+        LogStats stats = writer.getStats();
+        assertEquals(1000, stats.getQueuedCount() + stats.getDroppedCount());
+        assertEquals(stats.getQueuedCount(), stats.getWrittenCount());
+        assertFalse(writer.append(new LogEvent(LogLevel.INFO, "Test", "After close", new Object[0], null)));
+    }
+}
@@ -0,0 +1,158 @@
+package util;
+
+import com.hospital.util.ConnectionPool;
+import com.hospital.util.PoolConfig;
+import com.hospital.util.PoolStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolTest {
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() {
+        PoolConfig config = new PoolConfig("jdbc:h2:mem:pooltest;DB_CLOSE_DELAY=-1", "sa", "");
+        config.setMaximumPoolSize(2);
+        config.setConnectionTimeoutMs(100);
+        config.setStatementCacheSize(2);
+        pool = new ConnectionPool(config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void testCloseReturnsConnectionToPool() throws SQLException {
+        try (Connection conn = pool.getConnection()) {
+            assertFalse(conn.isClosed());
+        }
+        try (Connection conn = pool.getConnection()) {
+            assertFalse(conn.isClosed());
+        }
+
+        PoolStats stats = pool.getStats();
+        assertEquals(1, stats.getCreatedCount());
+        assertEquals(2, stats.getBorrowCount());
+        assertEquals(0, stats.getActiveConnections());
+        assertEquals(1, stats.getIdleConnections());
+    }
+
+    @Test
+    void testPoolIsBounded() throws SQLException {
+        Connection first = pool.getConnection();
+        Connection second = pool.getConnection();
+
+        assertEquals(2, pool.getStats().getActiveConnections());
+        assertThrows(SQLTimeoutException.class, () -> pool.getConnection());
+        assertEquals(1, pool.getStats().getTimeoutCount());
+
+        first.close();
+        try (Connection third = pool.getConnection()) {
+            assertFalse(third.isClosed());
+        }
+        second.close();
+    }
+
+    @Test
+    void testReturnedHandleCannotBeReused() throws SQLException {
+        Connection conn = pool.getConnection();
+        conn.close();
+
+        assertTrue(conn.isClosed());
+        assertThrows(SQLException.class, () -> conn.createStatement());
+        conn.close(); // Closing twice must not return the connection twice
+        assertEquals(1, pool.getStats().getIdleConnections());
+    }
+
+    @Test
+    void testAutoCommitIsResetOnReturn() throws SQLException {
+        try (Connection conn = pool.getConnection()) {
+            conn.setAutoCommit(false);
+        }
+        try (Connection conn = pool.getConnection()) {
+            assertTrue(conn.getAutoCommit());
+        }
+    }
+
+    @Test
+    void testStatementCacheReusesStatements() throws SQLException {
+        try (Connection conn = pool.getConnection()) {
+            for (int i = 0; i < 3; i++) {
+                try (PreparedStatement stmt = conn.prepareStatement("SELECT ?")) {
+                    stmt.setInt(1, i);
+                    ResultSet rs = stmt.executeQuery();
+                    assertTrue(rs.next());
+                    assertEquals(i, rs.getInt(1));
+                }
+            }
+            // Generated-keys mode is part of the cache key
+            conn.prepareStatement("SELECT ?", Statement.RETURN_GENERATED_KEYS).close();
+        }
+
+        PoolStats stats = pool.getStats();
+        assertEquals(2, stats.getStatementCacheHits());
+        assertEquals(2, stats.getStatementCacheMisses());
+    }
+
+    @Test
+    void testStatementCacheEvictsLeastRecentlyUsed() throws SQLException {
+        try (Connection conn = pool.getConnection()) {
+            conn.prepareStatement("SELECT 1").close();
+            conn.prepareStatement("SELECT 2").close();
+            conn.prepareStatement("SELECT 1").close();
+            conn.prepareStatement("SELECT 3").close(); // Evicts SELECT 2
+            conn.prepareStatement("SELECT 1").close();
+            conn.prepareStatement("SELECT 2").close();
+        }
+
+        PoolStats stats = pool.getStats();
+        assertEquals(2, stats.getStatementCacheHits());
+        assertEquals(4, stats.getStatementCacheMisses());
+        assertEquals(2, stats.getStatementCacheEvictions());
+    }
+
+    @Test
+    void testCachedStatementSettingsAreRestored() throws SQLException {
+        try (Connection conn = pool.getConnection()) {
+            int defaultFetchSize;
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT 1")) {
+                defaultFetchSize = stmt.getFetchSize();
+                stmt.setFetchSize(500);
+                stmt.setMaxRows(1);
+                stmt.setQueryTimeout(7);
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT 1")) {
+                assertEquals(defaultFetchSize, stmt.getFetchSize());
+                assertEquals(0, stmt.getMaxRows());
+                assertEquals(0, stmt.getQueryTimeout());
+            }
+        }
+        assertEquals(1, pool.getStats().getStatementCacheHits());
+    }
+
+    @Test
+    void testClosingCachedStatementClosesResultSet() throws SQLException {
+        try (Connection conn = pool.getConnection()) {
+            PreparedStatement stmt = conn.prepareStatement("SELECT 1");
+            ResultSet rs = stmt.executeQuery();
+            stmt.close();
+
+            assertTrue(stmt.isClosed());
+            assertTrue(rs.isClosed());
+            assertSame(conn, stmt.getConnection());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package util;
+
+import com.hospital.util.DaoMetrics;
+import com.hospital.util.LatencyHistogram;
+import com.hospital.util.MethodMetrics;
+import com.hospital.util.MethodStats;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testPercentilesAreWithinOneBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1_000);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMaxNanos());
+        assertEquals(500_500.0, histogram.getMeanNanos(), 0.001);
+        assertWithinBucket(500_000, histogram.getPercentileNanos(50));
+        assertWithinBucket(900_000, histogram.getPercentileNanos(90));
+        assertWithinBucket(990_000, histogram.getPercentileNanos(99));
+        assertEquals(1_000_000, histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    void testSmallAndHugeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(3);
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(0, histogram.getPercentileNanos(0));
+        assertEquals(3, histogram.getPercentileNanos(50));
+        assertEquals(Long.MAX_VALUE, histogram.getPercentileNanos(100));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentileNanos(99));
+    }
+
+    @Test
+    void testDaoMethodsArePublishedOverJmx() throws Exception {
+        MethodMetrics metrics = DaoMetrics.forMethod(LatencyHistogramTest.class, "timedCall");
+        assertSame(metrics, DaoMetrics.forMethod(LatencyHistogramTest.class, "timedCall"));
+        metrics.reset();
+        metrics.record(System.nanoTime() - 2_000_000);
+        metrics.recordError();
+        metrics.record(System.nanoTime());
+
+        MethodStats stats = DaoMetrics.getMethodStats().stream()
+                .filter(s -> s.getMethodName().equals("timedCall"))
+                .findFirst().orElseThrow();
+        assertEquals(2, stats.getCallCount());
+        assertEquals(1, stats.getErrorCount());
+        assertTrue(stats.getMaxNanos() >= 2_000_000);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("com.hospital:type=DaoMetrics,dao=LatencyHistogramTest,method=timedCall");
+        assertEquals(2L, server.getAttribute(name, "CallCount"));
+        assertEquals(1L, server.getAttribute(name, "ErrorCount"));
+    }
+
+    private static void assertWithinBucket(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected * 1.125,
+                "Expected about " + expected + " but was " + actual);
+    }
+}
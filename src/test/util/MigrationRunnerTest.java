@@ -0,0 +1,123 @@
+package util;
+
+import com.hospital.util.Migration;
+import com.hospital.util.MigrationRunner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MigrationRunnerTest {
+
+    private static final Migration CREATE_TABLES = new Migration(1, "create tables",
+            "-- Tables; with a semicolon in the comment\n" +
+            "CREATE TABLE employee (id INT PRIMARY KEY, name VARCHAR(50) NOT NULL, ward INT);\n" +
+            "INSERT INTO employee (id, name) VALUES (1, 'Kwame; Jr.'), (2, 'O''Neil');");
+    private static final Migration ADD_INDEXES = new Migration(2, "add indexes",
+            "CREATE INDEX idx_employee_name ON employee (name, id);\n" +
+            "CREATE INDEX idx_employee_ward ON employee (ward);\n");
+
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:migrationtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE", "sa", "");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    void testAppliesPendingMigrationsOnce() throws SQLException {
+        MigrationRunner runner = new MigrationRunner(List.of(ADD_INDEXES, CREATE_TABLES));
+
+        assertEquals(2, runner.migrate(conn));
+        assertEquals(0, runner.migrate(conn));
+
+        assertEquals(List.of("Kwame; Jr.", "O'Neil"), query("SELECT name FROM employee ORDER BY id"));
+        assertEquals(List.of("1 create tables", "2 add indexes"),
+                query("SELECT version || ' ' || description FROM schema_version ORDER BY version"));
+        assertTrue(indexes().containsAll(List.of("idx_employee_name", "idx_employee_ward")));
+    }
+
+    @Test
+    void testAppliesOnlyNewMigrations() throws SQLException {
+        assertEquals(1, new MigrationRunner(List.of(CREATE_TABLES)).migrate(conn));
+        assertEquals(1, new MigrationRunner(List.of(CREATE_TABLES, ADD_INDEXES)).migrate(conn));
+        assertEquals(2, query("SELECT version FROM schema_version").size());
+    }
+
+    @Test
+    void testChangedMigrationStopsStartup() throws SQLException {
+        new MigrationRunner(List.of(CREATE_TABLES)).migrate(conn);
+
+        Migration edited = new Migration(1, "create tables", CREATE_TABLES.getScript() + "\n-- Edited");
+        SQLException e = assertThrows(SQLException.class,
+                () -> new MigrationRunner(List.of(edited, ADD_INDEXES)).migrate(conn));
+        assertTrue(e.getMessage().contains("V1 (create tables)"));
+        assertFalse(indexes().contains("idx_employee_name"));
+    }
+
+    @Test
+    void testIndexesThatAlreadyExistAreSkipped() throws SQLException {
+        new MigrationRunner(List.of(CREATE_TABLES)).migrate(conn);
+        // Left behind by an index build that was interrupted
+        execute("CREATE INDEX idx_employee_name ON employee (name, id)");
+
+        assertEquals(1, new MigrationRunner(List.of(CREATE_TABLES, ADD_INDEXES)).migrate(conn));
+        assertTrue(indexes().contains("idx_employee_ward"));
+    }
+
+    @Test
+    void testExistingSchemaIsRecordedAsBaseline() throws SQLException {
+        // Created by hand from the old one-shot script, before the version table existed
+        execute("CREATE TABLE employee (id INT PRIMARY KEY, name VARCHAR(50) NOT NULL, ward INT)");
+
+        assertEquals(1, new MigrationRunner(List.of(CREATE_TABLES, ADD_INDEXES)).migrate(conn));
+        assertEquals(List.of("1", "2"), query("SELECT version FROM schema_version ORDER BY version"));
+        assertTrue(query("SELECT name FROM employee").isEmpty());
+    }
+
+    @Test
+    void testClasspathMigrationsAreNumberedInOrder() throws SQLException {
+        List<Migration> migrations = MigrationRunner.fromClasspath("db/migration").getMigrations();
+
+        assertFalse(migrations.isEmpty());
+        for (int i = 0; i < migrations.size(); i++) {
+            assertEquals(i + 1, migrations.get(i).getVersion());
+        }
+        assertEquals("secondary indexes", migrations.get(1).getDescription());
+    }
+
+    private List<String> indexes() throws SQLException {
+        return query("SELECT index_name FROM information_schema.indexes WHERE table_name = 'employee'");
+    }
+
+    private List<String> query(String sql) throws SQLException {
+        List<String> values = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                values.add(rs.getString(1));
+            }
+        }
+        return values;
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+}
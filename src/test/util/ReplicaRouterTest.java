@@ -0,0 +1,56 @@
+package util;
+
+import com.hospital.util.ConnectionPool;
+import com.hospital.util.PoolConfig;
+import com.hospital.util.ReplicaRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRouterTest {
+
+    private ReplicaRouter router;
+
+    @AfterEach
+    void tearDown() {
+        router.close();
+    }
+
+    @Test
+    void testLaggingReplicaIsSkippedUntilItCatchesUp() throws SQLException {
+        AtomicLong lag = new AtomicLong(5_000);
+        router = new ReplicaRouter(pool("jdbc:h2:mem:replicarouter;DB_CLOSE_DELAY=-1"), 1_000, 0, 1_000,
+                replica -> lag.get());
+
+        assertNull(router.tryGetConnection());
+        assertEquals(1, router.getLaggingCount());
+        assertEquals(5_000, router.getLagMs());
+
+        lag.set(200);
+        try (Connection conn = router.tryGetConnection()) {
+            assertNotNull(conn);
+        }
+        assertEquals(1, router.getReplicaCount());
+    }
+
+    @Test
+    void testUnreachableReplicaIsNotRetriedUntilRetryInterval() {
+        router = new ReplicaRouter(pool("jdbc:h2:tcp://localhost:1/unreachable"), 1_000, 1_000, 60_000,
+                ReplicaRouter.NO_LAG);
+
+        assertNull(router.tryGetConnection());
+        assertNull(router.tryGetConnection()); // Answered without trying to connect
+        assertEquals(2, router.getDownCount());
+    }
+
+    private static ConnectionPool pool(String url) {
+        PoolConfig config = new PoolConfig(url, "sa", "");
+        config.setSlowQueryThresholdMs(-1);
+        return new ConnectionPool(config);
+    }
+}
@@ -0,0 +1,115 @@
+package util;
+
+import com.hospital.util.ConnectionPool;
+import com.hospital.util.PoolConfig;
+import com.hospital.util.SlowQueryLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQueryLogTest {
+
+    @TempDir
+    Path dir;
+
+    private Path logFile;
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        logFile = dir.resolve("slow-query.log");
+        PoolConfig config = new PoolConfig("jdbc:h2:mem:slowquerytest;DB_CLOSE_DELAY=-1", "sa", "");
+        config.setSlowQueryThresholdMs(0); // Log everything
+        config.setSlowQueryLogFile(logFile.toString());
+        pool = new ConnectionPool(config);
+
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE ward (ward_id INT PRIMARY KEY, bed_count INT)");
+            stmt.execute("CREATE TABLE patient (patient_id INT PRIMARY KEY, last_name VARCHAR(50))");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        pool.close();
+    }
+
+    @Test
+    void testLogsRowsAndBindValues() throws Exception {
+        try (Connection conn = pool.getConnection();
+             PreparedStatement insert = conn.prepareStatement("INSERT INTO ward VALUES (?, ?)")) {
+            for (int i = 1; i <= 3; i++) {
+                insert.setInt(1, i);
+                insert.setInt(2, 10 * i);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+
+            try (PreparedStatement select = conn.prepareStatement("SELECT * FROM ward WHERE bed_count >= ?")) {
+                select.setInt(1, 20);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        rs.getInt(1);
+                    }
+                }
+            }
+        }
+
+        List<String> lines = closeAndRead();
+        assertTrue(lines.stream().anyMatch(line -> line.contains(" rows=3 batches=3 ")
+                && line.endsWith("params=[3, 30] sql=INSERT INTO ward VALUES (?, ?)")), lines.toString());
+        assertTrue(lines.stream().anyMatch(line -> line.contains(" rows=2 ")
+                && line.contains("connectionWaitMs=")
+                && line.endsWith("params=[20] sql=SELECT * FROM ward WHERE bed_count >= ?")), lines.toString());
+    }
+
+    @Test
+    void testPatientValuesAreMasked() throws Exception {
+        try (Connection conn = pool.getConnection();
+             PreparedStatement insert = conn.prepareStatement("INSERT INTO patient VALUES (?, ?)")) {
+            insert.setInt(1, 7);
+            insert.setString(2, "Mensah");
+            insert.executeUpdate();
+        }
+
+        List<String> lines = closeAndRead();
+        assertTrue(lines.stream().anyMatch(line -> line.endsWith("rows=1 caller=unknown params=[***, ***] " +
+                "sql=INSERT INTO patient VALUES (?, ?)")), lines.toString());
+        assertTrue(lines.stream().noneMatch(line -> line.contains("Mensah")));
+    }
+
+    @Test
+    void testFullQueueDropsEntries() {
+        SlowQueryLog log = new SlowQueryLog(0, dir.resolve("full.log"), 1);
+        for (int i = 0; i < 1000; i++) {
+            log.log("SELECT 1", null, 0, 1, 1_000, 0);
+        }
+        log.close();
+
+        assertEquals(1000, log.getLoggedCount() + log.getDroppedCount());
+        assertFalse(log.isSlow(-1));
+    }
+
+    private List<String> closeAndRead() throws IOException {
+        pool.getSlowQueryLog().close(); // Waits for the writer
+        return Files.readAllLines(logFile);
+    }
+}